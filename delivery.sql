@@ -77,6 +77,7 @@ CREATE TABLE user_stars
     user_id    BIGINT NOT NULL,
     store_id   BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_user_store (user_id, store_id),
     FOREIGN KEY (user_id) REFERENCES users (id),
     FOREIGN KEY (store_id) REFERENCES stores (id)
 );
@@ -96,6 +97,7 @@ CREATE TABLE stores
     delivery_fee    INT            NOT NULL DEFAULT 0,
     active          BOOLEAN        NOT NULL DEFAULT TRUE,
     retired_at      TIMESTAMP      NULL,
+    category_mask   BIGINT         NOT NULL DEFAULT 0, -- StoreCategory.bit() OR (store_categories 비정규화)
     created_at      TIMESTAMP               DEFAULT CURRENT_TIMESTAMP,
     updated_at      TIMESTAMP               DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (owner_id) REFERENCES users (id),
@@ -114,7 +116,8 @@ CREATE TABLE store_notices
     max_duration_days  INT       NOT NULL,
     created_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at         TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (store_id) REFERENCES stores (id)
+    FOREIGN KEY (store_id) REFERENCES stores (id),
+    INDEX idx_store_notices_ends_at (ends_at)
 );
 
 CREATE TABLE store_categories
@@ -127,6 +130,44 @@ CREATE TABLE store_categories
     INDEX idx_store_categories_category (category)
 );
 
+-- 가게 점수 집계 버킷 (주문/리뷰 쓰기 시 증분 반영, 시간 버킷은 주기적으로 일 버킷으로 압축)
+CREATE TABLE store_score_buckets
+(
+    store_id     BIGINT   NOT NULL,
+    grain        CHAR(1)  NOT NULL,           -- H: 시간 버킷 / D: 일 버킷
+    bucket_start DATETIME NOT NULL,
+    orders       INT      NOT NULL DEFAULT 0,
+    reviews      INT      NOT NULL DEFAULT 0,
+    rating_sum   INT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (store_id, grain, bucket_start),
+    INDEX idx_store_score_buckets_start (bucket_start),
+    FOREIGN KEY (store_id) REFERENCES stores (id) ON DELETE CASCADE
+);
+
+-- 가게 추천 점수 (window_days = 0: 전체 기간, 7/30: 최근 N일)
+CREATE TABLE store_scores
+(
+    store_id    BIGINT NOT NULL,
+    window_days INT    NOT NULL,
+    orders      INT    NOT NULL DEFAULT 0,
+    reviews     INT    NOT NULL DEFAULT 0,
+    rating_sum  INT    NOT NULL DEFAULT 0,
+    bayes_score DOUBLE NOT NULL DEFAULT 0,
+    trend_score DOUBLE NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMP       DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (store_id, window_days),
+    INDEX idx_store_scores_bayes (window_days, bayes_score, store_id), -- ORDER BY bayes_score DESC, store_id DESC
+    INDEX idx_store_scores_trend (window_days, trend_score, store_id), -- ORDER BY trend_score DESC, store_id DESC
+    FOREIGN KEY (store_id) REFERENCES stores (id) ON DELETE CASCADE
+);
+
+-- 가게 점수 집계 작업 완료 표시 (최초 버킷 백필 등, 한 번만 수행해야 하는 작업)
+CREATE TABLE store_score_markers
+(
+    name         VARCHAR(50) PRIMARY KEY,
+    completed_at DATETIME    NOT NULL
+);
+
 -- 3. 메뉴
 CREATE TABLE menus
 (
@@ -180,7 +221,9 @@ CREATE TABLE orders
     updated_at        TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users (id),
     FOREIGN KEY (store_id) REFERENCES stores (id),
-    FOREIGN KEY (applied_coupon_id) REFERENCES coupons (id)
+    FOREIGN KEY (applied_coupon_id) REFERENCES coupons (id),
+    INDEX idx_orders_user_created (user_id, created_at, id),
+    INDEX idx_orders_store_created (store_id, created_at, id)
 );
 
 CREATE TABLE order_items
@@ -211,7 +254,8 @@ CREATE TABLE order_logs
     action     VARCHAR(50),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (order_id) REFERENCES orders (id),
-    FOREIGN KEY (store_id) REFERENCES stores (id)
+    FOREIGN KEY (store_id) REFERENCES stores (id),
+    INDEX idx_order_logs_store_created (store_id, created_at)
 );
 
 -- 5. 리뷰
@@ -231,7 +275,9 @@ CREATE TABLE reviews
     FOREIGN KEY (store_id) REFERENCES stores (id) ON DELETE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users (id),
     FOREIGN KEY (order_id) REFERENCES orders (id),
-    INDEX idx_reviews_is_deleted (is_deleted)
+    INDEX idx_reviews_is_deleted (is_deleted),
+    INDEX idx_reviews_store_created (store_id, is_deleted, created_at, id),
+    INDEX idx_reviews_user_store_created (user_id, store_id, is_deleted, created_at, id)
 );
 
 CREATE TABLE review_comments
@@ -267,6 +313,16 @@ CREATE TABLE points
     amount     INT    NOT NULL,
     reason     VARCHAR(100),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users (id),
+    INDEX idx_points_user_id_id (user_id, id)
+);
+
+-- 사용자별 포인트 잔액 (원장 기록과 같은 트랜잭션에서 증감)
+CREATE TABLE point_balances
+(
+    user_id    BIGINT PRIMARY KEY,
+    balance    INT      NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
     FOREIGN KEY (user_id) REFERENCES users (id)
 );
 
@@ -302,6 +358,7 @@ CREATE TABLE searches
     count      INT          NOT NULL DEFAULT 0,
     updated_at TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     user_id    BIGINT       NOT NULL,
+    UNIQUE KEY uk_searches_user_keyword_region (user_id, keyword, region),
     FOREIGN KEY (user_id) REFERENCES users (id)
 );
 
@@ -313,7 +370,8 @@ CREATE TABLE popular_searches
     search_count      INT          NOT NULL DEFAULT 0,
     ranking       INT          NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_popular_searches_region_keyword (region, keyword)
 );
 
 -- 8. 알림
@@ -327,7 +385,40 @@ CREATE TABLE notifications
     status        ENUM ('SUCCESS','FAILED') NOT NULL,
     error_message VARCHAR(500),
     created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users (id)
+    FOREIGN KEY (user_id) REFERENCES users (id),
+    INDEX idx_notifications_user_id_id (user_id, id),
+    INDEX idx_notifications_created_at (created_at)
+);
+
+-- 전체 알림 읽음 기준점 (사용자별)
+CREATE TABLE notification_read_states
+(
+    user_id             BIGINT PRIMARY KEY,
+    broadcast_read_upto BIGINT NOT NULL DEFAULT 0
+);
+
+-- 전체 알림 개별 읽음 기록 (기준점보다 큰 알림만)
+CREATE TABLE notification_broadcast_reads
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id         BIGINT NOT NULL,
+    notification_id BIGINT NOT NULL,
+    UNIQUE KEY uk_broadcast_read_user_notification (user_id, notification_id)
+);
+
+-- 9. 발송 포기 메일
+CREATE TABLE mail_dead_letters
+(
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    mail_from  VARCHAR(320),
+    mail_to    VARCHAR(320) NOT NULL,
+    subject    VARCHAR(255) NOT NULL,
+    body       TEXT,
+    html       BOOLEAN      NOT NULL,
+    attempts   INT          NOT NULL,
+    last_error VARCHAR(500),
+    created_at DATETIME     NOT NULL,
+    INDEX idx_mail_dead_letters_created_at (created_at)
 );
 
 SET FOREIGN_KEY_CHECKS = 1;
\ No newline at end of file
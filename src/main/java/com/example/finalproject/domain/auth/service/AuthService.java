@@ -8,7 +8,7 @@ import com.example.finalproject.domain.auth.entity.SocialAccount;
 import com.example.finalproject.domain.auth.exception.AuthApiException;
 import com.example.finalproject.domain.auth.exception.AuthErrorCode;
 import com.example.finalproject.domain.auth.repository.SocialAccountRepository;
-import com.example.finalproject.domain.common.mail.SmtpMailSender;
+import com.example.finalproject.domain.common.mail.MailSender;
 import com.example.finalproject.domain.common.redis.CodeStore;
 import com.example.finalproject.domain.common.redis.TokenStore;
 import com.example.finalproject.domain.users.UserRole;
@@ -46,7 +46,7 @@ public class AuthService {
     private final SocialAccountRepository socialAccountRepository;
 
     private final PasswordEncoder passwordEncoder;
-    private final SmtpMailSender mailSender;
+    private final MailSender mailSender;       // 발송 대기열에 넣고 바로 반환
 
     // ── Token / Redis Stores ─────────────────────────────────────────────
     private final TokenProvider tokenProvider;   // JWT 발급/검증 유틸
@@ -65,7 +65,7 @@ public class AuthService {
     public void sendSignupEmail(EmailRequest req) {
         String code = sixDigitCode();
         codeStore.saveSignupCode(req.getEmail(), code);
-        mailSender.send(req.getEmail(), "Your verification code", "CODE: " + code);
+        mailSender.sendWithCode(req.getEmail(), "Your verification code", "CODE: " + code);
     }
 
     public Map<String, Object> verifySignupEmail(EmailVerifyRequest req) {
@@ -0,0 +1,74 @@
+package com.example.finalproject.domain.common.mail;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발송 포기한 메일 (재시도 횟수 초과/영구 오류/종료 시 미발송)
+ * - 원문을 그대로 보관해 원인 확인 후 재발송 가능
+ * - 인증/재설정 코드가 든 메일은 본문을 보관하지 않음 (body = null, 코드는 10분 뒤 만료라 재발송 의미 없음)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(
+        name = "mail_dead_letters",
+        indexes = @Index(name = "idx_mail_dead_letters_created_at", columnList = "created_at")
+)
+public class MailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "mail_from", length = 320)
+    private String from;
+
+    @Column(name = "mail_to", nullable = false, length = 320)
+    private String to;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public MailDeadLetter(OutgoingMail mail, String lastError) {
+        this.from = mail.from();
+        this.to = mail.to();
+        this.subject = mail.subject();
+        this.body = mail.oneTimeCode() ? null : mail.body();
+        this.html = mail.html();
+        this.attempts = mail.attempts();
+        this.lastError = (lastError != null && lastError.length() > 500) ? lastError.substring(0, 500) : lastError;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * 재발송용 메일
+     *
+     * @throws IllegalStateException 본문을 보관하지 않은 코드 메일인 경우
+     */
+    public OutgoingMail toOutgoingMail() {
+        if (body == null) {
+            throw new IllegalStateException("일회용 코드 메일은 본문을 보관하지 않아 재발송할 수 없습니다. (id=" + id + ")");
+        }
+        return new OutgoingMail(from, to, subject, body, html, false, 0);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.finalproject.domain.common.mail;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetter, Long> {
+}
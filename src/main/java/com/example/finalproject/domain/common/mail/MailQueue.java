@@ -0,0 +1,260 @@
+package com.example.finalproject.domain.common.mail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메일 발송 대기열
+ * - enqueue 는 대기열에 넣고 바로 반환 (회원가입/비밀번호 재설정 응답이 SMTP 속도와 무관)
+ * - 발송 스레드(connections 개)마다 SMTP 연결 1개를 열어 두고 재사용 (메일마다 연결/인증 반복 없음)
+ *   대기열에서 최대 batch-size 건을 한 번에 꺼내 같은 연결로 연속 발송, idle-close-ms 동안 쓰지 않으면 닫음
+ * - 일시 오류(연결 끊김, 4xx 등)는 연결을 닫고 지수 백오프 후 다시 대기열로, max-attempts 초과 시 dead letter
+ * - 수신 주소 오류 같은 영구 오류는 바로 dead letter (mail_dead_letters)
+ * - 종료 시 대기열/재시도 대기 중인 메일도 dead letter 로 보관
+ * - 인증/재설정 코드가 든 메일(oneTimeCode)은 dead letter 에 본문 없이 보관
+ * - SMTP 서버는 spring.mail.* 설정을 그대로 사용 (테스트 시 프로세스 내 SMTP 서버로 host/port 만 변경)
+ * - 메트릭: mail.queue.size, mail.sent, mail.retries, mail.dead_letters
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailQueue {
+
+    private static final long POLL_TIMEOUT_MS = 1000L;
+    private static final long MAX_BACKOFF_MS = 600_000L;
+
+    private final JavaMailSenderImpl mailSender;
+    private final MailDeadLetterRepository deadLetterRepository;
+    private final MeterRegistry meterRegistry;
+
+    // 재시도 대기 중 (종료 시 dead letter 보관용)
+    private final Queue<OutgoingMail> retrying = new ConcurrentLinkedQueue<>();
+
+    @Value("${mail.queue.capacity:10000}")
+    private int capacity;
+
+    // 유지할 SMTP 연결(발송 스레드) 수
+    @Value("${mail.queue.connections:2}")
+    private int connections;
+
+    // 한 번에 꺼내 같은 연결로 보낼 최대 메일 수
+    @Value("${mail.queue.batch-size:20}")
+    private int batchSize;
+
+    // 이 시간 동안 발송이 없으면 연결 닫기 (서버 쪽 유휴 종료보다 짧게)
+    @Value("${mail.queue.idle-close-ms:30000}")
+    private long idleCloseMs;
+
+    @Value("${mail.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    // 첫 재시도 대기 시간 (이후 2배씩, 최대 10분)
+    @Value("${mail.queue.backoff-ms:2000}")
+    private long backoffMs;
+
+    private BlockingQueue<OutgoingMail> queue;
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(capacity);
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        AtomicInteger seq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(connections, r -> {
+            Thread t = new Thread(r, "mail-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        for (int i = 0; i < connections; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        retryScheduler.shutdownNow();
+
+        List<OutgoingMail> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.addAll(retrying);
+        if (!left.isEmpty()) {
+            log.warn("[MailQueue] 종료 시 미발송 메일 {}건 dead letter 보관", left.size());
+            deadLetterRepository.saveAll(left.stream().map(m -> new MailDeadLetter(m, "shutdown")).toList());
+        }
+    }
+
+    /**
+     * 발송 대기열에 추가 (바로 반환)
+     *
+     * @throws IllegalStateException 대기열이 가득 찬 경우
+     */
+    public void enqueue(OutgoingMail mail) {
+        if (!queue.offer(mail)) {
+            throw new IllegalStateException("메일 발송 대기열이 가득 찼습니다.");
+        }
+    }
+
+    // 발송 스레드: 연결 1개를 유지하며 대기열을 묶음 단위로 비움
+    private void work() {
+        Transport transport = null;
+        long lastUsed = 0;
+        try {
+            while (running) {
+                OutgoingMail first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (transport != null && System.currentTimeMillis() - lastUsed > idleCloseMs) {
+                        transport = close(transport);
+                    }
+                    continue;
+                }
+                List<OutgoingMail> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                // 서버가 먼저 끊은 연결이면 새로 연결
+                if (transport != null && !transport.isConnected()) {
+                    transport = close(transport);
+                }
+                transport = sendBatch(transport, batch);
+                lastUsed = System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+        }
+    }
+
+    private Transport sendBatch(Transport transport, List<OutgoingMail> batch) {
+        for (OutgoingMail mail : batch) {
+            OutgoingMail attempt = mail.nextAttempt();
+            MimeMessage message;
+            try {
+                message = build(mail);
+            } catch (Exception e) {
+                deadLetter(attempt, e.getMessage());
+                continue;
+            }
+            try {
+                if (transport == null) transport = connect();
+                transport.sendMessage(message, message.getAllRecipients());
+                meterRegistry.counter("mail.sent").increment();
+            } catch (SendFailedException e) {
+                Address[] invalid = e.getInvalidAddresses();
+                if (invalid != null && invalid.length > 0) {
+                    // 주소 오류는 재시도해도 같은 결과 (연결은 계속 사용 가능)
+                    deadLetter(attempt, e.getMessage());
+                } else {
+                    transport = close(transport);
+                    retry(attempt, e);
+                }
+            } catch (Exception e) {
+                transport = close(transport);
+                retry(attempt, e);
+            }
+        }
+        return transport;
+    }
+
+    private MimeMessage build(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = new MimeMessage(mailSender.getSession());
+        MimeMessageHelper helper = new MimeMessageHelper(message, mail.html(), "UTF-8");
+        if (mail.from() != null) helper.setFrom(mail.from());
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.body(), mail.html());
+        message.setSentDate(new Date());
+        message.saveChanges();
+        return message;
+    }
+
+    // JavaMailSenderImpl 과 같은 설정으로 연결
+    private Transport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol();
+        Transport transport = mailSender.getSession().getTransport(protocol != null ? protocol : "smtp");
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return transport;
+    }
+
+    private Transport close(Transport transport) {
+        if (transport == null) return null;
+        try {
+            transport.close();
+        } catch (Exception ignored) {
+            // 이미 끊긴 연결
+        }
+        return null;
+    }
+
+    // backoff-ms * 2^(attempts-1) 후 대기열로 복귀, 횟수 초과 시 dead letter
+    private void retry(OutgoingMail mail, Exception cause) {
+        if (mail.attempts() >= maxAttempts) {
+            deadLetter(mail, cause.getMessage());
+            return;
+        }
+        long delay = Math.min(MAX_BACKOFF_MS, backoffMs << Math.min(mail.attempts() - 1, 16));
+        meterRegistry.counter("mail.retries").increment();
+        log.info("[MailQueue] 메일 발송 실패, {}ms 후 재시도 ({}/{}) to={}: {}",
+                delay, mail.attempts(), maxAttempts, mail.to(), cause.getMessage());
+        retrying.add(mail);
+        retryScheduler.schedule(() -> {
+            retrying.remove(mail);
+            if (!queue.offer(mail)) deadLetter(mail, "대기열 초과");
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(OutgoingMail mail, String reason) {
+        meterRegistry.counter("mail.dead_letters").increment();
+        log.error("[MailQueue] 메일 발송 포기 to={}, subject={}, attempts={}: {}",
+                mail.to(), mail.subject(), mail.attempts(), reason);
+        try {
+            deadLetterRepository.save(new MailDeadLetter(mail, reason));
+        } catch (Exception e) {
+            log.error("[MailQueue] dead letter 저장 실패 to={}: {}", mail.to(), e.getMessage());
+        }
+    }
+}
@@ -2,4 +2,7 @@ package com.example.finalproject.domain.common.mail;
 
 public interface MailSender {
     void send(String to, String subject, String html);
+
+    // 본문에 인증 코드가 있는 메일 (발송 포기 시 본문을 보관하지 않음)
+    void sendWithCode(String to, String subject, String html);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.finalproject.domain.common.mail;
+
+/**
+ * 발송 대기 메일
+ *
+ * @param from     발신 주소 (null 이면 spring.mail 기본값)
+ * @param html        true 면 HTML 본문, false 면 텍스트 본문
+ * @param oneTimeCode true 면 본문에 인증/재설정 코드 포함 (발송 포기 시 본문 보관 안 함)
+ * @param attempts    지금까지 발송 시도 횟수
+ */
+public record OutgoingMail(String from, String to, String subject, String body, boolean html, boolean oneTimeCode, int attempts) {
+
+    public static OutgoingMail html(String to, String subject, String html) {
+        return new OutgoingMail(null, to, subject, html, true, false, 0);
+    }
+
+    public static OutgoingMail text(String from, String to, String subject, String text) {
+        return new OutgoingMail(from, to, subject, text, false, false, 0);
+    }
+
+    /** 본문에 일회용 코드가 있는 메일로 표시 */
+    public OutgoingMail withOneTimeCode() {
+        return new OutgoingMail(from, to, subject, body, html, true, attempts);
+    }
+
+    OutgoingMail nextAttempt() {
+        return new OutgoingMail(from, to, subject, body, html, oneTimeCode, attempts + 1);
+    }
+}
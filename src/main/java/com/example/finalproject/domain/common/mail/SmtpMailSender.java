@@ -1,29 +1,25 @@
 package com.example.finalproject.domain.common.mail;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+/**
+ * SMTP 메일 발송
+ * - 발송 대기열(MailQueue)에 넣고 바로 반환 → 요청 스레드가 SMTP 응답을 기다리지 않음
+ */
 @Component
 @RequiredArgsConstructor
 public class SmtpMailSender implements MailSender {
 
-    private final JavaMailSender mail;
+    private final MailQueue mailQueue;
 
     @Override
     public void send(String to, String subject, String html) {
-        MimeMessage message = mail.createMimeMessage();
-        try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-            mail.send(message);
-        } catch (MessagingException e) {
-            throw new IllegalStateException("메일 전송 실패", e);
-        }
+        mailQueue.enqueue(OutgoingMail.html(to, subject, html));
     }
-}
\ No newline at end of file
+
+    @Override
+    public void sendWithCode(String to, String subject, String html) {
+        mailQueue.enqueue(OutgoingMail.html(to, subject, html).withOneTimeCode());
+    }
+}
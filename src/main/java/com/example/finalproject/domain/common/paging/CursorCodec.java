@@ -0,0 +1,47 @@
+package com.example.finalproject.domain.common.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * 커서(keyset) 페이지네이션용 불투명 커서 인코더/디코더
+ * - 정렬 키 값들을 "|" 로 이어 붙인 뒤 Base64(URL-safe)로 감쌈
+ *   예) (createdAt, id) → "MjAyNS0wOS0wMVQxMjozMDowMHwxMjM"
+ * - 클라이언트는 커서 내용을 해석하지 않고 다음 요청에 그대로 돌려보내기만 함
+ */
+public final class CursorCodec {
+
+    private static final String DELIMITER = "|";
+
+    private CursorCodec() {}
+
+    /** 정렬 키 값들 → 커서 문자열 */
+    public static String encode(Object... parts) {
+        StringJoiner joiner = new StringJoiner(DELIMITER);
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 문자열 → 정렬 키 값들
+     *
+     * @param cursor 클라이언트가 보낸 커서
+     * @param parts  기대하는 키 개수
+     * @return 형식이 맞지 않으면 Optional.empty()
+     */
+    public static Optional<String[]> decode(String cursor, int parts) {
+        if (cursor == null || cursor.isBlank()) return Optional.empty();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] tokens = raw.split("\\|", -1);
+            return tokens.length == parts ? Optional.of(tokens) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.finalproject.domain.common.paging;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 커서(keyset) 페이지 응답
+ * - COUNT 쿼리를 실행하지 않음 (전체 개수 대신 다음 페이지 존재 여부만 제공)
+ * - nextCursor 를 다음 요청의 cursor 파라미터로 그대로 전달하면 이어서 조회
+ *
+ * @param content    현재 페이지 항목
+ * @param size       요청한 페이지 크기
+ * @param hasNext    다음 페이지 존재 여부
+ * @param nextCursor 다음 페이지 커서 (마지막 페이지면 null)
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+
+    // 한 번에 조회 가능한 최대 크기
+    public static final int MAX_SIZE = 100;
+
+    /** keyset 쿼리용 Pageable (OFFSET 0, 크기만 1~MAX_SIZE 로 보정) */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SIZE)));
+    }
+
+    /**
+     * Slice(크기+1 조회로 hasNext 판별) → 커서 페이지 변환
+     *
+     * @param slice    keyset 쿼리 결과
+     * @param mapper   엔티티/Row → 응답 DTO
+     * @param cursorOf 마지막 항목 → 다음 커서
+     */
+    public static <S, T> CursorPage<T> of(Slice<S> slice, Function<S, T> mapper, Function<S, String> cursorOf) {
+        List<S> rows = slice.getContent();
+        String next = (slice.hasNext() && !rows.isEmpty()) ? cursorOf.apply(rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(rows.stream().map(mapper).toList(), slice.getSize(), slice.hasNext(), next);
+    }
+}
@@ -4,4 +4,31 @@ public final class RedisKeys {
     public static String signupCode(String email){ return "signup:code:"+email; }
     public static String refreshToken(Long userId){ return "token:refresh:"+userId; }
     public static String accessBlacklist(String jti){ return "bl:access:"+jti; }
+    public static String jobLock(String job){ return "lock:job:"+job; }
+    public static String popularRank(String region){ return "popular:rank:"+region; }
+    public static String popularRegions(){ return "popular:regions"; }
+    public static String popularDirty(){ return "popular:dirty"; }
+    public static String popularDirtySyncing(){ return "popular:dirty:syncing"; }
+    public static String popularEsBackfillDone(){ return "popular:es:backfill:done"; }
+    public static String popularTrend(String region, long hour){ return "popular:trend:"+region+":"+hour; }
+    public static String recentSearches(Long userId){ return "search:recent:"+userId; }
+    public static String recentSearchCounts(Long userId){ return "search:recent:count:"+userId; }
+    public static String popularTrendView(String region){ return "popular:trend-view:"+region; }
+    public static String notifyUserChannel(int shard){ return "notify:user:"+shard; }
+    public static String notifyAllChannel(){ return "notify:all"; }
+    public static String notifySeq(){ return "notify:seq"; }
+    public static String notifyReplayUser(Long userId){ return "notify:replay:user:"+userId; }
+    public static String notifyReplayAll(){ return "notify:replay:all"; }
+    public static String notifyUnread(Long userId){ return "notify:unread:"+userId; }
+    public static String notifyBroadcastTotal(){ return "notify:broadcast:total"; }
+    public static String notifyDelivery(long eventId){ return "notify:delivery:"+eventId; }
+    public static String storeSearchDirty(){ return "store:search:dirty"; }
+    public static String storeSearchBackfillCursor(){ return "store:search:backfill:after"; }
+    public static String storeSearchBackfillDone(){ return "store:search:backfill:done"; }
+    public static String storeSearchWatermark(){ return "store:search:watermark"; }
+    public static String storeCandidatesVersion(){ return "store:cand:ver"; }
+    public static String storeCandidatesCellVersion(String versionCell){ return "store:cand:ver:"+versionCell; }
+    public static String storeCandidates(String version, String cell, long radiusMeters, String category, String keywordHash){
+        return "store:cand:"+version+":"+cell+":"+radiusMeters+":"+category+":"+keywordHash;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.finalproject.domain.elasticsearchpopular.controller;
 
+import com.example.finalproject.domain.elasticsearchpopular.dto.PopularRankWindow;
 import com.example.finalproject.domain.elasticsearchpopular.dto.PopularSearchesResponse;
 import com.example.finalproject.domain.elasticsearchpopular.dto.SearchRecordRequest;
 import com.example.finalproject.domain.elasticsearchpopular.entity.PopularSearches;
@@ -119,6 +120,25 @@ public class PopularSearchController {
                 .toList();
     }
 
+    /**
+     * 기간별 Top 조회
+     * - window=ALL_TIME (기본) : 누적 검색 수 기준
+     * - window=TRENDING        : 최근 N시간 급상승 (오래된 검색일수록 가중치 감소)
+     *
+     * @param region 지역명
+     * @param topN   상위 검색어 개수
+     * @param window 조회 기간 (ALL_TIME | TRENDING)
+     * @return 인기 검색어 리스트
+     */
+    @GetMapping("/top")
+    public List<Map<String, Object>> getTopByWindow(
+            @RequestParam @NotBlank String region,
+            @RequestParam(defaultValue = "10") @Min(1) int topN,
+            @RequestParam(required = false) String window
+    ) {
+        return popularSearchService.getTopByRegion(region, topN, PopularRankWindow.from(window));
+    }
+
     /**
      * 자동 완성 기능
      * 사용자가 입력한 keyword + region을 기반으로 최대 10개의 자동 완성 후보 제공
@@ -0,0 +1,34 @@
+package com.example.finalproject.domain.elasticsearchpopular.dto;
+
+import com.example.finalproject.domain.elasticsearchpopular.exception.PopularSearchErrorCode;
+import com.example.finalproject.domain.elasticsearchpopular.exception.PopularSearchException;
+
+/**
+ * PopularRankWindow
+ * -------------------------------------------------
+ * 인기 검색어 Top-N 조회 기간
+ * - ALL_TIME : 누적 검색 수 기준 (Elasticsearch)
+ * - TRENDING : 최근 N시간 시간 감쇠 점수 기준 (Redis 시간 버킷)
+ */
+public enum PopularRankWindow {
+    ALL_TIME,   // 누적
+    TRENDING;   // 급상승
+
+    /**
+     * 문자열을 enum 으로 변환
+     * - null/공백이면 기본값 ALL_TIME
+     * - 그 외 잘못된 값은 400 (오타가 조용히 누적 순위로 바뀌지 않도록)
+     *
+     * @param window 쿼리 파라미터 값
+     * @return PopularRankWindow
+     */
+    public static PopularRankWindow from(String window) {
+        if (window == null || window.isBlank()) return ALL_TIME;
+        try {
+            return PopularRankWindow.valueOf(window.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new PopularSearchException(PopularSearchErrorCode.BAD_REQUEST,
+                    "window는 ALL_TIME 또는 TRENDING 이어야 합니다: " + window);
+        }
+    }
+}
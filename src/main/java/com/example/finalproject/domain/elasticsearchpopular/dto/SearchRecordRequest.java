@@ -1,5 +1,7 @@
 package com.example.finalproject.domain.elasticsearchpopular.dto;
 
+import com.example.finalproject.domain.elasticsearchpopular.service.SearchRecordBuffer;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -21,12 +23,14 @@ public class SearchRecordRequest {
      * 검색 키워드
      * 사용자가 입력한 검색어
      */
+    @Size(max = SearchRecordBuffer.MAX_KEYWORD_LENGTH)
     private String keyword;
 
     /**
      * 지역
      * 검색이 수행된 지역 (예: "서울", "부산")
      */
+    @Size(max = SearchRecordBuffer.MAX_REGION_LENGTH)
     private String region;
 
     /**
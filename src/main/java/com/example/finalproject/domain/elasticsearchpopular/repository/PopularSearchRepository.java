@@ -3,7 +3,6 @@ package com.example.finalproject.domain.elasticsearchpopular.repository;
 import com.example.finalproject.domain.elasticsearchpopular.entity.PopularSearches;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,31 +30,45 @@ public interface PopularSearchRepository extends JpaRepository<PopularSearches,
            """)
      List<PopularSearches> findTopByRegion(@Param("region") String region, Pageable pageable);
 
+     /**
+      * 인기 검색어가 있는 지역 목록 (DISTINCT)
+      */
+     @Query("SELECT DISTINCT p.region FROM PopularSearches p WHERE p.region IS NOT NULL")
+     List<String> findDistinctRegions();
+
      /**
       * 특정 지역 + 키워드 단건 조회
       */
      Optional<PopularSearches> findByRegionAndKeyword(String region, String keyword);
 
      /**
-      * [벌크] 해당 region의 모든 레코드 ranking=0
-      * - Top 리스트가 비어 있을 때 사용
+      * 지역별 상위 N개 (Redis 지역 ZSET 초기화용)
+      * - ROW_NUMBER() 로 지역마다 search_count 내림차순 N개까지
+      *
+      * @return [region, keyword, search_count]
       */
-     @Modifying(clearAutomatically = true, flushAutomatically = true)
-     @Query("UPDATE PopularSearches p SET p.ranking = 0 WHERE p.region = :region")
-     int resetAllRankingByRegion(@Param("region") String region);
+     @Query(value = """
+           SELECT t.region, t.keyword, t.search_count
+           FROM (
+               SELECT region, keyword, search_count,
+                      ROW_NUMBER() OVER (PARTITION BY region ORDER BY search_count DESC) AS rn
+               FROM popular_searches
+               WHERE region IS NOT NULL
+           ) t
+           WHERE t.rn <= :limit
+           """, nativeQuery = true)
+     List<Object[]> findTopPerRegion(@Param("limit") int limit);
 
      /**
-      * [벌크] 해당 region에서 주어진 keywords를 제외한 나머지의 ranking=0
-      * - Top 리스트가 비어있지 않을 때 사용
-      * - 파라미터 keywords는 비어있지 않다고 가정 (비면 NOT IN () 에러 가능)
+      * 지역 + 여러 키워드의 누적 검색 수 (ES 동기화 시 Redis 에서 밀려난 키워드 이력 보존용)
+      *
+      * @return [keyword, search_count]
       */
-     @Modifying(clearAutomatically = true, flushAutomatically = true)
-     @Query("""
-           UPDATE PopularSearches p
-           SET p.ranking = 0
-           WHERE p.region = :region
-             AND p.keyword NOT IN :keywords
-           """)
-     int resetRankingByRegionExcluding(@Param("region") String region,
-                                       @Param("keywords") Collection<String> keywords);
+     @Query(value = """
+           SELECT keyword, search_count
+           FROM popular_searches
+           WHERE region = :region
+             AND keyword IN (:keywords)
+           """, nativeQuery = true)
+     List<Object[]> findCounts(@Param("region") String region, @Param("keywords") Collection<String> keywords);
 }
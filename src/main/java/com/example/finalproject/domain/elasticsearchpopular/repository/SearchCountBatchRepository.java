@@ -0,0 +1,124 @@
+package com.example.finalproject.domain.elasticsearchpopular.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SearchCountBatchRepository
+ * 검색 기록(searches) / 인기 검색어(popular_searches) 카운트의 다건 upsert
+ * - 버퍼(SearchRecordBuffer)에서 합쳐진 증가분을 JDBC 배치 한 번으로 반영
+ * - 두 테이블 모두 유니크 키 기준 INSERT ... ON DUPLICATE KEY UPDATE count = count + ?
+ *     searches         : (user_id, keyword, region)
+ *     popular_searches : (region, keyword)
+ * - 증분 upsert 는 묶음 단위 트랜잭션 → 중간 행에서 실패해도 앞 행이 반영된 채로 남지 않음
+ *   (호출 측이 한 건씩 재시도할 때 이중 합산 방지)
+ * - 지역 랭킹 교체(replaceRanking): 초기화 UPDATE 1회 + 다건 VALUES upsert 1회
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchCountBatchRepository {
+
+    private static final String UPSERT_SEARCHES = """
+        INSERT INTO searches (user_id, keyword, region, count, updated_at)
+        VALUES (?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            count      = count + VALUES(count),
+            updated_at = VALUES(updated_at)
+        """;
+
+    private static final String UPSERT_POPULAR = """
+        INSERT INTO popular_searches (region, keyword, search_count, ranking, created_at, updated_at)
+        VALUES (?, ?, ?, 0, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            search_count = search_count + VALUES(search_count),
+            updated_at   = VALUES(updated_at)
+        """;
+
+    private static final String RESET_RANKING = """
+        UPDATE popular_searches
+        SET ranking = 0
+        WHERE region = ? AND ranking <> 0
+        """;
+
+    private static final String UPSERT_RANKING_PREFIX = """
+        INSERT INTO popular_searches (region, keyword, search_count, ranking, created_at, updated_at)
+        VALUES
+        """;
+
+    // 집계 소스(ES/Redis)가 잠시 뒤처져도 버퍼가 누적한 DB 카운트를 줄이지 않도록 GREATEST
+    private static final String UPSERT_RANKING_SUFFIX = """
+        ON DUPLICATE KEY UPDATE
+            search_count = GREATEST(search_count, VALUES(search_count)),
+            ranking      = VALUES(ranking),
+            updated_at   = VALUES(updated_at)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 사용자별 검색 기록 카운트 증가 (행이 없으면 생성) */
+    @Transactional
+    public void addSearchCounts(List<UserSearchCount> rows, LocalDateTime now) {
+        if (rows.isEmpty()) return;
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_SEARCHES, rows, rows.size(), (ps, r) -> {
+            ps.setLong(1, r.userId());
+            ps.setString(2, r.keyword());
+            ps.setString(3, r.region());
+            ps.setLong(4, r.delta());
+            ps.setTimestamp(5, ts);
+        });
+    }
+
+    /** 지역별 인기 검색어 카운트 증가 (행이 없으면 생성) */
+    @Transactional
+    public void addPopularCounts(List<PopularSearchCount> rows, LocalDateTime now) {
+        if (rows.isEmpty()) return;
+        Timestamp ts = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_POPULAR, rows, rows.size(), (ps, r) -> {
+            ps.setString(1, r.region());
+            ps.setString(2, r.keyword());
+            ps.setLong(3, r.delta());
+            ps.setTimestamp(4, ts);
+            ps.setTimestamp(5, ts);
+        });
+    }
+
+    /**
+     * 지역 랭킹 교체 (호출 측 트랜잭션 안에서 실행)
+     * - 지역 전체 ranking=0 → 상위 키워드를 (ranking 포함) 한 문장으로 upsert
+     *
+     * @param ranked 1위부터 순서대로
+     */
+    public void replaceRanking(String region, List<RankedKeyword> ranked, LocalDateTime now) {
+        jdbcTemplate.update(RESET_RANKING, region);
+        if (ranked.isEmpty()) return;
+
+        Timestamp ts = Timestamp.valueOf(now);
+        StringBuilder sql = new StringBuilder(UPSERT_RANKING_PREFIX);
+        List<Object> args = new ArrayList<>(ranked.size() * 6);
+        for (int i = 0; i < ranked.size(); i++) {
+            RankedKeyword r = ranked.get(i);
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+            Collections.addAll(args, region, r.keyword(), r.searchCount(), i + 1, ts, ts);
+        }
+        sql.append('\n').append(UPSERT_RANKING_SUFFIX);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /** (user, keyword, region) 증가분 */
+    public record UserSearchCount(Long userId, String keyword, String region, long delta) {}
+
+    /** (region, keyword) 증가분 */
+    public record PopularSearchCount(String region, String keyword, long delta) {}
+
+    /** 랭킹 대상 키워드 (순위는 리스트 순서) */
+    public record RankedKeyword(String keyword, long searchCount) {}
+}
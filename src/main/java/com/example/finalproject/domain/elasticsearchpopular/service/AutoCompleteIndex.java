@@ -0,0 +1,64 @@
+package com.example.finalproject.domain.elasticsearchpopular.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 자동완성용 지역별 인메모리 트라이
+ * - PopularKeywordStore(지역 ZSET, 지역당 최대 max-size 개)를 주기적으로 읽어 KeywordTrie 를 새로 만들고 통째로 교체
+ *   → 조회 스레드는 잠금 없이 volatile 참조만 읽음
+ * - 메모리 = 지역 수 × max-size 키워드 (노드당 top-k 참조)
+ * - 지역 트라이가 아직 없으면 Optional.empty() → 호출 측에서 Elasticsearch 로 대체
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AutoCompleteIndex {
+
+    private final PopularKeywordStore popularKeywordStore;
+
+    private volatile Map<String, KeywordTrie> tries = Map.of();
+
+    // 노드당 보관할 후보 수 (자동완성 최대 노출 수 이상)
+    @Value("${popular.search.autocomplete.top-k:10}")
+    private int topK;
+
+    /**
+     * 지역 자동완성
+     *
+     * @return 지역 트라이가 없으면 empty, 있으면 후보 (비어 있을 수 있음)
+     */
+    public Optional<List<String>> suggest(String region, String prefix, int limit) {
+        KeywordTrie trie = tries.get(region);
+        return (trie == null) ? Optional.empty() : Optional.of(trie.suggest(prefix, limit));
+    }
+
+    /** 주기 재구성 (인스턴스마다 각자 실행) */
+    @Scheduled(
+            fixedDelayString = "${popular.search.autocomplete.refresh-ms:30000}",
+            initialDelay = 1000 * 10
+    )
+    public void rebuild() {
+        try {
+            Map<String, KeywordTrie> next = new HashMap<>();
+            for (String region : popularKeywordStore.regions()) {
+                List<String> keywords = popularKeywordStore.all(region).stream()
+                        .map(m -> (String) m.get("keyword"))
+                        .toList();
+                if (!keywords.isEmpty()) next.put(region, new KeywordTrie(keywords, topK));
+            }
+            tries = Map.copyOf(next);
+        } catch (Exception e) {
+            // 실패 시 기존 트라이 유지
+            log.warn("[AutoCompleteIndex] 트라이 재구성 실패: {}", e.getMessage());
+        }
+    }
+}
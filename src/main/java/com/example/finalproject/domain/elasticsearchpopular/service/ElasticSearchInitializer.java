@@ -1,40 +1,187 @@
 package com.example.finalproject.domain.elasticsearchpopular.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import com.example.finalproject.domain.common.redis.RedisKeys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
 
+/**
+ * 인기 검색어 인덱스 관리 (기간별 롤오버 + 보존 기간)
+ * - 문서 유형(db / redis)마다 기간 인덱스를 따로 생성: popular_searches_{type}-yyyy.MM.dd
+ *   (rollover=DAILY 면 날짜, WEEKLY 면 그 주 월요일 날짜)
+ * - 별칭
+ *     popular_searches_{type}       : 읽기 — 보존 중인 기간 인덱스 전체
+ *     popular_searches_{type}_write : 쓰기 — 현재 기간 인덱스 1개 (is_write_index)
+ * - 보존 기간(retention-days)이 지난 기간 인덱스는 인덱스째 삭제 (delete-by-query 없음)
+ * - 같은 키워드 문서가 여러 기간 인덱스에 있을 수 있으므로 조회 측은 keyword_exact 로 collapse
+ * - 인덱스 생성/별칭 이동은 롤오버 작업과 같은 Redis 락 안에서만 (여러 인스턴스 동시 기동 시 한 곳만)
+ *   락 만료 등으로 겹쳐도 이미 있는 인덱스(resource_already_exists_exception)는 정상으로 처리
+ * - 최초 1회 적재 (완료 표시 popular:es:backfill:done 이 없을 때)
+ *     redis 유형: 지역 ZSET 의 모든 키워드를 popular:dirty 로 표시 → 다음 동기화(PopularSearchSyncService)가 쓰기 별칭으로 색인
+ *     db 유형: 매시 정각 색인(PopularSearchIndexer)이 popular_searches 전체 지역 Top10 을 다시 씀
+ *     (이전 단일 인덱스 popular_searches_index 의 문서는 옮기지 않음, 원본인 Redis/DB 에서 다시 만듦)
+ */
+@Slf4j
 @Component
+@RequiredArgsConstructor
 public class ElasticSearchInitializer {
 
+    public static final String TYPE_DB = "db";
+    public static final String TYPE_REDIS = "redis";
+
+    private static final String PREFIX = "popular_searches_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private static final String LOCK_NAME = "popular-es-rollover";
+
     private final ElasticsearchClient esClient;
-    private static final String INDEX = "popular_searches_index";
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PopularKeywordStore popularKeywordStore;
+
+    // 롤오버 주기 (DAILY / WEEKLY)
+    @Value("${popular.search.index.rollover:DAILY}")
+    private String rollover;
+
+    // 기간 인덱스 보존 일수
+    @Value("${popular.search.index.retention-days:30}")
+    private int retentionDays;
+
+    /** 읽기 별칭 (보존 중인 기간 인덱스 전체) */
+    public static String readAlias(String type) {
+        return PREFIX + type;
+    }
 
-    public ElasticSearchInitializer(ElasticsearchClient esClient) {
-        this.esClient = esClient;
+    /** 쓰기 별칭 (현재 기간 인덱스) */
+    public static String writeAlias(String type) {
+        return PREFIX + type + "_write";
     }
 
     @PostConstruct
     public void createIndexIfNotExists() throws IOException {
-        boolean exists = esClient.indices().exists(e -> e.index(INDEX)).value();
+        String lockKey = RedisKeys.jobLock(LOCK_NAME);
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(10)))) {
+            log.info("[ElasticSearchInitializer] 다른 인스턴스가 인덱스 준비 중, 생성 생략");
+            return;
+        }
+        try {
+            for (String type : List.of(TYPE_DB, TYPE_REDIS)) {
+                rollIfNeeded(type);
+            }
+            backfillIfNeeded();
+        } finally {
+            stringRedisTemplate.delete(lockKey);
+        }
+    }
+
+    /**
+     * 매일 0시 5분: 새 기간 인덱스로 쓰기 별칭 이동 + 보존 기간 지난 인덱스 삭제
+     * - 여러 인스턴스 중 한 곳에서만 실행 (Redis 락)
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void rolloverAndPurge() {
+        String lockKey = RedisKeys.jobLock(LOCK_NAME);
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(10)))) {
+            return;
+        }
+        try {
+            for (String type : List.of(TYPE_DB, TYPE_REDIS)) {
+                rollIfNeeded(type);
+                purgeExpired(type);
+            }
+        } catch (Exception e) {
+            log.warn("[ElasticSearchInitializer] 롤오버/정리 실패, 다음 실행에서 재시도: {}", e.getMessage());
+        } finally {
+            stringRedisTemplate.delete(lockKey);
+        }
+    }
+
+    // 현재 기간 인덱스가 없으면 생성하고 쓰기 별칭을 옮김
+    private void rollIfNeeded(String type) throws IOException {
+        String index = readAlias(type) + "-" + periodStart(LocalDate.now()).format(SUFFIX);
+        if (esClient.indices().exists(e -> e.index(index)).value()) return;
 
-        if (!exists) {
+        try {
             esClient.indices().create(c -> c
-                    .index(INDEX)
+                    .index(index)
                     .mappings(m -> m
                             .properties("keyword", p -> p.searchAsYouType(s -> s))
+                            .properties("keyword_exact", p -> p.keyword(k -> k)) // 기간 인덱스 간 중복 collapse 용
                             .properties("region", p -> p.keyword(k -> k))
                             .properties("searchCount", p -> p.integer(i -> i))
                             .properties("ranking", p -> p.integer(i -> i))
                             .properties("created_at", p -> p.date(d -> d))
-                            .properties("type", p -> p.keyword(k -> k)) //type 필드 생성
+                            .properties("updated_at", p -> p.date(d -> d))
+                            .properties("type", p -> p.keyword(k -> k))
                     )
             );
-            System.out.println("ElasticSearch index '" + INDEX + "' created with search_as_you_type mapping.");
-        } else {
-            System.out.println("ElasticSearch index '" + INDEX + "' already exists.");
+        } catch (ElasticsearchException e) {
+            if (!"resource_already_exists_exception".equals(e.error().type())) throw e;
+            // 다른 인스턴스가 먼저 생성 → 별칭 이동도 그쪽에서 처리
+            log.info("[ElasticSearchInitializer] '{}' 인덱스가 이미 있음, 생성 생략", index);
+            return;
+        }
+
+        // 이전 인덱스의 쓰기 플래그 해제 + 새 인덱스에 읽기/쓰기 별칭 (한 요청으로 원자적 전환)
+        boolean hasWriteAlias = esClient.indices().existsAlias(a -> a.name(writeAlias(type))).value();
+        esClient.indices().updateAliases(u -> {
+            if (hasWriteAlias) {
+                u.actions(a -> a.remove(r -> r.index(readAlias(type) + "-*").alias(writeAlias(type))));
+            }
+            return u
+                    .actions(a -> a.add(ad -> ad.index(index).alias(readAlias(type))))
+                    .actions(a -> a.add(ad -> ad.index(index).alias(writeAlias(type)).isWriteIndex(true)));
+        });
+        log.info("[ElasticSearchInitializer] '{}' 인덱스 생성, 쓰기 별칭 이동", index);
+    }
+
+    // 완료 표시가 없으면 지역 ZSET 키워드 전체를 동기화 대상으로 표시 (표시는 여러 번 해도 같은 결과)
+    private void backfillIfNeeded() {
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(RedisKeys.popularEsBackfillDone()))) return;
+            long marked = popularKeywordStore.markAllDirty();
+            stringRedisTemplate.opsForValue().set(RedisKeys.popularEsBackfillDone(), LocalDate.now().toString());
+            log.info("[ElasticSearchInitializer] 기간 인덱스 최초 적재 대상 {}건 표시", marked);
+        } catch (Exception e) {
+            log.warn("[ElasticSearchInitializer] 최초 적재 표시 실패, 다음 기동 시 재시도: {}", e.getMessage());
+        }
+    }
+
+    // 보존 기간이 지난 기간 인덱스 삭제 (현재 기간 인덱스는 대상 아님)
+    private void purgeExpired(String type) throws IOException {
+        LocalDate cutoff = periodStart(LocalDate.now().minusDays(retentionDays));
+        String prefix = readAlias(type) + "-";
+        for (String index : esClient.indices().get(g -> g.index(prefix + "*")).result().keySet()) {
+            LocalDate period;
+            try {
+                period = LocalDate.parse(index.substring(prefix.length()), SUFFIX);
+            } catch (DateTimeParseException e) {
+                continue; // 규칙 밖 인덱스는 건드리지 않음
+            }
+            if (period.isBefore(cutoff)) {
+                esClient.indices().delete(d -> d.index(index));
+                log.info("[ElasticSearchInitializer] 보존 기간 경과 인덱스 삭제 '{}'", index);
+            }
         }
     }
-}
\ No newline at end of file
+
+    private LocalDate periodStart(LocalDate date) {
+        return "WEEKLY".equalsIgnoreCase(rollover)
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.finalproject.domain.elasticsearchpopular.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 지역 하나의 인기 검색어 접두사 트라이 (불변)
+ * - 노드마다 그 접두사로 시작하는 키워드 상위 K개를 미리 저장 → 조회는 접두사 길이만큼 내려가면 끝 (정렬/중복 제거 없음)
+ * - 초성 트라이를 따로 두어 "ㅊㅋ" → "치킨" 같은 초성 입력도 지원
+ * - 영문은 소문자로 정규화해서 색인
+ */
+public final class KeywordTrie {
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private final Node root = new Node();
+    private final Node chosungRoot = new Node();
+
+    /**
+     * @param keywords 검색 수 내림차순으로 정렬된 키워드
+     * @param topK     노드당 보관할 후보 수
+     */
+    public KeywordTrie(List<String> keywords, int topK) {
+        // 내림차순으로 넣으므로 노드마다 먼저 도착한 K개가 곧 상위 K개
+        for (String keyword : keywords) {
+            String normalized = normalize(keyword);
+            insert(root, normalized, keyword, topK);
+            String chosung = toChosung(normalized);
+            if (!chosung.equals(normalized)) insert(chosungRoot, chosung, keyword, topK);
+        }
+    }
+
+    /**
+     * 접두사 자동완성
+     * - 입력이 초성으로만 이루어져 있으면 초성 트라이에서 조회
+     *
+     * @return 검색 수 내림차순 상위 limit 개 (없으면 빈 리스트)
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) return List.of();
+
+        Node node = isChosungOnly(normalized) ? chosungRoot : root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.children.get(normalized.charAt(i));
+        }
+        if (node == null) return List.of();
+        return List.copyOf((node.top.size() <= limit) ? node.top : node.top.subList(0, limit));
+    }
+
+    private static void insert(Node root, String path, String keyword, int topK) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.children.computeIfAbsent(path.charAt(i), c -> new Node());
+            if (node.top.size() < topK) node.top.add(keyword);
+        }
+    }
+
+    private static String normalize(String s) {
+        return (s == null) ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // 한글 음절은 초성으로, 나머지 문자는 그대로
+    static String toChosung(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) sb.append(CHOSUNG[(c - 0xAC00) / 588]);
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // 한글 음절 없이 자음(ㄱ~ㅎ)이 하나 이상 들어 있으면 초성 입력으로 판단
+    private static boolean isChosungOnly(String s) {
+        boolean hasJamo = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) return false;
+            if (c >= 'ㄱ' && c <= 'ㅎ') hasJamo = true;
+        }
+        return hasJamo;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<String> top = new ArrayList<>(4);
+    }
+}
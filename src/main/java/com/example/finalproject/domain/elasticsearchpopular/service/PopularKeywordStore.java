@@ -0,0 +1,318 @@
+package com.example.finalproject.domain.elasticsearchpopular.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.elasticsearchpopular.repository.PopularSearchRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 지역별 인기 검색어 카운트 (Redis ZSET)
+ * - popular:rank:{region} : member = keyword, score = 누적 검색 수 (ZINCRBY)
+ * - popular:regions       : 카운트가 있는 지역 목록 (SET)
+ * - Top-N 은 ZREVRANGE 한 번, 지역 목록은 SMEMBERS 한 번 → 키스페이스 SCAN 없음
+ * - 반영 시에는 잘라내지 않고, 별도 주기 작업(trimRanks)이 지역당 상위 max-size + trim-headroom 개만 남김
+ *   → 새 키워드가 여유분 안에서 카운트를 쌓을 시간이 있음 (반영마다 잘라내면 새 키워드가 계속 밀려남)
+ *   → 메모리 상한 ≈ 지역 수 × (max-size + trim-headroom + 주기 동안 새로 들어온 키워드 수)
+ * - 전체 누적값은 popular_searches 에 남으므로 ES 동기화는 둘 중 큰 값을 씀 (밀려났다 다시 들어온 키워드도 이력 유지)
+ *
+ * 급상승(trending) 검색어
+ * - popular:trend:{region}:{epochHour} : 1시간 버킷 ZSET
+ *   지역 ZSET 과 같은 정리 작업에서 버킷당 상위 trend.top-k + trend.trim-headroom 개만 남김 (반영 시에는 자르지 않음)
+ * - 버킷 TTL = window-hours + 1시간 → 창을 벗어난 버킷은 Redis 에서 자연 소멸
+ * - 조회 시 최근 window-hours 개 버킷을 ZUNIONSTORE 로 합산, 오래된 버킷일수록 반감기(half-life-hours) 만큼 가중치 감소
+ *   → 합산 결과는 popular:trend-view:{region} 에 짧게(view-ttl-seconds) 캐시
+ * - 메모리 상한 ≈ 지역 수 × window-hours × (trend.top-k + trend.trim-headroom)
+ *
+ * ES 동기화 대상
+ * - popular:dirty : 마지막 동기화 이후 카운트가 바뀐 (region, keyword) 집합 → PopularSearchSyncService 가 소비
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularKeywordStore {
+
+    private final StringRedisTemplate redisTemplate;
+    private final PopularSearchRepository popularSearchRepository;
+
+    // 지역별 ZSET 에서 조회/초기화에 쓰는 상위 개수
+    @Value("${popular.search.rank.max-size:1000}")
+    private int maxSize;
+
+    // 정리 작업 시 max-size 위로 더 남겨둘 개수
+    @Value("${popular.search.rank.trim-headroom:1000}")
+    private int trimHeadroom;
+
+    // 급상승 집계 창 (시간 버킷 수)
+    @Value("${popular.search.trend.window-hours:24}")
+    private int trendWindowHours;
+
+    // 버킷/합산 결과당 최대 키워드 수
+    @Value("${popular.search.trend.top-k:200}")
+    private int trendTopK;
+
+    // 정리 작업 시 trend.top-k 위로 더 남겨둘 개수
+    @Value("${popular.search.trend.trim-headroom:200}")
+    private int trendTrimHeadroom;
+
+    // 가중치 반감기 (시간)
+    @Value("${popular.search.trend.half-life-hours:6}")
+    private double trendHalfLifeHours;
+
+    // 합산 결과 캐시 TTL
+    @Value("${popular.search.trend.view-ttl-seconds:60}")
+    private long trendViewTtlSeconds;
+
+    // 반감기 0 이하는 가중치 계산에서 0 나누기/무한대가 되므로 기동 시 거부
+    @PostConstruct
+    void validateConfig() {
+        if (!(trendHalfLifeHours > 0)) {
+            throw new IllegalStateException("popular.search.trend.half-life-hours 는 0보다 커야 합니다: " + trendHalfLifeHours);
+        }
+        if (trendWindowHours < 1) {
+            throw new IllegalStateException("popular.search.trend.window-hours 는 1 이상이어야 합니다: " + trendWindowHours);
+        }
+    }
+
+    /**
+     * 증가분 일괄 반영 (파이프라인 1회)
+     *
+     * @param deltas region → (keyword → 증가분)
+     */
+    public void incrementAll(Map<String, Map<String, Long>> deltas) {
+        if (deltas.isEmpty()) return;
+        long hour = currentHour();
+        long bucketTtlSeconds = (trendWindowHours + 1L) * 3600;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            deltas.forEach((region, byKeyword) -> {
+                String key = RedisKeys.popularRank(region);
+                String trendKey = RedisKeys.popularTrend(region, hour);
+                byKeyword.forEach((keyword, delta) -> {
+                    conn.zIncrBy(key, delta, keyword);
+                    conn.zIncrBy(trendKey, delta, keyword);
+                });
+                // 지역 ZSET/시간 버킷은 trimRanks 에서 주기적으로 정리
+                conn.expire(trendKey, bucketTtlSeconds);
+                // 다음 ES 동기화 대상으로 표시
+                conn.sAdd(RedisKeys.popularDirty(),
+                        byKeyword.keySet().stream().map(k -> dirtyMember(region, k)).toArray(String[]::new));
+            });
+            conn.sAdd(RedisKeys.popularRegions(), deltas.keySet().toArray(String[]::new));
+            return null;
+        });
+    }
+
+    /**
+     * 지역 ZSET 에서 여러 키워드의 현재 카운트 (ZMSCORE 1회)
+     *
+     * @return keyword 순서대로 카운트, 정리 작업으로 밀려난 키워드는 null
+     */
+    public List<Long> counts(String region, List<String> keywords) {
+        List<Double> scores = redisTemplate.opsForZSet().score(RedisKeys.popularRank(region), keywords.toArray());
+        List<Long> out = new ArrayList<>(keywords.size());
+        for (int i = 0; i < keywords.size(); i++) {
+            Double s = (scores == null) ? null : scores.get(i);
+            out.add((s == null) ? null : s.longValue());
+        }
+        return out;
+    }
+
+    // 변경 표시 멤버: region + '\n' + keyword (키워드에 개행은 들어오지 않음)
+    static String dirtyMember(String region, String keyword) {
+        return region + "\n" + keyword;
+    }
+
+    /**
+     * 모든 지역 ZSET 의 키워드를 ES 동기화 대상으로 표시 (기간 인덱스 최초 적재용)
+     * - ZSET 은 정리 작업으로 크기가 제한되므로 지역당 ZRANGE 1회 + SADD 1회
+     *
+     * @return 표시한 키워드 수
+     */
+    public long markAllDirty() {
+        long marked = 0;
+        for (String region : regions()) {
+            Set<String> keywords = redisTemplate.opsForZSet().range(RedisKeys.popularRank(region), 0, -1);
+            if (keywords == null || keywords.isEmpty()) continue;
+            redisTemplate.opsForSet().add(RedisKeys.popularDirty(),
+                    keywords.stream().map(k -> dirtyMember(region, k)).toArray(String[]::new));
+            marked += keywords.size();
+        }
+        return marked;
+    }
+
+    /** 카운트가 있는 지역 목록 */
+    public Set<String> regions() {
+        Set<String> regions = redisTemplate.opsForSet().members(RedisKeys.popularRegions());
+        return (regions == null) ? Set.of() : regions;
+    }
+
+    /**
+     * 지역 상위 N개 (검색 수 내림차순)
+     *
+     * @return [{region, keyword, searchCount}] — ES 문서와 같은 모양
+     */
+    public List<Map<String, Object>> top(String region, int n) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ZSetOperations.TypedTuple<String> t : range(RedisKeys.popularRank(region), n)) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("region", region);
+            m.put("keyword", t.getValue());
+            m.put("searchCount", (t.getScore() == null) ? 0L : t.getScore().longValue());
+            out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * 지역 급상승 상위 N개 (최근 window-hours 시간, 시간 감쇠 점수 내림차순)
+     *
+     * @return [{region, keyword, score}] — score 는 감쇠 가중 합 (현재 시간 버킷 가중치 1)
+     */
+    public List<Map<String, Object>> trending(String region, int n) {
+        String viewKey = RedisKeys.popularTrendView(region);
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(viewKey))) {
+            buildTrendView(region, viewKey);
+        }
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ZSetOperations.TypedTuple<String> t : range(viewKey, Math.min(n, trendTopK))) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("region", region);
+            m.put("keyword", t.getValue());
+            m.put("score", (t.getScore() == null) ? 0.0 : Math.round(t.getScore() * 100) / 100.0);
+            out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * 지역 ZSET / 급상승 시간 버킷 정리
+     * - 지역 ZSET: 상위 max-size + trim-headroom 개만 남김
+     * - 창 안의 시간 버킷: 상위 trend.top-k + trend.trim-headroom 개만 남김 (지역당 파이프라인 1회)
+     * - 반영 경로에서 분리해 드물게 실행 (여러 인스턴스 중 한 곳에서만)
+     */
+    @Scheduled(fixedDelayString = "${popular.search.rank.trim-interval-ms:600000}", initialDelay = 60_000)
+    public void trimRanks() {
+        String lockKey = RedisKeys.jobLock("popular-rank-trim");
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(5)))) {
+            return;
+        }
+        try {
+            long keep = (long) maxSize + trimHeadroom;
+            long trendKeep = (long) trendTopK + trendTrimHeadroom;
+            long hour = currentHour();
+            long removed = 0;
+            for (String region : regions()) {
+                List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection conn = (StringRedisConnection) connection;
+                    conn.zRemRange(RedisKeys.popularRank(region), 0, -(keep + 1));
+                    for (int age = 0; age < trendWindowHours; age++) {
+                        conn.zRemRange(RedisKeys.popularTrend(region, hour - age), 0, -(trendKeep + 1));
+                    }
+                    return null;
+                });
+                for (Object n : results) {
+                    if (n instanceof Number num) removed += num.longValue();
+                }
+            }
+            if (removed > 0) log.info("[PopularKeywordStore] 지역 ZSET/시간 버킷 정리: 하위 키워드 {}개 삭제", removed);
+        } catch (Exception e) {
+            log.warn("[PopularKeywordStore] 지역 ZSET 정리 실패: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    /** 지역 ZSET 상위 maxSize 개 */
+    public List<Map<String, Object>> all(String region) {
+        return top(region, maxSize);
+    }
+
+    // 최근 시간 버킷들을 감쇠 가중치로 합산해 viewKey 에 저장 (버킷이 없으면 빈 집합으로 취급)
+    private void buildTrendView(String region, String viewKey) {
+        long hour = currentHour();
+        List<String> keys = new ArrayList<>(trendWindowHours);
+        double[] weights = new double[trendWindowHours];
+        for (int age = 0; age < trendWindowHours; age++) {
+            keys.add(RedisKeys.popularTrend(region, hour - age));
+            weights[age] = Math.pow(0.5, age / trendHalfLifeHours);
+        }
+
+        ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+        zset.unionAndStore(keys.get(0), keys.subList(1, keys.size()), viewKey, Aggregate.SUM, Weights.of(weights));
+        zset.removeRange(viewKey, 0, -(trendTopK + 1L));
+        redisTemplate.expire(viewKey, Duration.ofSeconds(trendViewTtlSeconds));
+    }
+
+    private Set<ZSetOperations.TypedTuple<String>> range(String key, int n) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = redisTemplate.opsForZSet().reverseRangeWithScores(key, 0, n - 1L);
+        if (tuples == null) return Set.of();
+        tuples.removeIf(t -> t.getValue() == null);
+        return tuples;
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / 3_600_000L;
+    }
+
+    /**
+     * 기동 시 지역 목록이 비어 있으면 popular_searches 에서 지역별 상위 maxSize 개로 채움
+     * - 기존 popular:{region}:{keyword} 문자열 키 대신 DB 를 기준으로 초기화 (SCAN 없음)
+     * - 누적값이므로 지역 ZSET/지역 목록에만 기록, 급상승 시간 버킷에는 넣지 않음 (급상승이 누적 순위를 따라가지 않도록)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        String lockKey = RedisKeys.jobLock("popular-rank-seed");
+        // 여러 인스턴스가 동시에 기동해도 한 곳에서만 초기화 (중복 ZINCRBY 방지)
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(5)))) {
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(RedisKeys.popularRegions()))) return;
+
+            Map<String, Map<String, Long>> seed = new HashMap<>();
+            for (Object[] row : popularSearchRepository.findTopPerRegion(maxSize)) {
+                String region = (String) row[0];
+                String keyword = (String) row[1];
+                long count = ((Number) row[2]).longValue();
+                if (region == null || keyword == null || count <= 0) continue;
+                seed.computeIfAbsent(region, r -> new HashMap<>()).put(keyword, count);
+            }
+            seedRanks(seed);
+            log.info("[PopularKeywordStore] popular_searches 에서 {}개 지역 초기화", seed.size());
+        } catch (Exception e) {
+            log.warn("[PopularKeywordStore] 초기화 실패: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    // 지역 ZSET + 지역 목록만 채움 (파이프라인 1회)
+    private void seedRanks(Map<String, Map<String, Long>> seed) {
+        if (seed.isEmpty()) return;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            seed.forEach((region, byKeyword) -> {
+                String key = RedisKeys.popularRank(region);
+                byKeyword.forEach((keyword, count) -> conn.zIncrBy(key, count, keyword));
+            });
+            conn.sAdd(RedisKeys.popularRegions(), seed.keySet().toArray(String[]::new));
+            return null;
+        });
+    }
+}
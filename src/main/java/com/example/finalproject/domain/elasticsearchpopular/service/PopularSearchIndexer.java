@@ -1,18 +1,23 @@
 package com.example.finalproject.domain.elasticsearchpopular.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import com.example.finalproject.domain.elasticsearchpopular.dto.PopularSearchDoc;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
 import com.example.finalproject.domain.elasticsearchpopular.entity.PopularSearches;
 import com.example.finalproject.domain.elasticsearchpopular.repository.PopularSearchRepository;
-import io.jsonwebtoken.io.IOException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PopularSearchIndexer {
@@ -20,42 +25,48 @@ public class PopularSearchIndexer {
     private final PopularSearchRepository repository;
     private final ElasticsearchClient esClient;
 
+    // Bulk 요청 1회당 문서 수
+    @Value("${popular.search.sync.bulk-size:500}")
+    private int bulkSize;
+
     @Scheduled(cron = "0 0 * * * *") // 매시간 정각 실행
-    public void indexPopularSearches() throws IOException, java.io.IOException {
-        String indexName = "popular_searches_index";
+    public void indexPopularSearches() throws IOException {
+        String indexName = ElasticSearchInitializer.writeAlias(ElasticSearchInitializer.TYPE_DB);
 
-        // 1. 모든 지역 조회 (DB에 있는 distinct 지역)
-        List<String> regions = repository.findAll()
-                .stream()
-                .map(PopularSearches::getRegion)
-                .distinct()
-                .toList();
+        // 1. 지역 목록 (DISTINCT 만 조회, 엔티티 전체 로딩 없음)
+        List<String> regions = repository.findDistinctRegions();
 
-        // 2. 지역별 Top10 가져와서 Elasticsearch에 색인
+        // 2. 지역별 Top10 을 모아 Bulk 로 색인 (bulk-size 개씩, 강제 refresh 없음)
+        List<BulkOperation> ops = new ArrayList<>();
         for (String region : regions) {
-            List<PopularSearches> topSearches = repository.findTopByRegion(region, PageRequest.of(0, 10));
-
-            for (PopularSearches search : topSearches) {
-                PopularSearchDoc doc = PopularSearchDoc.builder()
-                        .keyword(search.getKeyword())
-                        .region(search.getRegion())
-                        .searchCount(search.getSearchCount())
-                        .createdAt(search.getCreatedAt())
-                        .build();
-
-                String keyword = "";
-                esClient.index(i -> i
+            for (PopularSearches search : repository.findTopByRegion(region, PageRequest.of(0, 10))) {
+                Map<String, Object> doc = Map.of(
+                        "region", search.getRegion(),
+                        "keyword", search.getKeyword(),
+                        "keyword_exact", search.getKeyword(),
+                        "searchCount", search.getSearchCount(),
+                        "created_at", search.getCreatedAt(),
+                        "type", ElasticSearchInitializer.TYPE_DB //DB -> ES 인덱싱, 문서 생성
+                );
+                ops.add(BulkOperation.of(o -> o.index(i -> i
                         .index(indexName)
                         .id(region + "_" + search.getId()) // 지역 단위 고유 ID
-                        .document(Map.of(
-                                "region", search.getRegion(),
-                                "keyword", search.getKeyword(),
-                                "searchCount", search.getSearchCount(),
-                                "created_at", search.getCreatedAt(),
-                                "type", "db" //DB -> ES 인덱싱, 문서 생성
-                        ))
-                );
+                        .document(doc))));
+
+                if (ops.size() >= bulkSize) {
+                    flush(ops);
+                    ops.clear();
+                }
             }
         }
+        if (!ops.isEmpty()) flush(ops);
+    }
+
+    private void flush(List<BulkOperation> ops) throws IOException {
+        BulkResponse resp = esClient.bulk(b -> b.operations(ops));
+        if (resp.errors()) {
+            long failed = resp.items().stream().filter(item -> item.error() != null).count();
+            log.warn("[PopularSearchIndexer] {}건 중 {}건 색인 실패", ops.size(), failed);
+        }
     }
 }
@@ -2,22 +2,21 @@ package com.example.finalproject.domain.elasticsearchpopular.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.SortOrder;
+import com.example.finalproject.domain.elasticsearchpopular.dto.PopularRankWindow;
 import com.example.finalproject.domain.elasticsearchpopular.entity.PopularSearches;
 import com.example.finalproject.domain.elasticsearchpopular.exception.PopularSearchErrorCode;
 import com.example.finalproject.domain.elasticsearchpopular.exception.PopularSearchException;
 import com.example.finalproject.domain.elasticsearchpopular.repository.PopularSearchRepository;
 import com.example.finalproject.domain.searches.dto.SearchesResponseDto;
-import com.example.finalproject.domain.searches.entity.Searches;
 import com.example.finalproject.domain.searches.exception.SearchesErrorCode;
 import com.example.finalproject.domain.searches.exception.SearchesException;
-import com.example.finalproject.domain.searches.repository.SearchesRepository;
-import com.example.finalproject.domain.users.repository.UsersRepository;
+import com.example.finalproject.domain.searches.service.RecentSearchStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -27,39 +26,42 @@ import java.util.stream.Collectors;
  * PopularSearchService
  * 인기 검색어 처리 로직을 담당하는 서비스 클래스
  * <p>
- * - 검색 기록 저장 (Searches)
- * - 인기 검색어 저장 및 갱신 (PopularSearches, Redis)
- * - Elasticsearch 자동완성 및 Top-N 조회
+ * - 검색 기록 저장 (Searches) — SearchRecordBuffer 를 통한 write-behind
+ * - 인기 검색어 저장 및 갱신 (PopularSearches, Redis) — SearchRecordBuffer 를 통한 write-behind
+ * - 자동완성 (인메모리 트라이 → Elasticsearch 대체) 및 Top-N 조회 (누적 / 급상승)
  * - DB 기반 인기 검색어 조회
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PopularSearchService {
 
     private final ElasticsearchClient esClient;
     private final StringRedisTemplate redisTemplate;
-    private final UsersRepository usersRepository;
-    private final SearchesRepository searchesRepository;
     private final PopularSearchRepository popularSearchRepository;
+    private final SearchRecordBuffer searchRecordBuffer;
+    private final PopularKeywordStore popularKeywordStore;
+    private final AutoCompleteIndex autoCompleteIndex;
+    private final RecentSearchStore recentSearchStore;
 
-    private static final String INDEX = "popular_searches_index";
+    // 보존 중인 기간 인덱스 전체 (redis 유형만)
+    private static final String INDEX = ElasticSearchInitializer.readAlias(ElasticSearchInitializer.TYPE_REDIS);
 
     /**
      * 검색 기록을 저장하고 인기 검색어를 갱신하는 메소드
      * <p>
      * 동작 순서:
-     * 1. 파라미터 유효성 검증 (keyword, region, userId)
-     * 2. Searches 테이블에 사용자 검색 기록 저장/업데이트
-     * 3. PopularSearches 테이블에 해당 검색어 카운트 갱신
-     * 4. Redis 에도 검색 횟수 증가 반영
-     * 5. 최종적으로 저장된 Searches 엔티티 정보를 DTO로 반환
+     * 1. 파라미터 유효성 검증 (keyword, region 누락/길이, userId 누락) — DB 조회 없음
+     * 2. 검색 기록 버퍼(SearchRecordBuffer)에 증가분 추가 후 즉시 반환
+     *    → Searches / PopularSearches / Redis 카운트는 버퍼가 주기적으로 일괄 반영
+     *    → 최근 검색어(Redis) 갱신 실패는 로그만 남기고 검색 기록 접수는 그대로 진행
+     * 3. 요청 내용을 DTO로 반환 (id/count 는 반영 전이므로 비어 있음)
      *
      * @param keyword 검색 키워드
      * @param region  검색 지역
      * @param userId  사용자 ID
-     * @return 저장된 검색 기록에 대한 응답 DTO
+     * @return 접수된 검색 기록에 대한 응답 DTO
      */
-    @Transactional
     public SearchesResponseDto recordSearch(String keyword, String region, Long userId) {
         // keyword/region 누락 시 400
         if (keyword == null || keyword.isBlank() || region == null || region.isBlank()) {
@@ -69,68 +71,35 @@ public class PopularSearchService {
         if (userId == null) {
             throw new SearchesException(SearchesErrorCode.UNAUTHORIZED, "로그인이 필요합니다.");
         }
-        // userId가 존재하지 않는 경우 404
-        if (!usersRepository.existsById(userId)) {
-            throw new SearchesException(SearchesErrorCode.NOT_FOUND, "존재하지 않는 userId입니다.");
+        // 컬럼 길이 초과 시 400 (버퍼 반영 단계에서 실패하지 않도록 요청 단계에서 차단)
+        if (keyword.length() > SearchRecordBuffer.MAX_KEYWORD_LENGTH || region.length() > SearchRecordBuffer.MAX_REGION_LENGTH) {
+            throw new SearchesException(SearchesErrorCode.BAD_REQUEST,
+                    "keyword는 " + SearchRecordBuffer.MAX_KEYWORD_LENGTH + "자, region은 "
+                            + SearchRecordBuffer.MAX_REGION_LENGTH + "자 이하여야 합니다.");
         }
+        // 존재하지 않는 userId 는 조회하지 않음 → 버퍼 반영 시 FK 위반 행만 dead letter 처리
 
-        // 사용자별 동일 keyword + region 조합 검색 이력 조회
-        List<Searches> searchesList =
-                searchesRepository.findAllByUserIdAndKeywordAndRegion(userId, keyword, region);
-
-        Searches searches;
-        if (!searchesList.isEmpty()) {
-            // 기존 검색 이력이 있으면 count 증가
-            searches = searchesList.get(0);
-            searches.setCount(searches.getCount() + 1);
-        } else {
-            // 검색 이력이 없으면 새로 생성
-            searches = Searches.builder()
-                    .keyword(keyword)
-                    .region(region)
-                    .userId(userId)
-                    .count(1)
-                    .build();
+        // 버퍼에 추가 (fire-and-forget) + 사용자 최근 검색어(Redis) 갱신
+        searchRecordBuffer.append(userId, keyword, region);
+        try {
+            recentSearchStore.record(userId, keyword, region);
+        } catch (Exception e) {
+            log.warn("[PopularSearchService] 최근 검색어 갱신 실패 userId={}: {}", userId, e.getMessage());
         }
 
-        // 검색 로그 저장
-        Searches saved = searchesRepository.save(searches);
-
-        // 인기 검색어 저장/업데이트
-        PopularSearches popular = popularSearchRepository
-                .findByRegionAndKeyword(region, keyword)
-                .orElseGet(() -> {
-                    PopularSearches p = new PopularSearches();
-                    p.setRegion(region);
-                    p.setKeyword(keyword);
-                    p.setSearchCount(0);              // ← null 방지
-                    p.setRanking(0);                  // 별도 계산 전 기본값
-                    p.setCreatedAt(LocalDateTime.now());
-                    return p;
-                });
-
-        popular.setSearchCount(popular.getSearchCount() + 1);
-        popular.setUpdatedAt(LocalDateTime.now());
-
-        popularSearchRepository.save(popular);
-
-        // Redis 카운트 증가
-        String redisKey = "popular:" + region + ":" + keyword;
-        redisTemplate.opsForValue().increment(redisKey, 1);
-
         // 응답 DTO 반환
         return SearchesResponseDto.builder()
-                .id(saved.getId())
-                .keyword(saved.getKeyword())
-                .region(saved.getRegion())
-                .userId(saved.getUserId())
-                .updatedAt(saved.getUpdatedAt())
-                .count(saved.getCount())
+                .keyword(keyword)
+                .region(region)
+                .userId(userId)
+                .updatedAt(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Elasticsearch 기반 자동 완성 기능
+     * 자동 완성 기능
+     * - 1순위: 인메모리 지역 트라이 (AutoCompleteIndex, 초성 입력 지원)
+     * - 트라이에 지역이 없거나 후보가 없으면 Elasticsearch 로 대체
      * - search_as_you_type 또는 matchPhrasePrefix 사용
      * - region + keyword 조합으로 검색
      * - 결과를 searchCount 내림차순 정렬
@@ -143,18 +112,23 @@ public class PopularSearchService {
     public List<String> autoComplete(String keyword, String region, int maxResults) {
         validateParams(keyword, region);
 
+        List<String> local = autoCompleteIndex.suggest(region, keyword, maxResults).orElse(List.of());
+        if (!local.isEmpty()) {
+            return local;
+        }
+
         try {
             var resp = esClient.search(s -> s
                             .index(INDEX)
                             .size(Math.max(20, maxResults)) // 충분히 큰 수로 조회 후 상위 maxResults만 반환
                             .query(q -> q.bool(b -> b
-                                    .must(m -> m.term(t -> t.field("region").value(region)))
-                                    .must(m -> m.term(t -> t.field("type").value("redis")))
+                                    .filter(f -> f.term(t -> t.field("region").value(region)))
                                     .must(m -> m.matchPhrasePrefix(mp -> mp
                                             .field("keyword")
                                             .query(keyword)
                                     ))
                             ))
+                            .collapse(c -> c.field("keyword_exact")) // 기간 인덱스마다 있는 같은 키워드는 최신(최대) 1건만
                             .sort(so -> so.field(f -> f.field("searchCount").order(SortOrder.Desc))),
                     Map.class
             );
@@ -187,7 +161,30 @@ public class PopularSearchService {
     }
 
     /**
-     * Elasticsearch 기반 Top-N 인기 검색어 조회
+     * 기간별 Top-N 인기 검색어 조회
+     * - ALL_TIME : 누적 검색 수 (Elasticsearch)
+     * - TRENDING : 최근 N시간 시간 감쇠 점수 (Redis 시간 버킷)
+     *
+     * @param region 지역명
+     * @param topN   가져올 개수
+     * @param window 조회 기간
+     * @return 인기 검색어 결과 리스트 (Map 구조, TRENDING 은 searchCount 대신 score)
+     */
+    public List<Map<String, Object>> getTopByRegion(String region, int topN, PopularRankWindow window) {
+        if (window != PopularRankWindow.TRENDING) {
+            return getTopByRegion(region, topN);
+        }
+        validateRegion(region);
+
+        List<Map<String, Object>> results = popularKeywordStore.trending(region, topN);
+        if (results.isEmpty()) {
+            throw new PopularSearchException(PopularSearchErrorCode.NOT_FOUND, "해당 region에 대한 최근 검색 데이터가 존재하지 않습니다.");
+        }
+        return results;
+    }
+
+    /**
+     * Elasticsearch 기반 Top-N 인기 검색어 조회 (누적)
      *
      * @param region 지역명
      * @param topN   가져올 개수
@@ -201,9 +198,9 @@ public class PopularSearchService {
                             .index(INDEX)
                             .size(topN)
                             .query(q -> q.bool(b -> b
-                                    .must(m -> m.term(t -> t.field("region").value(region)))
-                                    .must(m -> m.term(t -> t.field("type").value("redis")))
+                                    .filter(f -> f.term(t -> t.field("region").value(region)))
                             ))
+                            .collapse(c -> c.field("keyword_exact"))
                             .sort(so -> so.field(f -> f.field("searchCount").order(SortOrder.Desc))),
                     Map.class
             );
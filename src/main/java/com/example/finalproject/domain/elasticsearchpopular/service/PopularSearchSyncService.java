@@ -1,128 +1,164 @@
 package com.example.finalproject.domain.elasticsearchpopular.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.elasticsearchpopular.repository.PopularSearchRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.Cursor;
-import org.springframework.data.redis.core.ScanOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
 
 /**
  * Redis → Elasticsearch 데이터 동기화 서비스
- * - Redis에 쌓인 검색어 집계 데이터를 주기적으로 Elasticsearch로 반영
- * - Upsert 방식을 통해 새로운 키워드는 생성, 기존 키워드는 갱신
+ * - 마지막 동기화 이후 카운트가 바뀐 (region, keyword) 만 반영 (popular:dirty)
+ * - Bulk API 로 bulk-size 개씩 묶어 update(upsert), 강제 refresh 없음 (인덱스 refresh_interval 에 맡김)
+ * - 체크포인트
+ *     1) popular:dirty → popular:dirty:syncing 으로 RENAME (이후 들어오는 변경은 새 popular:dirty 에 쌓임)
+ *     2) syncing 에서 한 묶음씩 꺼내 Bulk 반영 후 SREM
+ *     → 중간에 죽어도 syncing 에 남은 키부터 다음 실행에서 이어서 처리 (전체 재스캔 없음)
+ * - 검색 수는 Redis ZSET 과 popular_searches 중 큰 값 (ZSET 정리로 밀려났다 다시 들어온 키워드도 누적값 유지)
+ * - 문서 단위 실패는 popular:dirty 로 되돌려 다음 주기에 재시도
+ * - 쓰기 별칭(popular_searches_redis_write)으로 현재 기간 인덱스에만 반영
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PopularSearchSyncService {
 
-    private final StringRedisTemplate stringRedisTemplate;  // 문자열 기반 Redis 템플릿
+    private final PopularKeywordStore popularKeywordStore;  // 지역별 Redis ZSET
+    private final StringRedisTemplate stringRedisTemplate;  // 변경 집합(SET) 관리
+    private final PopularSearchRepository popularSearchRepository; // 전체 누적 검색 수
     private final ElasticsearchClient esClient;             // Elasticsearch 클라이언트
-    private static final String INDEX = "popular_searches_index";
+    private static final String INDEX = ElasticSearchInitializer.writeAlias(ElasticSearchInitializer.TYPE_REDIS);
+
+    // Bulk 요청 1회당 문서 수
+    @Value("${popular.search.sync.bulk-size:500}")
+    private int bulkSize;
 
     /**
      * 동기화 스케줄러
-     * - 기본 주기: 10초마다 실행 (테스트용)
-     * - 운영 시: 1시간 주기 실행 권장
+     * - 변경분만 보내므로 짧은 주기로 돌려도 부담이 적음
+     * - 여러 인스턴스 중 한 곳에서만 실행 (Redis 락)
      */
-    //    @Scheduled(fixedRate = 1000 * 60 * 60) // 실제 운영: 1시간
     @Scheduled(
-            fixedRate = 1000 * 60 * 60,   // 1시간마다 실행
-            initialDelay = 1000 * 60 * 5  // 5분 지연 후 첫 실행
+            fixedDelayString = "${popular.search.sync.interval-ms:60000}",
+            initialDelay = 1000 * 60      // 1분 지연 후 첫 실행
     )
     public void syncPopularSearches() {
-        // Redis에서 키 목록 가져오기
-        List<String> keys = scan();
-        if (keys.isEmpty()) return;
+        String lockKey = RedisKeys.jobLock("popular-es-sync");
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(10)))) {
+            return;
+        }
+        try {
+            String syncing = RedisKeys.popularDirtySyncing();
+            // 이전 실행이 남긴 syncing 이 없을 때만 새 변경분을 가져옴 (있으면 그것부터 이어서 처리)
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(syncing))) {
+                if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(RedisKeys.popularDirty()))) return;
+                stringRedisTemplate.rename(RedisKeys.popularDirty(), syncing);
+            }
 
-        for (String key : keys) {
-            try {
-                // 키 포맷: popular:{region}:{keyword}
-                String[] parts = key.split(":", 3);
-                if (parts.length < 3) continue; // 잘못된 키 스킵
+            int synced = 0;
+            List<String> chunk;
+            while (!(chunk = nextChunk(syncing)).isEmpty()) {
+                synced += syncChunk(chunk);
+                // 처리한 묶음만 체크포인트에서 제거
+                stringRedisTemplate.opsForSet().remove(syncing, chunk.toArray());
+            }
+            if (synced > 0) log.info("[PopularSync] {}건 동기화", synced);
+        } catch (Exception e) {
+            // syncing 에 남은 키는 다음 실행에서 이어서 처리
+            log.warn("[PopularSync] 동기화 중단, 다음 주기에 이어서 처리: {}", e.getMessage());
+        } finally {
+            stringRedisTemplate.delete(lockKey);
+        }
+    }
 
-                String region = parts[1];
-                String keyword = parts[2];
-                if (isBlank(region) || isBlank(keyword)) continue;
+    private List<String> nextChunk(String syncing) {
+        Set<String> members = stringRedisTemplate.opsForSet().distinctRandomMembers(syncing, bulkSize);
+        return (members == null) ? List.of() : new ArrayList<>(members);
+    }
 
-                // Redis 값(검색 횟수) 읽기
-                String value = stringRedisTemplate.opsForValue().get(key);
-                long count = parseLongSafe(value);
+    /**
+     * 한 묶음 Bulk 반영
+     *
+     * @return 반영된 문서 수
+     */
+    private int syncChunk(List<String> members) throws java.io.IOException {
+        // region 별로 묶어서 ZMSCORE 1회 + DB IN 조회 1회씩
+        Map<String, List<String>> byRegion = new HashMap<>();
+        for (String member : members) {
+            int sep = member.indexOf('\n');
+            if (sep <= 0 || sep == member.length() - 1) continue; // 잘못된 멤버 스킵
+            byRegion.computeIfAbsent(member.substring(0, sep), r -> new ArrayList<>()).add(member.substring(sep + 1));
+        }
 
-                // Elasticsearch 문서 ID (region+keyword 조합)
-                String docId = region + "_" + keyword;
+        List<BulkOperation> ops = new ArrayList<>();
+        List<String> opMembers = new ArrayList<>();
+        Date now = new Date();
+        byRegion.forEach((region, keywords) -> {
+            List<Long> counts = popularKeywordStore.counts(region, keywords);
+            Map<String, Long> stored = new HashMap<>();
+            for (Object[] row : popularSearchRepository.findCounts(region, keywords)) {
+                stored.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            for (int i = 0; i < keywords.size(); i++) {
+                String keyword = keywords.get(i);
+                Long count = max(counts.get(i), stored.get(keyword));
+                if (count == null) continue; // 어느 쪽에도 없으면 기존 문서 유지
 
                 // update 시 적용될 문서
                 Map<String, Object> doc = new HashMap<>();
                 doc.put("region", region);
                 doc.put("keyword", keyword);
+                doc.put("keyword_exact", keyword);
                 doc.put("searchCount", count);
-                doc.put("type", "redis");
-                doc.put("updated_at", new Date());
+                doc.put("type", ElasticSearchInitializer.TYPE_REDIS);
+                doc.put("updated_at", now);
 
                 // 최초 insert 시 기본값 포함 (created_at 지정)
-                Map<String, Object> upsert = new HashMap<>();
-                upsert.put("region", region);
-                upsert.put("keyword", keyword);
-                upsert.put("searchCount", count);
-                upsert.put("type", "redis");
-                Date now = new Date();
+                Map<String, Object> upsert = new HashMap<>(doc);
                 upsert.put("created_at", now);
-                upsert.put("updated_at", now);
-
-                // Elasticsearch upsert 실행
-                esClient.update(u -> u
-                                .index(INDEX)
-                                .id(docId)
-                                .doc(doc)
-                                .docAsUpsert(true)   // 없으면 새로 생성
-                                .upsert(upsert)      // 일부 ES 버전 호환성을 위해 명시
-                                .refresh(Refresh.True) // 테스트 시 즉시 검색 반영 (운영은 False 권장)
-                        , Map.class);
-
-            } catch (Exception e) {
-                // 개별 키 단위 에러 로깅 후 무시 (다른 키 동기화는 계속 진행)
-                System.err.println("[PopularSync][ERROR] key=" + key + " msg=" + e.getMessage());
-            }
-        }
-    }
 
-    /**
-     * Redis SCAN 유틸
-     * - pattern: popular:*
-     * - match + count 옵션으로 키를 효율적으로 수집
-     */
-    private List<String> scan() {
-        List<String> keys = new ArrayList<>();
-        try (Cursor<String> cursor = stringRedisTemplate.scan(
-                ScanOptions.scanOptions().match("popular:*").count(1000).build())) {
-            cursor.forEachRemaining(keys::add);
-        } catch (Exception e) {
-            throw new RuntimeException("Redis scan 실패", e);
+                // Elasticsearch 문서 ID (region+keyword 조합)
+                String docId = region + "_" + keyword;
+                ops.add(BulkOperation.of(o -> o.update(u -> u
+                        .index(INDEX)
+                        .id(docId)
+                        .action(a -> a.doc(doc).upsert(upsert)))));
+                opMembers.add(PopularKeywordStore.dirtyMember(region, keyword));
+            }
+        });
+        if (ops.isEmpty()) return 0;
+
+        BulkResponse resp = esClient.bulk(b -> b.operations(ops));
+        if (!resp.errors()) return ops.size();
+
+        // 실패한 문서만 다음 주기로 되돌림
+        List<String> failed = new ArrayList<>();
+        List<BulkResponseItem> items = resp.items();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).error() != null) {
+                failed.add(opMembers.get(i));
+                log.warn("[PopularSync] 문서 반영 실패 id={} reason={}", items.get(i).id(), items.get(i).error().reason());
+            }
         }
-        return keys;
-    }
-
-    /**
-     * 안전한 Long 파싱 (null 또는 숫자 아님 → 0)
-     */
-    private long parseLongSafe(String s) {
-        if (s == null) return 0L;
-        try {
-            return Long.parseLong(s);
-        } catch (NumberFormatException e) {
-            return 0L;
+        if (!failed.isEmpty()) {
+            stringRedisTemplate.opsForSet().add(RedisKeys.popularDirty(), failed.toArray(String[]::new));
         }
+        return ops.size() - failed.size();
     }
 
-    /**
-     * 문자열 공백/널 체크
-     */
-    private boolean isBlank(String s) {
-        return s == null || s.trim().isEmpty();
+    private static Long max(Long a, Long b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.max(a, b);
     }
 }
@@ -0,0 +1,264 @@
+package com.example.finalproject.domain.elasticsearchpopular.service;
+
+import com.example.finalproject.domain.elasticsearchpopular.repository.SearchCountBatchRepository;
+import com.example.finalproject.domain.elasticsearchpopular.repository.SearchCountBatchRepository.PopularSearchCount;
+import com.example.finalproject.domain.elasticsearchpopular.repository.SearchCountBatchRepository.UserSearchCount;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 검색 기록 write-behind 버퍼
+ * - recordSearch 는 메모리 버퍼에 증가분만 더하고 바로 반환 (DB/Redis 왕복 없음)
+ * - 같은 (user, keyword, region) / (region, keyword) 증가분은 버퍼 안에서 합쳐짐
+ * - 주기적으로(flush-interval-ms) 비워서 JDBC 배치 upsert + Redis 지역 ZSET(PopularKeywordStore) 에 반영
+ * - 종료 시(@PreDestroy) 남은 증가분을 모두 반영
+ * - 컬럼 길이(keyword 100자, region 50자)를 넘는 기록은 버퍼에 넣지 않음 (요청 단계 검증을 우회한 호출 방어)
+ * - 반영 실패 시
+ *     묶음 전체가 실패하면 한 건씩 다시 시도해 무결성 위반(없는 사용자 등) 행만 버림(dead letter 로그 + 메트릭)
+ *     DB 장애 등으로 계속 실패하면 남은 증가분을 버퍼로 되돌려 다음 주기에 재시도
+ * - Redis 증가분 버퍼도 같은 키 상한 적용 (Redis 장애로 되돌린 증가분이 쌓여도 상한을 넘지 않음)
+ *     상한 초과로 Redis 에 못 넣은 증가분은 버림 (popular_searches 집계에는 그대로 반영됨)
+ * - 메트릭
+ *     popular.search.buffer.depth{type=user|popular|redis} : 버퍼에 쌓인 키 수
+ *     popular.search.buffer.flushed{type}              : 반영된 행 수
+ *     popular.search.buffer.dropped{reason}            : 버린 기록 수 (full|redis_full|invalid|integrity)
+ *     popular.search.buffer.flush.failures{type}       : 반영 실패 횟수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchRecordBuffer {
+
+    // searches / popular_searches 컬럼 길이
+    public static final int MAX_KEYWORD_LENGTH = 100;
+    public static final int MAX_REGION_LENGTH = 50;
+
+    private final SearchCountBatchRepository batchRepository;
+    private final PopularKeywordStore popularKeywordStore;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<UserKey, Long> userCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PopularKey, Long> popularCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PopularKey, Long> redisCounts = new ConcurrentHashMap<>();
+
+    // 주기 flush 와 종료 시 drain 이 겹치지 않도록
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 버퍼에 담을 수 있는 최대 키 수 (DB 장애가 길어져도 메모리가 무한히 늘지 않도록)
+    @Value("${popular.search.buffer.max-keys:100000}")
+    private int maxKeys;
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("popular.search.buffer.depth",
+                List.of(Tag.of("type", "user")), userCounts, Map::size);
+        meterRegistry.gauge("popular.search.buffer.depth",
+                List.of(Tag.of("type", "popular")), popularCounts, Map::size);
+        meterRegistry.gauge("popular.search.buffer.depth",
+                List.of(Tag.of("type", "redis")), redisCounts, Map::size);
+    }
+
+    /**
+     * 검색 1건 기록 (fire-and-forget)
+     *
+     * @return 버퍼에 담았으면 true, 상한 초과로 버렸으면 false
+     */
+    public boolean append(Long userId, String keyword, String region) {
+        if (!appendUserSearch(userId, keyword, region)) return false;
+        // 사용자 기록과 같은 키/길이 검사를 통과한 경우에만 인기 집계에 반영
+        PopularKey popularKey = new PopularKey(region, keyword);
+        popularCounts.merge(popularKey, 1L, Long::sum);
+        mergeRedis(popularKey, 1L);
+        return true;
+    }
+
+    /**
+     * 사용자 검색 기록(searches)만 1건 기록 — 인기 검색어 집계에는 반영하지 않음
+     *
+     * @return 버퍼에 담았으면 true, 상한 초과로 버렸으면 false
+     */
+    public boolean appendUserSearch(Long userId, String keyword, String region) {
+        if (!isStorable(keyword, region)) {
+            meterRegistry.counter("popular.search.buffer.dropped", "reason", "invalid").increment();
+            return false;
+        }
+        UserKey userKey = new UserKey(userId, keyword, region);
+
+        // 기존 키에 더하는 것은 항상 허용, 새 키만 상한 검사
+        if (userCounts.size() >= maxKeys && !userCounts.containsKey(userKey)) {
+            meterRegistry.counter("popular.search.buffer.dropped", "reason", "full").increment();
+            return false;
+        }
+        userCounts.merge(userKey, 1L, Long::sum);
+        return true;
+    }
+
+    /** 컬럼에 그대로 들어가는 값인지 (null/공백/길이 초과 → false) */
+    public static boolean isStorable(String keyword, String region) {
+        return keyword != null && !keyword.isBlank() && keyword.length() <= MAX_KEYWORD_LENGTH
+                && region != null && !region.isBlank() && region.length() <= MAX_REGION_LENGTH;
+    }
+
+    /** 주기 flush */
+    @Scheduled(fixedDelayString = "${popular.search.buffer.flush-interval-ms:2000}")
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            flushUsers();
+            flushPopular();
+            flushRedis();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** 종료 시 남은 증가분 반영 */
+    @PreDestroy
+    public void drain() {
+        flushLock.lock();
+        try {
+            flushUsers();
+            flushPopular();
+            flushRedis();
+            if (!userCounts.isEmpty() || !popularCounts.isEmpty()) {
+                log.warn("[SearchRecordBuffer] 종료 시 반영 실패로 남은 기록 user={} popular={}",
+                        userCounts.size(), popularCounts.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushUsers() {
+        Map<UserKey, Long> drained = drain(userCounts);
+        if (drained.isEmpty()) return;
+
+        // 키 순서를 고정해 여러 인스턴스가 동시에 반영할 때 행 잠금 순서를 맞춤 (데드락 방지)
+        List<UserSearchCount> rows = drained.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(UserKey::userId)
+                        .thenComparing(UserKey::keyword)
+                        .thenComparing(UserKey::region)))
+                .map(e -> new UserSearchCount(e.getKey().userId(), e.getKey().keyword(), e.getKey().region(), e.getValue()))
+                .toList();
+        write("user", rows,
+                batch -> batchRepository.addSearchCounts(batch, LocalDateTime.now()),
+                r -> "userId=" + r.userId() + " keyword=" + r.keyword() + " region=" + r.region() + " +" + r.delta(),
+                r -> userCounts.merge(new UserKey(r.userId(), r.keyword(), r.region()), r.delta(), Long::sum));
+    }
+
+    private void flushPopular() {
+        Map<PopularKey, Long> drained = drain(popularCounts);
+        if (drained.isEmpty()) return;
+
+        List<PopularSearchCount> rows = drained.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(PopularKey::region)
+                        .thenComparing(PopularKey::keyword)))
+                .map(e -> new PopularSearchCount(e.getKey().region(), e.getKey().keyword(), e.getValue()))
+                .toList();
+        write("popular", rows,
+                batch -> batchRepository.addPopularCounts(batch, LocalDateTime.now()),
+                r -> "region=" + r.region() + " keyword=" + r.keyword() + " +" + r.delta(),
+                r -> popularCounts.merge(new PopularKey(r.region(), r.keyword()), r.delta(), Long::sum));
+    }
+
+    /**
+     * 묶음 반영
+     * - 묶음이 실패하면 한 건씩 다시 시도 → 무결성 위반 행은 dead letter(로그 + 메트릭) 후 버림
+     *   (나쁜 행 하나 때문에 같은 묶음이 매 주기 실패하며 버퍼가 상한까지 차는 것 방지)
+     * - 그 밖의 오류(DB 장애 등)는 남은 행을 버퍼로 되돌려 다음 주기에 재시도
+     */
+    private <R> void write(String type, List<R> rows, Consumer<List<R>> writer,
+                           Function<R, String> describe, Consumer<R> requeue) {
+        try {
+            writer.accept(rows);
+            meterRegistry.counter("popular.search.buffer.flushed", "type", type).increment(rows.size());
+            return;
+        } catch (Exception e) {
+            log.info("[SearchRecordBuffer] {} 묶음 반영 실패 ({}건), 한 건씩 재시도: {}", type, rows.size(), e.getMessage());
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            R row = rows.get(i);
+            try {
+                writer.accept(List.of(row));
+                meterRegistry.counter("popular.search.buffer.flushed", "type", type).increment();
+            } catch (DataIntegrityViolationException e) {
+                log.warn("[SearchRecordBuffer] {} 기록 버림 (dead letter) {}: {}", type, describe.apply(row), e.getMessage());
+                meterRegistry.counter("popular.search.buffer.dropped", "reason", "integrity").increment();
+            } catch (Exception e) {
+                log.warn("[SearchRecordBuffer] {} 반영 실패 ({}건), 다음 주기에 재시도: {}", type, rows.size() - i, e.getMessage());
+                meterRegistry.counter("popular.search.buffer.flush.failures", "type", type).increment();
+                rows.subList(i, rows.size()).forEach(requeue);
+                return;
+            }
+        }
+    }
+
+    // Redis 지역별 ZSET 에 파이프라인 한 번으로 ZINCRBY
+    private void flushRedis() {
+        Map<PopularKey, Long> drained = drain(redisCounts);
+        if (drained.isEmpty()) return;
+
+        Map<String, Map<String, Long>> byRegion = new HashMap<>();
+        drained.forEach((k, v) -> byRegion.computeIfAbsent(k.region(), r -> new HashMap<>()).put(k.keyword(), v));
+        try {
+            popularKeywordStore.incrementAll(byRegion);
+            meterRegistry.counter("popular.search.buffer.flushed", "type", "redis").increment(drained.size());
+        } catch (Exception e) {
+            log.warn("[SearchRecordBuffer] Redis 반영 실패 ({}건), 다음 주기에 재시도: {}", drained.size(), e.getMessage());
+            meterRegistry.counter("popular.search.buffer.flush.failures", "type", "redis").increment();
+            drained.forEach(this::mergeRedis);
+        }
+    }
+
+    /**
+     * Redis 증가분 버퍼에 더하기
+     * - 사용자 버퍼와 같이 기존 키에 더하는 것은 항상 허용, 새 키만 상한 검사
+     * - 상한 초과분은 버림 (popular_searches 집계는 별도 버퍼라 영향 없음)
+     */
+    private void mergeRedis(PopularKey key, long delta) {
+        if (redisCounts.size() >= maxKeys && !redisCounts.containsKey(key)) {
+            meterRegistry.counter("popular.search.buffer.dropped", "reason", "redis_full").increment(delta);
+            return;
+        }
+        redisCounts.merge(key, delta, Long::sum);
+    }
+
+    /**
+     * 버퍼 비우기
+     * - 키별 remove 는 원자적이므로, 비우는 도중 들어온 증가분은 새 항목으로 남아 다음 주기에 반영됨
+     */
+    private static <K> Map<K, Long> drain(ConcurrentHashMap<K, Long> buffer) {
+        Map<K, Long> out = new HashMap<>();
+        for (K key : new ArrayList<>(buffer.keySet())) {
+            Long v = buffer.remove(key);
+            if (v != null && v > 0) out.put(key, v);
+        }
+        return out;
+    }
+
+    private record UserKey(Long userId, String keyword, String region) {}
+
+    private record PopularKey(String region, String keyword) {}
+}
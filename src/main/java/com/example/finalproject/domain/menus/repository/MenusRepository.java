@@ -2,7 +2,10 @@ package com.example.finalproject.domain.menus.repository;
 
 import com.example.finalproject.domain.menus.entity.Menus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +14,12 @@ public interface MenusRepository extends JpaRepository<Menus, Long> {
     Optional<Menus> findByIdAndStoreId(Long id, Long storeId);
     boolean existsByStoreIdAndName(Long storeId, String name);
     Optional<Menus> findByStoreIdAndNameAndStatus(Long storeId, String name, Menus.MenuStatus status);
+
+    // 가게 검색 색인용: 삭제되지 않은 메뉴 이름 [storeId, name]
+    @Query("""
+        SELECT m.store.id, m.name FROM Menus m
+        WHERE m.store.id IN :storeIds
+          AND m.status <> com.example.finalproject.domain.menus.entity.Menus.MenuStatus.DELETED
+        """)
+    List<Object[]> findNamesByStoreIds(@Param("storeIds") Collection<Long> storeIds);
 }
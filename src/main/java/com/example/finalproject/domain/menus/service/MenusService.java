@@ -18,6 +18,7 @@ import com.example.finalproject.domain.menus.repository.MenuOptionsRepository;
 import com.example.finalproject.domain.menus.repository.MenusRepository;
 import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.search.StoreSearchSync;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -36,6 +37,7 @@ public class MenusService {
     private final MenuOptionsRepository optionsRepository;
     private final MenuOptionChoicesRepository choicesRepository;
     private final StoresRepository storesRepository;
+    private final StoreSearchSync storeSearchSync; // 메뉴 이름 변경 → 가게 검색 인덱스 재색인
 
 
     private Stores verifiedUser(Authentication authentication, Long storeId) {
@@ -146,6 +148,7 @@ public class MenusService {
         menu.setPrice(request.getPrice());
         menu.setStatus(status);
         menusRepository.save(menu);
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         // 카테고리 저장
         if (request.getCategories() != null) {
@@ -194,6 +197,7 @@ public class MenusService {
 
         menu.setStatus(Menus.MenuStatus.ACTIVE);
         menusRepository.save(menu);
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         return getMenu(menu.getId(), storeId);
     }
@@ -246,6 +250,7 @@ public class MenusService {
         }
 
         menusRepository.save(menu);
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         return getMenu(menu.getId(), storeId);
     }
@@ -276,6 +281,7 @@ public class MenusService {
         // 메뉴 soft 삭제
         menu.setStatus(Menus.MenuStatus.DELETED);
         menusRepository.save(menu);
+        storeSearchSync.markDirtyAfterCommit(storeId);
     }
 
     // 옵션/카테고리 추가 시 DELETED 메뉴인지 체크
@@ -1,13 +1,20 @@
 package com.example.finalproject.domain.notifications.controller;
 
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.notifications.dto.request.NotificationMessageRequest;
-import com.example.finalproject.domain.notifications.repository.NotificationRepository;
+import com.example.finalproject.domain.notifications.service.NotificationLogService;
+import com.example.finalproject.domain.notifications.service.NotificationPublisher;
 import com.example.finalproject.domain.notifications.service.NotificationService;
 import com.example.finalproject.domain.notifications.entity.Notification;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
 
 
 @RestController
@@ -16,7 +23,7 @@ import java.util.List;
 public class AdminNotificationController {
 
     private final NotificationService notificationService;
-    private final NotificationRepository notificationRepository;
+    private final NotificationLogService notificationLogService;
 
     @PostMapping("/users/{userId}")
     public String sendToUser(@PathVariable Long userId,
@@ -27,14 +34,40 @@ public class AdminNotificationController {
 
     @PostMapping("/all")
     public String sendToAll(@RequestBody NotificationMessageRequest req) {
-        notificationService.sendBroadcastNotification(req.getMessage());
-        return "전체 알림 전송 요청 완료";
+        NotificationPublisher.BroadcastDelivery delivery = notificationService.sendBroadcastNotification(req.getMessage());
+        return "전체 알림 전송 요청 완료 (전달 " + delivery.queued() + "건, 느린 연결 종료 " + delivery.evicted() + "건, "
+                + "수신 서버 " + delivery.instances() + "대 중 " + delivery.reported() + "대 집계)";
     }
 
-    // 관리자 알림 로그 전체 조회
+    // 관리자 알림 로그 조회 - 커서 기반 (최신순, 유형/상태/기간 필터)
     @GetMapping("/logs")
-    public List<Notification> getAllLogs() {
-        return notificationRepository.findAll();
+    public CursorPage<Notification> getLogs(
+            @RequestParam(required = false) Notification.Type type,
+            @RequestParam(required = false) Notification.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return notificationLogService.getLogs(type, status, from, to, cursor, size);
+    }
+
+    // 관리자 알림 로그 내보내기 (ndjson / csv, 응답 스트림에 바로 기록)
+    @GetMapping("/logs/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Notification.Type type,
+            @RequestParam(required = false) Notification.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        NotificationLogService.ExportFormat f = NotificationLogService.ExportFormat.from(format);
+        StreamingResponseBody body = out -> notificationLogService.export(f, type, status, from, to, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"notification-logs." + f.extension() + "\"")
+                .contentType(MediaType.parseMediaType(f.contentType() + ";charset=UTF-8"))
+                .body(body);
     }
 
 }
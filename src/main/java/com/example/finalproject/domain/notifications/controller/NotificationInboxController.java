@@ -0,0 +1,54 @@
+package com.example.finalproject.domain.notifications.controller;
+
+import com.example.finalproject.domain.common.paging.CursorPage;
+import com.example.finalproject.domain.notifications.dto.response.NotificationInboxResponse;
+import com.example.finalproject.domain.notifications.service.NotificationInboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+public class NotificationInboxController {
+
+    private final NotificationInboxService notificationInboxService;
+
+    // 로그인한 사용자의 userId
+    private Long currentUserId(Authentication authentication) {
+        return Long.valueOf(((Map<String, Object>) authentication.getDetails()).get("uid").toString());
+    }
+
+    // 알림함 조회 - 커서 기반 (최신순, 개인 + 전체 알림)
+    @GetMapping
+    public ResponseEntity<CursorPage<NotificationInboxResponse>> getInbox(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(notificationInboxService.getInbox(currentUserId(authentication), cursor, size));
+    }
+
+    // 안 읽은 알림 수 (앱 배지)
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationInboxService.getUnreadCount(currentUserId(authentication))));
+    }
+
+    // 알림 1건 읽음
+    @PatchMapping("/{notificationId}/read")
+    public ResponseEntity<Void> markRead(Authentication authentication, @PathVariable Long notificationId) {
+        notificationInboxService.markRead(currentUserId(authentication), notificationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 모두 읽음
+    @PatchMapping("/read-all")
+    public ResponseEntity<Void> markAllRead(Authentication authentication) {
+        notificationInboxService.markAllRead(currentUserId(authentication));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,30 +2,41 @@ package com.example.finalproject.domain.notifications.controller;
 
 import com.example.finalproject.domain.notifications.exception.NotificationErrorCode;
 import com.example.finalproject.domain.notifications.exception.NotificationException;
+import com.example.finalproject.domain.notifications.service.NotificationPublisher;
+import com.example.finalproject.domain.notifications.service.NotificationReplayBuffer;
+import com.example.finalproject.domain.notifications.service.SseBroadcaster;
 import com.example.finalproject.domain.users.entity.Users;
 import com.example.finalproject.domain.users.repository.UsersRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 @RequiredArgsConstructor
 @RestController
 public class SseController {
 
     private final UsersRepository usersRepository;
+    private final SseBroadcaster sseBroadcaster;
+    private final NotificationReplayBuffer replayBuffer;
+    private final NotificationPublisher notificationPublisher;
 
-    // 접속 중인 사용자 (userId -> emitter)
-    private static final Map<Long, SseEmitter> clients = new ConcurrentHashMap<>();
+    // 연결 유지 시간 (만료되면 클라이언트가 Last-Event-ID 로 재연결)
+    @Value("${notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
 
-    // 사용자 구독 (브라우저/앱이 이 엔드포인트 열어둠)
+    // 사용자 구독 (브라우저/앱이 이 엔드포인트 열어둠, 기기마다 연결 1개씩 유지)
+    // 재연결 시 Last-Event-ID 이후 놓친 알림을 먼저 전송
+    // Last-Event-ID 가 현재 시퀀스보다 크면(notify:seq 초기화 등) 위치를 알 수 없으므로 보관 중인 알림 전체 전송
     @GetMapping("/subscribe/{userId}")
-    public SseEmitter subscribe(@PathVariable Long userId) {
+    public SseEmitter subscribe(@PathVariable Long userId,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         Users user = usersRepository.findById(userId)
                 .orElseThrow(() -> new NotificationException(NotificationErrorCode.USER_NOT_FOUND));
 
@@ -33,49 +44,28 @@ public class SseController {
             throw new NotificationException(NotificationErrorCode.NOTIFICATION_NOT_ALLOWED);
         }
 
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        clients.put(userId, emitter);
-
-        emitter.onCompletion(() -> clients.remove(userId));
-        emitter.onTimeout(() -> clients.remove(userId));
-        emitter.onError((e) -> clients.remove(userId));
-
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("INIT")
-                    .data("SSE 연결이 완료되었습니다."));
-        } catch (IOException e) {
-            emitter.completeWithError(e);
-        }
+        long lastId = parseEventId(lastEventId);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        sseBroadcaster.register(userId, emitter, () -> {
+            List<SseBroadcaster.SseEvent> backlog = new ArrayList<>();
+            backlog.add(new SseBroadcaster.SseEvent(0L, "INIT", "SSE 연결이 완료되었습니다."));
+            if (lastId > 0) {
+                long since = (lastId > notificationPublisher.currentSequence()) ? 0L : lastId;
+                for (NotificationPublisher.NotificationEvent e : replayBuffer.since(userId, since)) {
+                    backlog.add(new SseBroadcaster.SseEvent(e.id(), e.name(), e.data()));
+                }
+            }
+            return backlog;
+        });
         return emitter;
     }
 
-    // 특정 사용자에게 전송 (쿠폰 등)
-    public static void sendToUser(Long userId, String message) {
-        SseEmitter emitter = clients.get(userId);
-        if (emitter == null) return;
+    private long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) return 0L;
         try {
-            emitter.send(SseEmitter.event()
-                    .name("notification")
-                    .data(message));
-        } catch (IOException e) {
-            clients.remove(userId);
-            emitter.completeWithError(e);
-        }
-    }
-
-    // 전체 사용자에게 전송 (이벤트, 공지사항 등 )
-    public static void sendToAll(String message) {
-        for (Map.Entry<Long, SseEmitter> entry : clients.entrySet()) {
-            SseEmitter emitter = entry.getValue();
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("broadcast")
-                        .data(message));
-            } catch (IOException e) {
-                clients.remove(entry.getKey());
-                emitter.completeWithError(e);
-            }
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0L; // 알 수 없는 형식이면 재전송 없이 새로 시작
         }
     }
 }
@@ -0,0 +1,16 @@
+package com.example.finalproject.domain.notifications.dto.response;
+
+import com.example.finalproject.domain.notifications.entity.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * 알림함 항목 (개인 + 전체 알림)
+ */
+public record NotificationInboxResponse(
+        Long id,
+        Notification.Type type,
+        String message,
+        boolean read,
+        LocalDateTime createdAt
+) {}
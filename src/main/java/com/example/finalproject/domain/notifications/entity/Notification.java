@@ -9,7 +9,15 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "notifications")
+@Table(
+        name = "notifications",
+        indexes = {
+                // 알림함 keyset 조회 (개인: user_id 별 id 역순, 전체: user_id IS NULL 구간)
+                @Index(name = "idx_notifications_user_id_id", columnList = "user_id, id"),
+                // 관리자 로그 기간 필터
+                @Index(name = "idx_notifications_created_at", columnList = "created_at")
+        }
+)
 public class Notification {
 
     @Id
@@ -0,0 +1,34 @@
+package com.example.finalproject.domain.notifications.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 전체 알림 개별 읽음 기록 (읽음 기준점보다 큰 알림만)
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(
+        name = "notification_broadcast_reads",
+        uniqueConstraints = @UniqueConstraint(name = "uk_broadcast_read_user_notification",
+                columnNames = {"user_id", "notification_id"})
+)
+public class NotificationBroadcastRead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    public NotificationBroadcastRead(Long userId, Long notificationId) {
+        this.userId = userId;
+        this.notificationId = notificationId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.finalproject.domain.notifications.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 사용자별 전체 알림 읽음 기준점
+ * - 전체 알림(type=ALL)은 사용자마다 행을 만들지 않으므로,
+ *   "이 ID 이하 전체 알림은 모두 읽음" 기준점만 사용자당 1행으로 보관
+ * - 기준점보다 큰 전체 알림을 하나씩 읽은 기록은 notification_broadcast_reads
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "notification_read_states")
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "broadcast_read_upto", nullable = false)
+    private Long broadcastReadUpTo = 0L;
+
+    public NotificationReadState(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -6,7 +6,9 @@ public enum NotificationErrorCode {
     USER_NOT_FOUND(HttpStatus.NOT_FOUND, "알림을 보낼 유저를 찾을 수 없습니다."),
     NOTIFICATION_NOT_ALLOWED(HttpStatus.BAD_REQUEST, "해당 유저는 알림을 허용하지 않았습니다."),
     DELIVERY_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "알림 전송에 실패했습니다."),
-    NOTIFICATION_NOT_FOUND(HttpStatus.NOT_FOUND, "알림을 찾을 수 없습니다.");
+    NOTIFICATION_NOT_FOUND(HttpStatus.NOT_FOUND, "알림을 찾을 수 없습니다."),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "잘못된 커서입니다."),
+    INVALID_EXPORT_FORMAT(HttpStatus.BAD_REQUEST, "지원하지 않는 내보내기 형식입니다. (ndjson, csv)");
 
     private final HttpStatus status;
     private final String message;
@@ -0,0 +1,19 @@
+package com.example.finalproject.domain.notifications.repository;
+
+import com.example.finalproject.domain.notifications.entity.NotificationBroadcastRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationBroadcastReadRepository extends JpaRepository<NotificationBroadcastRead, Long> {
+
+    boolean existsByUserIdAndNotificationId(Long userId, Long notificationId);
+
+    long countByUserIdAndNotificationIdGreaterThan(Long userId, Long notificationId);
+
+    // 전체 읽음 처리 후 기준점 이하 개별 기록 정리
+    @Modifying
+    @Query("DELETE FROM NotificationBroadcastRead r WHERE r.userId = :userId AND r.notificationId <= :upTo")
+    int deleteUpTo(@Param("userId") Long userId, @Param("upTo") Long upTo);
+}
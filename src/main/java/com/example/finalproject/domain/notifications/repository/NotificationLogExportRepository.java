@@ -0,0 +1,75 @@
+package com.example.finalproject.domain.notifications.repository;
+
+import com.example.finalproject.domain.notifications.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NotificationLogExportRepository
+ * 관리자 알림 로그 내보내기용 스트리밍 조회
+ * - 전진 전용(TYPE_FORWARD_ONLY) + 읽기 전용 커서, fetchSize = Integer.MIN_VALUE
+ *   → MySQL 드라이버가 결과를 한 행씩 스트리밍 (전체 결과를 메모리에 올리지 않음)
+ * - 행마다 RowCallbackHandler 호출 → 호출 측이 응답 스트림에 바로 기록
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationLogExportRepository {
+
+    private static final String SELECT_PREFIX = """
+        SELECT id, user_id, type, status, message, is_read, error_message, created_at
+        FROM notifications
+        WHERE 1 = 1
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 조건에 맞는 로그를 id 오름차순으로 한 행씩 전달
+     *
+     * @param type   null 이면 전체
+     * @param status null 이면 전체
+     * @param from   생성 시각 하한 (포함, null 이면 제한 없음)
+     * @param to     생성 시각 상한 (미포함, null 이면 제한 없음)
+     */
+    public void stream(Notification.Type type, Notification.Status status,
+                       LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_PREFIX);
+        List<Object> args = new ArrayList<>();
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type.name());
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // MySQL 행 단위 스트리밍
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.finalproject.domain.notifications.repository;
+
+import com.example.finalproject.domain.notifications.entity.NotificationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, Long> {
+}
@@ -1,10 +1,87 @@
 package com.example.finalproject.domain.notifications.repository;
 
 import com.example.finalproject.domain.notifications.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdAndIsReadFalse(Long userId);
+
+    long countByUserIdAndIsReadFalseAndStatus(Long userId, Notification.Status status);
+
+    long countByTypeAndStatusAndIdGreaterThan(Notification.Type type, Notification.Status status, Long id);
+
+    long countByTypeAndStatus(Notification.Type type, Notification.Status status);
+
+    @Query("SELECT COALESCE(MAX(n.id), 0) FROM Notification n WHERE n.type = :type AND n.status = :status")
+    Long findMaxIdByTypeAndStatus(@Param("type") Notification.Type type, @Param("status") Notification.Status status);
+
+    /**
+     * 사용자 알림함 (개인 + 전체, id 내림차순 keyset)
+     * - 두 갈래를 각각 인덱스 순서로 limit 개만 읽고 합침 (OR 조건 전체 스캔 회피)
+     * - 전체 알림 읽음 여부 = 기준점 이하 또는 개별 읽음 기록 존재
+     * - 반환: [id, type, message, is_read, created_at]
+     */
+    @Query(value = """
+            SELECT t.id, t.type, t.message, t.is_read, t.created_at FROM (
+                (SELECT n.id, n.type, n.message, n.is_read AS is_read, n.created_at
+                   FROM notifications n
+                  WHERE n.user_id = :userId AND n.status = 'SUCCESS' AND n.id < :cursorId
+                  ORDER BY n.id DESC
+                  LIMIT :limit)
+                UNION ALL
+                (SELECT n.id, n.type, n.message,
+                        (n.id <= :readUpTo OR EXISTS (
+                            SELECT 1 FROM notification_broadcast_reads r
+                             WHERE r.user_id = :userId AND r.notification_id = n.id)) AS is_read,
+                        n.created_at
+                   FROM notifications n
+                  WHERE n.user_id IS NULL AND n.type = 'ALL' AND n.status = 'SUCCESS' AND n.id < :cursorId
+                  ORDER BY n.id DESC
+                  LIMIT :limit)
+            ) t
+            ORDER BY t.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findInbox(@Param("userId") Long userId,
+                             @Param("readUpTo") long readUpTo,
+                             @Param("cursorId") long cursorId,
+                             @Param("limit") int limit);
+
+    /**
+     * 관리자 로그 조회 (id 내림차순 keyset, 조건은 null 이면 무시)
+     * - Slice 로 크기 + 1 조회해 다음 페이지 여부만 판별 (COUNT 없음)
+     */
+    @Query("""
+            SELECT n FROM Notification n
+            WHERE (:type IS NULL OR n.type = :type)
+              AND (:status IS NULL OR n.status = :status)
+              AND (:from IS NULL OR n.createdAt >= :from)
+              AND (:to IS NULL OR n.createdAt < :to)
+              AND n.id < :cursorId
+            ORDER BY n.id DESC
+            """)
+    Slice<Notification> findLogs(@Param("type") Notification.Type type,
+                                 @Param("status") Notification.Status status,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    // 개인 알림 1건 읽음 (이미 읽었으면 0)
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    // 개인 알림 전체 읽음
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
 }
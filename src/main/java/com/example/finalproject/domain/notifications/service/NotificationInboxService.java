@@ -0,0 +1,143 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
+import com.example.finalproject.domain.notifications.dto.response.NotificationInboxResponse;
+import com.example.finalproject.domain.notifications.entity.Notification;
+import com.example.finalproject.domain.notifications.entity.NotificationBroadcastRead;
+import com.example.finalproject.domain.notifications.entity.NotificationReadState;
+import com.example.finalproject.domain.notifications.exception.NotificationErrorCode;
+import com.example.finalproject.domain.notifications.exception.NotificationException;
+import com.example.finalproject.domain.notifications.repository.NotificationBroadcastReadRepository;
+import com.example.finalproject.domain.notifications.repository.NotificationReadStateRepository;
+import com.example.finalproject.domain.notifications.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 사용자 알림함
+ * - 개인 알림 + 전체 알림을 id 내림차순 keyset 페이지로 조회 (전체 알림은 사용자별 행 복제 없음)
+ * - 읽음 처리
+ *     개인 알림: notifications.is_read
+ *     전체 알림: 사용자별 읽음 기준점(notification_read_states) + 기준점보다 큰 알림의 개별 읽음 기록
+ * - 안 읽은 수는 NotificationUnreadCounter(Redis)에서 조회, 읽음 처리 커밋 후 카운터 갱신
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationInboxService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final NotificationBroadcastReadRepository broadcastReadRepository;
+    private final NotificationUnreadCounter unreadCounter;
+
+    /**
+     * 알림함 조회 (최신순)
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationInboxResponse> getInbox(Long userId, String cursor, int size) {
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] p = CursorCodec.decode(cursor, 1)
+                    .orElseThrow(() -> new NotificationException(NotificationErrorCode.INVALID_CURSOR));
+            try {
+                cursorId = Long.parseLong(p[0]);
+            } catch (NumberFormatException e) {
+                throw new NotificationException(NotificationErrorCode.INVALID_CURSOR);
+            }
+        }
+
+        int limit = CursorPage.limit(size).getPageSize();
+        long readUpTo = readStateRepository.findById(userId).map(NotificationReadState::getBroadcastReadUpTo).orElse(0L);
+        // limit + 1 개 조회로 다음 페이지 존재 여부 판별
+        List<Object[]> rows = notificationRepository.findInbox(userId, readUpTo, cursorId, limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        List<NotificationInboxResponse> content = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            Object[] row = rows.get(i);
+            content.add(new NotificationInboxResponse(
+                    ((Number) row[0]).longValue(),
+                    Notification.Type.valueOf((String) row[1]),
+                    (String) row[2],
+                    isRead(row[3]),
+                    ((java.sql.Timestamp) row[4]).toLocalDateTime()
+            ));
+        }
+        String next = (hasNext && !content.isEmpty()) ? CursorCodec.encode(content.get(content.size() - 1).id()) : null;
+        return new CursorPage<>(content, limit, hasNext, next);
+    }
+
+    /** 안 읽은 알림 수 (Redis) */
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.count(userId);
+    }
+
+    /** 알림 1건 읽음 (이미 읽은 알림이면 변화 없음) */
+    @Transactional
+    public void markRead(Long userId, Long notificationId) {
+        Notification n = notificationRepository.findById(notificationId)
+                .filter(x -> x.getStatus() == Notification.Status.SUCCESS)
+                .filter(x -> x.getType() == Notification.Type.ALL || userId.equals(x.getUserId()))
+                .orElseThrow(() -> new NotificationException(NotificationErrorCode.NOTIFICATION_NOT_FOUND));
+
+        if (n.getType() == Notification.Type.USER) {
+            if (notificationRepository.markRead(notificationId, userId) > 0) {
+                afterCommit(() -> unreadCounter.onPersonalRead(userId));
+            }
+            return;
+        }
+
+        long readUpTo = readStateRepository.findById(userId).map(NotificationReadState::getBroadcastReadUpTo).orElse(0L);
+        if (notificationId <= readUpTo || broadcastReadRepository.existsByUserIdAndNotificationId(userId, notificationId)) {
+            return;
+        }
+        broadcastReadRepository.save(new NotificationBroadcastRead(userId, notificationId));
+        afterCommit(() -> unreadCounter.onBroadcastRead(userId));
+    }
+
+    /** 모두 읽음 (개인 알림 UPDATE 1회 + 전체 알림 기준점 이동) */
+    @Transactional
+    public void markAllRead(Long userId) {
+        notificationRepository.markAllRead(userId);
+
+        long maxBroadcastId = notificationRepository.findMaxIdByTypeAndStatus(
+                Notification.Type.ALL, Notification.Status.SUCCESS);
+        NotificationReadState state = readStateRepository.findById(userId)
+                .orElseGet(() -> new NotificationReadState(userId));
+        if (maxBroadcastId > state.getBroadcastReadUpTo()) {
+            state.setBroadcastReadUpTo(maxBroadcastId);
+            readStateRepository.save(state);
+            broadcastReadRepository.deleteUpTo(userId, maxBroadcastId);
+        }
+        afterCommit(() -> unreadCounter.evict(userId));
+    }
+
+    // is_read 컬럼(BIT)과 EXISTS 결과(정수)가 섞여 올 수 있음
+    private static boolean isRead(Object v) {
+        if (v instanceof Boolean b) return b;
+        return v instanceof Number num && num.intValue() != 0;
+    }
+
+    // 커밋 이후 실행 (트랜잭션 밖이면 즉시)
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
+import com.example.finalproject.domain.notifications.entity.Notification;
+import com.example.finalproject.domain.notifications.exception.NotificationErrorCode;
+import com.example.finalproject.domain.notifications.exception.NotificationException;
+import com.example.finalproject.domain.notifications.repository.NotificationLogExportRepository;
+import com.example.finalproject.domain.notifications.repository.NotificationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 관리자 알림 로그 조회/내보내기
+ * - 조회: 유형/상태/기간 필터 + id 내림차순 keyset 페이지 (COUNT 없음)
+ * - 내보내기: NDJSON / CSV, JDBC 스트리밍 커서로 읽으며 응답 스트림에 바로 기록
+ *   → 테이블 크기와 무관하게 메모리 사용량 일정
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationLogService {
+
+    private static final String[] CSV_HEADER =
+            {"id", "user_id", "type", "status", "message", "is_read", "error_message", "created_at"};
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationLogExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    /** 내보내기 형식 */
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+
+        public static ExportFormat from(String value) {
+            for (ExportFormat f : values()) {
+                if (f.name().equalsIgnoreCase(value)) return f;
+            }
+            throw new NotificationException(NotificationErrorCode.INVALID_EXPORT_FORMAT);
+        }
+    }
+
+    /**
+     * 로그 조회 (최신순)
+     *
+     * @param from 시작일 (포함, null 이면 제한 없음)
+     * @param to   종료일 (포함, null 이면 제한 없음)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Notification> getLogs(Notification.Type type, Notification.Status status,
+                                            LocalDate from, LocalDate to, String cursor, int size) {
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] p = CursorCodec.decode(cursor, 1)
+                    .orElseThrow(() -> new NotificationException(NotificationErrorCode.INVALID_CURSOR));
+            try {
+                cursorId = Long.parseLong(p[0]);
+            } catch (NumberFormatException e) {
+                throw new NotificationException(NotificationErrorCode.INVALID_CURSOR);
+            }
+        }
+        return CursorPage.of(
+                notificationRepository.findLogs(type, status, startOf(from), endOf(to), cursorId, CursorPage.limit(size)),
+                n -> n,
+                n -> CursorCodec.encode(n.getId()));
+    }
+
+    /**
+     * 로그 내보내기 (id 오름차순)
+     * - 행마다 out 에 기록, 버퍼가 차면 그대로 클라이언트로 흘러감
+     */
+    public void export(ExportFormat format, Notification.Type type, Notification.Status status,
+                       LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+        try {
+            exportRepository.stream(type, status, startOf(from), endOf(to), rs -> {
+                try {
+                    if (format == ExportFormat.CSV) writeCsv(writer, rs);
+                    else writeNdjson(writer, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // 클라이언트 연결 끊김 → 커서 닫고 중단
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(Writer writer, ResultSet rs) throws SQLException, IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("userId", rs.getObject("user_id"));
+        row.put("type", rs.getString("type"));
+        row.put("status", rs.getString("status"));
+        row.put("message", rs.getString("message"));
+        row.put("isRead", rs.getBoolean("is_read"));
+        row.put("errorMessage", rs.getString("error_message"));
+        row.put("createdAt", toText(rs.getTimestamp("created_at")));
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private void writeCsv(Writer writer, ResultSet rs) throws SQLException, IOException {
+        Object userId = rs.getObject("user_id");
+        writer.write(rs.getLong("id") + ","
+                + (userId == null ? "" : userId) + ","
+                + rs.getString("type") + ","
+                + rs.getString("status") + ","
+                + csv(rs.getString("message")) + ","
+                + rs.getBoolean("is_read") + ","
+                + csv(rs.getString("error_message")) + ","
+                + toText(rs.getTimestamp("created_at")));
+        writer.write('\n');
+    }
+
+    // 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고 내부 따옴표는 두 번
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String toText(Timestamp ts) {
+        return (ts == null) ? "" : ts.toLocalDateTime().toString();
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return (date == null) ? null : date.atStartOfDay();
+    }
+
+    // 종료일 포함 → 다음 날 0시 미만
+    private static LocalDateTime endOf(LocalDate date) {
+        return (date == null) ? null : date.plusDays(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알림 클러스터 전달 (Redis Pub/Sub)
+ * - 개인 알림: notify:user:{userId % shards} 채널, 전체 알림: notify:all 채널로 발행
+ * - 메시지를 받은 인스턴스는 자기 인스턴스에 연결된 emitter 에만 전달 (SseBroadcaster)
+ *   → 사용자가 어느 인스턴스에 연결돼 있어도 알림 도달
+ * - 구독
+ *     notify:all 은 항상 구독
+ *     개인 샤드 채널은 이 인스턴스에 연결된 사용자가 있는 샤드만 (첫 사용자 연결 시 구독, 마지막 사용자 해제 시 해제)
+ *     → 연결이 없는 인스턴스는 개인 알림 메시지를 받지 않음
+ * - 전체 알림 전달 수
+ *     수신 인스턴스마다 notify:delivery:{id} 리스트에 "큐에 넣은 연결 수:끊은 연결 수" 를 RPUSH
+ *     발행 인스턴스는 수신 인스턴스 수만큼 모이거나 delivery-wait-ms 가 지날 때까지 기다려 합산 (관리자 응답용)
+ * - 메트릭
+ *     notifications.pubsub.latency   : 발행 → 수신 인스턴스 전달까지 걸린 시간 (type=user|all)
+ *     notifications.pubsub.delivered : 이 인스턴스에서 큐에 넣은 연결 수
+ * - 이벤트 ID 는 발행 시 Redis INCR(notify:seq) 로 부여 → 클러스터 전체 단조 증가 (SSE id 필드)
+ *   발행 인스턴스가 재전송 버퍼(NotificationReplayBuffer)에 한 번 기록
+ *   Redis 에서 ID 를 받지 못하면 발행 실패 (인스턴스 내 ID 와 섞지 않음)
+ *   notify:seq 가 초기화돼 이 인스턴스가 이미 발급한 ID 이하가 나오면 그 값 위로 다시 맞춘 뒤 발급 (Lua 1회)
+ * - pubsub.enabled=false 면 Redis 없이 이 인스턴스에 바로 전달 (단일 인스턴스/테스트용, ID 는 인스턴스 내 증가값만 사용)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationPublisher implements MessageListener {
+
+    private static final String TYPE_USER = "user";
+    private static final String TYPE_ALL = "all";
+    private static final Duration DELIVERY_TTL = Duration.ofMinutes(1);
+    private static final long DELIVERY_POLL_MS = 20L;
+
+    // KEYS[1]=notify:seq, ARGV[1]=이 인스턴스가 마지막으로 발급한 ID (초기화로 되돌아갔으면 그 위로 재설정)
+    private static final DefaultRedisScript<Long> NEXT_SEQ = new DefaultRedisScript<>("""
+            local v = redis.call('INCR', KEYS[1])
+            if v <= tonumber(ARGV[1]) then
+                redis.call('SET', KEYS[1], ARGV[1])
+                v = redis.call('INCR', KEYS[1])
+            end
+            return v
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SseBroadcaster sseBroadcaster;
+    private final NotificationReplayBuffer replayBuffer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // pubsub 비활성 시에만 사용하는 인스턴스 내 ID (재기동해도 줄지 않도록 시각으로 시작)
+    private final AtomicLong localSeq = new AtomicLong(System.currentTimeMillis());
+    // notify:seq 로 마지막 발급받은 ID (초기화 감지/재설정용)
+    private final AtomicLong lastIssued = new AtomicLong();
+
+    @Value("${notifications.pubsub.enabled:true}")
+    private boolean enabled;
+
+    // 개인 알림 채널 샤드 수
+    @Value("${notifications.pubsub.shards:16}")
+    private int shards;
+
+    // 전체 알림 전달 수 집계 대기 시간
+    @Value("${notifications.pubsub.delivery-wait-ms:500}")
+    private long deliveryWaitMs;
+
+    // 샤드별 이 인스턴스에 연결된 사용자 수 (0 → 1 구독, 1 → 0 해제)
+    private int[] shardUsers;
+
+    @PostConstruct
+    void subscribe() {
+        if (!enabled) return;
+        shardUsers = new int[shards];
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeys.notifyAllChannel()));
+        sseBroadcaster.addPresenceListener(new SseBroadcaster.PresenceListener() {
+            @Override
+            public void onFirstConnection(Long userId) {
+                changeShardUsers(shardOf(userId), 1);
+            }
+
+            @Override
+            public void onLastDisconnection(Long userId) {
+                // 구독 해제 후 받지 못할 이벤트가 생기므로 메모리 링은 더 이상 완전하지 않음
+                replayBuffer.forget(userId);
+                changeShardUsers(shardOf(userId), -1);
+            }
+        });
+    }
+
+    /** 개인 알림 발행 */
+    public void publishToUser(Long userId, String name, String data) {
+        NotificationEvent event = new NotificationEvent(nextId(), TYPE_USER, userId, name, data, System.currentTimeMillis());
+        if (!enabled) {
+            deliverLocally(event);
+            return;
+        }
+        try {
+            replayBuffer.append(event);
+            redis.convertAndSend(RedisKeys.notifyUserChannel(shardOf(userId)), objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            // Redis 장애 시 최소한 이 인스턴스 연결에는 전달
+            log.warn("[NotificationPublisher] 발행 실패, 이 인스턴스에만 전달: {}", e.getMessage());
+            deliverLocally(event);
+        }
+    }
+
+    /**
+     * 전체 알림 발행
+     *
+     * @return 수신 인스턴스 수 + 연결 단위 전달 수 (delivery-wait-ms 안에 집계된 만큼)
+     */
+    public BroadcastDelivery publishBroadcast(String name, String data) {
+        NotificationEvent event = new NotificationEvent(nextId(), TYPE_ALL, null, name, data, System.currentTimeMillis());
+        if (!enabled) {
+            SseBroadcaster.Delivery d = deliverLocally(event);
+            return new BroadcastDelivery(1, 1, d.queued(), d.evicted());
+        }
+        long receivers;
+        try {
+            replayBuffer.append(event);
+            Long n = redis.convertAndSend(RedisKeys.notifyAllChannel(), objectMapper.writeValueAsString(event));
+            receivers = (n == null) ? 0 : n;
+        } catch (Exception e) {
+            log.warn("[NotificationPublisher] 발행 실패, 이 인스턴스에만 전달: {}", e.getMessage());
+            SseBroadcaster.Delivery d = deliverLocally(event);
+            return new BroadcastDelivery(1, 1, d.queued(), d.evicted());
+        }
+        return awaitDelivery(event.id(), receivers);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            NotificationEvent event = objectMapper.readValue(message.getBody(), NotificationEvent.class);
+            SseBroadcaster.Delivery d = deliverLocally(event);
+            if (TYPE_ALL.equals(event.type())) reportDelivery(event.id(), d);
+        } catch (Exception e) {
+            log.warn("[NotificationPublisher] 알림 메시지 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 수신 인스턴스의 전달 결과 기록 (RPUSH 1회)
+    private void reportDelivery(long eventId, SseBroadcaster.Delivery d) {
+        String key = RedisKeys.notifyDelivery(eventId);
+        redis.opsForList().rightPush(key, d.queued() + ":" + d.evicted());
+        redis.expire(key, DELIVERY_TTL);
+    }
+
+    // 수신 인스턴스 수만큼 결과가 모일 때까지(최대 delivery-wait-ms) 기다려 합산
+    private BroadcastDelivery awaitDelivery(long eventId, long receivers) {
+        String key = RedisKeys.notifyDelivery(eventId);
+        long deadline = System.currentTimeMillis() + deliveryWaitMs;
+        List<String> reports = List.of();
+        try {
+            while (true) {
+                List<String> r = redis.opsForList().range(key, 0, -1);
+                if (r != null) reports = r;
+                if (reports.size() >= receivers || System.currentTimeMillis() >= deadline) break;
+                Thread.sleep(DELIVERY_POLL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("[NotificationPublisher] 전달 수 집계 실패 id={}: {}", eventId, e.getMessage());
+        }
+        long queued = 0;
+        long evicted = 0;
+        for (String report : reports) {
+            int sep = report.indexOf(':');
+            if (sep < 0) continue;
+            queued += Long.parseLong(report.substring(0, sep));
+            evicted += Long.parseLong(report.substring(sep + 1));
+        }
+        return new BroadcastDelivery(receivers, reports.size(), queued, evicted);
+    }
+
+    // 샤드의 로컬 사용자 수 변경 → 0 에서 벗어나면 구독, 0 이 되면 해제
+    private synchronized void changeShardUsers(int shard, int delta) {
+        int before = shardUsers[shard];
+        shardUsers[shard] = before + delta;
+        Topic topic = new ChannelTopic(RedisKeys.notifyUserChannel(shard));
+        if (before == 0 && delta > 0) {
+            listenerContainer.addMessageListener(this, topic);
+        } else if (before + delta == 0) {
+            listenerContainer.removeMessageListener(this, topic);
+        }
+    }
+
+    private int shardOf(Long userId) {
+        return (int) Math.floorMod(userId, (long) shards);
+    }
+
+    /**
+     * 현재까지 발급된 마지막 이벤트 ID (재연결 시 Last-Event-ID 검증용)
+     * - 조회 실패 시 Long.MAX_VALUE (검증 생략)
+     */
+    public long currentSequence() {
+        if (!enabled) return localSeq.get();
+        try {
+            String v = redis.opsForValue().get(RedisKeys.notifySeq());
+            return Math.max(lastIssued.get(), (v == null) ? 0L : Long.parseLong(v));
+        } catch (Exception e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Redis 장애 시 예외 → 호출 측에서 발행 실패 처리
+    private long nextId() {
+        if (!enabled) return localSeq.incrementAndGet();
+        Long id = redis.execute(NEXT_SEQ, List.of(RedisKeys.notifySeq()), String.valueOf(lastIssued.get()));
+        if (id == null) throw new IllegalStateException("알림 ID 발급 실패");
+        lastIssued.accumulateAndGet(id, Math::max);
+        return id;
+    }
+
+    private SseBroadcaster.Delivery deliverLocally(NotificationEvent event) {
+        SseBroadcaster.SseEvent sse = new SseBroadcaster.SseEvent(event.id(), event.name(), event.data());
+        SseBroadcaster.Delivery delivery;
+        if (TYPE_ALL.equals(event.type())) {
+            replayBuffer.remember(event, false);
+            delivery = sseBroadcaster.broadcast(sse);
+        } else {
+            replayBuffer.remember(event, sseBroadcaster.isConnected(event.userId()));
+            delivery = new SseBroadcaster.Delivery(sseBroadcaster.sendToUser(event.userId(), sse), 0);
+        }
+        meterRegistry.timer("notifications.pubsub.latency", "type", event.type())
+                .record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - event.sentAt())));
+        meterRegistry.counter("notifications.pubsub.delivered", "type", event.type()).increment(delivery.queued());
+        return delivery;
+    }
+
+    /** 채널로 주고받는 알림 메시지 */
+    public record NotificationEvent(long id, String type, Long userId, String name, String data, long sentAt) {}
+
+    /**
+     * 전체 알림 전달 결과
+     *
+     * @param instances 메시지를 받은 인스턴스 수
+     * @param reported  전달 수를 보고한 인스턴스 수 (instances 보다 작으면 일부만 집계)
+     * @param queued    큐에 넣은 연결 수
+     * @param evicted   큐가 가득 차 끊은 연결 수
+     */
+    public record BroadcastDelivery(long instances, long reported, long queued, long evicted) {}
+}
@@ -0,0 +1,152 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.notifications.service.NotificationPublisher.NotificationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 알림 재전송 버퍼 (Last-Event-ID 재연결용, notifications 테이블 조회 없음)
+ * - Redis (원본, 발행 인스턴스가 1회 기록)
+ *     notify:replay:user:{userId} : ZSET, score = 이벤트 ID, member = 이벤트 JSON, 최근 size 개
+ *     notify:replay:all           : ZSET, 전체 알림 (사용자마다 복제하지 않음)
+ * - 메모리 (이 인스턴스가 받은 이벤트)
+ *     전체 알림 링 1개 + 이 인스턴스에 연결된 적 있는 사용자 링 (최근 memory-users 명, LRU)
+ *     링마다 "since" 이후 이벤트는 빠짐없이 들고 있으므로 Last-Event-ID >= since 면 Redis 조회 없이 응답
+ *     사용자의 마지막 연결이 끊기면 그 사용자 링은 버림 (샤드 구독 해제로 이후 이벤트를 받지 못해 빠짐없음 보장 불가)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationReplayBuffer {
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+
+    // 사용자(및 전체 알림)당 보관 이벤트 수 (연결 송신 큐 크기보다 작게)
+    @Value("${notifications.replay.size:50}")
+    private int size;
+
+    @Value("${notifications.replay.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    // 메모리 링을 유지할 사용자 수
+    @Value("${notifications.replay.memory-users:10000}")
+    private int memoryUsers;
+
+    private final Ring broadcastRing = new Ring();
+    private Map<Long, Ring> userRings;
+
+    @PostConstruct
+    void initRings() {
+        userRings = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Ring> eldest) {
+                return size() > memoryUsers;
+            }
+        });
+    }
+
+    /** 발행 시 Redis 에 기록 (발행 인스턴스에서 이벤트당 1회) */
+    public void append(NotificationEvent event) {
+        String key = (event.userId() == null) ? RedisKeys.notifyReplayAll() : RedisKeys.notifyReplayUser(event.userId());
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (Exception e) {
+            log.warn("[NotificationReplayBuffer] 직렬화 실패 id={}: {}", event.id(), e.getMessage());
+            return;
+        }
+        long ttlSeconds = Duration.ofMinutes(ttlMinutes).toSeconds();
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.zAdd(key, event.id(), json);
+            conn.zRemRange(key, 0, -(size + 1));
+            conn.expire(key, ttlSeconds);
+            return null;
+        });
+    }
+
+    /**
+     * 수신 시 메모리 링에 기록
+     * - 전체 알림은 항상, 개인 알림은 이미 링이 있거나 이 인스턴스에 연결 중인 사용자만
+     */
+    public void remember(NotificationEvent event, boolean connectedHere) {
+        if (event.id() <= 0) return;
+        if (event.userId() == null) {
+            broadcastRing.add(event, size);
+            return;
+        }
+        Ring ring = connectedHere ? userRings.computeIfAbsent(event.userId(), k -> new Ring()) : userRings.get(event.userId());
+        if (ring != null) ring.add(event, size);
+    }
+
+    /** 사용자 링 버림 (이 인스턴스의 마지막 연결 해제 시) → 다음 재연결은 Redis 에서 재전송 */
+    public void forget(Long userId) {
+        userRings.remove(userId);
+    }
+
+    /**
+     * lastEventId 이후 이벤트 (개인 + 전체, ID 오름차순)
+     * - 메모리 링이 lastEventId 이후를 모두 들고 있으면 메모리, 아니면 Redis
+     */
+    public List<NotificationEvent> since(Long userId, long lastEventId) {
+        Ring userRing = userRings.get(userId);
+        List<NotificationEvent> user = (userRing != null) ? userRing.since(lastEventId) : null;
+        if (user == null) user = fromRedis(RedisKeys.notifyReplayUser(userId), lastEventId);
+        List<NotificationEvent> all = broadcastRing.since(lastEventId);
+        if (all == null) all = fromRedis(RedisKeys.notifyReplayAll(), lastEventId);
+
+        List<NotificationEvent> merged = new ArrayList<>(user.size() + all.size());
+        merged.addAll(user);
+        merged.addAll(all);
+        merged.sort(Comparator.comparingLong(NotificationEvent::id));
+        return (merged.size() <= size) ? merged : merged.subList(merged.size() - size, merged.size());
+    }
+
+    private List<NotificationEvent> fromRedis(String key, long lastEventId) {
+        Set<String> members = redis.opsForZSet().rangeByScore(key, lastEventId + 1, Double.POSITIVE_INFINITY);
+        if (members == null || members.isEmpty()) return List.of();
+        List<NotificationEvent> out = new ArrayList<>(members.size());
+        for (String json : members) {
+            try {
+                out.add(objectMapper.readValue(json, NotificationEvent.class));
+            } catch (Exception e) {
+                log.warn("[NotificationReplayBuffer] 역직렬화 실패 key={}: {}", key, e.getMessage());
+            }
+        }
+        return out;
+    }
+
+    // 크기 제한 링: since 이후 이벤트는 모두 보관 중
+    private static final class Ring {
+        private final Deque<NotificationEvent> events = new ArrayDeque<>();
+        private long since = -1;
+
+        synchronized void add(NotificationEvent event, int max) {
+            if (since < 0) since = event.id() - 1; // 링 생성 이전 이벤트는 모름
+            events.addLast(event);
+            while (events.size() > max) since = events.removeFirst().id();
+        }
+
+        // 보장 범위 밖이면 null
+        synchronized List<NotificationEvent> since(long lastEventId) {
+            if (since < 0 || lastEventId < since) return null;
+            List<NotificationEvent> out = new ArrayList<>();
+            for (NotificationEvent e : events) {
+                if (e.id() > lastEventId) out.add(e);
+            }
+            return out;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.finalproject.domain.notifications.service;
 
-import com.example.finalproject.domain.notifications.controller.SseController;
 import com.example.finalproject.domain.notifications.entity.Notification;
 import com.example.finalproject.domain.notifications.entity.Notification.Status;
 import com.example.finalproject.domain.notifications.entity.Notification.Type;
@@ -17,7 +16,8 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final SlackService slackService;
-    private final SseController sseController;
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationUnreadCounter unreadCounter;
 
     // 개인 알림
     public void sendUserNotification(Long userId, String message) {
@@ -28,7 +28,7 @@ public class NotificationService {
 
         try {
             slackService.sendUserMessage("[개인 알림] " + message);
-            sseController.sendToUser(userId, "[개인 알림] " + message);
+            notificationPublisher.publishToUser(userId, "notification", "[개인 알림] " + message);
             notification.setStatus(Status.SUCCESS);
         } catch (Exception e) {
             notification.setStatus(Status.FAILED);
@@ -40,18 +40,20 @@ public class NotificationService {
         }
 
         notificationRepository.save(notification);
+        unreadCounter.onPersonalSent(userId);
     }
 
-    // 전체 알림
-    public void sendBroadcastNotification(String message) {
+    // 전체 알림 (모든 인스턴스로 발행, 수신 인스턴스 수 + 연결 단위 전달 수 반환)
+    public NotificationPublisher.BroadcastDelivery sendBroadcastNotification(String message) {
         Notification notification = new Notification();
         notification.setUserId(null);
         notification.setType(Type.ALL);
         notification.setMessage(message);
 
+        NotificationPublisher.BroadcastDelivery delivery;
         try {
             slackService.sendAllUserMessage("[전체 알림] " + message);
-            sseController.sendToAll("[전체 알림] " + message);
+            delivery = notificationPublisher.publishBroadcast("broadcast", "[전체 알림] " + message);
             notification.setStatus(Status.SUCCESS);
         } catch (Exception e) {
             notification.setStatus(Status.FAILED);
@@ -62,5 +64,7 @@ public class NotificationService {
         }
 
         notificationRepository.save(notification);
+        unreadCounter.onBroadcastSent();
+        return delivery;
     }
 }
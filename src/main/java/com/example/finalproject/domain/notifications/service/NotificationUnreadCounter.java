@@ -0,0 +1,131 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.notifications.entity.Notification;
+import com.example.finalproject.domain.notifications.entity.NotificationReadState;
+import com.example.finalproject.domain.notifications.repository.NotificationBroadcastReadRepository;
+import com.example.finalproject.domain.notifications.repository.NotificationReadStateRepository;
+import com.example.finalproject.domain.notifications.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 안 읽은 알림 수 (Redis)
+ * - notify:unread:{userId} : HASH { personal = 안 읽은 개인 알림 수, bseen = 읽음 처리된 전체 알림 수 }
+ * - notify:broadcast:total : 발송 성공한 전체 알림 수 (전체 알림 1건당 INCR 1회, 사용자별 갱신 없음)
+ * - 안 읽은 수 = personal + (total - bseen) → 요청당 Redis 왕복 1회 (HMGET + GET 파이프라인), notifications COUNT 없음
+ * - 키가 없거나 필드가 빠져 있으면 DB 에서 한 번 계산해 적재 (ttl-days 동안 접근 없으면 자연 소멸)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationUnreadCounter {
+
+    private static final String PERSONAL = "personal";
+    private static final String BROADCAST_SEEN = "bseen";
+
+    private final StringRedisTemplate redis;
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final NotificationBroadcastReadRepository broadcastReadRepository;
+
+    @Value("${notifications.unread.ttl-days:7}")
+    private long ttlDays;
+
+    /** 안 읽은 알림 수 */
+    public long count(Long userId) {
+        String key = RedisKeys.notifyUnread(userId);
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.hMGet(key, PERSONAL, BROADCAST_SEEN);
+            conn.get(RedisKeys.notifyBroadcastTotal());
+            return null;
+        });
+        List<?> fields = (List<?>) results.get(0);
+        Object total = results.get(1);
+        if (fields == null || fields.get(0) == null || fields.get(1) == null || total == null) {
+            return load(userId);
+        }
+        long personal = Long.parseLong(fields.get(0).toString());
+        long unreadBroadcasts = Long.parseLong(total.toString()) - Long.parseLong(fields.get(1).toString());
+        return Math.max(0, personal) + Math.max(0, unreadBroadcasts);
+    }
+
+    /** 개인 알림 발송 성공 */
+    public void onPersonalSent(Long userId) {
+        adjust(userId, PERSONAL, 1);
+    }
+
+    /** 전체 알림 발송 성공 (합계가 아직 없으면 다음 조회 때 DB 에서 계산) */
+    public void onBroadcastSent() {
+        try {
+            if (Boolean.TRUE.equals(redis.hasKey(RedisKeys.notifyBroadcastTotal()))) {
+                redis.opsForValue().increment(RedisKeys.notifyBroadcastTotal());
+            }
+        } catch (Exception e) {
+            log.warn("[NotificationUnreadCounter] 전체 알림 합계 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 개인 알림 1건 읽음 */
+    public void onPersonalRead(Long userId) {
+        adjust(userId, PERSONAL, -1);
+    }
+
+    /** 전체 알림 1건 읽음 */
+    public void onBroadcastRead(Long userId) {
+        adjust(userId, BROADCAST_SEEN, 1);
+    }
+
+    /** 모두 읽음 → 다음 조회 때 DB 기준으로 다시 계산 */
+    public void evict(Long userId) {
+        try {
+            redis.delete(RedisKeys.notifyUnread(userId));
+        } catch (Exception e) {
+            log.warn("[NotificationUnreadCounter] 초기화 실패 userId={}: {}", userId, e.getMessage());
+        }
+    }
+
+    // 적재된 사용자만 증감 (없으면 다음 조회 때 DB 에서 계산)
+    private void adjust(Long userId, String field, long delta) {
+        String key = RedisKeys.notifyUnread(userId);
+        try {
+            if (Boolean.TRUE.equals(redis.hasKey(key))) {
+                redis.opsForHash().increment(key, field, delta);
+            }
+        } catch (Exception e) {
+            log.warn("[NotificationUnreadCounter] 갱신 실패 userId={}: {}", userId, e.getMessage());
+            evict(userId);
+        }
+    }
+
+    // DB 에서 한 번 계산해 적재
+    private long load(Long userId) {
+        long personal = notificationRepository.countByUserIdAndIsReadFalseAndStatus(userId, Notification.Status.SUCCESS);
+        long total = notificationRepository.countByTypeAndStatus(Notification.Type.ALL, Notification.Status.SUCCESS);
+        long upTo = readStateRepository.findById(userId).map(NotificationReadState::getBroadcastReadUpTo).orElse(0L);
+        long unreadBroadcasts = notificationRepository.countByTypeAndStatusAndIdGreaterThan(
+                Notification.Type.ALL, Notification.Status.SUCCESS, upTo)
+                - broadcastReadRepository.countByUserIdAndNotificationIdGreaterThan(userId, upTo);
+
+        String key = RedisKeys.notifyUnread(userId);
+        // 합계 키가 이미 있으면 그 값을 기준으로 bseen 계산 (다른 사용자 카운터와 같은 기준 유지)
+        redis.opsForValue().setIfAbsent(RedisKeys.notifyBroadcastTotal(), String.valueOf(total));
+        String current = redis.opsForValue().get(RedisKeys.notifyBroadcastTotal());
+        long base = (current == null) ? total : Long.parseLong(current);
+        redis.opsForHash().putAll(key, Map.of(
+                PERSONAL, String.valueOf(personal),
+                BROADCAST_SEEN, String.valueOf(base - unreadBroadcasts)));
+        redis.expire(key, Duration.ofDays(ttlDays));
+        return personal + Math.max(0, unreadBroadcasts);
+    }
+}
@@ -0,0 +1,346 @@
+package com.example.finalproject.domain.notifications.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SSE 전송기 (이 인스턴스에 연결된 emitter 대상)
+ * - 사용자당 여러 연결 허용 (기기/탭마다 emitter 1개)
+ * - 연결마다 크기 제한 송신 큐 → 호출 스레드는 큐에 넣기만 하고 바로 반환
+ * - 큐에 쌓인 이벤트는 전송 스레드 풀이 연결 단위로 비움 (연결 하나를 동시에 두 스레드가 비우지 않음)
+ * - 큐가 가득 찬 연결(느린 소비자)은 즉시 끊음 → 느린 클라이언트 하나가 전체 전송을 막지 않음
+ * - 전송 1건이 send-timeout-ms 를 넘기면(소켓 버퍼가 찬 연결) 감시 작업이 연결을 끊고 전송 스레드를 interrupt
+ *   → 막힌 소켓이 전송 스레드를 오래 붙잡아 정상 연결의 전송이 밀리지 않음
+ * - 한 번에 연결당 최대 DRAIN_BATCH 건만 보내고 남은 이벤트는 다시 풀에 제출 (바쁜 연결이 스레드를 독점하지 않음)
+ * - 연결 종료(complete)는 항상 전송 스레드에서 → 발행 스레드가 전송 중인 emitter 의 잠금을 기다리지 않음
+ * - 이벤트는 한 번만 직렬화해서 모든 연결이 공유
+ * - heartbeat-ms 마다 주석(": ping") 전송 → 프록시/로드밸런서가 유휴 연결을 끊지 않도록
+ * - 사용자의 첫 연결/마지막 연결 해제를 PresenceListener 에 알림 (NotificationPublisher 의 샤드 채널 구독/해제)
+ */
+@Slf4j
+@Component
+public class SseBroadcaster {
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+    private static final int DRAIN_BATCH = 32;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final List<PresenceListener> presenceListeners = new CopyOnWriteArrayList<>();
+
+    // 연결당 대기 가능한 이벤트 수 (넘으면 느린 소비자로 보고 연결 종료)
+    @Value("${notifications.sse.queue-capacity:64}")
+    private int queueCapacity;
+
+    // 송신 큐를 비우는 스레드 수
+    @Value("${notifications.sse.sender-threads:8}")
+    private int senderThreads;
+
+    // 전송 1건 최대 허용 시간 (넘으면 연결 종료)
+    @Value("${notifications.sse.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void initExecutor() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "sse-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 연결 등록 (완료/타임아웃/오류 시 자동 해제)
+     * - 먼저 연결을 등록해 실시간 이벤트를 받기 시작한 뒤 backlog(INIT + 놓친 이벤트)를 조회
+     * - backlog 를 큐 맨 앞에 두고, 그 사이 들어온 실시간 이벤트 중 backlog 와 겹치는 id 는 제외
+     *   → 재연결 중 발행된 이벤트도 빠짐/중복/순서 뒤바뀜 없이 전달
+     */
+    public void register(Long userId, SseEmitter emitter, Supplier<List<SseEvent>> backlog) {
+        Connection conn = new Connection(userId, emitter, queueCapacity);
+        conn.draining.set(true); // backlog 정리 전까지 전송 보류
+        AtomicBoolean first = new AtomicBoolean();
+        connections.compute(userId, (k, conns) -> {
+            if (conns == null) {
+                conns = ConcurrentHashMap.newKeySet();
+                first.set(true);
+            }
+            conns.add(conn);
+            return conns;
+        });
+        connectionCount.incrementAndGet();
+        if (first.get()) presenceListeners.forEach(l -> l.onFirstConnection(userId));
+
+        emitter.onCompletion(() -> remove(conn));
+        emitter.onTimeout(() -> remove(conn));
+        emitter.onError(e -> remove(conn));
+
+        List<SseEvent> head;
+        try {
+            head = backlog.get();
+        } catch (Exception e) {
+            log.warn("[SseBroadcaster] 놓친 이벤트 조회 실패 userId={}: {}", userId, e.getMessage());
+            head = List.of();
+        }
+        long maxId = head.stream().mapToLong(SseEvent::id).max().orElse(0L);
+        synchronized (conn) {
+            List<Outbound> live = new ArrayList<>();
+            conn.queue.drainTo(live);
+            for (SseEvent e : head) {
+                if (!conn.queue.offer(new Outbound(e.id(), e.toSse()))) break;
+            }
+            for (Outbound o : live) {
+                if (o.id() > 0 && o.id() <= maxId) continue; // backlog 로 이미 보냄
+                if (!conn.queue.offer(o)) break;
+            }
+        }
+        conn.draining.set(false);
+        if ((!conn.queue.isEmpty() || conn.closed) && conn.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(conn));
+        }
+    }
+
+    /**
+     * 특정 사용자의 모든 연결에 전송
+     *
+     * @return 큐에 넣은 연결 수
+     */
+    public int sendToUser(Long userId, SseEvent event) {
+        Set<Connection> conns = connections.get(userId);
+        if (conns == null || conns.isEmpty()) return 0;
+        Outbound out = new Outbound(event.id(), event.toSse());
+        int delivered = 0;
+        for (Connection conn : conns) {
+            if (enqueue(conn, out)) delivered++;
+        }
+        return delivered;
+    }
+
+    /**
+     * 이 인스턴스의 모든 연결에 전송 (큐에 넣고 바로 반환)
+     *
+     * @return 큐에 넣은 연결 수 / 큐가 가득 차 끊은 연결 수
+     */
+    public Delivery broadcast(SseEvent event) {
+        return broadcast(new Outbound(event.id(), event.toSse()));
+    }
+
+    /** 하트비트 (모든 연결에 주석 한 줄) */
+    @Scheduled(fixedRateString = "${notifications.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (connectionCount.get() > 0) broadcast(new Outbound(0L, HEARTBEAT));
+    }
+
+    /** 전송이 send-timeout-ms 넘게 멈춘 연결 종료 */
+    @Scheduled(fixedDelayString = "${notifications.sse.send-check-ms:1000}")
+    public void evictStalled() {
+        long now = System.currentTimeMillis();
+        for (Set<Connection> conns : connections.values()) {
+            for (Connection conn : conns) {
+                if (conn.interruptIfStalled(now, sendTimeoutMs)) {
+                    log.info("[SseBroadcaster] 전송 지연 연결 종료 userId={} ({}ms 초과)", conn.userId, sendTimeoutMs);
+                    evict(conn, new TimeoutException("SSE 전송 시간 초과"));
+                }
+            }
+        }
+    }
+
+    /** 첫 연결/마지막 연결 해제 알림 등록 */
+    public void addPresenceListener(PresenceListener listener) {
+        presenceListeners.add(listener);
+    }
+
+    /** 현재 연결 수 */
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    /** 이 인스턴스에 연결이 있는 사용자인지 */
+    public boolean isConnected(Long userId) {
+        return connections.containsKey(userId);
+    }
+
+    private Delivery broadcast(Outbound out) {
+        int queued = 0;
+        int evicted = 0;
+        for (Set<Connection> conns : connections.values()) {
+            for (Connection conn : conns) {
+                if (enqueue(conn, out)) queued++;
+                else evicted++;
+            }
+        }
+        return new Delivery(queued, evicted);
+    }
+
+    private boolean enqueue(Connection conn, Outbound out) {
+        boolean offered;
+        synchronized (conn) {
+            offered = conn.queue.offer(out);
+        }
+        if (!offered) {
+            log.info("[SseBroadcaster] 느린 연결 종료 userId={} (대기 {}건)", conn.userId, conn.queue.size());
+            evict(conn, null);
+            return false;
+        }
+        if (conn.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(conn));
+        }
+        return true;
+    }
+
+    // 큐가 빌 때까지 전송, 그 사이 새로 들어온 이벤트가 있으면 이어서 처리 (DRAIN_BATCH 건마다 다른 연결에 양보)
+    private void drain(Connection conn) {
+        do {
+            Outbound out;
+            int sent = 0;
+            while (!conn.closed && (out = conn.queue.poll()) != null) {
+                conn.beginSend();
+                try {
+                    conn.emitter.send(out.data());
+                } catch (Exception e) {
+                    remove(conn);
+                    conn.queue.clear();
+                    conn.emitter.completeWithError(e);
+                    return;
+                } finally {
+                    conn.endSend();
+                }
+                if (++sent >= DRAIN_BATCH && !conn.queue.isEmpty()) {
+                    executor.execute(() -> drain(conn)); // draining 유지한 채 재제출
+                    return;
+                }
+            }
+            if (conn.closed) {
+                if (conn.closeCause == null) conn.emitter.complete();
+                else conn.emitter.completeWithError(conn.closeCause);
+                return;
+            }
+            conn.draining.set(false);
+        } while ((!conn.queue.isEmpty() || conn.closed) && conn.draining.compareAndSet(false, true));
+    }
+
+    // 등록 해제 후 종료는 전송 스레드에 맡김 (진행 중인 전송이 있으면 그 전송이 끝난 뒤)
+    private void evict(Connection conn, Exception cause) {
+        if (!remove(conn)) return;
+        conn.queue.clear();
+        conn.closeCause = cause;
+        conn.closed = true;
+        if (conn.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(conn));
+        }
+    }
+
+    // 사용자의 마지막 연결이면 맵에서도 제거 (등록과 같은 키 단위로 원자적)
+    private boolean remove(Connection conn) {
+        AtomicBoolean removed = new AtomicBoolean();
+        AtomicBoolean last = new AtomicBoolean();
+        connections.computeIfPresent(conn.userId, (k, conns) -> {
+            removed.set(conns.remove(conn));
+            last.set(conns.isEmpty());
+            return conns.isEmpty() ? null : conns;
+        });
+        if (removed.get()) connectionCount.decrementAndGet();
+        if (removed.get() && last.get()) presenceListeners.forEach(l -> l.onLastDisconnection(conn.userId));
+        return removed.get();
+    }
+
+    /**
+     * 전송할 이벤트
+     *
+     * @param id 단조 증가 이벤트 ID (0 이면 id 없이 전송, 재전송 대상 아님)
+     */
+    public record SseEvent(long id, String name, String data) {
+        Set<ResponseBodyEmitter.DataWithMediaType> toSse() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+            if (id > 0) builder.id(String.valueOf(id));
+            return builder.build();
+        }
+    }
+
+    /** 전송 결과 */
+    public record Delivery(int queued, int evicted) {}
+
+    /** 사용자 연결 상태 변화 (이 인스턴스 기준, 같은 사용자에 대해 호출 순서는 보장하지 않으므로 수를 세어 판단) */
+    public interface PresenceListener {
+        void onFirstConnection(Long userId);
+
+        void onLastDisconnection(Long userId);
+    }
+
+    // 직렬화된 이벤트 + 중복 제거용 id
+    private record Outbound(long id, Set<ResponseBodyEmitter.DataWithMediaType> data) {}
+
+    private static final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Outbound> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Exception closeCause;
+
+        // 진행 중인 전송 (감시 작업과 전송 스레드가 sendLock 으로 주고받음)
+        private final Object sendLock = new Object();
+        private Thread sender;
+        private long sendStartedAt;
+        private boolean interrupted;
+
+        private Connection(Long userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void beginSend() {
+            synchronized (sendLock) {
+                sender = Thread.currentThread();
+                sendStartedAt = System.currentTimeMillis();
+            }
+        }
+
+        // 감시 작업이 보낸 interrupt 는 이 연결의 전송에만 적용 (스레드가 다음 연결로 넘어가기 전에 지움)
+        private void endSend() {
+            synchronized (sendLock) {
+                if (interrupted) Thread.interrupted();
+                sender = null;
+                interrupted = false;
+            }
+        }
+
+        private boolean interruptIfStalled(long now, long timeoutMs) {
+            synchronized (sendLock) {
+                if (sender == null || interrupted || now - sendStartedAt <= timeoutMs) return false;
+                interrupted = true;
+                sender.interrupt();
+                return true;
+            }
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.example.finalproject.domain.carts.exception.AccessDeniedException;
 import com.example.finalproject.domain.orders.dto.request.OrderStatusRequest;
 import com.example.finalproject.domain.orders.dto.request.OrdersRequest;
 import com.example.finalproject.domain.orders.dto.response.OrderStatusResponse;
+import com.example.finalproject.domain.orders.dto.response.OrderTimelineResponse;
 import com.example.finalproject.domain.orders.dto.response.OrdersResponse;
+import com.example.finalproject.domain.orders.service.OrderLogService;
 import com.example.finalproject.domain.orders.service.OrdersService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,6 +23,7 @@ import java.util.Map;
 public class OrdersController {
 
     private final OrdersService ordersService;
+    private final OrderLogService orderLogService;
 
     private Long verifiedUser(Authentication authentication) {
 
@@ -72,6 +75,15 @@ public class OrdersController {
         return ResponseEntity.ok(resp);
     }
 
+    // 주문 상태 타임라인 조회 (주문자 / 가게 사장님)
+    @GetMapping("/{orderId}/timeline")
+    public ResponseEntity<?> getTimeline(
+            Authentication authentication,
+            @PathVariable Long orderId) {
+        OrderTimelineResponse resp = orderLogService.getTimeline(authentication, orderId);
+        return ResponseEntity.ok(resp);
+    }
+
     // 주문 내역 삭제
     @DeleteMapping("/{orderId}")
     public ResponseEntity<?> deleteOrder(
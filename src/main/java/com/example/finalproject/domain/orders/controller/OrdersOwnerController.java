@@ -1,20 +1,25 @@
 package com.example.finalproject.domain.orders.controller;
 
 import com.example.finalproject.domain.carts.exception.AccessDeniedException;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.orders.dto.response.OrdersResponse;
+import com.example.finalproject.domain.orders.dto.response.StoreStatusDurationResponse;
 import com.example.finalproject.domain.orders.exception.ErrorCode;
 import com.example.finalproject.domain.orders.exception.OrdersException;
+import com.example.finalproject.domain.orders.service.OrderLogService;
 import com.example.finalproject.domain.orders.service.OrdersService;
 import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +30,7 @@ public class OrdersOwnerController {
 
     private final OrdersService ordersService;
     private final StoresRepository storesRepository;
+    private final OrderLogService orderLogService;
 
 
     private Long verifiedUser(Authentication authentication) {
@@ -69,4 +75,50 @@ public class OrdersOwnerController {
         return ResponseEntity.ok(resp);
 
     }
+
+    // 주문 조회 - 커서 기반 (최신순, COUNT 없음)
+    @GetMapping("/orders/stores/{storeId}/cursor")
+    public ResponseEntity<?> getOrdersByStoreCursor(
+            Authentication authentication,
+            @PathVariable Long storeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        // 권한 체크
+        Long userId = verifiedUser(authentication);
+
+        Stores store = storesRepository.findById(storeId)
+                .orElseThrow(() -> new OrdersException(ErrorCode.STORE_NOT_FOUND, "존재하지 않는 가게입니다."));
+
+        if (!store.getOwner().getId().equals(userId)) {
+            throw new AccessDeniedException("본인 가게만 접근할 수 있습니다.");
+        }
+
+        CursorPage<OrdersResponse> resp = ordersService.getOrdersByStoreCursor(storeId, cursor, size);
+        return ResponseEntity.ok(resp);
+    }
+
+    // 상태별 평균 체류 시간 (기간 미지정 시 최근 7일)
+    @GetMapping("/orders/stores/{storeId}/status-durations")
+    public ResponseEntity<?> getStatusDurations(
+            Authentication authentication,
+            @PathVariable Long storeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        // 권한 체크
+        Long userId = verifiedUser(authentication);
+
+        Stores store = storesRepository.findById(storeId)
+                .orElseThrow(() -> new OrdersException(ErrorCode.STORE_NOT_FOUND, "존재하지 않는 가게입니다."));
+
+        if (!store.getOwner().getId().equals(userId)) {
+            throw new AccessDeniedException("본인 가게만 접근할 수 있습니다.");
+        }
+
+        LocalDate end = (to != null) ? to : LocalDate.now();
+        LocalDate start = (from != null) ? from : end.minusDays(6);
+        StoreStatusDurationResponse resp = orderLogService.getStatusDurations(storeId, start, end);
+        return ResponseEntity.ok(resp);
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.finalproject.domain.orders.controller;
 
 import com.example.finalproject.domain.carts.exception.AccessDeniedException;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.orders.dto.response.OrdersResponse;
 import com.example.finalproject.domain.orders.service.OrdersService;
 import lombok.RequiredArgsConstructor;
@@ -58,4 +59,18 @@ public class OrdersUserController {
 
     }
 
+    // 주문 조회 - 커서 기반 (최신순, COUNT 없음)
+    @GetMapping("/orders/cursor")
+    public ResponseEntity<?> getOrdersByUserCursor(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        // 권한 체크
+        Long userId = verifiedUser(authentication);
+
+        CursorPage<OrdersResponse> resp = ordersService.getOrdersByUserCursor(userId, cursor, size);
+        return ResponseEntity.ok(resp);
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.example.finalproject.domain.orders.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class OrderTimelineResponse {
+    private Long orderId;
+    private Long storeId;
+    private String currentStatus;
+    private List<Step> steps;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+        private String status;
+        private LocalDateTime at;
+        // 다음 상태까지 걸린 시간 (현재 상태면 null)
+        private Long durationSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.finalproject.domain.orders.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class StoreStatusDurationResponse {
+    private Long storeId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Item> statuses;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+        private String status;
+        // 해당 상태에서 다음 상태로 넘어가기까지 평균 시간
+        private double avgSeconds;
+        // 집계에 사용된 전환 수
+        private long samples;
+    }
+}
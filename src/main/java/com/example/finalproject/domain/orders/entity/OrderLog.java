@@ -0,0 +1,42 @@
+package com.example.finalproject.domain.orders.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주문 상태 변경 이력 (order_logs)
+ * - 쓰기는 OrderLogAppender 가 다건 INSERT 로만 수행, 엔티티는 조회용
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(
+        name = "order_logs",
+        indexes = {
+                // 주문 타임라인 / 가게별 상태 체류 시간 조회
+                @Index(name = "idx_order_logs_store_created", columnList = "store_id, created_at")
+        }
+)
+public class OrderLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "store_id")
+    private Long storeId;
+
+    // 전환된 주문 상태 (Orders.Status 이름)
+    @Column(length = 50)
+    private String action;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.example.finalproject.domain.orders.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderLogBatchRepository
+ * 주문 상태 이력(order_logs) 다건 INSERT
+ * - 버퍼(OrderLogAppender)에 쌓인 이력을 INSERT ... VALUES (...), (...), ... 한 문장으로 기록
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderLogBatchRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO order_logs (order_id, store_id, action, created_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 다건 INSERT (한 문장) */
+    public void insertAll(List<OrderLogRow> rows) {
+        if (rows.isEmpty()) return;
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(rows.size() * 4);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW);
+            OrderLogRow r = rows.get(i);
+            args.add(r.orderId());
+            args.add(r.storeId());
+            args.add(r.action());
+            args.add(Timestamp.valueOf(r.createdAt()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /** 이력 1건 */
+    public record OrderLogRow(Long orderId, Long storeId, String action, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,60 @@
+package com.example.finalproject.domain.orders.repository;
+
+import com.example.finalproject.domain.orders.entity.OrderLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderLogRepository extends JpaRepository<OrderLog, Long> {
+
+    /**
+     * 주문 타임라인 (시간순)
+     * - (store_id, created_at) 인덱스 범위를 주문 생성 시각부터로 좁힌 뒤 order_id 로 거름
+     */
+    @Query("""
+            SELECT l FROM OrderLog l
+            WHERE l.storeId = :storeId
+              AND l.createdAt >= :since
+              AND l.orderId = :orderId
+            ORDER BY l.createdAt ASC, l.id ASC
+            """)
+    List<OrderLog> findTimeline(@Param("storeId") Long storeId,
+                                @Param("orderId") Long orderId,
+                                @Param("since") LocalDateTime since);
+
+    /**
+     * 가게별 상태 평균 체류 시간
+     * - 기간 내 로그를 (store_id, created_at) 인덱스로 읽고, 주문별로 다음 상태까지 걸린 시간을 상태별 평균
+     * - 다음 상태가 없는 마지막 상태(완료/취소, 진행 중)는 제외
+     *
+     * @return [action, avg_seconds, samples]
+     */
+    @Query(value = """
+            SELECT t.action,
+                   AVG(TIMESTAMPDIFF(SECOND, t.created_at, t.next_at)) AS avg_seconds,
+                   COUNT(*)                                          AS samples
+            FROM (
+                SELECT l.action,
+                       l.created_at,
+                       LEAD(l.created_at) OVER (PARTITION BY l.order_id ORDER BY l.created_at, l.id) AS next_at
+                FROM order_logs l
+                WHERE l.store_id = :storeId
+                  AND l.created_at >= :from
+                  AND l.created_at < :to
+            ) t
+            WHERE t.next_at IS NOT NULL
+            GROUP BY t.action
+            """, nativeQuery = true)
+    List<Object[]> findStatusDurations(@Param("storeId") Long storeId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    // 주문 삭제 시 이력 정리 (FK)
+    @Modifying
+    @Query("DELETE FROM OrderLog l WHERE l.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -2,13 +2,45 @@ package com.example.finalproject.domain.orders.repository;
 
 import com.example.finalproject.domain.orders.entity.Orders;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<Orders, Long> {
     List<Orders> findByUser_Id(Long userId, Pageable pageable);
     List<Orders> findByStore_Id(Long storeId, Pageable pageable);
+
+    /**
+     * [커서] 유저 주문 목록 (최신순)
+     * - (createdAt, id) 가 커서보다 작은 주문만 → OFFSET 없이 인덱스(user_id, created_at, id) 탐색
+     * - pageable 은 크기만 사용 (PageRequest.of(0, size))
+     */
+    @Query("""
+        select o from Orders o
+        where o.user.id = :userId
+          and (o.createdAt < :cursorAt or (o.createdAt = :cursorAt and o.id < :cursorId))
+        order by o.createdAt desc, o.id desc
+        """)
+    Slice<Orders> findUserOrdersBefore(@Param("userId") Long userId,
+                                       @Param("cursorAt") LocalDateTime cursorAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    /** [커서] 가게 주문 목록 (최신순) - 인덱스(store_id, created_at, id) */
+    @Query("""
+        select o from Orders o
+        where o.store.id = :storeId
+          and (o.createdAt < :cursorAt or (o.createdAt = :cursorAt and o.id < :cursorId))
+        order by o.createdAt desc, o.id desc
+        """)
+    Slice<Orders> findStoreOrdersBefore(@Param("storeId") Long storeId,
+                                        @Param("cursorAt") LocalDateTime cursorAt,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
 }
@@ -0,0 +1,165 @@
+package com.example.finalproject.domain.orders.service;
+
+import com.example.finalproject.domain.orders.repository.OrderLogBatchRepository;
+import com.example.finalproject.domain.orders.repository.OrderLogBatchRepository.OrderLogRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주문 상태 이력 write-behind 버퍼
+ * - 상태 변경 트랜잭션이 커밋된 뒤 메모리 큐에 넣기만 함 (요청 경로에서 order_logs INSERT 없음, 롤백된 변경은 기록 안 함)
+ * - 주기적으로(flush-interval-ms) 큐를 비워 batch-size 건씩 다건 INSERT 1문장으로 기록
+ * - created_at 은 큐에 넣을 때가 아니라 상태가 바뀐 시각 → 반영이 늦어도 타임라인/체류 시간은 정확
+ * - 반영 실패 시
+ *     묶음 전체가 실패하면 한 건씩 다시 시도해 FK 위반(그 사이 삭제된 주문) 행만 버림
+ *     DB 장애 등으로 계속 실패하면 큐로 되돌려 다음 주기에 재시도
+ * - 큐 상한(capacity) 초과분은 버리고 메트릭으로 집계, 종료 시(@PreDestroy) 남은 이력 반영
+ * - 메트릭
+ *     orders.log.buffer.depth          : 큐에 쌓인 이력 수
+ *     orders.log.buffer.flushed        : 기록된 이력 수
+ *     orders.log.buffer.dropped        : 버린 이력 수 (reason=full|integrity)
+ *     orders.log.buffer.flush.failures : 반영 실패 횟수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderLogAppender {
+
+    private final OrderLogBatchRepository batchRepository;
+    private final MeterRegistry meterRegistry;
+
+    // 주기 flush 와 종료 시 drain 이 겹치지 않도록
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 큐에 담을 수 있는 최대 이력 수 (DB 장애가 길어져도 메모리가 무한히 늘지 않도록)
+    @Value("${orders.log.buffer.capacity:50000}")
+    private int capacity;
+
+    // INSERT 1문장에 담을 최대 행 수
+    @Value("${orders.log.buffer.batch-size:500}")
+    private int batchSize;
+
+    private BlockingQueue<OrderLogRow> queue;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(capacity);
+        meterRegistry.gauge("orders.log.buffer.depth", queue, BlockingQueue::size);
+    }
+
+    /**
+     * 상태 전환 1건 기록 (트랜잭션 안이면 커밋 후, 밖이면 즉시 큐에 추가)
+     *
+     * @param status 전환된 상태
+     * @param at     전환 시각
+     */
+    public void append(Long orderId, Long storeId, String status, LocalDateTime at) {
+        OrderLogRow row = new OrderLogRow(orderId, storeId, status, at);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(row);
+                }
+            });
+        } else {
+            offer(row);
+        }
+    }
+
+    /** 주기 flush */
+    @Scheduled(fixedDelayString = "${orders.log.buffer.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** 종료 시 남은 이력 반영 */
+    @PreDestroy
+    public void drain() {
+        flushLock.lock();
+        try {
+            flushAll();
+            if (!queue.isEmpty()) {
+                log.warn("[OrderLogAppender] 종료 시 반영 실패로 남은 이력 {}건", queue.size());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void offer(OrderLogRow row) {
+        if (!queue.offer(row)) {
+            meterRegistry.counter("orders.log.buffer.dropped", "reason", "full").increment();
+        }
+    }
+
+    // 큐가 빌 때까지 batch-size 씩 기록, 실패하면 이번 주기 중단
+    private void flushAll() {
+        List<OrderLogRow> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            boolean ok = write(batch);
+            batch.clear();
+            if (!ok) return;
+        }
+    }
+
+    private boolean write(List<OrderLogRow> batch) {
+        try {
+            batchRepository.insertAll(batch);
+            meterRegistry.counter("orders.log.buffer.flushed").increment(batch.size());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // 묶음 안에 삭제된 주문이 섞였을 수 있음 → 한 건씩 기록
+            return writeOneByOne(batch);
+        } catch (Exception e) {
+            log.warn("[OrderLogAppender] order_logs 반영 실패 ({}건), 다음 주기에 재시도: {}", batch.size(), e.getMessage());
+            meterRegistry.counter("orders.log.buffer.flush.failures").increment();
+            requeue(batch);
+            return false;
+        }
+    }
+
+    private boolean writeOneByOne(List<OrderLogRow> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            OrderLogRow row = batch.get(i);
+            try {
+                batchRepository.insertAll(List.of(row));
+                meterRegistry.counter("orders.log.buffer.flushed").increment();
+            } catch (DataIntegrityViolationException e) {
+                log.info("[OrderLogAppender] 이력 버림 orderId={} status={}: {}", row.orderId(), row.action(), e.getMessage());
+                meterRegistry.counter("orders.log.buffer.dropped", "reason", "integrity").increment();
+            } catch (Exception e) {
+                log.warn("[OrderLogAppender] order_logs 반영 실패 ({}건), 다음 주기에 재시도: {}", batch.size() - i, e.getMessage());
+                meterRegistry.counter("orders.log.buffer.flush.failures").increment();
+                requeue(batch.subList(i, batch.size()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void requeue(List<OrderLogRow> rows) {
+        for (OrderLogRow row : rows) offer(row);
+    }
+}
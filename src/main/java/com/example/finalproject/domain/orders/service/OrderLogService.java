@@ -0,0 +1,116 @@
+package com.example.finalproject.domain.orders.service;
+
+import com.example.finalproject.domain.carts.exception.AccessDeniedException;
+import com.example.finalproject.domain.orders.dto.response.OrderTimelineResponse;
+import com.example.finalproject.domain.orders.dto.response.StoreStatusDurationResponse;
+import com.example.finalproject.domain.orders.entity.OrderLog;
+import com.example.finalproject.domain.orders.entity.Orders;
+import com.example.finalproject.domain.orders.exception.ErrorCode;
+import com.example.finalproject.domain.orders.exception.OrdersException;
+import com.example.finalproject.domain.orders.repository.OrderLogRepository;
+import com.example.finalproject.domain.orders.repository.OrdersRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주문 상태 이력 조회 (order_logs)
+ * - 주문 타임라인: 상태별 전환 시각 + 다음 상태까지 걸린 시간
+ * - 가게별 상태 평균 체류 시간: 기간 내 전환 기준
+ * - 두 조회 모두 (store_id, created_at) 인덱스 범위 조회
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderLogService {
+
+    // 체류 시간 집계 최대 기간 (인덱스 범위 조회 크기 제한)
+    private static final long MAX_RANGE_DAYS = 92;
+
+    private final OrdersRepository ordersRepository;
+    private final OrderLogRepository orderLogRepository;
+
+    @Transactional(readOnly = true)
+    public OrderTimelineResponse getTimeline(Authentication authentication, Long orderId) {
+
+        // 로그인한 사용자의 userId 가져오기
+        Long userId = Long.valueOf(
+                ((Map<String, Object>) authentication.getDetails()).get("uid").toString()
+        );
+
+        // 주문 확인
+        Orders order = ordersRepository.findById(orderId)
+                .orElseThrow(() -> new OrdersException(ErrorCode.ORDER_NOT_FOUND, "존재하지 않는 주문입니다."));
+
+        // OWNER 권한 여부 확인
+        boolean isOwner = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(r -> r.startsWith("ROLE_") ? r.substring(5) : r)
+                .anyMatch(r -> r.equalsIgnoreCase("OWNER"));
+
+        // OWNER: 가게 주인, 그 외: 주문자 본인만
+        if (isOwner) {
+            if (!order.getStore().getOwner().getId().equals(userId)) {
+                throw new AccessDeniedException("이 가게의 OWNER만 접근할 수 있습니다.");
+            }
+        } else if (!order.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("본인 주문만 접근할 수 있습니다.");
+        }
+
+        // 주문 생성 시각 이전 이력은 없음 (초 단위 절삭 여유 1초)
+        List<OrderLog> logs = orderLogRepository.findTimeline(
+                order.getStore().getId(), orderId, order.getCreatedAt().minusSeconds(1));
+
+        List<OrderTimelineResponse.Step> steps = new ArrayList<>(logs.size());
+        for (int i = 0; i < logs.size(); i++) {
+            OrderLog current = logs.get(i);
+            Long duration = (i + 1 < logs.size())
+                    ? Duration.between(current.getCreatedAt(), logs.get(i + 1).getCreatedAt()).toSeconds()
+                    : null;
+            steps.add(new OrderTimelineResponse.Step(current.getAction(), current.getCreatedAt(), duration));
+        }
+        return new OrderTimelineResponse(order.getId(), order.getStore().getId(), order.getStatus().name(), steps);
+    }
+
+    /**
+     * 가게별 상태 평균 체류 시간
+     *
+     * @param from 시작일 (포함)
+     * @param to   종료일 (포함)
+     */
+    @Transactional(readOnly = true)
+    public StoreStatusDurationResponse getStatusDurations(Long storeId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new OrdersException(ErrorCode.BAD_REQUEST, "조회 기간은 " + MAX_RANGE_DAYS + "일 이내여야 합니다.");
+        }
+
+        List<StoreStatusDurationResponse.Item> items = new ArrayList<>();
+        for (Object[] row : orderLogRepository.findStatusDurations(storeId, from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            items.add(new StoreStatusDurationResponse.Item(
+                    (String) row[0],
+                    ((Number) row[1]).doubleValue(),
+                    ((Number) row[2]).longValue()
+            ));
+        }
+        // 주문 진행 순서(WAITING → ... → COMPLETED)로 정렬
+        items.sort(Comparator.comparingInt(i -> statusOrder(i.getStatus())));
+        return new StoreStatusDurationResponse(storeId, from, to, items);
+    }
+
+    private static int statusOrder(String status) {
+        try {
+            return Orders.Status.valueOf(status).ordinal();
+        } catch (IllegalArgumentException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.example.finalproject.domain.carts.dto.response.CartsItemResponse;
 import com.example.finalproject.domain.carts.dto.response.CartsResponse;
 import com.example.finalproject.domain.carts.exception.AccessDeniedException;
 import com.example.finalproject.domain.carts.service.CartsService;
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.coupons.entity.CouponType;
 import com.example.finalproject.domain.coupons.entity.Coupons;
 import com.example.finalproject.domain.coupons.exception.CouponException;
@@ -21,6 +23,7 @@ import com.example.finalproject.domain.orders.entity.Orders;
 import com.example.finalproject.domain.orders.exception.ErrorCode;
 import com.example.finalproject.domain.orders.exception.OrdersException;
 import com.example.finalproject.domain.orders.repository.OrderItemsRepository;
+import com.example.finalproject.domain.orders.repository.OrderLogRepository;
 import com.example.finalproject.domain.orders.repository.OrderOptionsRepository;
 import com.example.finalproject.domain.orders.repository.OrdersRepository;
 import com.example.finalproject.domain.points.dto.PointsDtos;
@@ -30,6 +33,7 @@ import com.example.finalproject.domain.slack.exception.SlackException;
 import com.example.finalproject.domain.slack.service.SlackService;
 import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.service.StoreScoreService;
 import com.example.finalproject.domain.users.entity.Users;
 import com.example.finalproject.domain.users.repository.UsersRepository;
 import com.example.finalproject.domain.orders.util.OrderSlackMessage;
@@ -67,6 +71,9 @@ public class OrdersService {
     private final CouponsRepository couponsRepository;
     private final CouponsService couponsService;
     private final PointsService pointsService;
+    private final StoreScoreService storeScoreService;
+    private final OrderLogAppender orderLogAppender;    // 상태 이력 (커밋 후 비동기 기록)
+    private final OrderLogRepository orderLogRepository;
 
     @Transactional
     public OrdersResponse createOrder(Long userId, OrdersRequest request) {
@@ -125,6 +132,10 @@ public class OrdersService {
         order.setUpdatedAt(LocalDateTime.now());
 
         ordersRepository.save(order);
+        orderLogAppender.append(order.getId(), store.getId(), order.getStatus().name(), order.getCreatedAt());
+
+        // 추천 점수 집계 반영 (시간 버킷 + 누적 주문 수)
+        storeScoreService.recordOrder(store.getId(), order.getCreatedAt(), 1);
 
         // 쿠폰 적용
         if (request.getUsedCouponId() != null) {
@@ -288,6 +299,7 @@ public class OrdersService {
         order.setStatus(status);
         order.setUpdatedAt(LocalDateTime.now());
         ordersRepository.save(order);
+        orderLogAppender.append(order.getId(), order.getStore().getId(), status.name(), order.getUpdatedAt());
 
         // 사용자 채널로 상태별 알림
         String slackMsg = OrderSlackMessage.of(status.name());
@@ -395,7 +407,46 @@ public class OrdersService {
         return orders.stream().map(this::buildOrderResponse).collect(Collectors.toList());
     }
 
+    // 커서 기반 주문 조회 (유저) - COUNT 없이 다음 페이지 여부만 반환
+    @Transactional(readOnly = true)
+    public CursorPage<OrdersResponse> getOrdersByUserCursor(Long userId, String cursor, int size) {
+        OrderCursor c = decodeCursor(cursor);
+        return CursorPage.of(
+                ordersRepository.findUserOrdersBefore(userId, c.createdAt(), c.id(), CursorPage.limit(size)),
+                this::buildOrderResponse,
+                o -> CursorCodec.encode(o.getCreatedAt(), o.getId())
+        );
+    }
+
+    // 커서 기반 주문 조회 (가게)
+    @Transactional(readOnly = true)
+    public CursorPage<OrdersResponse> getOrdersByStoreCursor(Long storeId, String cursor, int size) {
+        OrderCursor c = decodeCursor(cursor);
+        return CursorPage.of(
+                ordersRepository.findStoreOrdersBefore(storeId, c.createdAt(), c.id(), CursorPage.limit(size)),
+                this::buildOrderResponse,
+                o -> CursorCodec.encode(o.getCreatedAt(), o.getId())
+        );
+    }
+
+    // 커서 → (createdAt, id), 첫 페이지는 가장 큰 값으로 시작
+    private OrderCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new OrderCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+        }
+        String[] p = CursorCodec.decode(cursor, 2)
+                .orElseThrow(() -> new OrdersException(ErrorCode.BAD_REQUEST, "잘못된 커서입니다."));
+        try {
+            return new OrderCursor(LocalDateTime.parse(p[0]), Long.parseLong(p[1]));
+        } catch (RuntimeException e) {
+            throw new OrdersException(ErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+        }
+    }
+
+    private record OrderCursor(LocalDateTime createdAt, Long id) {}
+
     // 주문 삭제
+    @Transactional
     public void deleteOrder(Long userId, Long orderId) {
 
         // 주문 조회
@@ -414,8 +465,11 @@ public class OrdersService {
         }
         // 아이템 삭제
         orderItemsRepository.deleteAll(items);
+        // 상태 이력 삭제
+        orderLogRepository.deleteByOrderId(orderId);
         // 주문 삭제
         ordersRepository.delete(order);
+        storeScoreService.recordOrder(order.getStore().getId(), order.getCreatedAt(), -1);
     }
 
     // response 조합
@@ -92,10 +92,12 @@ public class PointsController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
-    // 포인트 조회
+    // 포인트 조회 (잔액 + 내역 커서 기반, 최신순)
     @GetMapping("/{userId}")
     public ResponseEntity<PointsDtos.UserPointsResponse> getUserPoints(
             @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             Authentication authentication
     ) {
         Long checkUserId = verifiedUser(authentication);
@@ -106,7 +108,7 @@ public class PointsController {
             throw new AccessDeniedException("본인의 포인트만 조회할 수 있습니다.");
         }
 
-        PointsDtos.UserPointsResponse response = pointsService.getUserPoints(userId);
+        PointsDtos.UserPointsResponse response = pointsService.getUserPoints(userId, cursor, size);
         return ResponseEntity.ok(response);
     }
 }
@@ -43,6 +43,8 @@ public class PointsDtos {
     public static class UserPointsResponse{
         private Long userId;
         private int totalPoints;
-        private List<PointResponse> history;
+        private List<PointResponse> history;   // 최신순 1페이지
+        private boolean hasNext;
+        private String nextCursor;             // 다음 페이지 cursor (마지막 페이지면 null)
     }
 }
@@ -0,0 +1,30 @@
+package com.example.finalproject.domain.points.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 사용자별 포인트 잔액 (사용자당 1행)
+ * - points(원장)에 기록할 때마다 같은 트랜잭션에서 원자적 UPDATE 로 증감
+ * - 잔액 확인/차감이 원장 길이와 무관하게 PK 1행 조회/갱신
+ * - 쓰기는 PointBalanceRepository 의 조건부 UPDATE 로만 수행, 엔티티는 조회용
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "point_balances")
+public class PointBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int balance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -8,7 +8,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "points")
+@Table(
+        name = "points",
+        indexes = {
+                // 사용자별 내역 keyset 조회 (id 역순)
+                @Index(name = "idx_points_user_id_id", columnList = "user_id, id")
+        }
+)
 @Getter
 @NoArgsConstructor
 public class Points {
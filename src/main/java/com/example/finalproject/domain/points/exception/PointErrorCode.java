@@ -12,6 +12,7 @@ public enum PointErrorCode {
     POINTS_INVALID_AMOUNT(HttpStatus.BAD_REQUEST, "포인트 금액은 0보다 커야 합니다."),
     POINTS_EXCEEDS_AVAILABLE(HttpStatus.BAD_REQUEST, "보유 포인트보다 많은 금액은 사용할 수 없습니다."),
     POINTS_NOT_ACCUMULATED_WITH_COUPON(HttpStatus.CONFLICT, "할인 쿠폰 적용 주문에는 포인트 적립이 불가합니다."),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "잘못된 커서입니다."),
 
     // 사용자 조회 관련
     USER_NOT_FOUND(HttpStatus.NOT_FOUND, "해당하는 유저가 없습니다.");
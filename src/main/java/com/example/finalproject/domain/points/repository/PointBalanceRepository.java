@@ -0,0 +1,46 @@
+package com.example.finalproject.domain.points.repository;
+
+import com.example.finalproject.domain.points.entity.PointBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface PointBalanceRepository extends JpaRepository<PointBalance, Long> {
+
+    @Query(value = "SELECT balance FROM point_balances WHERE user_id = :userId", nativeQuery = true)
+    Optional<Integer> findBalance(@Param("userId") Long userId);
+
+    // 적립 (행이 없으면 0)
+    @Modifying
+    @Query(value = """
+            UPDATE point_balances
+            SET balance = balance + :amount, updated_at = NOW()
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int credit(@Param("userId") Long userId, @Param("amount") int amount);
+
+    // 조건부 차감 (잔액 부족이거나 행이 없으면 0) → 동시 사용에도 잔액이 음수가 되지 않음
+    @Modifying
+    @Query(value = """
+            UPDATE point_balances
+            SET balance = balance - :amount, updated_at = NOW()
+            WHERE user_id = :userId AND balance >= :amount
+            """, nativeQuery = true)
+    int debit(@Param("userId") Long userId, @Param("amount") int amount);
+
+    /**
+     * 잔액 행 최초 생성 (기존 원장 합계로 초기화)
+     * - 잔액 테이블 도입 전 원장만 있던 사용자용, 이미 있으면 무시
+     */
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO point_balances (user_id, balance, updated_at)
+            SELECT :userId, COALESCE(SUM(p.amount), 0), NOW()
+            FROM points p
+            WHERE p.user_id = :userId
+            """, nativeQuery = true)
+    int initialize(@Param("userId") Long userId);
+}
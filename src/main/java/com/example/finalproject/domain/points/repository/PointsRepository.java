@@ -1,11 +1,21 @@
 package com.example.finalproject.domain.points.repository;
 
 import com.example.finalproject.domain.points.entity.Points;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface PointsRepository extends JpaRepository<Points, Long> {
 
-    List<Points> findByUserId(Long userId);
+    // 포인트 내역 - 커서 기반 (최신순, idx_points_user_id_id)
+    @Query("""
+            SELECT p FROM Points p
+            WHERE p.user.id = :userId AND p.id < :cursorId
+            ORDER BY p.id DESC
+            """)
+    Slice<Points> findHistoryBefore(@Param("userId") Long userId,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
 }
@@ -1,22 +1,30 @@
 package com.example.finalproject.domain.points.service;
 
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.points.dto.PointsDtos;
 import com.example.finalproject.domain.points.entity.Points;
 import com.example.finalproject.domain.points.exception.PointErrorCode;
 import com.example.finalproject.domain.points.exception.PointException;
+import com.example.finalproject.domain.points.repository.PointBalanceRepository;
 import com.example.finalproject.domain.points.repository.PointsRepository;
 import com.example.finalproject.domain.users.entity.Users;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
+/**
+ * 포인트 적립/사용/조회
+ * - 잔액은 point_balances(사용자당 1행)에서 관리, 원장(points) 기록과 같은 트랜잭션에서 증감
+ * - 사용은 "잔액 >= 사용액" 조건부 UPDATE 1회 → 동시 주문이 같은 잔액으로 이중 사용 불가
+ * - 잔액 행이 없는 사용자(도입 전 원장만 있는 경우)는 처음 한 번 원장 합계로 초기화
+ */
 @Service
 @RequiredArgsConstructor
 public class PointsService {
 
     private final PointsRepository pointsRepository;
+    private final PointBalanceRepository pointBalanceRepository;
 
     // 포인트 적립
     @Transactional
@@ -30,77 +38,91 @@ public class PointsService {
         //     throw new PointException(PointErrorCode.POINTS_NOT_ACCUMULATED_WITH_COUPON);
         // }
 
+        // 잔액 먼저 증가 (초기화가 필요하면 이번 적립분이 원장에 들어가기 전 합계로)
+        if (pointBalanceRepository.credit(user.getId(), request.getAmount()) == 0) {
+            pointBalanceRepository.initialize(user.getId());
+            pointBalanceRepository.credit(user.getId(), request.getAmount());
+        }
+
         Points points = new Points(user, request.getAmount(), request.getReason());
         Points saved = pointsRepository.save(points);
 
-        PointsDtos.PointResponse response = new PointsDtos.PointResponse();
-        response.setPointId(saved.getId());
-        response.setUserId(user.getId());
-        response.setAmount(saved.getAmount());
-        response.setReason(saved.getReason());
-        response.setCreatedAt(saved.getCreatedAt());
-
-        return response;
+        return toResponse(saved, user.getId());
     }
 
     // 포인트 사용
     @Transactional
     public PointsDtos.PointResponse usePoints(Users user, PointsDtos.UseRequest request) {
-        int totalPoints = getTotalPoints(user.getId());
-
         if (request.getAmount() <= 0) {
             throw new PointException(PointErrorCode.POINTS_INVALID_AMOUNT);
         }
-        if (totalPoints < request.getAmount()) {
+
+        // 조건부 차감 (0행이면 잔액 부족 또는 잔액 행 없음)
+        // 행 생성(INSERT IGNORE)은 다른 요청이 먼저 만들었으면 0 을 돌려주므로 결과와 상관없이 한 번 더 차감 (적립과 동일)
+        int updated = pointBalanceRepository.debit(user.getId(), request.getAmount());
+        if (updated == 0) {
+            pointBalanceRepository.initialize(user.getId());
+            updated = pointBalanceRepository.debit(user.getId(), request.getAmount());
+        }
+        if (updated == 0) {
             throw new PointException(PointErrorCode.POINTS_EXCEEDS_AVAILABLE);
         }
 
         Points points = new Points(user, -request.getAmount(), "포인트 사용");
         Points saved = pointsRepository.save(points);
 
-        PointsDtos.PointResponse response = new PointsDtos.PointResponse();
-        response.setPointId(saved.getId());
-        response.setUserId(user.getId());
-        response.setAmount(saved.getAmount());
-        response.setReason(saved.getReason());
-        response.setCreatedAt(saved.getCreatedAt());
-
-        return response;
+        return toResponse(saved, user.getId());
     }
 
-    // 유저 포인트 조회 (잔액, 내역)
+    /**
+     * 유저 포인트 조회 (잔액 + 최신순 내역 1페이지)
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     */
     @Transactional
-    public PointsDtos.UserPointsResponse getUserPoints(Long userId) {
-        List<Points> history = pointsRepository.findByUserId(userId);
-
-        int total = history.stream()
-                .mapToInt(Points::getAmount)
-                .sum();
+    public PointsDtos.UserPointsResponse getUserPoints(Long userId, String cursor, int size) {
+        CursorPage<PointsDtos.PointResponse> page = CursorPage.of(
+                pointsRepository.findHistoryBefore(userId, decodeCursor(cursor), CursorPage.limit(size)),
+                p -> toResponse(p, userId),
+                p -> CursorCodec.encode(p.getId())
+        );
 
         PointsDtos.UserPointsResponse response = new PointsDtos.UserPointsResponse();
         response.setUserId(userId);
-        response.setTotalPoints(total);
-
-        // 엔티티 → DTO 변환
-        List<PointsDtos.PointResponse> responses = history.stream().map(p -> {
-            PointsDtos.PointResponse dto = new PointsDtos.PointResponse();
-            dto.setPointId(p.getId());
-            dto.setUserId(p.getUser().getId());
-            dto.setAmount(p.getAmount());
-            dto.setReason(p.getReason());
-            dto.setCreatedAt(p.getCreatedAt());
-            return dto;
-        }).toList();
-
-        response.setHistory(responses);
+        response.setTotalPoints(getTotalPoints(userId));
+        response.setHistory(page.content());
+        response.setHasNext(page.hasNext());
+        response.setNextCursor(page.nextCursor());
         return response;
     }
 
-    // 총 포인트 계산
+    // 잔액 조회 (PK 1행, 없으면 원장 합계로 초기화)
     private int getTotalPoints(Long userId) {
-        return pointsRepository.findByUserId(userId)
-                .stream()
-                .mapToInt(Points::getAmount)
-                .sum();
+        return pointBalanceRepository.findBalance(userId).orElseGet(() -> {
+            pointBalanceRepository.initialize(userId);
+            return pointBalanceRepository.findBalance(userId).orElse(0);
+        });
+    }
+
+    private Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Long.MAX_VALUE;
+        String[] p = CursorCodec.decode(cursor, 1)
+                .orElseThrow(() -> new PointException(PointErrorCode.INVALID_CURSOR));
+        try {
+            return Long.parseLong(p[0]);
+        } catch (NumberFormatException e) {
+            throw new PointException(PointErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    // 엔티티 → DTO 변환
+    private PointsDtos.PointResponse toResponse(Points p, Long userId) {
+        PointsDtos.PointResponse dto = new PointsDtos.PointResponse();
+        dto.setPointId(p.getId());
+        dto.setUserId(userId);
+        dto.setAmount(p.getAmount());
+        dto.setReason(p.getReason());
+        dto.setCreatedAt(p.getCreatedAt());
+        return dto;
     }
 }
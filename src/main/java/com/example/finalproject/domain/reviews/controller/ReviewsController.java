@@ -1,5 +1,6 @@
 package com.example.finalproject.domain.reviews.controller;
 
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.reviews.dto.request.ReviewsCreateRequest;
 import com.example.finalproject.domain.reviews.dto.request.ReviewsUpdateRequest;
 import com.example.finalproject.domain.reviews.dto.response.ReviewsItemResponse;
@@ -127,6 +128,55 @@ public class ReviewsController {
         );
     }
 
+    /**
+     * 리뷰 목록 조회 - 커서 기반 (공용)
+     * - 경로: GET /stores/{storeId}/reviews/cursor
+     * - 최신순, COUNT 없음 / 응답의 nextCursor 를 다음 요청 cursor 로 전달
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ReviewsItemResponse>> listReviewsCursor(@PathVariable Long storeId,
+                                                                             @RequestParam(required = false) Integer minRating,
+                                                                             @RequestParam(required = false) Integer maxRating,
+                                                                             @RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(
+                reviewsService.getPublicOrMineCursor(storeId, minRating, maxRating, cursor, size)
+        );
+    }
+
+    /**
+     * 오너 전용 리뷰 목록 조회 - 커서 기반
+     * - 경로: GET /stores/{storeId}/reviews/owner/cursor
+     */
+    @GetMapping("/owner/cursor")
+    public ResponseEntity<CursorPage<ReviewsItemResponse>> listOwnerReviewsCursor(@PathVariable Long storeId,
+                                                                                  @RequestParam(required = false) Integer minRating,
+                                                                                  @RequestParam(required = false) Integer maxRating,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "10") int size) {
+        if (currentRole() != UserRole.OWNER) {
+            throw new StoresApiException(StoresErrorCode.FORBIDDEN, "해당 리뷰 목록 조회는 OWNER만 가능합니다.");
+        }
+        return ResponseEntity.ok(
+                reviewsService.getReviewsByOwnerCursor(storeId, minRating, maxRating, cursor, size)
+        );
+    }
+
+    /**
+     * 리뷰 + 사장님 댓글 동시 조회 - 커서 기반
+     * - 경로: GET /stores/{storeId}/reviews/with-comment/cursor
+     */
+    @GetMapping("/with-comment/cursor")
+    public ResponseEntity<CursorPage<ReviewsWithCommentResponse>> listWithReplyCursor(@PathVariable Long storeId,
+                                                                                      @RequestParam(required = false) Integer minRating,
+                                                                                      @RequestParam(required = false) Integer maxRating,
+                                                                                      @RequestParam(required = false) String cursor,
+                                                                                      @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(
+                reviewsService.getStoreReviewsWithCommentCursor(storeId, minRating, maxRating, cursor, size)
+        );
+    }
+
     /**
      * 리뷰 수정 (USER 전용)
      * - 경로: PATCH /stores/{storeId}/reviews/{reviewId}
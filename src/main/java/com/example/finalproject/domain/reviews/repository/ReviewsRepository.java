@@ -3,8 +3,12 @@ package com.example.finalproject.domain.reviews.repository;
 import com.example.finalproject.domain.reviews.entity.Reviews;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -79,5 +83,61 @@ public interface ReviewsRepository extends JpaRepository<Reviews, Long> {
      * @return        존재 여부 (true = 존재)
      */
     boolean existsByIdAndStore_IdAndStore_Owner_Id(Long id, Long storeId, Long ownerId);
-}
 
+    /**
+     * [커서] 특정 가게 리뷰 목록 (최신순)
+     * - (createdAt, id) 가 커서보다 작은 리뷰만 조회 → OFFSET/COUNT 없음
+     * - 인덱스(store_id, is_deleted, created_at, id) 사용
+     *
+     * @param storeId   가게 ID
+     * @param minRating 최소 별점
+     * @param maxRating 최대 별점
+     * @param cursorAt  커서 작성일시
+     * @param cursorId  커서 리뷰 ID
+     * @param pageable  크기만 사용 (PageRequest.of(0, size))
+     * @return          다음 페이지 존재 여부를 포함한 Slice
+     */
+    @Query("""
+        select r from Reviews r
+        where r.store.id = :storeId
+          and r.isDeleted = false
+          and r.rating between :minRating and :maxRating
+          and (r.createdAt < :cursorAt or (r.createdAt = :cursorAt and r.id < :cursorId))
+        order by r.createdAt desc, r.id desc
+        """)
+    Slice<Reviews> findStoreReviewsBefore(@Param("storeId") Long storeId,
+                                          @Param("minRating") Integer minRating,
+                                          @Param("maxRating") Integer maxRating,
+                                          @Param("cursorAt") LocalDateTime cursorAt,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    /**
+     * [커서] 특정 유저가 특정 가게에 작성한 리뷰 목록 (최신순)
+     *
+     * @param userId    유저 ID
+     * @param storeId   가게 ID
+     * @param minRating 최소 별점
+     * @param maxRating 최대 별점
+     * @param cursorAt  커서 작성일시
+     * @param cursorId  커서 리뷰 ID
+     * @param pageable  크기만 사용 (PageRequest.of(0, size))
+     * @return          다음 페이지 존재 여부를 포함한 Slice
+     */
+    @Query("""
+        select r from Reviews r
+        where r.user.id = :userId
+          and r.store.id = :storeId
+          and r.isDeleted = false
+          and r.rating between :minRating and :maxRating
+          and (r.createdAt < :cursorAt or (r.createdAt = :cursorAt and r.id < :cursorId))
+        order by r.createdAt desc, r.id desc
+        """)
+    Slice<Reviews> findUserStoreReviewsBefore(@Param("userId") Long userId,
+                                              @Param("storeId") Long storeId,
+                                              @Param("minRating") Integer minRating,
+                                              @Param("maxRating") Integer maxRating,
+                                              @Param("cursorAt") LocalDateTime cursorAt,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+}
@@ -1,5 +1,7 @@
 package com.example.finalproject.domain.reviews.service;
 
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.orders.entity.Orders;
 import com.example.finalproject.domain.orders.repository.OrdersRepository;
 import com.example.finalproject.domain.reviews.dto.request.ReviewsCreateRequest;
@@ -15,6 +17,7 @@ import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.exception.StoresApiException;
 import com.example.finalproject.domain.stores.exception.StoresErrorCode;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.service.StoreScoreService;
 import com.example.finalproject.domain.users.entity.Users;
 import com.example.finalproject.domain.users.repository.UsersRepository;
 import jakarta.transaction.Transactional;
@@ -22,6 +25,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -51,6 +55,7 @@ public class ReviewsService {
     private final UsersRepository usersRepository;
     private final OrdersRepository ordersRepository;
     private final ReviewsCommentsRepository reviewsCommentsRepository;
+    private final StoreScoreService storeScoreService;
 
     private static final long USER_DELETE_WINDOW_HOURS = 24;      // 작성자 자가 삭제 허용 창
     private static final long OWNER_RETENTION_YEARS   = 1;        // 오너 소프트삭제 보관기간
@@ -133,6 +138,7 @@ public class ReviewsService {
                 .build();
 
         reviewsRepository.save(review);
+        storeScoreService.recordReview(store.getId(), review.getCreatedAt(), 1, ratingOf(review));
         return toItemResponse(review);
     }
 
@@ -233,14 +239,110 @@ public class ReviewsService {
 
         if (reviewPage.isEmpty()) return Page.empty(pageable);
 
-        List<Long> reviewIds = reviewPage.stream().map(Reviews::getId).toList();
+        List<ReviewsWithCommentResponse> items = withOwnerComments(reviewPage.getContent());
+        return new PageImpl<>(items, pageable, reviewPage.getTotalElements());
+    }
+
+    /**
+     * 리뷰 조회 - 커서 기반 (공용/내 리뷰)
+     * - getPublicOrMine 과 동일한 규칙, COUNT 없이 다음 페이지 커서만 반환
+     */
+    @Transactional
+    public CursorPage<ReviewsItemResponse> getPublicOrMineCursor(Long storeId,
+                                                                 Integer minRating,
+                                                                 Integer maxRating,
+                                                                 String cursor,
+                                                                 int size) {
+        int min = (minRating == null) ? 1 : minRating;
+        int max = (maxRating == null) ? 5 : maxRating;
+        if (min < 1 || max > 5 || min > max) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "별점 범위가 올바르지 않습니다.");
+        }
+        ReviewCursor c = decodeCursor(cursor);
+
+        storesRepository.findById(storeId)
+                .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다."));
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean loggedIn = (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(String.valueOf(auth.getPrincipal())));
+
+        Slice<Reviews> slice = loggedIn
+                ? reviewsRepository.findUserStoreReviewsBefore(getCurrentUserOrThrow().getId(), storeId, min, max,
+                        c.createdAt(), c.id(), CursorPage.limit(size))
+                : reviewsRepository.findStoreReviewsBefore(storeId, min, max,
+                        c.createdAt(), c.id(), CursorPage.limit(size));
+        return CursorPage.of(slice, this::toItemResponse, ReviewsService::cursorOf);
+    }
+
+    /**
+     * 오너 전용 리뷰 조회 - 커서 기반
+     */
+    @Transactional
+    public CursorPage<ReviewsItemResponse> getReviewsByOwnerCursor(Long storeId,
+                                                                   Integer minRating,
+                                                                   Integer maxRating,
+                                                                   String cursor,
+                                                                   int size) {
+        Users me = getCurrentUserOrThrow();
+
+        int min = (minRating == null) ? 1 : minRating;
+        int max = (maxRating == null) ? 5 : maxRating;
+        if (min < 1 || max > 5 || min > max) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "별점 범위가 올바르지 않습니다.");
+        }
+        ReviewCursor c = decodeCursor(cursor);
+
+        Stores store = storesRepository.findById(storeId)
+                .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다."));
+        if (!Objects.equals(store.getOwner().getId(), me.getId())) {
+            throw new StoresApiException(StoresErrorCode.FORBIDDEN, "자신의 가게 리뷰만 조회할 수 있습니다.");
+        }
+
+        return CursorPage.of(
+                reviewsRepository.findStoreReviewsBefore(storeId, min, max, c.createdAt(), c.id(), CursorPage.limit(size)),
+                this::toItemResponse,
+                ReviewsService::cursorOf
+        );
+    }
+
+    /**
+     * 리뷰 + 사장님 댓글 조회 - 커서 기반
+     */
+    @Transactional
+    public CursorPage<ReviewsWithCommentResponse> getStoreReviewsWithCommentCursor(Long storeId,
+                                                                                   Integer minRating,
+                                                                                   Integer maxRating,
+                                                                                   String cursor,
+                                                                                   int size) {
+        int min = (minRating == null) ? 1 : minRating;
+        int max = (maxRating == null) ? 5 : maxRating;
+        if (min < 1 || max > 5 || min > max) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "별점 범위가 올바르지 않습니다.");
+        }
+        ReviewCursor c = decodeCursor(cursor);
+
+        storesRepository.findById(storeId)
+                .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다."));
+
+        Slice<Reviews> slice = reviewsRepository.findStoreReviewsBefore(
+                storeId, min, max, c.createdAt(), c.id(), CursorPage.limit(size));
+        List<Reviews> rows = slice.getContent();
+        String next = (slice.hasNext() && !rows.isEmpty()) ? cursorOf(rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(withOwnerComments(rows), slice.getSize(), slice.hasNext(), next);
+    }
+
+    /** 리뷰 목록에 사장님 댓글을 한 번의 IN 조회로 붙여서 DTO 변환 */
+    private List<ReviewsWithCommentResponse> withOwnerComments(List<Reviews> reviews) {
+        if (reviews.isEmpty()) return List.of();
+
+        List<Long> reviewIds = reviews.stream().map(Reviews::getId).toList();
         List<ReviewsComments> replies =
                 reviewsCommentsRepository.findByReview_IdInAndIsDeletedFalse(reviewIds);
 
         Map<Long, ReviewsComments> replyMap = replies.stream()
                 .collect(Collectors.toMap(rc -> rc.getReview().getId(), rc -> rc));
 
-        List<ReviewsWithCommentResponse> items = reviewPage.getContent().stream()
+        return reviews.stream()
                 .map(r -> {
                     ReviewsComments rc = replyMap.get(r.getId());
                     ReviewsWithCommentResponse.OwnerCommentDto replyDto = (rc == null) ? null :
@@ -262,10 +364,28 @@ public class ReviewsService {
                     );
                 })
                 .toList();
+    }
 
-        return new PageImpl<>(items, pageable, reviewPage.getTotalElements());
+    // 커서 → (createdAt, id), 첫 페이지는 가장 큰 값으로 시작
+    private ReviewCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new ReviewCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+        }
+        String[] p = CursorCodec.decode(cursor, 2)
+                .orElseThrow(() -> new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다."));
+        try {
+            return new ReviewCursor(LocalDateTime.parse(p[0]), Long.parseLong(p[1]));
+        } catch (RuntimeException e) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+        }
+    }
+
+    private static String cursorOf(Reviews r) {
+        return CursorCodec.encode(r.getCreatedAt(), r.getId());
     }
 
+    private record ReviewCursor(LocalDateTime createdAt, Long id) {}
+
     /**
      * 리뷰 수정 (USER 전용)
      * - 본인 리뷰만
@@ -316,6 +436,8 @@ public class ReviewsService {
         // 엔티티 메서드 있으면 사용, 없으면 setter
         review.update(rating, content);
         reviewsRepository.save(review);
+        storeScoreService.recordReview(storeId, review.getCreatedAt(), 0,
+                ratingOf(review) - (oldRating == null ? 0 : oldRating));
 
         return new ReviewsUpdateResponse(
                 oldRating, oldContent, oldUpdatedAt,
@@ -348,6 +470,9 @@ public class ReviewsService {
         }
 
         reviewsRepository.delete(review);
+        if (!review.isDeleted()) {
+            storeScoreService.recordReview(storeId, review.getCreatedAt(), -1, -ratingOf(review));
+        }
         return ResponseEntity.ok(Map.of("message", "리뷰가 삭제되었습니다."));
     }
 
@@ -371,6 +496,7 @@ public class ReviewsService {
 
         review.softDeleteByOwner();
         reviewsRepository.save(review);
+        storeScoreService.recordReview(storeId, review.getCreatedAt(), -1, -ratingOf(review));
         return ResponseEntity.ok(Map.of("message", "사용자 리뷰를 삭제했습니다. (1년 보관, 복구 가능)"));
     }
 
@@ -400,6 +526,7 @@ public class ReviewsService {
 
         review.restore();
         reviewsRepository.save(review);
+        storeScoreService.recordReview(storeId, review.getCreatedAt(), 1, ratingOf(review));
         return ResponseEntity.ok(Map.of("message", "리뷰를 복구했습니다."));
     }
 
@@ -415,4 +542,9 @@ public class ReviewsService {
                 r.getCreatedAt()
         );
     }
-}
\ No newline at end of file
+
+    /** 추천 점수 집계용 별점 (null 방어) */
+    private static int ratingOf(Reviews r) {
+        return r.getRating() == null ? 0 : r.getRating();
+    }
+}
@@ -3,6 +3,7 @@ package com.example.finalproject.domain.searches.controller;
 import com.example.finalproject.domain.searches.dto.SearchesRequestDto;
 import com.example.finalproject.domain.searches.dto.SearchesResponseDto;
 import com.example.finalproject.domain.searches.service.SearchesService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.ResponseEntity;
@@ -22,7 +23,7 @@ public class SearchesController {
     //검색 기록 등록 기능
     @PostMapping
     public ResponseEntity<SearchesResponseDto> create(
-            @RequestBody SearchesRequestDto request,
+            @Valid @RequestBody SearchesRequestDto request,
             Authentication authentication
     ) throws BadRequestException {
         Long userId = Long.valueOf(
@@ -36,7 +37,7 @@ public class SearchesController {
     //검색 기록 업데이트 기능
     @PutMapping
     public ResponseEntity<SearchesResponseDto> update(
-            @RequestBody SearchesRequestDto request,
+            @Valid @RequestBody SearchesRequestDto request,
             Authentication authentication
     ) throws BadRequestException {
         Long userId = Long.valueOf(
@@ -1,5 +1,7 @@
 package com.example.finalproject.domain.searches.dto;
 
+import com.example.finalproject.domain.elasticsearchpopular.service.SearchRecordBuffer;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,7 +10,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchesRequestDto {
+    @Size(max = SearchRecordBuffer.MAX_KEYWORD_LENGTH)
     private String keyword;
+    @Size(max = SearchRecordBuffer.MAX_REGION_LENGTH)
     private String region;
     private Long userId;
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.example.finalproject.domain.searches.repository;
 
 import com.example.finalproject.domain.searches.entity.Searches;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +20,49 @@ public interface SearchesRepository extends JpaRepository<Searches,Long> {
     List<Searches> findByUserIdAndRegion(Long userId, String region);
 
     List<Searches> findAllByUserIdAndKeywordAndRegion(Long userId, String keyword, String region);
+
+    // 최근 검색어 Redis 적재용 (마지막 검색 시각 내림차순 N개)
+    @Query("SELECT s FROM Searches s WHERE s.userId = :userId ORDER BY s.updatedAt DESC, s.id DESC")
+    List<Searches> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 최근 검색어 응답에 ID 채우기용 [id, keyword, region]
+    @Query("SELECT s.id, s.keyword, s.region FROM Searches s WHERE s.userId = :userId AND s.keyword IN :keywords")
+    List<Object[]> findIdsByUserIdAndKeywordIn(@Param("userId") Long userId,
+                                               @Param("keywords") Collection<String> keywords);
+
+    // 보관 개수(cap)를 넘긴 사용자 (정리 작업 대상, user_id 순 keyset → 묶음마다 afterUserId 이후 범위만 스캔)
+    @Query(value = """
+        SELECT user_id FROM searches
+        WHERE user_id > :afterUserId
+        GROUP BY user_id
+        HAVING COUNT(*) > :cap
+        ORDER BY user_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findUserIdsOverCap(@Param("afterUserId") long afterUserId,
+                                  @Param("cap") int cap,
+                                  @Param("limit") int limit);
+
+    // 검색 기록 ID (유니크 키 (user_id, keyword, region) 조회)
+    @Query("SELECT s.id FROM Searches s WHERE s.userId = :userId AND s.keyword = :keyword AND s.region = :region")
+    Optional<Long> findIdByUserIdAndKeywordAndRegion(@Param("userId") Long userId,
+                                                     @Param("keyword") String keyword,
+                                                     @Param("region") String region);
+
+    // 사용자의 최근 cap 개를 제외한 나머지 삭제 (사용자 단위 짧은 트랜잭션)
+    @Transactional
+    @Modifying
+    @Query(value = """
+        DELETE FROM searches
+        WHERE user_id = :userId
+          AND id NOT IN (
+              SELECT id FROM (
+                  SELECT id FROM searches
+                  WHERE user_id = :userId
+                  ORDER BY updated_at DESC, id DESC
+                  LIMIT :cap
+              ) keep
+          )
+        """, nativeQuery = true)
+    int deleteBeyondCap(@Param("userId") Long userId, @Param("cap") int cap);
 }
@@ -0,0 +1,67 @@
+package com.example.finalproject.domain.searches.scheduler;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.searches.repository.SearchesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * searches 보관 정책
+ * - 사용자당 최근 searches.recent.max-size 개만 보관 (Redis 최근 검색어와 같은 상한)
+ * - 상한을 넘긴 사용자를 user_id 순으로 chunk-size 명씩 찾아 사용자 단위로 초과분 삭제 (짧은 트랜잭션 여러 번)
+ *   다음 묶음은 마지막 user_id 이후부터 → 테이블 전체 GROUP BY 를 묶음마다 반복하지 않고 실행당 한 번 훑음
+ * - 한 번 실행에 최대 max-chunks 묶음까지만 처리하고 나머지는 다음 주기로 (다음 실행은 처음부터)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchRetentionJob {
+
+    private final SearchesRepository searchesRepository;
+    private final StringRedisTemplate redis;
+
+    @Value("${searches.recent.max-size:50}")
+    private int cap;
+
+    @Value("${searches.retention.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${searches.retention.max-chunks:50}")
+    private int maxChunks;
+
+    // 매일 새벽 4시
+    @Scheduled(cron = "0 0 4 * * *")
+    public void purge() {
+        String lockKey = RedisKeys.jobLock("search-retention");
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", Duration.ofHours(1)))) {
+            return; // 다른 인스턴스가 수행 중
+        }
+        try {
+            long deleted = 0;
+            long afterUserId = 0L;
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                List<Long> userIds = searchesRepository.findUserIdsOverCap(afterUserId, cap, chunkSize);
+                if (userIds.isEmpty()) break;
+                for (Long userId : userIds) {
+                    deleted += searchesRepository.deleteBeyondCap(userId, cap);
+                }
+                afterUserId = userIds.get(userIds.size() - 1);
+                if (userIds.size() < chunkSize) break;
+            }
+            if (deleted > 0) {
+                log.info("[SearchRetentionJob] 보관 상한 초과 검색 기록 {}건 삭제", deleted);
+            }
+        } catch (Exception e) {
+            log.error("[SearchRetentionJob] 실패: {}", e.getMessage(), e);
+        } finally {
+            redis.delete(lockKey);
+        }
+    }
+}
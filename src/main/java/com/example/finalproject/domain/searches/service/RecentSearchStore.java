@@ -0,0 +1,169 @@
+package com.example.finalproject.domain.searches.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.searches.entity.Searches;
+import com.example.finalproject.domain.searches.repository.SearchesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 사용자별 최근 검색어 (Redis)
+ * - search:recent:{userId}       : ZSET, member = region + '\n' + keyword, score = 마지막 검색 시각(ms)
+ * - search:recent:count:{userId} : HASH, member → 검색 횟수 (+ 적재 완료 표시 필드 "_loaded")
+ * - 사용자당 최근 max-size 개만 유지 → 기록 O(log n), 조회 O(k)
+ * - 키가 없으면 searches 에서 최근 max-size 개로 적재 (원본은 searches, DB 반영은 SearchRecordBuffer 가 배치로)
+ *   적재는 Lua 한 번으로 "적재 표시가 없을 때만, 이미 있는 항목은 덮어쓰지 않고" 합침
+ *   → 동시에 들어온 기록/다른 요청의 적재와 겹쳐도 방금 기록한 검색어가 지워지지 않음
+ * - 마지막 사용 후 ttl-days 동안 접근이 없으면 자연 소멸
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecentSearchStore {
+
+    private static final String LOADED = "_loaded";
+
+    // KEYS[1]=ZSET, KEYS[2]=HASH, ARGV[1]=적재 표시 필드, ARGV[2]=TTL(초), 이후 (member, score, count) 반복
+    private static final DefaultRedisScript<Long> LOAD_IF_ABSENT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[2], ARGV[1]) == 1 then return 0 end
+            for i = 3, #ARGV, 3 do
+                redis.call('ZADD', KEYS[1], 'NX', ARGV[i + 1], ARGV[i])
+                redis.call('HSETNX', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            redis.call('HSET', KEYS[2], ARGV[1], '1')
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final SearchesRepository searchesRepository;
+
+    // 사용자당 최근 검색어 최대 개수
+    @Value("${searches.recent.max-size:50}")
+    private int maxSize;
+
+    @Value("${searches.recent.ttl-days:30}")
+    private long ttlDays;
+
+    /**
+     * 검색 1건 기록
+     *
+     * @return 기록 후 검색 횟수
+     */
+    public long record(Long userId, String keyword, String region) {
+        ensureLoaded(userId);
+        String zkey = RedisKeys.recentSearches(userId);
+        String hkey = RedisKeys.recentSearchCounts(userId);
+        String member = member(region, keyword);
+        long ttlSeconds = Duration.ofDays(ttlDays).toSeconds();
+
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            conn.zAdd(zkey, System.currentTimeMillis(), member);
+            conn.hIncrBy(hkey, member, 1);
+            conn.zCard(zkey);
+            conn.expire(zkey, ttlSeconds);
+            conn.expire(hkey, ttlSeconds);
+            return null;
+        });
+        long count = ((Number) results.get(1)).longValue();
+        long size = ((Number) results.get(2)).longValue();
+        if (size > maxSize) trim(userId, size);
+        return count;
+    }
+
+    /**
+     * 최근 검색어 (마지막 검색 시각 내림차순)
+     *
+     * @param region null/빈 값이면 전체 지역
+     */
+    public List<RecentSearch> list(Long userId, String region) {
+        ensureLoaded(userId);
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redis.opsForZSet().reverseRangeWithScores(RedisKeys.recentSearches(userId), 0, -1);
+        if (tuples == null || tuples.isEmpty()) return List.of();
+
+        List<String> members = new ArrayList<>(tuples.size());
+        tuples.forEach(t -> members.add(t.getValue()));
+        List<Object> counts = redis.opsForHash().multiGet(RedisKeys.recentSearchCounts(userId), new ArrayList<>(members));
+
+        List<RecentSearch> out = new ArrayList<>(tuples.size());
+        int i = 0;
+        for (ZSetOperations.TypedTuple<String> t : tuples) {
+            Object c = counts.get(i++);
+            String m = t.getValue();
+            int sep = (m == null) ? -1 : m.indexOf('\n');
+            if (sep < 0) continue;
+            String r = m.substring(0, sep);
+            if (region != null && !region.isEmpty() && !region.equals(r)) continue;
+            LocalDateTime usedAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(t.getScore() == null ? 0L : t.getScore().longValue()), ZoneId.systemDefault());
+            out.add(new RecentSearch(m.substring(sep + 1), r,
+                    (c == null) ? 1 : Integer.parseInt(c.toString()), usedAt));
+        }
+        return out;
+    }
+
+    /** 최근 검색어 1건 제거 */
+    public void remove(Long userId, String keyword, String region) {
+        String member = member(region, keyword);
+        try {
+            redis.opsForZSet().remove(RedisKeys.recentSearches(userId), member);
+            redis.opsForHash().delete(RedisKeys.recentSearchCounts(userId), member);
+        } catch (Exception e) {
+            log.warn("[RecentSearchStore] 삭제 실패 userId={}: {}", userId, e.getMessage());
+        }
+    }
+
+    // 오래된 순으로 max-size 초과분 제거 (ZSET 과 HASH 를 함께)
+    private void trim(Long userId, long size) {
+        String zkey = RedisKeys.recentSearches(userId);
+        Set<String> evicted = redis.opsForZSet().range(zkey, 0, size - maxSize - 1);
+        if (evicted == null || evicted.isEmpty()) return;
+        redis.opsForZSet().remove(zkey, evicted.toArray());
+        redis.opsForHash().delete(RedisKeys.recentSearchCounts(userId), evicted.toArray());
+    }
+
+    /**
+     * 적재 표시가 없으면 searches 에서 최근 max-size 개 적재 (DEL 없이 합침, 먼저 들어온 기록 우선)
+     * - searches 행을 직접 만드는 호출자는 행 생성 전에 먼저 호출 (생성한 행이 적재된 뒤 record 로 한 번 더 세지 않도록)
+     */
+    void ensureLoaded(Long userId) {
+        String hkey = RedisKeys.recentSearchCounts(userId);
+        if (Boolean.TRUE.equals(redis.opsForHash().hasKey(hkey, LOADED))) return;
+
+        List<Searches> rows = searchesRepository.findRecentByUserId(userId, PageRequest.of(0, maxSize));
+        List<String> args = new ArrayList<>(2 + rows.size() * 3);
+        args.add(LOADED);
+        args.add(String.valueOf(Duration.ofDays(ttlDays).toSeconds()));
+        for (Searches s : rows) {
+            long usedAt = s.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            args.add(member(s.getRegion(), s.getKeyword()));
+            args.add(String.valueOf(usedAt));
+            args.add(String.valueOf(s.getCount()));
+        }
+        redis.execute(LOAD_IF_ABSENT, List.of(RedisKeys.recentSearches(userId), hkey), args.toArray());
+    }
+
+    private static String member(String region, String keyword) {
+        return region + "\n" + keyword;
+    }
+
+    /** 최근 검색어 1건 */
+    public record RecentSearch(String keyword, String region, int count, LocalDateTime usedAt) {}
+}
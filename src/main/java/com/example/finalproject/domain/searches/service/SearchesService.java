@@ -1,18 +1,22 @@
 package com.example.finalproject.domain.searches.service;
 
+import com.example.finalproject.domain.elasticsearchpopular.repository.SearchCountBatchRepository;
+import com.example.finalproject.domain.elasticsearchpopular.repository.SearchCountBatchRepository.UserSearchCount;
+import com.example.finalproject.domain.elasticsearchpopular.service.SearchRecordBuffer;
 import com.example.finalproject.domain.searches.dto.SearchesRequestDto;
 import com.example.finalproject.domain.searches.dto.SearchesResponseDto;
 import com.example.finalproject.domain.searches.entity.Searches;
 import com.example.finalproject.domain.searches.exception.SearchesErrorCode;
 import com.example.finalproject.domain.searches.exception.SearchesException;
 import com.example.finalproject.domain.searches.repository.SearchesRepository;
+import com.example.finalproject.domain.searches.service.RecentSearchStore.RecentSearch;
 import com.example.finalproject.domain.users.repository.UsersRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +26,9 @@ public class SearchesService {
 
     private final SearchesRepository searchesRepository;
     private final UsersRepository usersRepository;
+    private final RecentSearchStore recentSearchStore;
+    private final SearchRecordBuffer searchRecordBuffer;
+    private final SearchCountBatchRepository searchCountBatchRepository;
 
     /**
      * 검색 기록 저장 / 업데이트
@@ -31,7 +38,8 @@ public class SearchesService {
         if (request.getKeyword() == null || request.getRegion() == null) {
             throw new SearchesException(SearchesErrorCode.BAD_REQUEST, "keyword/region 누락");
         }
-        if (request.getKeyword().length() > 100 || request.getRegion().length() > 50) {
+        if (request.getKeyword().length() > SearchRecordBuffer.MAX_KEYWORD_LENGTH
+                || request.getRegion().length() > SearchRecordBuffer.MAX_REGION_LENGTH) {
             throw new SearchesException(SearchesErrorCode.BAD_REQUEST, "길이 초과");
         }
 
@@ -49,32 +57,31 @@ public class SearchesService {
         String keyword = request.getKeyword();
         String region = request.getRegion();
 
-        // 기존 검색 기록 조회
-        List<Searches> searchesList = searchesRepository.findAllByUserIdAndKeywordAndRegion(userId, keyword, region);
-        Searches searches;
-        if (!searchesList.isEmpty()) {
-            searches = searchesList.get(0); // 첫 번째 엔티티만 사용
-            searches.setCount(searches.getCount() + 1);
+        // 최근 검색어(Redis) 적재를 행 생성보다 먼저 → 방금 만든 행(count 1)을 적재한 뒤 다시 +1 하는 중복 집계 방지
+        recentSearchStore.ensureLoaded(userId);
+
+        // 이미 있는 검색어는 버퍼가 배치 upsert, 처음 검색한 조합만 바로 1행 upsert 해 ID 확보
+        Long id = searchesRepository.findIdByUserIdAndKeywordAndRegion(userId, keyword, region).orElse(null);
+        if (id != null) {
+            searchRecordBuffer.appendUserSearch(userId, keyword, region);
         } else {
-            searches = Searches.builder()
-                    .userId(userId)
-                    .keyword(keyword)
-                    .region(region)
-                    .count(1)
-                    .build();
+            searchCountBatchRepository.addSearchCounts(
+                    List.of(new UserSearchCount(userId, keyword, region, 1)), LocalDateTime.now());
+            id = searchesRepository.findIdByUserIdAndKeywordAndRegion(userId, keyword, region)
+                    .orElseThrow(() -> new IllegalStateException("검색 기록 저장 실패"));
         }
-
-        Searches saved = searchesRepository.save(searches);
+        // 최근 검색어(Redis)에 바로 반영
+        long count = recentSearchStore.record(userId, keyword, region);
 
         return SearchesResponseDto.builder()
-                .id(saved.getId())
-                .keyword(saved.getKeyword())
-                .region(saved.getRegion())
-                .userId(saved.getUserId())
-                .updatedAt(saved.getUpdatedAt())
-                .count(saved.getCount())
+                .id(id)
+                .keyword(keyword)
+                .region(region)
+                .userId(userId)
+                .updatedAt(LocalDateTime.now())
+                .count((int) count)
                 .build();
-        }
+    }
 
     /**
      * 특정 사용자 검색 기록 조회
@@ -85,33 +92,36 @@ public class SearchesService {
             throw new SearchesException(SearchesErrorCode.UNAUTHORIZED, "로그인 필요");
         }
 
-        List<Searches> searches;
-        if (region != null && !region.isEmpty()) {
-            searches = searchesRepository.findByUserIdAndRegion(userId, region);
-        } else {
-            searches = searchesRepository.findByUserId(userId);
-        }
-
-        Comparator<Searches> comparator;
-        if (sort == null || sort.isBlank()) {
-            comparator = Comparator.comparing(Searches::getUpdatedAt).reversed();
+        Comparator<RecentSearch> comparator;
+        if (sort == null || sort.isBlank() || "updatedAt".equalsIgnoreCase(sort)) {
+            comparator = null; // Redis 에서 이미 최근순
         } else if ("count".equalsIgnoreCase(sort)) {
-            comparator = Comparator.comparing(Searches::getCount).reversed();
-        } else if ("updatedAt".equalsIgnoreCase(sort)) {
-            comparator = Comparator.comparing(Searches::getUpdatedAt).reversed();
+            comparator = Comparator.comparingInt(RecentSearch::count).reversed()
+                    .thenComparing(RecentSearch::usedAt, Comparator.reverseOrder());
         } else {
             throw new SearchesException(SearchesErrorCode.BAD_REQUEST, "잘못된 sort 값");
         }
 
-        return searches.stream()
-                .sorted(comparator)
-                .map(s -> SearchesResponseDto.builder()
-                        .id(s.getId())
-                        .keyword(s.getKeyword())
-                        .region(s.getRegion())
-                        .count(s.getCount())
-                        .updatedAt(s.getUpdatedAt())
-                        .userId(s.getUserId())
+        // 최근 검색어 (사용자당 최대 max-size 개)
+        List<RecentSearch> recent = new ArrayList<>(recentSearchStore.list(userId, region));
+        if (comparator != null) recent.sort(comparator);
+        if (recent.isEmpty()) return List.of();
+
+        // 단건 조회/삭제용 ID 는 한 번의 쿼리로 채움 (처음 검색 시 행을 바로 만들므로 보관 정리로 지워진 경우만 null)
+        Map<String, Long> ids = new HashMap<>();
+        List<String> keywords = recent.stream().map(RecentSearch::keyword).distinct().toList();
+        for (Object[] row : searchesRepository.findIdsByUserIdAndKeywordIn(userId, keywords)) {
+            ids.put(row[2] + "\n" + row[1], ((Number) row[0]).longValue());
+        }
+
+        return recent.stream()
+                .map(r -> SearchesResponseDto.builder()
+                        .id(ids.get(r.region() + "\n" + r.keyword()))
+                        .keyword(r.keyword())
+                        .region(r.region())
+                        .count(r.count())
+                        .updatedAt(r.usedAt())
+                        .userId(userId)
                         .build())
                 .collect(Collectors.toList());
     }
@@ -159,5 +169,6 @@ public class SearchesService {
         }
 
         searchesRepository.delete(searches);
+        recentSearchStore.remove(userId, searches.getKeyword(), searches.getRegion());
     }
 }
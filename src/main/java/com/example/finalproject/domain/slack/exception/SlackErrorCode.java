@@ -11,6 +11,7 @@ public enum SlackErrorCode {
     SEND_MESSAGE_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "슬랙 메시지 전송 실패"),
     INVALID_CHANNEL(HttpStatus.BAD_REQUEST, "잘못된 채널 지정"),
     AUTHENTICATION_FAILED(HttpStatus.UNAUTHORIZED, "슬랙 인증 실패"),
+    QUEUE_FULL(HttpStatus.SERVICE_UNAVAILABLE, "슬랙 전송 대기열 초과"),
     UNKNOWN_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "알 수 없는 슬랙 오류");
 
     public final HttpStatus status; // HTTP 상태 코드
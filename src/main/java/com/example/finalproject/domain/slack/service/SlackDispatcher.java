@@ -0,0 +1,295 @@
+package com.example.finalproject.domain.slack.service;
+
+import com.example.finalproject.domain.slack.exception.SlackErrorCode;
+import com.example.finalproject.domain.slack.exception.SlackException;
+import com.slack.api.Slack;
+import com.slack.api.SlackConfig;
+import com.slack.api.methods.MethodsClient;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 슬랙 비동기 전송기 (채널별 대기열)
+ * - 호출 스레드는 채널 대기열에 넣기만 하고 바로 반환 (chat.postMessage 호출은 전송 스레드에서)
+ * - 채널마다 한 번에 요청 1개, 요청 사이 최소 min-interval-ms 간격 (슬랙 채널당 초당 1건 제한)
+ * - 간격/재시도 대기 중 쌓인 메시지는 다음 전송 때 요약 메시지 1건으로 합침
+ *     같은 문구 12건 → "[사장님 알림] 새 주문이 들어왔습니다. (최근 5초간 12건)"
+ * - 429 응답이면 Retry-After 만큼 해당 채널만 대기 후 재시도
+ *   네트워크 오류/5xx 는 지수 백오프로 재시도, 429 와 합쳐 max-attempts 번 실패하면 버림
+ *   그 밖의 슬랙 오류(채널 없음, 인증 실패 등)는 바로 버림
+ * - 메트릭
+ *     slack.dispatch.queue.size   : 채널별 대기 메시지 수 (재시도 중인 묶음 포함)
+ *     slack.dispatch.sent         : 전송한 슬랙 요청 수 (digest=true|false)
+ *     slack.dispatch.messages     : 전송된 원본 메시지 수
+ *     slack.dispatch.rate_limited : 429 응답 수
+ *     slack.dispatch.retries      : 재시도 수
+ *     slack.dispatch.failed       : 전송 포기한 메시지 수
+ *     slack.dispatch.dropped      : 대기열이 가득 차 거절한 메시지 수
+ * - slack.api-url 로 슬랙 API 주소 변경 가능 (로컬 스텁 서버로 테스트할 때)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlackDispatcher {
+
+    private static final long MAX_BACKOFF_MS = 60_000L;
+    private static final int MAX_DIGEST_LINES = 20;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ChannelQueue> queues = new ConcurrentHashMap<>();
+
+    @Value("${slack.token}")
+    private String token;
+
+    @Value("${slack.api-url:https://slack.com/api/}")
+    private String apiUrl;
+
+    // 채널당 대기 가능한 메시지 수 (넘으면 거절)
+    @Value("${slack.dispatcher.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // 같은 채널 요청 사이 최소 간격
+    @Value("${slack.dispatcher.min-interval-ms:1000}")
+    private long minIntervalMs;
+
+    // 요약 메시지 1건에 합칠 최대 메시지 수
+    @Value("${slack.dispatcher.max-batch:100}")
+    private int maxBatch;
+
+    @Value("${slack.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    // 첫 재시도 대기 시간 (이후 2배씩, 최대 60초)
+    @Value("${slack.dispatcher.backoff-ms:1000}")
+    private long backoffMs;
+
+    @Value("${slack.dispatcher.threads:2}")
+    private int threads;
+
+    private MethodsClient methods;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void init() {
+        SlackConfig config = new SlackConfig();
+        config.setMethodsEndpointUrlPrefix(apiUrl);
+        methods = Slack.getInstance(config).methods(token);
+
+        AtomicInteger seq = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "slack-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        int remaining = queues.values().stream().mapToInt(ChannelQueue::size).sum();
+        if (remaining > 0) {
+            log.warn("[SlackDispatcher] 종료 시 미전송 메시지 {}건", remaining);
+        }
+    }
+
+    /**
+     * 채널 대기열에 추가 (바로 반환)
+     *
+     * @throws SlackException 대기열이 가득 찬 경우
+     */
+    public void enqueue(String channel, String text) {
+        ChannelQueue q = queues.computeIfAbsent(channel, this::newQueue);
+        synchronized (q) {
+            if (q.pending.size() >= queueCapacity) {
+                meterRegistry.counter("slack.dispatch.dropped", "channel", channel).increment();
+                throw new SlackException(SlackErrorCode.QUEUE_FULL,
+                        "슬랙 전송 대기열이 가득 찼습니다. (channel=" + channel + ")");
+            }
+            q.pending.addLast(new Pending(text, System.currentTimeMillis()));
+            scheduleIfIdle(q);
+        }
+    }
+
+    private ChannelQueue newQueue(String channel) {
+        ChannelQueue q = new ChannelQueue(channel);
+        Gauge.builder("slack.dispatch.queue.size", q, ChannelQueue::size)
+                .tag("channel", channel)
+                .register(meterRegistry);
+        return q;
+    }
+
+    // 전송 예약이 없을 때만 다음 허용 시각에 맞춰 예약 (q 잠금 안에서 호출)
+    private void scheduleIfIdle(ChannelQueue q) {
+        if (q.scheduled) return;
+        q.scheduled = true;
+        long delay = Math.max(0, q.nextAllowedAt - System.currentTimeMillis());
+        scheduler.schedule(() -> flush(q), delay, TimeUnit.MILLISECONDS);
+    }
+
+    // 대기 메시지를 묶어 1건 전송, 결과에 따라 다음 전송 시각 결정
+    private void flush(ChannelQueue q) {
+        List<Pending> batch;
+        synchronized (q) {
+            // 재시도 중인 묶음에도 그 사이 쌓인 메시지를 이어 붙임
+            while (q.inflight.size() < maxBatch && !q.pending.isEmpty()) {
+                q.inflight.add(q.pending.pollFirst());
+            }
+            batch = List.copyOf(q.inflight);
+        }
+
+        long now = System.currentTimeMillis();
+        long nextAllowedAt = now + minIntervalMs;
+        boolean done = true;
+        if (!batch.isEmpty()) {
+            try {
+                ChatPostMessageResponse res = methods.chatPostMessage(req -> req.channel(q.channel).text(render(batch, now)));
+                if (res.isOk()) {
+                    meterRegistry.counter("slack.dispatch.sent", "channel", q.channel, "digest", String.valueOf(batch.size() > 1)).increment();
+                    meterRegistry.counter("slack.dispatch.messages", "channel", q.channel).increment(batch.size());
+                } else {
+                    // 채널 없음, 인증 실패 등 재시도해도 같은 결과
+                    fail(q, batch, res.getError());
+                }
+            } catch (SlackApiException e) {
+                int code = e.getResponse().code();
+                if (code == 429) {
+                    long retryAfterMs = retryAfterMs(e);
+                    meterRegistry.counter("slack.dispatch.rate_limited", "channel", q.channel).increment();
+                    // 제한이 계속 풀리지 않으면 묶음이 무한히 남지 않도록 시도 횟수에 포함
+                    done = !retry(q, batch, "HTTP 429 (Retry-After " + retryAfterMs + "ms)");
+                    nextAllowedAt = now + retryAfterMs;
+                } else if (code >= 500) {
+                    done = !retry(q, batch, "HTTP " + code);
+                    nextAllowedAt = now + backoff(q.attempts);
+                } else {
+                    fail(q, batch, "HTTP " + code);
+                }
+            } catch (IOException e) {
+                done = !retry(q, batch, e.getMessage());
+                nextAllowedAt = now + backoff(q.attempts);
+            } catch (Exception e) {
+                fail(q, batch, e.getMessage());
+            }
+        }
+
+        synchronized (q) {
+            if (done) {
+                q.inflight.clear();
+                q.attempts = 0;
+            }
+            q.nextAllowedAt = nextAllowedAt;
+            q.scheduled = false;
+            if (!q.inflight.isEmpty() || !q.pending.isEmpty()) {
+                scheduleIfIdle(q);
+            }
+        }
+    }
+
+    // 재시도 가능하면 true (시도 횟수 초과 시 버림)
+    private boolean retry(ChannelQueue q, List<Pending> batch, String reason) {
+        int attempts;
+        synchronized (q) {
+            attempts = ++q.attempts;
+        }
+        if (attempts >= maxAttempts) {
+            fail(q, batch, reason + " (" + attempts + "회 시도)");
+            return false;
+        }
+        meterRegistry.counter("slack.dispatch.retries", "channel", q.channel).increment();
+        log.info("[SlackDispatcher] 전송 실패 channel={}, 재시도 {}/{}: {}", q.channel, attempts, maxAttempts, reason);
+        return true;
+    }
+
+    private void fail(ChannelQueue q, List<Pending> batch, String reason) {
+        meterRegistry.counter("slack.dispatch.failed", "channel", q.channel).increment(batch.size());
+        log.error("[SlackDispatcher] 슬랙 메시지 {}건 전송 포기 channel={}: {}", batch.size(), q.channel, reason);
+    }
+
+    // Retry-After 헤더(초), 없으면 최소 간격
+    private long retryAfterMs(SlackApiException e) {
+        String header = e.getResponse().header("Retry-After");
+        try {
+            return (header == null) ? minIntervalMs : Math.max(minIntervalMs, Long.parseLong(header.trim()) * 1000L);
+        } catch (NumberFormatException ex) {
+            return minIntervalMs;
+        }
+    }
+
+    // backoff-ms * 2^(attempts-1) + 최대 20% 지터, 상한 60초
+    private long backoff(int attempts) {
+        long base = Math.min(MAX_BACKOFF_MS, backoffMs << Math.min(attempts - 1, 16));
+        return Math.max(minIntervalMs, base + ThreadLocalRandom.current().nextLong(base / 5 + 1));
+    }
+
+    /**
+     * 전송 문구
+     * - 1건이면 그대로
+     * - 같은 문구만 여러 건이면 "문구 (최근 N초간 M건)"
+     * - 문구가 섞여 있으면 문구별 건수 목록
+     */
+    static String render(List<Pending> batch, long now) {
+        if (batch.size() == 1) return batch.get(0).text();
+
+        long seconds = Math.max(1, (now - batch.get(0).enqueuedAt() + 999) / 1000);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Pending p : batch) counts.merge(p.text(), 1, Integer::sum);
+
+        if (counts.size() == 1) {
+            return batch.get(0).text() + " (최근 " + seconds + "초간 " + batch.size() + "건)";
+        }
+        StringBuilder sb = new StringBuilder("최근 ").append(seconds).append("초간 알림 ").append(batch.size()).append("건");
+        int lines = 0;
+        for (Map.Entry<String, Integer> e : counts.entrySet()) {
+            if (lines++ == MAX_DIGEST_LINES) {
+                sb.append("\n• 외 ").append(counts.size() - MAX_DIGEST_LINES).append("종");
+                break;
+            }
+            sb.append("\n• ").append(e.getKey());
+            if (e.getValue() > 1) sb.append(" ×").append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    record Pending(String text, long enqueuedAt) {}
+
+    private static final class ChannelQueue {
+        private final String channel;
+        private final Deque<Pending> pending = new ArrayDeque<>();
+        // 전송 중/재시도 대기 중인 묶음
+        private final List<Pending> inflight = new ArrayList<>();
+        private int attempts;
+        private long nextAllowedAt;
+        private boolean scheduled;
+
+        private ChannelQueue(String channel) {
+            this.channel = channel;
+        }
+
+        synchronized int size() {
+            return pending.size() + inflight.size();
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package com.example.finalproject.domain.slack.service;
 
-import com.example.finalproject.domain.slack.exception.SlackErrorCode;
-import com.example.finalproject.domain.slack.exception.SlackException;
-import com.slack.api.Slack;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * 슬랙 알림
+ * - 채널 대기열(SlackDispatcher)에 넣고 바로 반환, 실제 전송/재시도/요약은 SlackDispatcher 가 처리
+ * - 대기열이 가득 차면 SlackException(QUEUE_FULL)
+ */
 @Service
+@RequiredArgsConstructor
 public class SlackService {
 
-    @Value("${slack.token}")
-    private String token;
+    private final SlackDispatcher slackDispatcher;
 
     @Value("${slack.ownerChannel}")
     private String ownerChannel;
@@ -33,16 +36,7 @@ public class SlackService {
 
     // 내부 공통 메서드
     private void sendMessage(String channel, String text) {
-        try {
-            Slack slack = Slack.getInstance();
-            slack.methods(token).chatPostMessage(req -> req
-                    .channel(channel)
-                    .text(text)
-            );
-        } catch (Exception e) {
-            throw new SlackException(SlackErrorCode.SEND_MESSAGE_FAILED,
-                    "슬랙 메시지 전송에 실패했습니다.", e);
-        }
+        slackDispatcher.enqueue(channel, text);
     }
 
     //전체 알림
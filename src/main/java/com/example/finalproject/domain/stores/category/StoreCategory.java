@@ -3,6 +3,17 @@ package com.example.finalproject.domain.stores.category;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 가게 카테고리
+ * - stores.category_mask 비트마스크의 비트 위치는 ordinal 기준
+ *   → 새 카테고리는 반드시 맨 뒤에 추가 (순서 변경/중간 삽입 금지, 최대 63개)
+ */
 public enum StoreCategory {
     KOREAN("한식"),
     CHINESE("중식"),
@@ -43,4 +54,40 @@ public enum StoreCategory {
     public static StoreCategory fromPath(String value) {
         return from(value);
     }
+
+    /** 비트마스크에서 이 카테고리가 차지하는 비트 */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /** 카테고리 집합 → 비트마스크 */
+    public static long maskOf(Collection<StoreCategory> categories) {
+        long mask = 0L;
+        for (StoreCategory c : categories) mask |= c.bit();
+        return mask;
+    }
+
+    /** 비트마스크 → 카테고리 목록 (ordinal 순서) */
+    public static List<StoreCategory> listOf(long mask) {
+        return Arrays.stream(values())
+                .filter(c -> (mask & c.bit()) != 0)
+                .toList();
+    }
+
+    /**
+     * 비트마스크 → 대표 카테고리 코드 (영문 코드 사전순 첫 번째, 없으면 null)
+     * - 기존 store_categories 의 MIN(category) 와 같은 값
+     */
+    public static String primaryNameOf(long mask) {
+        return Arrays.stream(values())
+                .filter(c -> (mask & c.bit()) != 0)
+                .map(Enum::name)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    /** ordinal 순서의 영문 코드 목록 (SQL FIND_IN_SET 으로 비트 위치 계산 시 사용) */
+    public static String bitOrder() {
+        return Arrays.stream(values()).map(Enum::name).collect(Collectors.joining(","));
+    }
 }
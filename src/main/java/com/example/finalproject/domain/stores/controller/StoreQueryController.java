@@ -1,5 +1,6 @@
 package com.example.finalproject.domain.stores.controller;
 
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.stores.category.StoreCategory;
 import com.example.finalproject.domain.stores.dto.response.StoreDetailResponse;
 import com.example.finalproject.domain.stores.dto.response.StoreListItemResponse;
@@ -48,23 +49,47 @@ public class StoreQueryController {
             @RequestParam(defaultValue = "20") int size
     ) {
         var pageable = PageRequest.of(page, size);
-
-        // 한글/영문 모두 매핑 (예: "분식" → SNACK, "SNACK" → SNACK)
-        StoreCategory category = null;
-        if (categoryParam != null && !categoryParam.isBlank()) {
-            try {
-                category = StoreCategory.from(categoryParam.trim());
-            } catch (IllegalArgumentException e) {
-                // 잘못된 카테고리 값이면 400 반환
-                throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 카테고리: " + categoryParam);
-            }
-        }
+        StoreCategory category = parseCategory(categoryParam);
 
         return ResponseEntity.ok(
                 storeQueryService.search(keyword, address, lat, lng, radiusKm, category, pageable)
         );
     }
 
+    /**
+     * 가게 검색 (커서 기반)
+     * -------------------------------------------------
+     * - 검색 조건은 /stores 와 동일, 거리순 고정
+     * - COUNT 없이 nextCursor 만 반환 → 다음 요청의 cursor 로 그대로 전달
+     */
+    @GetMapping("/stores/cursor")
+    public ResponseEntity<CursorPage<StoreListItemResponse>> searchCursor(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false, defaultValue = "3") Double radiusKm,
+            @RequestParam(required = false, name = "category") String categoryParam,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        StoreCategory category = parseCategory(categoryParam);
+        return ResponseEntity.ok(
+                storeQueryService.searchCursor(keyword, address, lat, lng, radiusKm, category, cursor, size)
+        );
+    }
+
+    // 한글/영문 모두 매핑 (예: "분식" → SNACK, "SNACK" → SNACK)
+    private StoreCategory parseCategory(String categoryParam) {
+        if (categoryParam == null || categoryParam.isBlank()) return null;
+        try {
+            return StoreCategory.from(categoryParam.trim());
+        } catch (IllegalArgumentException e) {
+            // 잘못된 카테고리 값이면 400 반환
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 카테고리: " + categoryParam);
+        }
+    }
+
     /** 가게 단건 상세 조회 (일반 사용자용) */
     @GetMapping("/stores/{storeId}")
     public ResponseEntity<StoreDetailResponse> getOne(@PathVariable Long storeId) {
@@ -1,5 +1,6 @@
 package com.example.finalproject.domain.stores.controller;
 
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.stores.dto.response.StoreRecommendItemResponse;
 import com.example.finalproject.domain.stores.recommendation.RecommendationSortBy;
 import com.example.finalproject.domain.stores.service.StoreRecommendationService;
@@ -58,4 +59,31 @@ public class StoreRecommendationController {
                 recommendationService.recommend(category, sortBy, period, minReviews, lat, lng, openNow, pr)
         );
     }
+
+    /**
+     * 가게 추천 조회 (커서 기반)
+     * - 조건 파라미터는 /stores/recommendations 와 동일
+     * - COUNT 없이 nextCursor 만 반환 → 다음 요청의 cursor 로 그대로 전달
+     *
+     * @param cursor 직전 응답의 nextCursor (첫 페이지는 생략)
+     * @param size   페이지 크기 (기본: 20)
+     * @return CursorPage<StoreRecommendItemResponse>
+     */
+    @GetMapping("/recommendations/cursor")
+    public ResponseEntity<CursorPage<StoreRecommendItemResponse>> recommendCursor(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false, defaultValue = "trending") String by,
+            @RequestParam(required = false, defaultValue = "30d") String period,
+            @RequestParam(required = false) Integer minReviews,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false, defaultValue = "false") boolean openNow,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        RecommendationSortBy sortBy = RecommendationSortBy.from(by);
+        return ResponseEntity.ok(
+                recommendationService.recommendCursor(category, sortBy, period, minReviews, lat, lng, openNow, cursor, size)
+        );
+    }
 }
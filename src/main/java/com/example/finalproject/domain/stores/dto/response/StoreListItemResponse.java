@@ -38,6 +38,8 @@ public class StoreListItemResponse {
     private LocalDateTime createdAt;    // 생성일
     private LocalDateTime updatedAt;    // 수정일
     private List<StoreCategory> categories; // 카테고리 목록
+    private Boolean starred;            // 현재 사용자의 찜 여부 (비로그인 시 null → 응답에서 생략)
+    private Long starCount;             // 찜 수
 
     /**
      * 엔티티 Stores 객체를 받아서 StoreListItemResponse DTO로 변환
@@ -67,7 +69,19 @@ public class StoreListItemResponse {
                 distanceMeters,
                 s.getCreatedAt(),
                 s.getUpdatedAt(),
-                cats
+                cats,
+                null,
+                null
         );
     }
+
+    /**
+     * 찜 여부/찜 수 표시 (목록 페이지 단위로 한 번에 조회한 값을 채움)
+     * @param starred 현재 사용자의 찜 여부 (비로그인이면 null)
+     * @param starCount 찜 수
+     */
+    public void markStars(Boolean starred, Long starCount) {
+        this.starred = starred;
+        this.starCount = starCount;
+    }
 }
@@ -15,8 +15,8 @@ public record StoreRecommendItemResponse(
         Long id,            // 가게 ID
         String name,        // 가게 이름
         String address,     // 가게 주소
-        String category,    // 가게 카테고리 (store_categories 기준)
-                            // 가게가 여러 카테고리에 속한 경우, 쿼리에서 MIN(category) 또는 GROUP_CONCAT 처리 결과
+        String category,    // 가게 대표 카테고리 (stores.category_mask 기준)
+                            // 가게가 여러 카테고리에 속한 경우, 영문 코드 사전순 첫 번째
         Double avgRating,   // 평균 별점 (reviews 기반), 리뷰가 없으면 0.0 또는 null
         Long reviewCount,   // 리뷰 수, 특정 기간(reviews/trending) 또는 전체(rating/distance) 기준
         Double distanceKm,  // 거리 (킬로미터), by=distance 요청 시만 값이 채워짐
@@ -24,5 +24,14 @@ public record StoreRecommendItemResponse(
         Double bayesScore,  // by=rating: 베이지안 평균 점수
         Boolean openNow,    // 현재 영업 중 여부, opensAt/closesAt 기준으로 계산됨
         LocalTime opensAt,  // 오픈 시각 (HH:mm:ss)
-        LocalTime closesAt  // 마감 시각 (HH:mm:ss)
-) {}
+        LocalTime closesAt, // 마감 시각 (HH:mm:ss)
+        Boolean starred,    // 현재 사용자의 찜 여부 (비로그인 시 null), 캐시 이후 요청마다 채워짐
+        Long starCount      // 찜 수
+) {
+
+    /** 찜 여부/찜 수만 바꾼 사본 (캐시된 추천 결과는 공유 데이터이므로 직접 변경하지 않음) */
+    public StoreRecommendItemResponse withStars(Boolean starred, Long starCount) {
+        return new StoreRecommendItemResponse(id, name, address, category, avgRating, reviewCount,
+                distanceKm, trendScore, bayesScore, openNow, opensAt, closesAt, starred, starCount);
+    }
+}
@@ -50,6 +50,11 @@ public class Stores {
     @OneToMany(mappedBy = "store", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<StoreCategoryLink> categoryLinks;
 
+    // 카테고리 비트마스크 (StoreCategory.bit() 의 OR, store_categories 와 StoreCategoryService 에서 동기화)
+    // 검색/추천 쿼리는 store_categories 조인 대신 이 컬럼으로 필터링
+    @Column(name = "category_mask", nullable = false)
+    private Long categoryMask;
+
     // 최소 주문 금액
     @Column(nullable = false)
     private Integer minOrderPrice;
@@ -86,6 +91,7 @@ public class Stores {
      * INSERT 되기 전 자동 실행
      * - createdAt, updatedAt 현재 시각으로 세팅
      * - deliveryFee 값이 null이면 0으로 초기화
+     * - categoryMask 값이 null이면 0(카테고리 없음)으로 초기화
      */
     @PrePersist
     void prePersist() {
@@ -93,6 +99,7 @@ public class Stores {
         createdAt = now;
         updatedAt = now;
         if (deliveryFee == null) deliveryFee = 0;
+        if (categoryMask == null) categoryMask = 0L;
     }
 
     /**
@@ -14,7 +14,8 @@ public enum StoresErrorCode {
     CONFLICT(HttpStatus.CONFLICT, "중복 또는 제약 조건 위반"),         // 409
     LIMIT_EXCEEDED(HttpStatus.CONFLICT, "운영 가능 가게 수 초과"),     // 409 (비즈니스 룰 위반)
     NOT_FOUND(HttpStatus.NOT_FOUND, "리소스를 찾을 수 없습니다."),      // 404
-    GONE(HttpStatus.GONE, "폐업한 가게입니다.");                       // 410
+    GONE(HttpStatus.GONE, "폐업한 가게입니다."),                       // 410
+    SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "잠시 후 다시 시도해 주세요."); // 503
 
     public final HttpStatus status; // HTTP 상태 코드
     public final String message;    // 기본 메시지
@@ -0,0 +1,132 @@
+package com.example.finalproject.domain.stores.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * GeoHash
+ * -------------------------------------------------
+ * - 좌표를 geohash 셀 문자열로 양자화하고, 셀 중심/크기를 계산하는 유틸
+ * - 같은 셀 안의 좌표는 같은 문자열 → 근처 사용자 요청끼리 캐시 키 공유
+ */
+public final class GeoHash {
+
+    private static final String BASE32_CHARS = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final char[] BASE32 = BASE32_CHARS.toCharArray();
+
+    private GeoHash() {}
+
+    /**
+     * 좌표 → geohash
+     *
+     * @param precision 문자 수 (6 ≈ 1.2km x 0.6km, 7 ≈ 150m x 150m)
+     */
+    public static String encode(double lat, double lng, int precision) {
+        double[] latRange = {-90.0, 90.0};
+        double[] lngRange = {-180.0, 180.0};
+        StringBuilder sb = new StringBuilder(precision);
+        boolean evenBit = true; // 경도부터 번갈아 분할
+        int bit = 0;
+        int ch = 0;
+        while (sb.length() < precision) {
+            double[] range = evenBit ? lngRange : latRange;
+            double value = evenBit ? lng : lat;
+            double mid = (range[0] + range[1]) / 2;
+            ch <<= 1;
+            if (value >= mid) {
+                ch |= 1;
+                range[0] = mid;
+            } else {
+                range[1] = mid;
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                sb.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * geohash 셀의 중심 좌표와 반대각선 길이(m)
+     *
+     * @return [중심 위도, 중심 경도, 중심에서 모서리까지 거리(m)]
+     */
+    public static double[] cellCenter(String hash) {
+        double[] b = bounds(hash);
+        double lat = (b[0] + b[1]) / 2;
+        double lng = (b[2] + b[3]) / 2;
+        double halfDiagonal = distanceMeters(lat, lng, b[1], b[3]);
+        return new double[]{lat, lng, halfDiagonal};
+    }
+
+    /**
+     * 셀의 짧은 변 길이(m) — 셀 중심에서 이 거리 안의 좌표는 자기 셀 또는 인접 8셀 안에 있음
+     */
+    public static double minSideMeters(String hash) {
+        double[] b = bounds(hash);
+        double height = distanceMeters(b[0], b[2], b[1], b[2]);
+        // 경도 폭은 위도가 높을수록 좁아지므로 셀의 극 쪽 변 기준
+        double poleLat = Math.abs(b[0]) > Math.abs(b[1]) ? b[0] : b[1];
+        double width = distanceMeters(poleLat, b[2], poleLat, b[3]);
+        return Math.min(height, width);
+    }
+
+    /**
+     * 자기 셀 + 인접 8셀 (같은 정밀도)
+     */
+    public static List<String> withNeighbors(String hash) {
+        double[] b = bounds(hash);
+        double dLat = b[1] - b[0];
+        double dLng = b[3] - b[2];
+        double lat = (b[0] + b[1]) / 2;
+        double lng = (b[2] + b[3]) / 2;
+        Set<String> out = new LinkedHashSet<>(9);
+        for (int i = -1; i <= 1; i++) {
+            double nLat = lat + dLat * i;
+            if (nLat < -90.0 || nLat > 90.0) continue; // 극 너머 셀 없음
+            for (int j = -1; j <= 1; j++) {
+                double nLng = lng + dLng * j;
+                if (nLng < -180.0) nLng += 360.0;
+                if (nLng >= 180.0) nLng -= 360.0;
+                out.add(encode(nLat, nLng, hash.length()));
+            }
+        }
+        return new ArrayList<>(out);
+    }
+
+    // [최소 위도, 최대 위도, 최소 경도, 최대 경도]
+    private static double[] bounds(String hash) {
+        double[] latRange = {-90.0, 90.0};
+        double[] lngRange = {-180.0, 180.0};
+        boolean evenBit = true;
+        for (char c : hash.toCharArray()) {
+            int idx = BASE32_CHARS.indexOf(c);
+            for (int i = 4; i >= 0; i--) {
+                double[] range = evenBit ? lngRange : latRange;
+                double mid = (range[0] + range[1]) / 2;
+                if (((idx >> i) & 1) == 1) range[0] = mid;
+                else range[1] = mid;
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{latRange[0], latRange[1], lngRange[0], lngRange[1]};
+    }
+
+    /**
+     * 구면 거리(m) — MySQL ST_Distance_Sphere 와 같은 반지름 사용
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double r = 6_370_986.0;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * r * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
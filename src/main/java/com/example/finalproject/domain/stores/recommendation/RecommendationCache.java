@@ -0,0 +1,243 @@
+package com.example.finalproject.domain.stores.recommendation;
+
+import com.example.finalproject.domain.stores.dto.response.StoreRecommendItemResponse;
+import com.example.finalproject.domain.stores.exception.StoresApiException;
+import com.example.finalproject.domain.stores.exception.StoresErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * RecommendationCache
+ * -------------------------------------------------
+ * 추천 결과 페이지 Redis 캐시 (앞쪽 N페이지만)
+ * - 짧은 TTL + 확률적 조기 갱신(XFetch): 만료 직전일수록, 계산이 오래 걸린 키일수록 먼저 갱신
+ *     now - delta * beta * ln(rand) >= expiresAt  → 갱신
+ * - 재계산은 키당 한 번만
+ *     · 인스턴스 내부: 같은 키 요청은 하나의 CompletableFuture 를 공유 (single-flight)
+ *     · 클러스터: Redis SETNX 락을 잡은 인스턴스만 재계산, 나머지는 기존 값(stale) 반환
+ *       기존 값이 없으면 락 보유자의 결과를 기다림 (최대 락 TTL, 그 사이 락이 풀리면 직접 잡고 계산)
+ *       락 값은 인스턴스별 토큰 → 해제는 토큰이 같을 때만 (TTL 이 지난 느린 보유자가 남의 락을 지우지 않도록)
+ *     · Redis 장애 시에만 락 없이 인스턴스 내부 single-flight 로 계산
+ * - 메트릭: stores.recommendation.cache{result=hit|miss|early_refresh|stale|wait_timeout}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationCache {
+
+    private static final String KEY_PREFIX = "reco:page:";
+    private static final String LOCK_PREFIX = "lock:reco:";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(10);
+    // 다른 인스턴스가 계산 중일 때 결과 확인 간격
+    private static final long PEER_POLL_MILLIS = 50;
+    // Redis 장애로 락을 쓸 수 없을 때의 토큰 (해제 없음)
+    private static final String NO_LOCK = "";
+
+    // KEYS[1]=락 키, ARGV[1]=락 토큰 (내가 잡은 락일 때만 삭제)
+    private static final DefaultRedisScript<Long> UNLOCK = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, CompletableFuture<CachedPage>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${stores.recommendation.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${stores.recommendation.cache.max-pages:3}")
+    private int maxPages;
+
+    @Value("${stores.recommendation.cache.beta:1.0}")
+    private double beta;
+
+    /** 캐시 대상 페이지인지 (앞쪽 N페이지만 캐시) */
+    public boolean isCacheable(Pageable pageable) {
+        return pageable.getPageNumber() < maxPages;
+    }
+
+    /**
+     * 캐시 조회 → 없거나 조기 갱신 대상이면 loader 로 재계산
+     *
+     * @param key      조회 조건으로 만든 캐시 키 (페이지 번호/크기 포함)
+     * @param pageable 응답 Page 복원용
+     * @param loader   실제 쿼리
+     */
+    public Page<StoreRecommendItemResponse> getOrLoad(String key, Pageable pageable,
+                                                      Supplier<Page<StoreRecommendItemResponse>> loader) {
+        CachedPage cached = read(key);
+
+        if (cached != null) {
+            if (!shouldRefreshEarly(cached)) {
+                count("hit");
+                return cached.toPage(pageable);
+            }
+            // 조기 갱신: 락을 잡은 경우에만 재계산, 아니면 기존 값 그대로
+            String token = tryLock(key);
+            if (token != null) {
+                count("early_refresh");
+                try {
+                    return singleFlight(key, loader).toPage(pageable);
+                } finally {
+                    unlock(key, token);
+                }
+            }
+            count("stale");
+            return cached.toPage(pageable);
+        }
+
+        count("miss");
+        return loadOrWaitForPeer(key, loader).toPage(pageable);
+    }
+
+    /**
+     * 값이 없을 때: 락을 잡으면 계산, 못 잡으면 락 보유자가 저장한 값을 기다림
+     * - 락 TTL 이 지나도록 값도 락도 없으면 503 (직접 계산으로 넘어가지 않음)
+     */
+    private CachedPage loadOrWaitForPeer(String key, Supplier<Page<StoreRecommendItemResponse>> loader) {
+        long deadline = System.currentTimeMillis() + LOCK_TTL.toMillis() + PEER_POLL_MILLIS;
+        while (true) {
+            String token = tryLock(key);
+            if (token != null) {
+                try {
+                    // 락을 잡기 직전에 이전 보유자가 저장했을 수 있음
+                    CachedPage saved = (token == NO_LOCK) ? null : read(key);
+                    return (saved != null) ? saved : singleFlight(key, loader);
+                } finally {
+                    unlock(key, token);
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) break;
+            try {
+                Thread.sleep(PEER_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            CachedPage peer = read(key);
+            if (peer != null) return peer;
+        }
+        count("wait_timeout");
+        throw new StoresApiException(StoresErrorCode.SERVICE_UNAVAILABLE, "추천 결과를 계산 중입니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    /** 인스턴스 내부 single-flight: 같은 키는 한 스레드만 loader 실행 */
+    private CachedPage singleFlight(String key, Supplier<Page<StoreRecommendItemResponse>> loader) {
+        CompletableFuture<CachedPage> mine = new CompletableFuture<>();
+        CompletableFuture<CachedPage> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            CachedPage loaded = load(key, loader);
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private CachedPage load(String key, Supplier<Page<StoreRecommendItemResponse>> loader) {
+        long start = System.currentTimeMillis();
+        Page<StoreRecommendItemResponse> page = loader.get();
+        long delta = System.currentTimeMillis() - start;
+
+        meterRegistry.timer("stores.recommendation.cache.load").record(Duration.ofMillis(delta));
+
+        CachedPage entry = new CachedPage(page.getContent(), page.getTotalElements(),
+                delta, System.currentTimeMillis() + ttlSeconds * 1000);
+        write(key, entry);
+        return entry;
+    }
+
+    /** XFetch 조기 갱신 판단 */
+    private boolean shouldRefreshEarly(CachedPage cached) {
+        double r = ThreadLocalRandom.current().nextDouble();
+        if (r <= 0) r = Double.MIN_VALUE;
+        double gap = -cached.deltaMillis() * beta * Math.log(r);
+        return System.currentTimeMillis() + gap >= cached.expiresAtMillis();
+    }
+
+    private CachedPage read(String key) {
+        try {
+            String json = redis.opsForValue().get(KEY_PREFIX + key);
+            return (json == null) ? null : objectMapper.readValue(json, CachedPage.class);
+        } catch (Exception e) {
+            log.warn("[RecommendationCache] 캐시 읽기 실패 key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String key, CachedPage entry) {
+        try {
+            redis.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(entry),
+                    Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("[RecommendationCache] 캐시 저장 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * 락 획득
+     *
+     * @return 잡은 락의 토큰, 다른 인스턴스가 보유 중이면 null, Redis 장애면 NO_LOCK (인스턴스 내부 single-flight 만)
+     */
+    private String tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(LOCK_PREFIX + key, token, LOCK_TTL)) ? token : null;
+        } catch (Exception e) {
+            log.warn("[RecommendationCache] 락 획득 실패, 인스턴스 내부에서만 계산 key={}: {}", key, e.getMessage());
+            return NO_LOCK;
+        }
+    }
+
+    private void unlock(String key, String token) {
+        if (token == NO_LOCK) return;
+        try {
+            redis.execute(UNLOCK, List.of(LOCK_PREFIX + key), token);
+        } catch (Exception e) {
+            log.warn("[RecommendationCache] 락 해제 실패 key={} (TTL 만료로 해제): {}", key, e.getMessage());
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("stores.recommendation.cache", "result", result).increment();
+    }
+
+    /** Redis 에 저장되는 페이지 스냅샷 */
+    public record CachedPage(List<StoreRecommendItemResponse> content,
+                             long total,
+                             long deltaMillis,
+                             long expiresAtMillis) {
+
+        Page<StoreRecommendItemResponse> toPage(Pageable pageable) {
+            return new PageImpl<>(content, pageable, total);
+        }
+    }
+}
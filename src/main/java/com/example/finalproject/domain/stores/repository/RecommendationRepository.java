@@ -3,6 +3,7 @@ package com.example.finalproject.domain.stores.repository;
 import com.example.finalproject.domain.stores.entity.Stores;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,39 +21,39 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
       공통: openNow 필터 (자정 넘김까지 처리)
         opens_at < closes_at  -> TIME(NOW()) BETWEEN opens_at AND closes_at
         opens_at > closes_at  -> TIME(NOW()) >= opens_at OR TIME(NOW()) <= closes_at
-      아래 네 쿼리 모두 동일한 조건을 씀.
+      아래 쿼리 모두 동일한 조건을 씀.
+
+      공통: 카테고리 필터
+        store_categories 조인/MIN(category) 대신 stores.category_mask 비트 연산
+        :categoryBit = 0 이면 전체, 결과의 category_mask 는 서비스에서 대표 카테고리로 변환
      */
 
     /**
      * [별점 기준 추천]
-     * - 베이지안 평균 점수로 정렬
-     * - COUNT(r.id) >= minReviews 조건 충족 가게만 포함
+     * - store_scores(window_days = 0)에 미리 계산된 베이지안 점수로 정렬 (리뷰 테이블 조인/집계 없음)
+     * - store_scores 에서 출발해 (window_days, bayes_score, store_id) 인덱스 순서 그대로 읽고 stores 는 PK 조인
+     *   → 모든 가게에 점수 행이 있어야 함 (가게 생성 시 + 주기 작업에서 보장, 리뷰 0건 가게는 전체 평균 m)
+     * - reviews >= minReviews 조건 충족 가게만 포함
      *
-     * @param category   필터링할 카테고리 (NULL → 전체)
+     * @param categoryBit 카테고리 비트 (StoreCategory.bit(), 0 → 전체)
      * @param minReviews 최소 리뷰 수 (NULL → 제한 없음)
      * @param openNow    true → 현재 영업 중인 가게만
-     * @param globalMean 전체 평균 별점 (m, 베이지안 보정용)
-     * @param smoothingC 스무딩 상수 (C, 베이지안 보정용)
      * @param pageable   페이지네이션
-     * @return Page<Object[]> : [id, name, address, category, avg_rating, review_cnt, bayes_score, opens_at, closes_at]
+     * @return Page<Object[]> : [id, name, address, category_mask, avg_rating, review_cnt, bayes_score, opens_at, closes_at]
      */
     @Query(value = """
     SELECT s.id, s.name, s.address,
-           sc.category,
-           COALESCE(SUM(r.rating) / NULLIF(COUNT(DISTINCT r.id),0), 0) AS avg_rating,
-           COUNT(DISTINCT r.id) AS review_cnt,
-           ((COALESCE(SUM(r.rating) / NULLIF(COUNT(DISTINCT r.id),0), 0) * COUNT(DISTINCT r.id) + :C * :m) / (COUNT(DISTINCT r.id) + :C) ) AS bayes_score,
+           s.category_mask,
+           COALESCE(ss.rating_sum / NULLIF(ss.reviews, 0), 0) AS avg_rating,
+           ss.reviews AS review_cnt,
+           ss.bayes_score,
            s.opens_at, s.closes_at
-    FROM stores s
-    LEFT JOIN (
-        SELECT store_id, MIN(category) AS category
-        FROM store_categories
-        GROUP BY store_id
-    ) sc ON sc.store_id = s.id
-    LEFT JOIN reviews r ON r.store_id = s.id AND r.is_deleted = FALSE
-    WHERE s.active = TRUE
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = 0
+      AND s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -60,36 +61,30 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
              OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
             )
           )
-    GROUP BY s.id
-    HAVING (:minReviews IS NULL OR COUNT(r.id) >= :minReviews)
-    ORDER BY bayes_score DESC, review_cnt DESC
+      AND (:minReviews IS NULL OR ss.reviews >= :minReviews)
+    ORDER BY ss.bayes_score DESC, ss.store_id DESC
     """,
             countQuery = """
-    SELECT COUNT(*) FROM (
-      SELECT s.id
-      FROM stores s
-      LEFT JOIN store_categories sc ON sc.store_id = s.id
-      LEFT JOIN reviews r ON r.store_id = s.id AND r.is_deleted = FALSE
-      WHERE s.active = TRUE
-        AND s.retired_at IS NULL
-        AND (:category IS NULL OR sc.category = :category)
-        AND (
-              :openNow = FALSE
-              OR (
-                  (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
-               OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
-              )
+    SELECT COUNT(*)
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = 0
+      AND s.active = TRUE
+      AND s.retired_at IS NULL
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+      AND (
+            :openNow = FALSE
+            OR (
+                (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
+             OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
             )
-      GROUP BY s.id
-      HAVING (:minReviews IS NULL OR COUNT(r.id) >= :minReviews)
-    ) t
+          )
+      AND (:minReviews IS NULL OR ss.reviews >= :minReviews)
     """,
             nativeQuery = true)
-    Page<Object[]> findByBayesianRating(@Param("category") String category,
+    Page<Object[]> findByBayesianRating(@Param("categoryBit") long categoryBit,
                                         @Param("minReviews") Integer minReviews,
                                         @Param("openNow") boolean openNow,
-                                        @Param("m") double globalMean,
-                                        @Param("C") double smoothingC,
                                         Pageable pageable);
 
 
@@ -98,31 +93,26 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
      * - 최근 N일 간의 리뷰 수 내림차순 정렬
      * - tie-breaker: 평균 별점(avg_rating)
      *
-     * @param category 카테고리 필터
+     * @param categoryBit 카테고리 비트 (StoreCategory.bit(), 0 → 전체)
      * @param days     최근 N일 기준 (예: 7 → 최근 7일)
      * @param openNow  현재 영업 여부 필터
      * @param pageable 페이지네이션
-     * @return Page<Object[]> : [id, name, address, category, recent_reviews, avg_rating, opens_at, closes_at]
+     * @return Page<Object[]> : [id, name, address, category_mask, recent_reviews, avg_rating, opens_at, closes_at]
      */
     @Query(value = """
     SELECT s.id, s.name, s.address,
-           sc.category,
+           s.category_mask,
            COUNT(DISTINCT r.id) AS recent_reviews,
            COALESCE(SUM(r.rating) / NULLIF(COUNT(DISTINCT r.id),0), 0) AS avg_rating,
            s.opens_at, s.closes_at
     FROM stores s
-    LEFT JOIN (
-        SELECT store_id, MIN(category) AS category
-        FROM store_categories
-        GROUP BY store_id
-    ) sc ON sc.store_id = s.id
     LEFT JOIN reviews r
       ON r.store_id = s.id
      AND r.is_deleted = FALSE
      AND r.created_at >= DATE_SUB(NOW(), INTERVAL :days DAY)
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -136,10 +126,9 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
             countQuery = """
     SELECT COUNT(*)
     FROM stores s
-    LEFT JOIN store_categories sc ON sc.store_id = s.id
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -149,7 +138,7 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
           )
     """,
             nativeQuery = true)
-    Page<Object[]> findByRecentReviews(@Param("category") String category,
+    Page<Object[]> findByRecentReviews(@Param("categoryBit") long categoryBit,
                                        @Param("days") int days,
                                        @Param("openNow") boolean openNow,
                                        Pageable pageable);
@@ -160,16 +149,16 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
      * - 사용자 좌표(lat, lng)와 Haversine 공식을 이용해 거리 계산
      * - 거리 오름차순 → 별점 내림차순 → 리뷰 수 내림차순 정렬
      *
-     * @param category 카테고리 필터
+     * @param categoryBit 카테고리 비트 (StoreCategory.bit(), 0 → 전체)
      * @param lat      사용자 위도
      * @param lng      사용자 경도
      * @param openNow  현재 영업 여부 필터
      * @param pageable 페이지네이션
-     * @return Page<Object[]> : [id, name, address, category, distance_km, avg_rating, review_cnt, opens_at, closes_at]
+     * @return Page<Object[]> : [id, name, address, category_mask, distance_km, avg_rating, review_cnt, opens_at, closes_at]
      */
     @Query(value = """
     SELECT s.id, s.name, s.address,
-           MIN(sc.category) AS category,
+           s.category_mask,
            (6371 * ACOS(
               COS(RADIANS(:lat)) * COS(RADIANS(s.latitude)) *
               COS(RADIANS(s.longitude) - RADIANS(:lng)) +
@@ -179,7 +168,6 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
            COALESCE(avg_r.review_cnt,0) AS review_cnt,
            s.opens_at, s.closes_at
     FROM stores s
-    LEFT JOIN store_categories sc ON sc.store_id = s.id
     LEFT JOIN (
       SELECT store_id, AVG(rating) AS avg_rating, COUNT(*) AS review_cnt
       FROM reviews
@@ -188,7 +176,7 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
     ) avg_r ON avg_r.store_id = s.id
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -196,16 +184,14 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
              OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
             )
           )
-    GROUP BY s.id
     ORDER BY distance_km, avg_rating DESC, review_cnt DESC
     """,
             countQuery = """
     SELECT COUNT(*)
     FROM stores s
-    LEFT JOIN store_categories sc ON sc.store_id = s.id
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -215,7 +201,7 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
           )
     """,
             nativeQuery = true)
-    Page<Object[]> findByDistance(@Param("category") String category,
+    Page<Object[]> findByDistance(@Param("categoryBit") long categoryBit,
                                   @Param("lat") double lat,
                                   @Param("lng") double lng,
                                   @Param("openNow") boolean openNow,
@@ -223,16 +209,17 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
 
 
     /**
-     * [트렌딩 기준 추천]
+     * [트렌딩 기준 추천 - 실시간 집계]
+     * - store_scores 에 미리 계산되지 않은 기간(7d/30d 외)에서만 사용
      * - 최근 N일 간의 주문 수, 리뷰 수, 평균 별점을 가중합(score)으로 계산
      *   score = 0.6 * log(1+orders) + 0.3 * avg_rating + 0.1 * log(1+reviews)
      * - 점수 내림차순 정렬
      *
-     * @param category 카테고리 필터
+     * @param categoryBit 카테고리 비트 (StoreCategory.bit(), 0 → 전체)
      * @param days     최근 N일 기준 (예: 30 → 최근 30일)
      * @param openNow  현재 영업 여부 필터
      * @param pageable 페이지네이션
-     * @return Page<Object[]> : [id, name, address, category, orders_30d, reviews_30d, avg_rating, score, opens_at, closes_at]
+     * @return Page<Object[]> : [id, name, address, category_mask, orders_30d, reviews_30d, avg_rating, score, opens_at, closes_at]
      */
     @Query(value = """
     WITH r AS (
@@ -251,7 +238,7 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
       GROUP BY store_id
     )
     SELECT s.id, s.name, s.address,
-           MIN(sc.category) AS category,
+           s.category_mask,
            COALESCE(o.orders_30d, 0) as orders_30d,
            COALESCE(r.reviews_30d, 0) as reviews_30d,
            COALESCE(r.avg_rating, 0) as avg_rating,
@@ -260,12 +247,11 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
           + 0.1 * LOG(1 + COALESCE(r.reviews_30d, 0))) AS score,
            s.opens_at, s.closes_at
     FROM stores s
-    LEFT JOIN store_categories sc ON sc.store_id = s.id
     LEFT JOIN r ON r.store_id = s.id
     LEFT JOIN o ON o.store_id = s.id
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -273,16 +259,14 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
              OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
             )
           )
-    GROUP BY s.id
     ORDER BY score DESC
    \s""",
             countQuery = """
     SELECT COUNT(*)
     FROM stores s
-    LEFT JOIN store_categories sc ON sc.store_id = s.id
     WHERE s.active = TRUE
       AND s.retired_at IS NULL
-      AND (:category IS NULL OR sc.category = :category)
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
       AND (
             :openNow = FALSE
             OR (
@@ -292,8 +276,149 @@ public interface RecommendationRepository extends JpaRepository<Stores, Long> {
           )
     """,
             nativeQuery = true)
-    Page<Object[]> findTrending(@Param("category") String category,
+    Page<Object[]> findTrending(@Param("categoryBit") long categoryBit,
                                 @Param("days") int days,
                                 @Param("openNow") boolean openNow,
                                 Pageable pageable);
+
+    /**
+     * [트렌딩 기준 추천 - 집계 테이블]
+     * - store_scores(window_days = :days)에 미리 계산된 trend_score 로 정렬
+     * - store_scores 에서 출발해 (window_days, trend_score, store_id) 인덱스 순서 그대로 읽고 stores 는 PK 조인
+     *   (윈도우 행은 가게 생성 시 + 주기 작업에서 모든 가게에 보장, 활동이 없으면 0점)
+     * - :days 는 StoreScoreService.MATERIALIZED_WINDOWS 에 포함된 값만 전달해야 함
+     *
+     * @param categoryBit 카테고리 비트 (StoreCategory.bit(), 0 → 전체)
+     * @param days     최근 N일 (7 또는 30)
+     * @param openNow  현재 영업 여부 필터
+     * @param pageable 페이지네이션
+     * @return Page<Object[]> : [id, name, address, category_mask, orders_nd, reviews_nd, avg_rating, score, opens_at, closes_at]
+     */
+    @Query(value = """
+    SELECT s.id, s.name, s.address,
+           s.category_mask,
+           ss.orders AS orders_nd,
+           ss.reviews AS reviews_nd,
+           COALESCE(ss.rating_sum / NULLIF(ss.reviews, 0), 0) AS avg_rating,
+           ss.trend_score AS score,
+           s.opens_at, s.closes_at
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = :days
+      AND s.active = TRUE
+      AND s.retired_at IS NULL
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+      AND (
+            :openNow = FALSE
+            OR (
+                (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
+             OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
+            )
+          )
+    ORDER BY ss.trend_score DESC, ss.store_id DESC
+    """,
+            countQuery = """
+    SELECT COUNT(*)
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = :days
+      AND s.active = TRUE
+      AND s.retired_at IS NULL
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+      AND (
+            :openNow = FALSE
+            OR (
+                (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
+             OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
+            )
+          )
+    """,
+            nativeQuery = true)
+    Page<Object[]> findTrendingFromScores(@Param("categoryBit") long categoryBit,
+                                          @Param("days") int days,
+                                          @Param("openNow") boolean openNow,
+                                          Pageable pageable);
+
+    /**
+     * [별점 기준 추천 - 커서]
+     * - findByBayesianRating 과 동일한 필터, 저장된 (bayes_score, store_id) 내림차순 keyset
+     *   → 계산값(전체 평균 m 등)이 아닌 컬럼 값으로 비교하므로 인스턴스/평균 갱신과 무관하게 이어짐
+     * - COUNT 쿼리 없음 (Slice)
+     *
+     * @return Slice<Object[]> : [id, name, address, category_mask, avg_rating, review_cnt, bayes_score, opens_at, closes_at]
+     */
+    @Query(value = """
+    SELECT s.id, s.name, s.address,
+           s.category_mask,
+           COALESCE(ss.rating_sum / NULLIF(ss.reviews, 0), 0) AS avg_rating,
+           ss.reviews AS review_cnt,
+           ss.bayes_score,
+           s.opens_at, s.closes_at
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = 0
+      AND s.active = TRUE
+      AND s.retired_at IS NULL
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+      AND (
+            :openNow = FALSE
+            OR (
+                (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
+             OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
+            )
+          )
+      AND (:minReviews IS NULL OR ss.reviews >= :minReviews)
+      AND (
+            ss.bayes_score < :cursorScore
+         OR (ss.bayes_score = :cursorScore AND ss.store_id < :cursorId)
+          )
+    ORDER BY ss.bayes_score DESC, ss.store_id DESC
+    """, nativeQuery = true)
+    Slice<Object[]> findByBayesianRatingAfter(@Param("categoryBit") long categoryBit,
+                                              @Param("minReviews") Integer minReviews,
+                                              @Param("openNow") boolean openNow,
+                                              @Param("cursorScore") double cursorScore,
+                                              @Param("cursorId") long cursorId,
+                                              Pageable pageable);
+
+    /**
+     * [트렌딩 기준 추천 - 커서]
+     * - findTrendingFromScores 와 동일한 필터, 저장된 (trend_score, store_id) 내림차순 keyset
+     * - COUNT 쿼리 없음 (Slice)
+     *
+     * @return Slice<Object[]> : [id, name, address, category_mask, orders_nd, reviews_nd, avg_rating, score, opens_at, closes_at]
+     */
+    @Query(value = """
+    SELECT s.id, s.name, s.address,
+           s.category_mask,
+           ss.orders AS orders_nd,
+           ss.reviews AS reviews_nd,
+           COALESCE(ss.rating_sum / NULLIF(ss.reviews, 0), 0) AS avg_rating,
+           ss.trend_score AS score,
+           s.opens_at, s.closes_at
+    FROM store_scores ss
+    JOIN stores s ON s.id = ss.store_id
+    WHERE ss.window_days = :days
+      AND s.active = TRUE
+      AND s.retired_at IS NULL
+      AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+      AND (
+            :openNow = FALSE
+            OR (
+                (s.opens_at < s.closes_at AND TIME(NOW()) BETWEEN s.opens_at AND s.closes_at)
+             OR (s.opens_at > s.closes_at AND (TIME(NOW()) >= s.opens_at OR TIME(NOW()) <= s.closes_at))
+            )
+          )
+      AND (
+            ss.trend_score < :cursorScore
+         OR (ss.trend_score = :cursorScore AND ss.store_id < :cursorId)
+          )
+    ORDER BY ss.trend_score DESC, ss.store_id DESC
+    """, nativeQuery = true)
+    Slice<Object[]> findTrendingFromScoresAfter(@Param("categoryBit") long categoryBit,
+                                                @Param("days") int days,
+                                                @Param("openNow") boolean openNow,
+                                                @Param("cursorScore") double cursorScore,
+                                                @Param("cursorId") long cursorId,
+                                                Pageable pageable);
 }
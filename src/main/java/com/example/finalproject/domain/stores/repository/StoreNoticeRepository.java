@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -39,13 +40,14 @@ public interface StoreNoticeRepository extends JpaRepository<StoresNotice, Long>
     boolean existsActiveByStoreId(@Param("storeId") Long storeId,
                                   @Param("now") LocalDateTime now);
 
-    /** 만료 공지 전역 삭제 (스케줄러/관리자용) */
+    /**
+     * 만료 공지 배치 삭제 (StoreNoticeCleaner 전용)
+     * - 한 번에 최대 :limit 건만 지워 짧은 트랜잭션으로 나눠 처리 (테이블 전체 락 방지)
+     * - idx_store_notices_ends_at 인덱스 범위 스캔
+     * @return 삭제된 건수 (limit 미만이면 더 지울 것이 없음)
+     */
+    @Transactional
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("delete from StoresNotice n where n.endsAt < :now")
-    int deleteExpired(@Param("now") LocalDateTime now);
-
-    /** 만료 공지 특정 가게만 삭제 (서비스 진입 시 선제 정리용) */
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("delete from StoresNotice n where n.store.id = :storeId and n.endsAt < :now")
-    int deleteExpiredByStore(@Param("storeId") Long storeId, @Param("now") LocalDateTime now);
+    @Query(value = "DELETE FROM store_notices WHERE ends_at < :now ORDER BY ends_at LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -0,0 +1,232 @@
+package com.example.finalproject.domain.stores.repository;
+
+import com.example.finalproject.domain.stores.entity.Stores;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * StoreScoreRepository
+ * -------------------------------------------------
+ * 추천용 집계 테이블(store_score_buckets, store_scores) 유지 쿼리
+ * - 두 테이블 모두 엔티티 매핑 없이 네이티브 쿼리로만 다룸
+ * - 쓰기 경로(주문/리뷰)에서 호출되는 증분 쿼리는 영속성 컨텍스트를 비우지 않도록
+ *   clearAutomatically 를 사용하지 않음
+ */
+public interface StoreScoreRepository extends JpaRepository<Stores, Long> {
+
+    /**
+     * [증분] 시간 버킷에 주문/리뷰 변화량 누적
+     * - 음수 변화량(삭제/평점 하향)도 그대로 더함 → 압축 시 합산되므로 문제 없음
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_score_buckets (store_id, grain, bucket_start, orders, reviews, rating_sum)
+    VALUES (:storeId, 'H', :bucketStart, :orders, :reviews, :ratingSum)
+    ON DUPLICATE KEY UPDATE
+        orders     = orders + VALUES(orders),
+        reviews    = reviews + VALUES(reviews),
+        rating_sum = rating_sum + VALUES(rating_sum)
+    """, nativeQuery = true)
+    int addToHourlyBucket(@Param("storeId") Long storeId,
+                          @Param("bucketStart") LocalDateTime bucketStart,
+                          @Param("orders") int orders,
+                          @Param("reviews") int reviews,
+                          @Param("ratingSum") int ratingSum);
+
+    /**
+     * [증분] 전체 기간(window_days = 0) 점수 행 갱신 + 베이지안 점수 즉시 재계산
+     * - MySQL ON DUPLICATE KEY UPDATE 는 왼쪽부터 순서대로 평가되므로
+     *   bayes_score 계산 시점의 reviews/rating_sum 은 이미 갱신된 값
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_scores (store_id, window_days, orders, reviews, rating_sum, bayes_score, trend_score)
+    VALUES (:storeId, 0, :orders, :reviews, :ratingSum,
+            (:ratingSum + :C * :m) / (:reviews + :C), 0)
+    ON DUPLICATE KEY UPDATE
+        orders      = orders + VALUES(orders),
+        reviews     = reviews + VALUES(reviews),
+        rating_sum  = rating_sum + VALUES(rating_sum),
+        bayes_score = (rating_sum + :C * :m) / (reviews + :C)
+    """, nativeQuery = true)
+    int addToAllTimeScore(@Param("storeId") Long storeId,
+                          @Param("orders") int orders,
+                          @Param("reviews") int reviews,
+                          @Param("ratingSum") int ratingSum,
+                          @Param("m") double globalMean,
+                          @Param("C") double smoothingC);
+
+    /**
+     * [점수 행 보장] 가게 1곳에 윈도우 행 추가 (이미 있으면 무시)
+     * - 리뷰 0건 → 베이지안 점수는 전체 평균 별점(m), 트렌드 점수 0
+     */
+    @Modifying
+    @Query(value = """
+    INSERT IGNORE INTO store_scores (store_id, window_days, orders, reviews, rating_sum, bayes_score, trend_score)
+    VALUES (:storeId, :days, 0, 0, 0, :m, 0)
+    """, nativeQuery = true)
+    int insertEmptyScore(@Param("storeId") Long storeId,
+                         @Param("days") int days,
+                         @Param("m") double globalMean);
+
+    /**
+     * [점수 행 보장] 윈도우 행이 없는 모든 가게에 빈 행 추가
+     * - 추천 쿼리가 store_scores 에서 출발하므로 행이 없는 가게는 목록에서 빠짐 → 주기 작업에서 보정
+     */
+    @Modifying
+    @Query(value = """
+    INSERT IGNORE INTO store_scores (store_id, window_days, orders, reviews, rating_sum, bayes_score, trend_score)
+    SELECT s.id, :days, 0, 0, 0, :m, 0
+    FROM stores s
+    WHERE NOT EXISTS (SELECT 1 FROM store_scores ss WHERE ss.store_id = s.id AND ss.window_days = :days)
+    """, nativeQuery = true)
+    int insertMissingScores(@Param("days") int days, @Param("m") double globalMean);
+
+    /** 작업 완료 표시가 있는지 (예: 최초 백필 완료 여부) */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM store_score_markers WHERE name = :name)", nativeQuery = true)
+    long existsMarker(@Param("name") String name);
+
+    /** 작업 완료 표시 기록 (이미 있으면 무시) */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO store_score_markers (name, completed_at) VALUES (:name, NOW())", nativeQuery = true)
+    int insertMarker(@Param("name") String name);
+
+    /** [백필] 이전 시도/백필 전 증분분 제거 (원본 테이블에서 다시 적재하므로 이중 합산 방지) */
+    @Modifying
+    @Query(value = "DELETE FROM store_score_buckets", nativeQuery = true)
+    int deleteAllBuckets();
+
+    /** [백필] 최근 주문을 시간 버킷으로 적재 */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_score_buckets (store_id, grain, bucket_start, orders, reviews, rating_sum)
+    SELECT o.store_id, 'H', DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), COUNT(*), 0, 0
+    FROM orders o
+    WHERE o.created_at >= :from
+    GROUP BY o.store_id, DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00')
+    ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders)
+    """, nativeQuery = true)
+    int backfillOrderBuckets(@Param("from") LocalDateTime from);
+
+    /** [백필] 최근 리뷰(삭제 제외)를 시간 버킷으로 적재 */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_score_buckets (store_id, grain, bucket_start, orders, reviews, rating_sum)
+    SELECT r.store_id, 'H', DATE_FORMAT(r.created_at, '%Y-%m-%d %H:00:00'), 0, COUNT(*), COALESCE(SUM(r.rating), 0)
+    FROM reviews r
+    WHERE r.is_deleted = FALSE
+      AND r.created_at >= :from
+    GROUP BY r.store_id, DATE_FORMAT(r.created_at, '%Y-%m-%d %H:00:00')
+    ON DUPLICATE KEY UPDATE
+        reviews    = reviews + VALUES(reviews),
+        rating_sum = rating_sum + VALUES(rating_sum)
+    """, nativeQuery = true)
+    int backfillReviewBuckets(@Param("from") LocalDateTime from);
+
+    /** [압축] cutoff 이전 시간 버킷을 일 버킷으로 합산 */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_score_buckets (store_id, grain, bucket_start, orders, reviews, rating_sum)
+    SELECT t.store_id, 'D', t.day_start, t.orders, t.reviews, t.rating_sum
+    FROM (
+        SELECT store_id,
+               CAST(DATE(bucket_start) AS DATETIME) AS day_start,
+               SUM(orders) AS orders, SUM(reviews) AS reviews, SUM(rating_sum) AS rating_sum
+        FROM store_score_buckets
+        WHERE grain = 'H'
+          AND bucket_start < :cutoff
+        GROUP BY store_id, DATE(bucket_start)
+    ) t
+    ON DUPLICATE KEY UPDATE
+        orders     = orders + VALUES(orders),
+        reviews    = reviews + VALUES(reviews),
+        rating_sum = rating_sum + VALUES(rating_sum)
+    """, nativeQuery = true)
+    int rollUpHourlyBuckets(@Param("cutoff") LocalDateTime cutoff);
+
+    /** [압축] 일 버킷으로 합산된 시간 버킷 삭제 */
+    @Modifying
+    @Query(value = "DELETE FROM store_score_buckets WHERE grain = 'H' AND bucket_start < :cutoff", nativeQuery = true)
+    int deleteHourlyBucketsBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /** [보존] 가장 긴 윈도우보다 오래된 일 버킷 삭제 */
+    @Modifying
+    @Query(value = "DELETE FROM store_score_buckets WHERE grain = 'D' AND bucket_start < :before", nativeQuery = true)
+    int deleteDailyBucketsBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * [윈도우 재계산] 최근 N일 버킷 합계를 window_days = :days 행에 반영
+     * - 모든 가게에 대해 행을 보장 (활동이 없으면 0)
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_scores (store_id, window_days, orders, reviews, rating_sum)
+    SELECT s.id, :days,
+           COALESCE(b.orders, 0), COALESCE(b.reviews, 0), COALESCE(b.rating_sum, 0)
+    FROM stores s
+    LEFT JOIN (
+        SELECT store_id, SUM(orders) AS orders, SUM(reviews) AS reviews, SUM(rating_sum) AS rating_sum
+        FROM store_score_buckets
+        WHERE bucket_start >= :from
+        GROUP BY store_id
+    ) b ON b.store_id = s.id
+    ON DUPLICATE KEY UPDATE
+        orders     = VALUES(orders),
+        reviews    = VALUES(reviews),
+        rating_sum = VALUES(rating_sum)
+    """, nativeQuery = true)
+    int refreshWindow(@Param("days") int days, @Param("from") LocalDateTime from);
+
+    /**
+     * [전체 기간 정합성 보정] 원본 테이블(orders/reviews)에서 누적값을 다시 계산
+     * - 증분 반영 중 유실/중복이 있더라도 하루 한 번 원본 기준으로 맞춰짐
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO store_scores (store_id, window_days, orders, reviews, rating_sum)
+    SELECT s.id, 0, COALESCE(o.cnt, 0), COALESCE(r.cnt, 0), COALESCE(r.rating_sum, 0)
+    FROM stores s
+    LEFT JOIN (
+        SELECT store_id, COUNT(*) AS cnt
+        FROM orders
+        GROUP BY store_id
+    ) o ON o.store_id = s.id
+    LEFT JOIN (
+        SELECT store_id, COUNT(*) AS cnt, SUM(rating) AS rating_sum
+        FROM reviews
+        WHERE is_deleted = FALSE
+        GROUP BY store_id
+    ) r ON r.store_id = s.id
+    ON DUPLICATE KEY UPDATE
+        orders     = VALUES(orders),
+        reviews    = VALUES(reviews),
+        rating_sum = VALUES(rating_sum)
+    """, nativeQuery = true)
+    int reconcileAllTime();
+
+    /**
+     * [점수 재계산] 베이지안/트렌드 점수 일괄 갱신
+     * - trend = 0.6 * log(1+orders) + 0.3 * avg_rating + 0.1 * log(1+reviews)
+     */
+    @Modifying
+    @Query(value = """
+    UPDATE store_scores
+    SET bayes_score = (rating_sum + :C * :m) / (GREATEST(reviews, 0) + :C),
+        trend_score = 0.6 * LOG(1 + GREATEST(orders, 0))
+                    + 0.3 * COALESCE(rating_sum / NULLIF(reviews, 0), 0)
+                    + 0.1 * LOG(1 + GREATEST(reviews, 0))
+    """, nativeQuery = true)
+    int recomputeScores(@Param("m") double globalMean, @Param("C") double smoothingC);
+
+    /** 실데이터 기반 전체 평균 별점 (리뷰가 하나도 없으면 NULL) */
+    @Query(value = """
+    SELECT SUM(rating_sum) / NULLIF(SUM(reviews), 0)
+    FROM store_scores
+    WHERE window_days = 0
+    """, nativeQuery = true)
+    Double findGlobalMeanRating();
+}
@@ -5,10 +5,13 @@ import com.example.finalproject.domain.stores.category.StoreCategory;
 import com.example.finalproject.domain.stores.entity.Stores;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -48,6 +51,16 @@ public interface StoresRepository extends JpaRepository<Stores, Long> {
     /** 조회 시 ACTIVE만 보이게 하고 싶을 때 사용 (폐업 제외) */
     Optional<Stores> findByIdAndActiveTrueAndRetiredAtIsNull(Long id);
 
+    /** id 오름차순 키셋 조회 (검색 인덱스 전체 색인용) */
+    Slice<Stores> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /** 운영 중(폐업 제외) 가게 수 → 검색 인덱스 문서 수와 비교 */
+    long countByActiveTrueAndRetiredAtIsNull();
+
+    /** 주어진 시각 이후 변경된 가게 ID (검색 인덱스 정합성 보정용) */
+    @Query("select s.id from Stores s where s.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
     /** 특정 가게(storeId)가 특정 오너(ownerId)의 소유인지 여부 확인 */
     boolean existsByIdAndOwner_Id(Long storeId, Long ownerId);
 
@@ -61,21 +74,21 @@ public interface StoresRepository extends JpaRepository<Stores, Long> {
      * - 입력 좌표(:lat, :lng)를 기준으로 ST_Distance_Sphere로 거리(m) 계산
      * - :keyword가 비어 있지 않으면 이름 LIKE 검색
      * - :radiusMeters가 null 이 아니면 해당 반경(m) 이내만 필터
+     * - 카테고리는 stores.category_mask 비트 연산으로 필터 (store_categories 조인/DISTINCT 없음)
      * - 정렬은 항상 거리 오름차순
      * - 운영 중(active=true) + 미폐업(retired_at IS NULL)만 노출
      */
     @Query(value = """
-        SELECT DISTINCT
+        SELECT
           s.id, s.owner_id, s.name, s.address, s.latitude, s.longitude,
           s.min_order_price, s.opens_at, s.closes_at, s.delivery_fee,
-          s.active, s.retired_at, s.created_at, s.updated_at,
+          s.active, s.retired_at, s.created_at, s.updated_at, s.category_mask,
           ST_Distance_Sphere(POINT(:lng, :lat), POINT(s.longitude, s.latitude)) AS distance
         FROM stores s
-        LEFT JOIN store_categories sc ON sc.store_id = s.id
         WHERE s.active = true
           AND s.retired_at IS NULL
           AND (:keyword = '' OR s.name LIKE CONCAT('%', :keyword, '%'))
-          AND (:category IS NULL OR sc.category = :category)
+          AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
           AND (
             :radiusMeters IS NULL
             OR ST_Distance_Sphere(POINT(:lng, :lat), POINT(s.longitude, s.latitude)) <= :radiusMeters
@@ -83,13 +96,12 @@ public interface StoresRepository extends JpaRepository<Stores, Long> {
         ORDER BY distance
         """,
             countQuery = """
-        SELECT COUNT(DISTINCT s.id)
+        SELECT COUNT(*)
         FROM stores s
-        LEFT JOIN store_categories sc ON sc.store_id = s.id
         WHERE s.active = true
           AND s.retired_at IS NULL
           AND (:keyword = '' OR s.name LIKE CONCAT('%', :keyword, '%'))
-          AND (:category IS NULL OR sc.category = :category)
+          AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
           AND (
             :radiusMeters IS NULL
             OR ST_Distance_Sphere(POINT(:lng, :lat), POINT(s.longitude, s.latitude)) <= :radiusMeters
@@ -101,18 +113,90 @@ public interface StoresRepository extends JpaRepository<Stores, Long> {
             @Param("lat") double lat,            // 기준 위도
             @Param("lng") double lng,            // 기준 경도
             @Param("radiusMeters") Double radiusMeters, // 반경(m) (null 이면 무제한)
-            @Param("category") String category,  // 가게 카테고리 (null 허용)
+            @Param("categoryBit") long categoryBit,     // StoreCategory.bit() (0 이면 전체)
+            Pageable pageable
+    );
+
+    /**
+     * 이름 부분검색 + 좌표 반경 필터 + 거리 정렬 (커서 기반)
+     * -------------------------------------------------
+     * - searchWithDistanceRaw 와 동일한 필터/컬럼, 정렬만 (distance, id) 로 고정
+     * - (distance, id) 가 커서보다 큰 행만 조회 → OFFSET/COUNT 없음
+     * - pageable 은 크기만 사용 (PageRequest.of(0, size)), Slice 로 다음 페이지 여부 판단
+     */
+    @Query(value = """
+        SELECT t.* FROM (
+          SELECT
+            s.id, s.owner_id, s.name, s.address, s.latitude, s.longitude,
+            s.min_order_price, s.opens_at, s.closes_at, s.delivery_fee,
+            s.active, s.retired_at, s.created_at, s.updated_at, s.category_mask,
+            ST_Distance_Sphere(POINT(:lng, :lat), POINT(s.longitude, s.latitude)) AS distance
+          FROM stores s
+          WHERE s.active = true
+            AND s.retired_at IS NULL
+            AND (:keyword = '' OR s.name LIKE CONCAT('%', :keyword, '%'))
+            AND (:categoryBit = 0 OR (s.category_mask & :categoryBit) <> 0)
+            AND (
+              :radiusMeters IS NULL
+              OR ST_Distance_Sphere(POINT(:lng, :lat), POINT(s.longitude, s.latitude)) <= :radiusMeters
+            )
+        ) t
+        WHERE t.distance > :cursorDistance
+           OR (t.distance = :cursorDistance AND t.id > :cursorId)
+        ORDER BY t.distance, t.id
+        """,
+            nativeQuery = true)
+    Slice<Object[]> searchWithDistanceAfter(
+            @Param("keyword") String keyword,
+            @Param("lat") double lat,
+            @Param("lng") double lng,
+            @Param("radiusMeters") Double radiusMeters,
+            @Param("categoryBit") long categoryBit,
+            @Param("cursorDistance") double cursorDistance, // 직전 페이지 마지막 거리 (첫 페이지: -1)
+            @Param("cursorId") long cursorId,               // 직전 페이지 마지막 가게 ID (첫 페이지: 0)
             Pageable pageable
     );
 
     /** 주어진 카테고리 중 하나라도 매칭 (운영 중 + 미폐업만) */
-    @Query("""
-        select distinct s
-        from Stores s
-        join s.categoryLinks l
-        where s.active = true
-          and s.retiredAt is null
-          and l.category in :cats
-    """)
-    Page<Stores> findActiveByAnyCategoryIn(@Param("cats") Collection<StoreCategory> cats, Pageable pageable);
+    default Page<Stores> findActiveByAnyCategoryIn(Collection<StoreCategory> cats, Pageable pageable) {
+        return findActiveByCategoryMask(StoreCategory.maskOf(cats), pageable);
+    }
+
+    /** 카테고리 비트마스크와 하나라도 겹치는 가게 (운영 중 + 미폐업만) */
+    @Query(value = """
+        SELECT s.*
+        FROM stores s
+        WHERE s.active = true
+          AND s.retired_at IS NULL
+          AND (s.category_mask & :mask) <> 0
+        """,
+            countQuery = """
+        SELECT COUNT(*)
+        FROM stores s
+        WHERE s.active = true
+          AND s.retired_at IS NULL
+          AND (s.category_mask & :mask) <> 0
+        """,
+            nativeQuery = true)
+    Page<Stores> findActiveByCategoryMask(@Param("mask") long mask, Pageable pageable);
+
+    /**
+     * store_categories 기준 category_mask 재계산
+     * - :bitOrder 는 StoreCategory.bitOrder() (ordinal 순 영문 코드, 콤마 구분)
+     *   → FIND_IN_SET 위치 - 1 이 비트 위치
+     * - 값이 달라진 행만 갱신
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE stores s
+        LEFT JOIN (
+            SELECT store_id, BIT_OR(1 << (FIND_IN_SET(category, :bitOrder) - 1)) AS mask
+            FROM store_categories
+            WHERE FIND_IN_SET(category, :bitOrder) > 0
+            GROUP BY store_id
+        ) m ON m.store_id = s.id
+        SET s.category_mask = COALESCE(m.mask, 0)
+        WHERE s.category_mask <> COALESCE(m.mask, 0)
+        """, nativeQuery = true)
+    int rebuildCategoryMasks(@Param("bitOrder") String bitOrder);
 }
@@ -1,10 +1,14 @@
 package com.example.finalproject.domain.stores.repository;
 
 import com.example.finalproject.domain.stores.entity.UserStar;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * UserStarRepository
@@ -14,19 +18,33 @@ import java.util.Optional;
  */
 public interface UserStarRepository extends JpaRepository<UserStar, Long> {
 
-    // 특정 사용자가 특정 가게를 즐겨찾기 했는지 여부 확인
-    boolean existsByUser_IdAndStore_Id(Long userId, Long storeId);
+    // 특정 사용자가 즐겨찾기한 가게 ID 전체 (Redis 적재용)
+    @Query("select us.store.id from UserStar us where us.user.id = :userId")
+    List<Long> findStoreIdsByUserId(@Param("userId") Long userId);
 
-    // 특정 사용자가 등록한 즐겨찾기 개수
-    long countByUser_Id(Long userId);
-
-    // 특정 사용자와 가게 간의 즐겨찾기 단건 조회
-    Optional<UserStar> findByUser_IdAndStore_Id(Long userId, Long storeId);
+    // 가게별 즐겨찾기 수 (Redis 카운터 적재용, 즐겨찾기가 없는 가게는 결과에 없음)
+    @Query("""
+    select us.store.id, count(us)
+    from UserStar us
+    where us.store.id in :storeIds
+    group by us.store.id
+    """)
+    List<Object[]> countByStoreIds(@Param("storeIds") Collection<Long> storeIds);
 
     // 폐업된 가게는 즐겨찾기 목록에서 제외
-    // 특정 사용자의 즐겨찾기 중 등록 순(createdAt ASC)으로 최대 10개 조회
-    List<UserStar> findTop10ByUser_IdAndStore_ActiveTrueOrderByCreatedAtAsc(Long userId);
-
-    // 특정 사용자의 전체 즐겨찾기 목록 (등록 순 ASC)
-    List<UserStar> findAllByUser_IdAndStore_ActiveTrueOrderByCreatedAtAsc(Long userId);
+    // 특정 사용자의 즐겨찾기를 등록 순(createdAt ASC)으로 가게까지 한 번에 조회
+    @Query("""
+    select us
+    from UserStar us
+    join fetch us.store s
+    where us.user.id = :userId
+      and s.active = true
+    order by us.createdAt asc
+    """)
+    List<UserStar> findWithStoreByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // 특정 사용자와 가게 간의 즐겨찾기 삭제 (삭제된 행 수 반환)
+    @Modifying
+    @Query("delete from UserStar us where us.user.id = :userId and us.store.id = :storeId")
+    int deleteByUserIdAndStoreId(@Param("userId") Long userId, @Param("storeId") Long storeId);
 }
@@ -0,0 +1,44 @@
+package com.example.finalproject.domain.stores.scheduler;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.stores.service.StoreCategoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * stores.category_mask 정합성 보정 작업
+ * - 평소에는 StoreCategoryService 가 카테고리 변경 시 즉시 동기화
+ * - 기동 직후 1회(컬럼 추가 후 기존 데이터 채우기) + 매일 1회 store_categories 기준으로 재계산
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreCategoryMaskJob {
+
+    private final StoreCategoryService storeCategoryService;
+    private final StringRedisTemplate redis;
+
+    // 기동 1분 후 1회, 이후 매일 1회
+    @Scheduled(initialDelay = 60_000, fixedDelay = 86_400_000)
+    public void rebuild() {
+        String lockKey = RedisKeys.jobLock("store-category-mask");
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(5)))) {
+            return; // 다른 인스턴스가 수행 중
+        }
+        try {
+            int updated = storeCategoryService.rebuildMasks();
+            if (updated > 0) {
+                log.info("[StoreCategoryMaskJob] category_mask 보정 {}건", updated);
+            }
+        } catch (Exception e) {
+            log.error("[StoreCategoryMaskJob] 실패: {}", e.getMessage(), e);
+        } finally {
+            redis.delete(lockKey);
+        }
+    }
+}
@@ -1,24 +1,41 @@
 package com.example.finalproject.domain.stores.scheduler;
 
 import com.example.finalproject.domain.stores.repository.StoreNoticeRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+/**
+ * 만료 공지 물리 삭제
+ * - 조회 시 만료 여부는 StoreNoticeCache 가 판단하므로 여기서는 저장 공간 정리만 담당
+ * - 1시간마다, 배치 단위(짧은 트랜잭션)로 나눠 삭제
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class StoreNoticeCleaner {
 
+    private static final int BATCH_SIZE = 500;
+
     private final StoreNoticeRepository repo;
 
     // 만료 공지 전역 삭제
-    @Transactional
-    @Scheduled(cron = "0 * * * * *", zone = "Asia/Seoul") // 매 분 0초에 실행
+    @Scheduled(cron = "0 17 * * * *", zone = "Asia/Seoul") // 매시 17분에 실행
     public void purgeExpiredGlobally() {
-        // 현재 시각(now) 기준으로 ends_at < now 인 공지를 일괄 삭제
-        repo.deleteExpired(LocalDateTime.now());
+        // 실행 시점(now) 기준으로 ends_at < now 인 공지를 BATCH_SIZE 씩 반복 삭제
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = repo.deleteExpiredBatch(now, BATCH_SIZE);
+            total += deleted;
+        } while (deleted == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("[StoreNoticeCleaner] 만료 공지 {}건 삭제", total);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package com.example.finalproject.domain.stores.scheduler;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.stores.service.StoreScoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 가게 추천 점수 집계 작업
+ * - 여러 인스턴스가 떠 있어도 압축/재계산은 Redis 락을 잡은 한 곳에서만 수행
+ *   압축과 일일 보정은 락 이름을 나눠 서로의 실행을 건너뛰게 하지 않음
+ * - 전체 평균 별점(m)은 각 인스턴스가 자신의 메모리 값을 갱신해야 하므로 락과 무관하게 읽음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreScoreJob {
+
+    private final StoreScoreService storeScoreService;
+    private final StringRedisTemplate redis;
+
+    // 5분마다 시간 버킷 압축 + 윈도우/점수 재계산
+    @Scheduled(initialDelay = 30_000, fixedDelay = 300_000)
+    public void compactAndRefresh() {
+        runLocked("store-scores-compact", Duration.ofMinutes(4), storeScoreService::compactAndRefresh);
+        storeScoreService.reloadGlobalMean();
+    }
+
+    // 매일 04:30 원본 테이블 기준 누적값 보정
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Seoul")
+    public void reconcile() {
+        runLocked("store-scores-reconcile", Duration.ofMinutes(10), storeScoreService::reconcile);
+    }
+
+    private void runLocked(String job, Duration ttl, Runnable task) {
+        String lockKey = RedisKeys.jobLock(job);
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", ttl))) {
+            return; // 다른 인스턴스가 수행 중
+        }
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("[StoreScoreJob] {} 실패: {}", job, e.getMessage(), e);
+        } finally {
+            redis.delete(lockKey);
+        }
+    }
+}
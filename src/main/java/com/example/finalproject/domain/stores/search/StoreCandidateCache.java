@@ -0,0 +1,175 @@
+package com.example.finalproject.domain.stores.search;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.stores.category.StoreCategory;
+import com.example.finalproject.domain.stores.geo.GeoHash;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 지오셀 단위 가게 후보 캐시 (Redis)
+ * - 요청 좌표를 geohash 셀로 양자화 → (셀, 반경, 카테고리, 키워드) 별로 후보 가게 (ID + 좌표) 목록을 짧게 캐시
+ * - 후보는 셀 중심에서 (반경 + 셀 중심~모서리 거리) 안의 가게 → 셀 안 어느 좌표로 요청해도 반경 안 가게를 빠짐없이 포함
+ * - 요청마다 하는 일은 사용자 좌표 기준 거리 계산/필터/정렬/페이징뿐
+ * - 키워드는 공백 정리 + 소문자화 후 SHA-256 앞 16바이트(hex)로 키에 넣음 (키 길이 고정, 구분자/특수문자 무관)
+ * - 무효화는 지역 단위 버전으로
+ *     항목마다 "버전 셀"(geohash 5 또는 4자리, 셀 중심 ~ 후보 범위 끝이 짧은 변 안에 들어오는 가장 작은 셀)을 정하고
+ *     키에 그 셀의 버전을 넣음 (+ 전체 색인 때만 올리는 전체 버전)
+ *     가게가 바뀌면 이전/새 좌표가 속한 버전 셀과 인접 8셀(두 정밀도)의 버전만 올림 → 멀리 떨어진 셀의 캐시는 유지
+ *     이전 키/버전 키는 TTL 로 소멸
+ * - 후보가 max-candidates 를 넘는 셀(도심 + 빈 키워드 등)이나 범위가 버전 셀보다 넓은 반경은 캐시하지 않고 기존 검색 경로 사용
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreCandidateCache {
+
+    private static final String TOO_MANY = "!";
+    // 버전 셀 정밀도 (5 ≈ 4.9km x 4.9km, 4 ≈ 39km x 19.5km, 적도 기준)
+    private static final int[] VERSION_PRECISIONS = {5, 4};
+    // 버전 키 유지 시간 (후보 캐시 TTL 보다 충분히 길게, 만료 후 0 부터 다시 시작해도 이전 항목은 이미 소멸)
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    private final StringRedisTemplate redis;
+    private final StoreSearchIndex storeSearchIndex;
+
+    @Value("${stores.search.candidate-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${stores.search.candidate-cache.max-candidates:2000}")
+    private int maxCandidates;
+
+    /**
+     * 반경 검색 후보 조회 (캐시 미스면 ES 조회 후 적재)
+     *
+     * @return 후보 가게 (반경 밖 가게 포함 가능, 호출 측에서 정확한 거리로 다시 거름) / 후보가 너무 많으면 empty
+     */
+    public Optional<List<StoreSearchIndex.StoreCandidate>> candidates(String keyword, double lat, double lng,
+                                                                      double radiusMeters, StoreCategory category)
+            throws IOException {
+        // 반경이 크면 셀도 크게 (셀이 반경에 비해 너무 작으면 캐시 적중률이 떨어짐)
+        String cell = GeoHash.encode(lat, lng, radiusMeters >= 2000 ? 6 : 7);
+        double[] center = GeoHash.cellCenter(cell);
+        double reach = radiusMeters + center[2];
+        String versionCell = versionCell(center[0], center[1], reach);
+        if (versionCell == null) return Optional.empty(); // 너무 넓은 반경
+
+        String q = normalize(keyword);
+        String key = RedisKeys.storeCandidates(version(versionCell), cell, Math.round(radiusMeters),
+                (category == null) ? "ALL" : category.name(), hash(q));
+
+        String cached = redis.opsForValue().get(key);
+        if (cached != null) return decode(cached);
+
+        List<StoreSearchIndex.StoreCandidate> found = storeSearchIndex.candidates(
+                q, center[0], center[1], reach, category, maxCandidates);
+        boolean tooMany = found.size() > maxCandidates;
+        redis.opsForValue().set(key, tooMany ? TOO_MANY : encode(found), Duration.ofSeconds(ttlSeconds));
+        return tooMany ? Optional.empty() : Optional.of(found);
+    }
+
+    /**
+     * 좌표 주변 캐시만 무효화 (좌표마다 두 정밀도 x 9셀 버전 증가, 파이프라인 1회)
+     *
+     * @param locations 바뀐 가게의 이전/새 좌표
+     */
+    public void invalidate(Collection<StoreSearchIndex.StoreCandidate> locations) {
+        if (locations.isEmpty()) return;
+        Set<String> cells = new LinkedHashSet<>();
+        for (StoreSearchIndex.StoreCandidate c : locations) {
+            for (int precision : VERSION_PRECISIONS) {
+                cells.addAll(GeoHash.withNeighbors(GeoHash.encode(c.lat(), c.lng(), precision)));
+            }
+        }
+        long ttl = VERSION_TTL.toSeconds();
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (String vc : cells) {
+                    String vkey = RedisKeys.storeCandidatesCellVersion(vc);
+                    conn.incr(vkey);
+                    conn.expire(vkey, ttl);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("[StoreCandidateCache] 무효화 실패 (TTL 경과 후 반영): {}", e.getMessage());
+        }
+    }
+
+    /** 캐시 전체 무효화 (전체 색인 후, 전체 버전 증가) */
+    public void invalidateAll() {
+        try {
+            redis.opsForValue().increment(RedisKeys.storeCandidatesVersion());
+        } catch (Exception e) {
+            log.warn("[StoreCandidateCache] 무효화 실패 (TTL 경과 후 반영): {}", e.getMessage());
+        }
+    }
+
+    // 셀 중심에서 reach(m) 안의 좌표가 자기 셀 + 인접 8셀 안에 들어오는 가장 작은 버전 셀 (없으면 null)
+    private static String versionCell(double lat, double lng, double reach) {
+        for (int precision : VERSION_PRECISIONS) {
+            String vc = GeoHash.encode(lat, lng, precision);
+            if (reach <= GeoHash.minSideMeters(vc)) return vc;
+        }
+        return null;
+    }
+
+    // "전체 버전.버전 셀.셀 버전" (GET 2개를 한 번에)
+    private String version(String versionCell) {
+        List<String> v = redis.opsForValue().multiGet(List.of(
+                RedisKeys.storeCandidatesVersion(), RedisKeys.storeCandidatesCellVersion(versionCell)));
+        String all = (v == null || v.get(0) == null) ? "0" : v.get(0);
+        String local = (v == null || v.get(1) == null) ? "0" : v.get(1);
+        return all + "." + versionCell + "." + local;
+    }
+
+    // 대소문자/공백 차이만 있는 키워드는 같은 항목 (ES 검색도 같은 결과)
+    private static String normalize(String keyword) {
+        return keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String hash(String keyword) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(keyword.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(d, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // "id:lat:lng,id:lat:lng,..."
+    private static String encode(List<StoreSearchIndex.StoreCandidate> candidates) {
+        StringBuilder sb = new StringBuilder(candidates.size() * 32);
+        for (StoreSearchIndex.StoreCandidate c : candidates) {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(c.storeId()).append(':').append(c.lat()).append(':').append(c.lng());
+        }
+        return sb.toString();
+    }
+
+    private static Optional<List<StoreSearchIndex.StoreCandidate>> decode(String value) {
+        if (TOO_MANY.equals(value)) return Optional.empty();
+        if (value.isEmpty()) return Optional.of(List.of());
+        String[] items = value.split(",");
+        List<StoreSearchIndex.StoreCandidate> out = new ArrayList<>(items.length);
+        for (String item : items) {
+            String[] p = item.split(":");
+            out.add(new StoreSearchIndex.StoreCandidate(
+                    Long.valueOf(p[0]), Double.parseDouble(p[1]), Double.parseDouble(p[2])));
+        }
+        return Optional.of(out);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.finalproject.domain.stores.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.example.finalproject.domain.stores.category.StoreCategory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 가게 검색 인덱스 (Elasticsearch "stores_index")
+ * - 문서 1개 = 가게 1개 (이름 + 메뉴 이름 + 카테고리 + 영업시간 + geo_point)
+ * - 좌표가 없는 가게는 location 없이 색인 → 키워드 검색에는 나오고, 반경 필터에서는 빠지며 거리 정렬 시 맨 뒤
+ * - 이름/메뉴는 1~3 ngram 으로 색인 → LIKE '%키워드%' 와 비슷한 부분 일치
+ * - 매핑/분석기 설정은 resources/elasticsearch/stores-index.json
+ * - 운영 중(active=true, 미폐업) 가게만 문서로 유지, 폐업/삭제 시 문서 삭제
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreSearchIndex {
+
+    static final String INDEX = "stores_index";
+    private static final String MAPPING = "elasticsearch/stores-index.json";
+
+    private final ElasticsearchClient esClient;
+
+    /**
+     * 인덱스가 없으면 생성
+     *
+     * @return 새로 만들었으면 true (전체 색인 필요)
+     */
+    public boolean createIfNotExists() throws IOException {
+        if (esClient.indices().exists(e -> e.index(INDEX)).value()) return false;
+        try (InputStream json = getClass().getClassLoader().getResourceAsStream(MAPPING)) {
+            esClient.indices().create(c -> c.index(INDEX).withJson(json));
+        }
+        log.info("[StoreSearchIndex] '{}' 인덱스 생성", INDEX);
+        return true;
+    }
+
+    /** 인덱스 문서 수 (정합성 점검용) */
+    public long count() throws IOException {
+        return esClient.count(c -> c.index(INDEX)).count();
+    }
+
+    /**
+     * 문서 색인/삭제 한 묶음 (Bulk 1회, 강제 refresh 없음)
+     *
+     * @param docs     색인할 문서 (storeId → 문서)
+     * @param removals 삭제할 가게 ID
+     */
+    public void bulk(Map<Long, Map<String, Object>> docs, List<Long> removals) throws IOException {
+        List<BulkOperation> ops = new ArrayList<>(docs.size() + removals.size());
+        docs.forEach((id, doc) -> ops.add(BulkOperation.of(o -> o.index(i -> i
+                .index(INDEX)
+                .id(String.valueOf(id))
+                .document(doc)))));
+        for (Long id : removals) {
+            ops.add(BulkOperation.of(o -> o.delete(d -> d.index(INDEX).id(String.valueOf(id)))));
+        }
+        if (ops.isEmpty()) return;
+
+        BulkResponse resp = esClient.bulk(b -> b.operations(ops));
+        if (resp.errors()) {
+            // 없는 문서 삭제(404)는 정상
+            long failed = resp.items().stream()
+                    .filter(item -> item.error() != null && item.status() != 404)
+                    .count();
+            if (failed > 0) {
+                throw new IOException("가게 색인 실패 " + failed + "건");
+            }
+        }
+    }
+
+    /**
+     * 키워드(이름/메뉴) + 반경 + 카테고리 검색
+     * - 좌표가 있으면 거리 오름차순, 없으면 관련도 내림차순 (동점은 id 오름차순)
+     *
+     * @param keyword      검색어 (빈 문자열이면 전체)
+     * @param lat          기준 위도 (null 이면 거리 계산 없음)
+     * @param lng          기준 경도
+     * @param radiusMeters 반경(m) (null 이면 무제한)
+     * @param category     카테고리 (null 이면 전체)
+     * @param from         시작 위치 (page * size)
+     * @param size         페이지 크기
+     */
+    public Hits search(String keyword, Double lat, Double lng, Double radiusMeters,
+                       StoreCategory category, int from, int size) throws IOException {
+        boolean byDistance = lat != null && lng != null;
+
+        List<Query> must = new ArrayList<>();
+        List<Query> filter = new ArrayList<>();
+        if (!keyword.isEmpty()) {
+            must.add(Query.of(q -> q.multiMatch(m -> m
+                    .query(keyword)
+                    .fields("name^3", "menus")
+                    .operator(Operator.And))));
+        }
+        if (category != null) {
+            filter.add(Query.of(q -> q.term(t -> t.field("categories").value(category.name()))));
+        }
+        if (byDistance && radiusMeters != null) {
+            filter.add(Query.of(q -> q.geoDistance(g -> g
+                    .field("location")
+                    .distance(radiusMeters + "m")
+                    .location(l -> l.latlon(ll -> ll.lat(lat).lon(lng))))));
+        }
+
+        SearchResponse<Void> resp = esClient.search(s -> {
+            s.index(INDEX)
+                    .from(from)
+                    .size(size)
+                    .source(src -> src.fetch(false)) // ID/정렬값만 사용, 본문은 MySQL 에서 조회
+                    .trackTotalHits(t -> t.enabled(true))
+                    .query(q -> q.bool(b -> b.must(must).filter(filter)));
+            if (byDistance) {
+                s.sort(so -> so.geoDistance(g -> g
+                        .field("location")
+                        .location(l -> l.latlon(ll -> ll.lat(lat).lon(lng)))
+                        .order(SortOrder.Asc)
+                        .unit(DistanceUnit.Meters)));
+            } else {
+                s.sort(so -> so.score(sc -> sc.order(SortOrder.Desc)));
+            }
+            return s.sort(so -> so.field(f -> f.field("id").order(SortOrder.Asc)));
+        }, Void.class);
+
+        List<StoreHit> hits = new ArrayList<>(resp.hits().hits().size());
+        for (Hit<Void> h : resp.hits().hits()) {
+            Double distance = null;
+            if (byDistance && !h.sort().isEmpty()) {
+                FieldValue v = h.sort().get(0);
+                // 좌표 없는 가게는 정렬값이 Infinity → 거리 없음
+                if (v.isDouble() && Double.isFinite(v.doubleValue())) distance = v.doubleValue();
+            }
+            hits.add(new StoreHit(Long.valueOf(h.id()), distance));
+        }
+        long total = (resp.hits().total() == null) ? hits.size() : resp.hits().total().value();
+        return new Hits(hits, total);
+    }
+
+    /**
+     * 반경 안 후보 가게 전체 (ID + 좌표만, 정렬 없음)
+     * - 지오셀 후보 캐시(StoreCandidateCache) 적재용
+     *
+     * @param max 최대 후보 수 (초과 여부 판단을 위해 max + 1 개까지 조회)
+     */
+    public List<StoreCandidate> candidates(String keyword, double lat, double lng, double radiusMeters,
+                                           StoreCategory category, int max) throws IOException {
+        List<Query> must = new ArrayList<>();
+        List<Query> filter = new ArrayList<>();
+        if (!keyword.isEmpty()) {
+            must.add(Query.of(q -> q.multiMatch(m -> m
+                    .query(keyword)
+                    .fields("name^3", "menus")
+                    .operator(Operator.And))));
+        }
+        if (category != null) {
+            filter.add(Query.of(q -> q.term(t -> t.field("categories").value(category.name()))));
+        }
+        filter.add(Query.of(q -> q.geoDistance(g -> g
+                .field("location")
+                .distance(radiusMeters + "m")
+                .location(l -> l.latlon(ll -> ll.lat(lat).lon(lng))))));
+
+        SearchResponse<Map> resp = esClient.search(s -> s
+                .index(INDEX)
+                .size(max + 1)
+                .source(src -> src.filter(f -> f.includes("location")))
+                .query(q -> q.bool(b -> b.must(must).filter(filter))), Map.class);
+
+        List<StoreCandidate> out = new ArrayList<>(resp.hits().hits().size());
+        for (Hit<Map> h : resp.hits().hits()) {
+            if (h.source() == null || !(h.source().get("location") instanceof Map<?, ?> loc)) continue;
+            out.add(new StoreCandidate(Long.valueOf(h.id()),
+                    ((Number) loc.get("lat")).doubleValue(), ((Number) loc.get("lon")).doubleValue()));
+        }
+        return out;
+    }
+
+    /**
+     * 색인된 문서의 좌표 (mget 1회, 좌표/문서 없는 가게는 빠짐)
+     * - 재색인 전 위치 확인용 (가게가 이동한 경우 이전 위치 주변 후보 캐시도 무효화)
+     */
+    public List<StoreCandidate> locations(List<Long> storeIds) throws IOException {
+        if (storeIds.isEmpty()) return List.of();
+        MgetResponse<Map> resp = esClient.mget(m -> m
+                .index(INDEX)
+                .ids(storeIds.stream().map(String::valueOf).toList())
+                .sourceIncludes("location"), Map.class);
+
+        List<StoreCandidate> out = new ArrayList<>(storeIds.size());
+        for (MultiGetResponseItem<Map> item : resp.docs()) {
+            if (!item.isResult() || !item.result().found() || item.result().source() == null) continue;
+            if (!(item.result().source().get("location") instanceof Map<?, ?> loc)) continue;
+            out.add(new StoreCandidate(Long.valueOf(item.result().id()),
+                    ((Number) loc.get("lat")).doubleValue(), ((Number) loc.get("lon")).doubleValue()));
+        }
+        return out;
+    }
+
+    /** 후보 가게 (ID + 좌표) */
+    public record StoreCandidate(Long storeId, double lat, double lng) {}
+
+    /** 검색 결과 (순서 유지) */
+    public record Hits(List<StoreHit> hits, long total) {}
+
+    /** 가게 ID + 기준 좌표로부터 거리(m, 좌표 없으면 null) */
+    public record StoreHit(Long storeId, Double distanceMeters) {}
+}
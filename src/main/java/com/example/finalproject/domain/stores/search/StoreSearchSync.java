@@ -0,0 +1,246 @@
+package com.example.finalproject.domain.stores.search;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.example.finalproject.domain.menus.repository.MenusRepository;
+import com.example.finalproject.domain.stores.category.StoreCategory;
+import com.example.finalproject.domain.stores.entity.Stores;
+import com.example.finalproject.domain.stores.repository.StoresRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 가게 검색 인덱스 동기화
+ * - 가게/카테고리/메뉴 쓰기 서비스가 커밋 이후 markDirtyAfterCommit(storeId) 호출
+ *   → 변경된 가게 ID 를 Redis SET(store:search:dirty)에 모아 둠 (인스턴스가 죽어도 남음)
+ * - 주기적으로(flush-interval-ms) SPOP 으로 묶음을 꺼내 MySQL 에서 한 번에 읽어 Bulk 색인 (폐업/없는 가게는 문서 삭제)
+ * - 반영 실패 시 ID 를 SET 에 되돌려 다음 주기에 재시도
+ * - 반영 성공 시 바뀐 가게의 이전(색인된 문서)/새 좌표 주변 지오셀 후보 캐시(StoreCandidateCache)만 무효화
+ * - 좌표가 없는 가게도 location 없이 색인 (키워드 검색 결과에서 빠지지 않도록)
+ * - 전체 색인(backfill)
+ *     완료 표시(store:search:backfill:done)가 없으면 기동 시 id 순으로 나눠 색인 (Redis 락으로 한 인스턴스만)
+ *     페이지마다 마지막 id 를 store:search:backfill:after 에 기록 → 중간에 실패/종료돼도 다음 기동/보정 때 이어서 진행
+ *     인덱스를 새로 만든 경우 완료 표시/진행 위치를 지우고 처음부터
+ * - 정합성 보정(reconcile, reconcile-interval-ms)
+ *     지난 보정 이후 updated_at 이 바뀐 가게를 dirty 로 다시 표시 (커밋 직후 표시 전에 죽은 경우 등)
+ *     대기 중인 변경이 없는데 운영 중 가게 수와 문서 수가 다르면 전체 색인 재실행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreSearchSync {
+
+    private static final int BACKFILL_PAGE = 500;
+    private static final int FLUSH_BATCH = 500;
+    // 보정 시 watermark 앞쪽 겹침 (트랜잭션 커밋 지연/서버 간 시계 오차 여유)
+    private static final Duration RECONCILE_OVERLAP = Duration.ofMinutes(1);
+
+    private final StoreSearchIndex storeSearchIndex;
+    private final StoreCandidateCache storeCandidateCache;
+    private final StoresRepository storesRepository;
+    private final MenusRepository menusRepository;
+    private final StringRedisTemplate redis;
+
+    @Value("${stores.search.elasticsearch.enabled:true}")
+    private boolean enabled;
+
+    /** 커밋 이후(트랜잭션 밖이면 즉시) 재색인 대상으로 표시 */
+    public void markDirtyAfterCommit(Long storeId) {
+        if (!enabled || storeId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirty(List.of(storeId));
+                }
+            });
+        } else {
+            markDirty(List.of(storeId));
+        }
+    }
+
+    private void markDirty(Collection<Long> storeIds) {
+        if (storeIds.isEmpty()) return;
+        try {
+            redis.opsForSet().add(RedisKeys.storeSearchDirty(),
+                    storeIds.stream().map(String::valueOf).toArray(String[]::new));
+        } catch (Exception e) {
+            // 다음 정합성 보정(updated_at 기준)에서 다시 잡힘
+            log.warn("[StoreSearchSync] 재색인 표시 실패 {}건: {}", storeIds.size(), e.getMessage());
+        }
+    }
+
+    /** 주기 반영 (SPOP 은 원자적이므로 여러 인스턴스가 동시에 돌아도 같은 ID 를 나눠 갖지 않음) */
+    @Scheduled(fixedDelayString = "${stores.search.elasticsearch.flush-interval-ms:2000}")
+    public void flush() {
+        if (!enabled) return;
+
+        List<String> popped;
+        try {
+            popped = redis.opsForSet().pop(RedisKeys.storeSearchDirty(), FLUSH_BATCH);
+        } catch (Exception e) {
+            log.warn("[StoreSearchSync] 재색인 대상 조회 실패: {}", e.getMessage());
+            return;
+        }
+        if (popped == null || popped.isEmpty()) return;
+
+        List<Long> ids = popped.stream().map(Long::valueOf).toList();
+        try {
+            List<StoreSearchIndex.StoreCandidate> locations = new ArrayList<>(storeSearchIndex.locations(ids));
+            locations.addAll(reindex(ids));
+            storeCandidateCache.invalidate(locations);
+        } catch (Exception e) {
+            log.warn("[StoreSearchSync] 가게 {}건 색인 실패, 다음 주기에 재시도: {}", ids.size(), e.getMessage());
+            markDirty(ids);
+        }
+    }
+
+    /** 기동 시 인덱스 생성 + (완료 표시가 없으면) 전체 색인 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIndex() {
+        if (!enabled) return;
+        String lockKey = RedisKeys.jobLock("store-search-backfill");
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(30)))) {
+            return;
+        }
+        try {
+            if (storeSearchIndex.createIfNotExists()) {
+                redis.delete(List.of(RedisKeys.storeSearchBackfillDone(), RedisKeys.storeSearchBackfillCursor()));
+            }
+            backfillIfIncomplete();
+        } catch (Exception e) {
+            log.warn("[StoreSearchSync] 인덱스 초기화 실패 (SQL 검색으로 대체, 다음 보정 때 이어서 색인): {}", e.getMessage());
+        } finally {
+            redis.delete(lockKey);
+        }
+    }
+
+    /** 주기 정합성 보정 */
+    @Scheduled(fixedDelayString = "${stores.search.elasticsearch.reconcile-interval-ms:600000}", initialDelay = 120_000)
+    public void reconcile() {
+        if (!enabled) return;
+        String lockKey = RedisKeys.jobLock("store-search-backfill");
+        if (!Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", Duration.ofMinutes(30)))) {
+            return; // 전체 색인 또는 다른 인스턴스의 보정이 진행 중
+        }
+        try {
+            // 1) 지난 보정 이후 변경된 가게 재표시
+            LocalDateTime startedAt = LocalDateTime.now();
+            String watermark = redis.opsForValue().get(RedisKeys.storeSearchWatermark());
+            if (watermark != null) {
+                List<Long> changed = storesRepository.findIdsUpdatedSince(
+                        LocalDateTime.parse(watermark).minus(RECONCILE_OVERLAP));
+                markDirty(changed);
+            }
+            redis.opsForValue().set(RedisKeys.storeSearchWatermark(), startedAt.toString());
+
+            // 2) 이어서 할 전체 색인이 남아 있으면 진행
+            backfillIfIncomplete();
+
+            // 3) 대기 중인 변경이 없을 때만 문서 수 비교 (반영 중인 변경으로 인한 일시적 차이 제외)
+            Long dirty = redis.opsForSet().size(RedisKeys.storeSearchDirty());
+            if (dirty != null && dirty > 0) return;
+            long expected = storesRepository.countByActiveTrueAndRetiredAtIsNull();
+            long indexed = storeSearchIndex.count();
+            if (expected != indexed) {
+                log.warn("[StoreSearchSync] 문서 수 불일치 (DB {}건, 인덱스 {}건) → 전체 색인 재실행", expected, indexed);
+                redis.delete(RedisKeys.storeSearchBackfillDone());
+                backfillIfIncomplete();
+            }
+        } catch (Exception e) {
+            log.warn("[StoreSearchSync] 정합성 보정 실패: {}", e.getMessage());
+        } finally {
+            redis.delete(lockKey);
+        }
+    }
+
+    // 완료 표시가 없으면 저장된 위치부터 끝까지 색인 (store-search-backfill 락 안에서 호출)
+    private void backfillIfIncomplete() throws Exception {
+        if (Boolean.TRUE.equals(redis.hasKey(RedisKeys.storeSearchBackfillDone()))) return;
+
+        String saved = redis.opsForValue().get(RedisKeys.storeSearchBackfillCursor());
+        long afterId = (saved == null) ? 0L : Long.parseLong(saved);
+        int total = 0;
+        Slice<Stores> slice;
+        do {
+            slice = storesRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, BACKFILL_PAGE));
+            if (slice.isEmpty()) break;
+            List<Long> ids = slice.getContent().stream().map(Stores::getId).toList();
+            reindex(slice.getContent(), ids);
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            redis.opsForValue().set(RedisKeys.storeSearchBackfillCursor(), String.valueOf(afterId));
+        } while (slice.hasNext());
+
+        redis.opsForValue().set(RedisKeys.storeSearchBackfillDone(), LocalDateTime.now().toString());
+        redis.delete(RedisKeys.storeSearchBackfillCursor());
+        storeCandidateCache.invalidateAll();
+        log.info("[StoreSearchSync] 전체 색인 완료 {}건 (시작 id > {})", total, saved == null ? 0 : saved);
+    }
+
+    private List<StoreSearchIndex.StoreCandidate> reindex(List<Long> ids) throws Exception {
+        return reindex(storesRepository.findAllById(ids), ids);
+    }
+
+    // 가게 + 메뉴 이름을 한 번씩 조회해 문서 구성
+    // @return 색인한 가게의 좌표 (후보 캐시 무효화용)
+    private List<StoreSearchIndex.StoreCandidate> reindex(List<Stores> stores, List<Long> ids) throws Exception {
+        Map<Long, List<String>> menus = new HashMap<>();
+        for (Object[] row : menusRepository.findNamesByStoreIds(ids)) {
+            menus.computeIfAbsent(((Number) row[0]).longValue(), k -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<Long, Map<String, Object>> docs = new HashMap<>();
+        Set<Long> removals = new HashSet<>(ids);
+        List<StoreSearchIndex.StoreCandidate> locations = new ArrayList<>();
+        for (Stores s : stores) {
+            if (!s.isActive() || s.getRetiredAt() != null) {
+                continue; // 폐업 → 삭제 대상으로 남김
+            }
+            removals.remove(s.getId());
+            docs.put(s.getId(), toDoc(s, menus.getOrDefault(s.getId(), List.of())));
+            if (s.getLatitude() != null && s.getLongitude() != null) {
+                locations.add(new StoreSearchIndex.StoreCandidate(s.getId(), s.getLatitude(), s.getLongitude()));
+            }
+        }
+        storeSearchIndex.bulk(docs, new ArrayList<>(removals));
+        return locations;
+    }
+
+    private Map<String, Object> toDoc(Stores s, List<String> menuNames) {
+        long mask = (s.getCategoryMask() == null) ? 0L : s.getCategoryMask();
+        List<String> categories = Arrays.stream(StoreCategory.values())
+                .filter(c -> (mask & c.bit()) != 0)
+                .map(StoreCategory::name)
+                .toList();
+
+        Map<String, Object> doc = new HashMap<>();
+        doc.put("id", s.getId());
+        doc.put("name", s.getName());
+        doc.put("menus", menuNames);
+        doc.put("categories", categories);
+        // 좌표가 없으면 location 생략 (반경 검색 대상에서만 빠짐)
+        if (s.getLatitude() != null && s.getLongitude() != null) {
+            doc.put("location", Map.of("lat", s.getLatitude(), "lon", s.getLongitude()));
+        }
+        doc.put("opens_at", s.getOpensAt().toString());
+        doc.put("closes_at", s.getClosesAt().toString());
+        doc.put("min_order_price", s.getMinOrderPrice());
+        doc.put("delivery_fee", s.getDeliveryFee());
+        doc.put("updated_at", s.getUpdatedAt().toString());
+        return doc;
+    }
+}
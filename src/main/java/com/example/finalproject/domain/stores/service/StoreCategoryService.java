@@ -10,6 +10,7 @@ import com.example.finalproject.domain.stores.exception.StoresApiException;
 import com.example.finalproject.domain.stores.exception.StoresErrorCode;
 import com.example.finalproject.domain.stores.repository.StoreCategoryLinkRepository;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.search.StoreSearchSync;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -25,6 +26,7 @@ public class StoreCategoryService {
 
     private final StoresRepository storesRepository;
     private final StoreCategoryLinkRepository linkRepository;
+    private final StoreSearchSync storeSearchSync;
 
     /**
      * 인가 & 소유권 검증
@@ -113,6 +115,9 @@ public class StoreCategoryService {
         set.forEach(cat -> linkRepository.save(
                 StoreCategoryLink.builder().store(store).category(cat).build()
         ));
+        // 검색/추천 필터용 비트마스크 동기화
+        store.setCategoryMask(StoreCategory.maskOf(set));
+        storeSearchSync.markDirtyAfterCommit(storeId);
         // 현재 상태 재조회 후 반환
         var now = linkRepository.findByStore_Id(storeId).stream()
                 .map(StoreCategoryLink::getCategory)
@@ -139,6 +144,8 @@ public class StoreCategoryService {
         set.forEach(cat -> linkRepository.save(
                 StoreCategoryLink.builder().store(store).category(cat).build()
         ));
+        store.setCategoryMask(StoreCategory.maskOf(set));
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         // 현재 상태 조회 후 반환
         var now = linkRepository.findByStore_Id(storeId).stream()
@@ -158,7 +165,7 @@ public class StoreCategoryService {
     @Transactional
     public StoreCategoriesDeleteResponse removeOne(Long storeId, StoreCategory category) {
         // 오너·소유권 검증
-        ensureOwnerOfStore(storeId);
+        Stores store = ensureOwnerOfStore(storeId);
 
         // 존재 여부 확인(없으면 404)
         boolean exists = linkRepository.existsByStore_IdAndCategory(storeId, category);
@@ -168,6 +175,8 @@ public class StoreCategoryService {
 
         // 단일 삭제 수행
         linkRepository.deleteByStore_IdAndCategory(storeId, category);
+        store.setCategoryMask(store.getCategoryMask() & ~category.bit());
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         // 현재 상태 조회 후 반환 + 안내 메시지
         var now = linkRepository.findByStore_Id(storeId).stream()
@@ -185,7 +194,7 @@ public class StoreCategoryService {
     @Transactional
     public StoreCategoriesDeleteResponse removeAll(Long storeId) {
         // 오너·소유권 검증
-        ensureOwnerOfStore(storeId);
+        Stores store = ensureOwnerOfStore(storeId);
 
         // 하나라도 존재하는지 확인(없으면 404)
         boolean any = linkRepository.existsByStore_Id(storeId);
@@ -195,6 +204,8 @@ public class StoreCategoryService {
 
         // 전체 삭제
         linkRepository.deleteByStore_Id(storeId);
+        store.setCategoryMask(0L);
+        storeSearchSync.markDirtyAfterCommit(storeId);
 
         // 삭제 후 상태(보통 빈 리스트)와 메시지 반환
         var now = linkRepository.findByStore_Id(storeId).stream()
@@ -225,4 +236,16 @@ public class StoreCategoryService {
 
         return new StoreCategoriesResponse(storeId, now);
     }
-}
\ No newline at end of file
+
+    /**
+     * 비트마스크 전체 재계산 (store_categories 기준)
+     * - 컬럼 추가 직후 기존 데이터 채우기 + 서비스 밖에서 링크가 바뀐 경우 보정
+     * - 값이 달라진 가게만 갱신
+     *
+     * @return 갱신된 가게 수
+     */
+    @Transactional
+    public int rebuildMasks() {
+        return storesRepository.rebuildCategoryMasks(StoreCategory.bitOrder());
+    }
+}
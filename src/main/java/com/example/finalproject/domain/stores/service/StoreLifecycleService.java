@@ -4,6 +4,7 @@ import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.exception.StoresApiException;
 import com.example.finalproject.domain.stores.exception.StoresErrorCode;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.search.StoreSearchSync;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -20,6 +21,7 @@ import java.util.Objects;
 public class StoreLifecycleService {
 
     private final StoresRepository storesRepository;
+    private final StoreSearchSync storeSearchSync;
 
     /**
      * 가게 폐업 (논리 삭제)
@@ -82,6 +84,7 @@ public class StoreLifecycleService {
         // 6) 논리 삭제 처리: 활성 상태 비활성화 및 폐업일자 기록
         s.setActive(false);
         s.setRetiredAt(LocalDateTime.now());
+        storeSearchSync.markDirtyAfterCommit(storeId); // 검색 인덱스에서 제거
 
         // 7) 폐업 처리된 가게 이름 반환
         return s.getName();
@@ -0,0 +1,168 @@
+package com.example.finalproject.domain.stores.service;
+
+import com.example.finalproject.domain.stores.dto.response.StoreNoticeResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 가게 공지 Redis 캐시
+ * - 가게당 공지 1개 정책이므로 키도 가게당 1개: store:notice:{storeId}
+ * - 값에 공지 시작/종료 시각이 그대로 들어 있어 활성 여부는 읽을 때 계산 (SQL 없음)
+ * - TTL 은 종료 시각까지(최대 MAX_TTL) → 만료된 공지는 Redis 에서 자연 소멸 (lazy expiry)
+ * - 공지가 없는 가게도 NONE 마커로 짧게 캐시해 반복 조회 시 DB 를 치지 않음
+ * - 쓰기(등록/수정/삭제)는 커밋 이후 버전 키(store:notice:ver:{storeId})를 올리고 키를 지워 다음 조회에서 다시 적재
+ * - 적재는 DB 조회 전에 읽은 버전이 그대로일 때만 저장 (Lua 로 비교+저장을 한 번에)
+ *   → 조회 도중 끼어든 수정/삭제 뒤에 이전 값이 다시 써지는 경쟁 방지
+ * - 그래도 남을 수 있는 불일치(버전 증가 실패 등)는 TTL 상한(MAX_TTL)으로 제한
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreNoticeCache {
+
+    private static final String KEY_PREFIX = "store:notice:";
+    private static final String VERSION_KEY_PREFIX = "store:notice:ver:";
+    private static final String NONE = "NONE";
+    private static final Duration NONE_TTL = Duration.ofMinutes(10);
+    // 종료 시각 직후 읽기와 TTL 만료 사이의 경계 오차 여유
+    private static final Duration GRACE = Duration.ofSeconds(5);
+    // 공지 값 캐시 최대 유지 시간 (종료 시각이 멀어도 이 시간마다 DB 기준으로 다시 적재)
+    private static final Duration MAX_TTL = Duration.ofHours(1);
+    // 버전 키 유지 시간 (적재 중인 조회보다 충분히 길게)
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    // KEYS[1]=버전 키, KEYS[2]=캐시 키, ARGV[1]=조회 전 버전, ARGV[2]=값, ARGV[3]=TTL(ms)
+    private static final DefaultRedisScript<Long> SET_IF_VERSION = new DefaultRedisScript<>("""
+            local v = redis.call('GET', KEYS[1]) or '0'
+            if v ~= ARGV[1] then return 0 end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 캐시 조회 → 없으면 loader(DB) 로 적재
+     *
+     * @param storeId 가게 ID
+     * @param loader  캐시 미스 시 공지 조회 (없으면 Optional.empty())
+     * @return 공지 (기간과 무관하게 현재 등록된 공지, 없으면 empty)
+     */
+    public Optional<StoreNoticeResponse> get(Long storeId, Supplier<Optional<StoreNoticeResponse>> loader) {
+        String key = KEY_PREFIX + storeId;
+        String cached = read(key);
+        if (cached != null) {
+            if (NONE.equals(cached)) return Optional.empty();
+            StoreNoticeResponse notice = parse(cached);
+            if (notice != null) {
+                // TTL 경계 직후 읽힌 경우에도 종료된 공지는 없는 것으로 취급
+                if (notice.getEndsAt() != null && notice.getEndsAt().isBefore(LocalDateTime.now())) {
+                    return Optional.empty();
+                }
+                return Optional.of(withActive(notice));
+            }
+        }
+
+        // DB 조회 전 버전 (조회 중 수정/삭제가 커밋되면 달라짐)
+        String version = readVersion(storeId);
+        Optional<StoreNoticeResponse> loaded = loader.get();
+        if (version != null) write(storeId, version, loaded.orElse(null));
+        return loaded.map(this::withActive);
+    }
+
+    /** 커밋 이후(트랜잭션 밖이면 즉시) 버전 증가 + 캐시 제거 */
+    public void evictAfterCommit(Long storeId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(storeId);
+                }
+            });
+        } else {
+            evict(storeId);
+        }
+    }
+
+    // 버전을 먼저 올려 진행 중인 적재가 이전 값을 쓰지 못하게 한 뒤 삭제
+    private void evict(Long storeId) {
+        String versionKey = VERSION_KEY_PREFIX + storeId;
+        String key = KEY_PREFIX + storeId;
+        try {
+            redis.opsForValue().increment(versionKey);
+            redis.expire(versionKey, VERSION_TTL);
+            redis.delete(key);
+        } catch (Exception e) {
+            log.warn("[StoreNoticeCache] 캐시 삭제 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+
+    // 현재 시각 기준 활성 여부 재계산
+    private StoreNoticeResponse withActive(StoreNoticeResponse n) {
+        LocalDateTime now = LocalDateTime.now();
+        n.setActive(!n.getStartsAt().isAfter(now) && !n.getEndsAt().isBefore(now));
+        return n;
+    }
+
+    // 조회 전 버전이 그대로일 때만 저장
+    private void write(Long storeId, String version, StoreNoticeResponse notice) {
+        String key = KEY_PREFIX + storeId;
+        try {
+            String value = NONE;
+            Duration ttl = NONE_TTL;
+            if (notice != null) {
+                Duration untilEnd = Duration.between(LocalDateTime.now(), notice.getEndsAt()).plus(GRACE);
+                // 이미 종료된 공지 → 물리 삭제 전까지는 없는 것으로 캐시
+                if (!untilEnd.isNegative() && !untilEnd.isZero()) {
+                    value = objectMapper.writeValueAsString(notice);
+                    ttl = untilEnd.compareTo(MAX_TTL) > 0 ? MAX_TTL : untilEnd;
+                }
+            }
+            redis.execute(SET_IF_VERSION, List.of(VERSION_KEY_PREFIX + storeId, key),
+                    version, value, String.valueOf(ttl.toMillis()));
+        } catch (Exception e) {
+            log.warn("[StoreNoticeCache] 캐시 저장 실패 key={}: {}", key, e.getMessage());
+        }
+    }
+
+    // 현재 버전 (없으면 "0", Redis 오류면 null → 이번 조회는 캐시에 쓰지 않음)
+    private String readVersion(Long storeId) {
+        try {
+            return Objects.requireNonNullElse(redis.opsForValue().get(VERSION_KEY_PREFIX + storeId), "0");
+        } catch (Exception e) {
+            log.warn("[StoreNoticeCache] 버전 조회 실패 storeId={}: {}", storeId, e.getMessage());
+            return null;
+        }
+    }
+
+    private String read(String key) {
+        try {
+            return redis.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("[StoreNoticeCache] 캐시 조회 실패 key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private StoreNoticeResponse parse(String json) {
+        try {
+            return objectMapper.readValue(json, StoreNoticeResponse.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -20,10 +20,13 @@ import org.springframework.util.StringUtils;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 가게 공지(StoresNotice) 도메인 서비스
- * - 오너 권한 검증, 공지 생성/조회/수정/삭제, 유효성 검증, 만료 공지 정리 담당
+ * - 오너 권한 검증, 공지 생성/조회/수정/삭제, 유효성 검증 담당
+ * - 활성 공지 조회는 StoreNoticeCache(Redis) 에서 처리, 쓰기 시 커밋 후 캐시 무효화
+ * - 만료 공지의 물리 삭제는 StoreNoticeCleaner 배치가 담당
  * ---------------------------------------------------
  * 예외 정책
  *  - 401: 인증 없음
@@ -38,6 +41,7 @@ public class StoreNoticeService {
 
     private final StoresRepository storesRepository;
     private final StoreNoticeRepository storeNoticeRepository;
+    private final StoreNoticeCache storeNoticeCache;
 
     /**
      * 가게 소유자 확인 메소드
@@ -59,14 +63,6 @@ public class StoreNoticeService {
         return owner.getEmail().equals(email);
     }
 
-    /**
-     * 만료된 공지 삭제(해당 가게 한정)
-     * - 서비스 진입 시 선제적으로 만료 공지를 정리하여 쿼리/표시 일관성 확보
-     */
-    private void purgeExpired(Long storeId) {
-        storeNoticeRepository.deleteExpiredByStore(storeId, LocalDateTime.now());
-    }
-
     /**
      * 현재 인증 사용자 이메일을 가져오고, 인증이 없으면 401 발생
      */
@@ -95,25 +91,28 @@ public class StoreNoticeService {
             throw new StoresApiException(StoresErrorCode.FORBIDDEN, "공지 등록은 해당 가게의 OWNER만 가능합니다.");
         }
 
-        // (3) 만료 공지 정리(동시성/정합성 ↑)
-        purgeExpired(storeId);
-
-        // (4) 가게 존재 확인(위 isOwner 에서 이미 조회했지만, 안전상 재확인)
+        // (3) 가게 존재 확인(위 isOwner 에서 이미 조회했지만, 안전상 재확인)
         Stores store = storesRepository.findById(storeId)
                 .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다."));
 
-        // (5) 시간/내용 유효성 검증(400)
+        // (4) 시간/내용 유효성 검증(400)
         validateWindow(req.getStartsAt(), req.getEndsAt(), req.getMinDurationHours(), req.getMaxDurationDays());
         if (!StringUtils.hasText(req.getContent())) {
             throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "공지 내용은 비어 있을 수 없습니다.");
         }
 
-        // (6) 가게당 1개 정책: 중복 방지(409) — DB UNIQUE 제약(store_id unique) 병행 권장
-        if (storeNoticeRepository.existsByStore_Id(storeId)) {
-            throw new StoresApiException(StoresErrorCode.CONFLICT, "해당 가게에는 이미 공지가 존재합니다.");
+        // (5) 가게당 1개 정책: 중복 방지(409) — DB UNIQUE 제약(store_id unique) 병행 권장
+        //     기존 공지가 이미 종료된 경우에만 그 자리에서 삭제 (정리 배치를 기다리지 않음)
+        StoresNotice existing = storeNoticeRepository.findByStore_Id(storeId).orElse(null);
+        if (existing != null) {
+            if (!existing.getEndsAt().isBefore(LocalDateTime.now())) {
+                throw new StoresApiException(StoresErrorCode.CONFLICT, "해당 가게에는 이미 공지가 존재합니다.");
+            }
+            storeNoticeRepository.delete(existing);
+            storeNoticeRepository.flush();
         }
 
-        // (7) 저장
+        // (6) 저장
         try {
             // 공지 저장
             StoresNotice saved = storeNoticeRepository.save(
@@ -126,6 +125,7 @@ public class StoreNoticeService {
                             .maxDurationDays(req.getMaxDurationDays())
                             .build()
             );
+            storeNoticeCache.evictAfterCommit(storeId);
             return toResponse(saved);   // 공지 응답 반환
         } catch (DataIntegrityViolationException e) {
             // DB UNIQUE 제약 위반 등 동시성에서 발생 시
@@ -140,26 +140,35 @@ public class StoreNoticeService {
      * @param onlyActive 활성 공지 여부
      * @return 공지 목록
      */
-    @Transactional
+    // 캐시 히트 시 커넥션을 잡지 않도록 메서드 트랜잭션 없음 (조회 쿼리는 Repository 기본 readOnly 트랜잭션)
     public List<StoreNoticeResponse> findAll(Long storeId, boolean onlyActive) {
-        // (1) 가게 존재 검사(404) — 권한과 무관한 공개 조회라면 이 수준이면 충분
+        // (1) 활성 공지는 캐시에서 바로 응답 (가게 존재 검사는 캐시 미스 시에만)
+        if (onlyActive) {
+            return findActive(storeId).map(List::of).orElse(List.of());
+        }
+
+        // 가게 존재 검사(404) — 권한과 무관한 공개 조회라면 이 수준이면 충분
         if (!storesRepository.existsById(storeId)) {
             throw new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다.");
         }
 
-        // (2) activeOnly 분기
-        if (onlyActive) {
-            // 현재 활성 공지 조회
-            LocalDateTime now = LocalDateTime.now();
-            return storeNoticeRepository.findActiveOneByStoreId(storeId, now)
-                    .map(this::toResponse)  // 응답 객체로 변환
-                    .map(List::of)          // 목록으로 변환
-                    .orElse(List.of());     // 없으면 빈 리스트 반환
-        } else {
-            // 전체 공지 조회
-            return storeNoticeRepository.findByStore_Id(storeId)
-                    .map(this::toResponse).map(List::of).orElse(List.of());
-        }
+        // (2) 전체 공지 조회
+        return storeNoticeRepository.findByStore_Id(storeId)
+                .map(this::toResponse).map(List::of).orElse(List.of());
+    }
+
+    /**
+     * 현재 활성 공지 조회 (캐시 우선)
+     * - 캐시에는 기간과 무관하게 등록된 공지가 들어 있으므로 활성 여부로 한 번 더 거름
+     * - 캐시 미스일 때만 가게 존재 확인 + 공지 조회 SQL 실행
+     */
+    private Optional<StoreNoticeResponse> findActive(Long storeId) {
+        return storeNoticeCache.get(storeId, () -> {
+            if (!storesRepository.existsById(storeId)) {
+                throw new StoresApiException(StoresErrorCode.NOT_FOUND, "가게를 찾을 수 없습니다.");
+            }
+            return storeNoticeRepository.findByStore_Id(storeId).map(this::toResponse);
+        }).filter(StoreNoticeResponse::isActive);
     }
 
     /**
@@ -198,7 +207,9 @@ public class StoreNoticeService {
         notice.setMaxDurationDays(req.getMaxDurationDays());
 
         // 수정된 공지 반환
-        return toResponse(storeNoticeRepository.save(notice));
+        StoreNoticeResponse response = toResponse(storeNoticeRepository.save(notice));
+        storeNoticeCache.evictAfterCommit(storeId);
+        return response;
     }
 
     /**
@@ -221,6 +232,7 @@ public class StoreNoticeService {
 
         // (4) 삭제
         storeNoticeRepository.delete(notice);
+        storeNoticeCache.evictAfterCommit(storeId);
     }
 
     /**
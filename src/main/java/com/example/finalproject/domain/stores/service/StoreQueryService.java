@@ -1,5 +1,7 @@
 package com.example.finalproject.domain.stores.service;
 
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
 import com.example.finalproject.domain.stores.category.StoreCategory;
 import com.example.finalproject.domain.stores.dto.response.MenuSummaryResponse;
 import com.example.finalproject.domain.stores.dto.response.StoreDetailResponse;
@@ -7,29 +9,39 @@ import com.example.finalproject.domain.stores.dto.response.StoreListItemResponse
 import com.example.finalproject.domain.stores.entity.Stores;
 import com.example.finalproject.domain.stores.exception.StoresApiException;
 import com.example.finalproject.domain.stores.exception.StoresErrorCode;
+import com.example.finalproject.domain.stores.geo.GeoHash;
 import com.example.finalproject.domain.stores.geo.GeocodingPort;
 import com.example.finalproject.domain.stores.geo.LatLng;
 import com.example.finalproject.domain.stores.menu.MenuReader;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.search.StoreCandidateCache;
+import com.example.finalproject.domain.stores.search.StoreSearchIndex;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * StoreQueryService
  * -------------------------------------------------
  * - 가게 검색/조회 전용 서비스
  * - 지오코딩(주소→좌표), 반경 검색, 키워드 검색, 메뉴 로딩을 조합해 응답 DTO 구성
+ * - 키워드 검색은 Elasticsearch(stores_index, 이름 + 메뉴 이름) 우선, 실패 시 SQL LIKE 검색으로 대체
+ * - 반경 검색은 지오셀 후보 캐시(StoreCandidateCache)에서 후보를 받아 거리 정렬/페이징만 요청마다 수행
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StoreQueryService {
@@ -37,6 +49,12 @@ public class StoreQueryService {
     private final StoresRepository storesRepository;
     private final Optional<MenuReader> menuReader; // 구현체 없을 수 있으므로 Optional 주입
     private final GeocodingPort geocoding;         // 주소→좌표 변환 포트
+    private final UserStarService userStarService; // 찜 여부/찜 수 표시
+    private final StoreSearchIndex storeSearchIndex; // ES 가게 검색
+    private final StoreCandidateCache storeCandidateCache; // 지오셀 단위 후보 캐시
+
+    @Value("${stores.search.elasticsearch.enabled:true}")
+    private boolean searchEnabled;
 
     /**
      * 가게 검색 규칙
@@ -71,47 +89,212 @@ public class StoreQueryService {
         // native 쿼리 바인딩을 위한 기본값 (반경 null이면 거리 계산은 WHERE 에서 무시됨)
         double qLat = (lat != null) ? lat : 0.0;
         double qLng = (lng != null) ? lng : 0.0;
-        String cat = (category != null) ? category.name() : null;  // enum → 문자열
+        long categoryBit = (category != null) ? category.bit() : 0L;  // enum → category_mask 비트 (0 = 전체)
+
+        // 3) Elasticsearch 검색 (이름 + 메뉴 이름, 반경/카테고리 필터, 거리 정렬) → 해당 페이지만 MySQL 조회
+        if (searchEnabled) {
+            try {
+                if (radiusMeters != null) {
+                    Optional<Page<StoreListItemResponse>> cached =
+                            searchFromCandidates(q, lat, lng, radiusMeters, category, pageable);
+                    if (cached.isPresent()) {
+                        markStars(cached.get().getContent());
+                        return cached.get();
+                    }
+                }
+                Page<StoreListItemResponse> result = searchFromIndex(q, lat, lng, radiusMeters, category, pageable);
+                markStars(result.getContent());
+                return result;
+            } catch (Exception e) {
+                // 인덱스 미생성/장애 시 SQL 검색으로 대체
+                log.warn("[StoreQueryService] ES 가게 검색 실패, SQL 검색으로 대체: {}", e.getMessage());
+            }
+        }
 
-        // 3) 이름 부분검색 + 반경 필터 + 거리 정렬 (원시 배열 반환)
+        // 4) (대체 경로) 이름 부분검색 + 반경 필터 + 거리 정렬 (원시 배열 반환)
         Page<Object[]> page = storesRepository.searchWithDistanceRaw(
                 q,              // 키워드
                 qLat,           // 위도(거리 계산용)
                 qLng,           // 경도(거리 계산용)
                 radiusMeters,   // 반경(m)
-                cat,            // 카테고리 필터
+                categoryBit,    // 카테고리 필터
                 pageable        // 페이징 처리
         );
 
-        // 4) Row → DTO 매핑
-        return page.map(row -> {
-            int i = 0;
-            Long id = ((Number) row[i++]).longValue();
-            i++; // owner_id skip
-            String name = (String) row[i++];
-            String addressCol = (String) row[i++];
-            Double latitude = ((Number) row[i++]).doubleValue();
-            Double longitude = ((Number) row[i++]).doubleValue();
-            Integer minOrderPrice = ((Number) row[i++]).intValue();
-            LocalTime opensAt = ((java.sql.Time) row[i++]).toLocalTime();
-            LocalTime closesAt = ((java.sql.Time) row[i++]).toLocalTime();
-            Integer deliveryFee = ((Number) row[i++]).intValue();
-            i++; // active skip
-            i++; // retired_at skip
-            LocalDateTime createdAt = ((java.sql.Timestamp) row[i++]).toLocalDateTime();
-            LocalDateTime updatedAt = ((java.sql.Timestamp) row[i++]).toLocalDateTime();
-            Double distance = row[i] != null ? ((Number) row[i]).doubleValue() : null;
-
-            return new StoreListItemResponse(
-                    id, name, addressCol, minOrderPrice, deliveryFee,
-                    opensAt, closesAt,
-                    isOpenNow(opensAt, closesAt),
-                    latitude, longitude,
-                    distance,
-                    createdAt, updatedAt,
-                    List.of()
-            );
-        });
+        // 5) Row → DTO 매핑 + 찜 여부/찜 수 표시
+        Page<StoreListItemResponse> result = page.map(this::toListItem);
+        markStars(result.getContent());
+        return result;
+    }
+
+    // ES 로 ID/거리 페이지를 구한 뒤 MySQL 에서 해당 가게만 조회 (ES 순서 유지)
+    private Page<StoreListItemResponse> searchFromIndex(String q, Double lat, Double lng, Double radiusMeters,
+                                                        StoreCategory category, Pageable pageable) throws IOException {
+        StoreSearchIndex.Hits hits = storeSearchIndex.search(q, lat, lng, radiusMeters, category,
+                (int) pageable.getOffset(), pageable.getPageSize());
+
+        List<Long> ids = hits.hits().stream().map(StoreSearchIndex.StoreHit::storeId).toList();
+        Map<Long, Stores> stores = new HashMap<>();
+        for (Stores s : storesRepository.findAllById(ids)) stores.put(s.getId(), s);
+
+        List<StoreListItemResponse> content = new ArrayList<>(ids.size());
+        for (StoreSearchIndex.StoreHit hit : hits.hits()) {
+            Stores s = stores.get(hit.storeId());
+            // 색인 반영 전 폐업된 가게는 제외
+            if (s == null || !s.isActive() || s.getRetiredAt() != null) continue;
+            content.add(toListItem(s, hit.distanceMeters()));
+        }
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
+    // 셀 후보 → 사용자 좌표 기준 정확한 거리로 필터/정렬(거리, id) → 해당 페이지만 MySQL 조회
+    // 후보가 너무 많은 셀이면 empty (ES 검색 경로 사용)
+    private Optional<Page<StoreListItemResponse>> searchFromCandidates(String q, double lat, double lng,
+                                                                       double radiusMeters, StoreCategory category,
+                                                                       Pageable pageable) throws IOException {
+        Optional<List<StoreSearchIndex.StoreCandidate>> candidates =
+                storeCandidateCache.candidates(q, lat, lng, radiusMeters, category);
+        if (candidates.isEmpty()) return Optional.empty();
+
+        List<StoreSearchIndex.StoreHit> inRadius = new ArrayList<>();
+        for (StoreSearchIndex.StoreCandidate c : candidates.get()) {
+            double d = GeoHash.distanceMeters(lat, lng, c.lat(), c.lng());
+            if (d <= radiusMeters) inRadius.add(new StoreSearchIndex.StoreHit(c.storeId(), d));
+        }
+        inRadius.sort(Comparator.comparingDouble(StoreSearchIndex.StoreHit::distanceMeters)
+                .thenComparing(StoreSearchIndex.StoreHit::storeId));
+
+        int from = (int) Math.min(pageable.getOffset(), inRadius.size());
+        int to = Math.min(from + pageable.getPageSize(), inRadius.size());
+        List<StoreSearchIndex.StoreHit> hits = inRadius.subList(from, to);
+
+        Map<Long, Stores> stores = new HashMap<>();
+        for (Stores s : storesRepository.findAllById(hits.stream().map(StoreSearchIndex.StoreHit::storeId).toList())) {
+            stores.put(s.getId(), s);
+        }
+        List<StoreListItemResponse> content = new ArrayList<>(hits.size());
+        for (StoreSearchIndex.StoreHit hit : hits) {
+            Stores s = stores.get(hit.storeId());
+            if (s == null || !s.isActive() || s.getRetiredAt() != null) continue;
+            content.add(toListItem(s, hit.distanceMeters()));
+        }
+        return Optional.of(new PageImpl<>(content, pageable, inRadius.size()));
+    }
+
+    /**
+     * 가게 검색 (커서 기반)
+     * -------------------------------------------------
+     * - search 와 동일한 규칙, 거리 오름차순 (동일 거리면 id 오름차순)
+     * - COUNT 쿼리 없이 다음 페이지 커서만 반환
+     */
+    @Transactional
+    public CursorPage<StoreListItemResponse> searchCursor(
+            String keyword,
+            String address,
+            Double lat, Double lng, Double radiusKm,
+            StoreCategory category,
+            String cursor,
+            int size
+    ) {
+        String q = (keyword == null) ? "" : keyword.trim();
+
+        // 커서 → (distance, id), 첫 페이지는 (-1, 0)
+        double cursorDistance = -1;
+        long cursorId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] p = CursorCodec.decode(cursor, 2)
+                    .orElseThrow(() -> new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다."));
+            try {
+                cursorDistance = Double.parseDouble(p[0]);
+                cursorId = Long.parseLong(p[1]);
+            } catch (NumberFormatException e) {
+                throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+            }
+        }
+
+        if ((lat == null || lng == null) && address != null && !address.isBlank()) {
+            LatLng p = geocoding.geocode(address)
+                    .orElseThrow(() -> new StoresApiException(
+                            StoresErrorCode.BAD_REQUEST, "유효한 주소를 입력하세요."
+                    ));
+            lat = p.getLat();
+            lng = p.getLng();
+        }
+
+        Double radiusMeters = (lat != null && lng != null && radiusKm != null) ? radiusKm * 1000.0 : null;
+        double qLat = (lat != null) ? lat : 0.0;
+        double qLng = (lng != null) ? lng : 0.0;
+        long categoryBit = (category != null) ? category.bit() : 0L;
+
+        Slice<Object[]> slice = storesRepository.searchWithDistanceAfter(
+                q, qLat, qLng, radiusMeters, categoryBit, cursorDistance, cursorId, CursorPage.limit(size)
+        );
+        // 커서는 원시 거리값(row[15])과 id(row[0])로 구성
+        CursorPage<StoreListItemResponse> result = CursorPage.of(slice, this::toListItem,
+                row -> CursorCodec.encode(((Number) row[15]).doubleValue(), ((Number) row[0]).longValue()));
+        markStars(result.content());
+        return result;
+    }
+
+    // searchWithDistanceRaw / searchWithDistanceAfter 결과 Row → DTO
+    private StoreListItemResponse toListItem(Object[] row) {
+        int i = 0;
+        Long id = ((Number) row[i++]).longValue();
+        i++; // owner_id skip
+        String name = (String) row[i++];
+        String addressCol = (String) row[i++];
+        Double latitude = ((Number) row[i++]).doubleValue();
+        Double longitude = ((Number) row[i++]).doubleValue();
+        Integer minOrderPrice = ((Number) row[i++]).intValue();
+        LocalTime opensAt = ((java.sql.Time) row[i++]).toLocalTime();
+        LocalTime closesAt = ((java.sql.Time) row[i++]).toLocalTime();
+        Integer deliveryFee = ((Number) row[i++]).intValue();
+        i++; // active skip
+        i++; // retired_at skip
+        LocalDateTime createdAt = ((java.sql.Timestamp) row[i++]).toLocalDateTime();
+        LocalDateTime updatedAt = ((java.sql.Timestamp) row[i++]).toLocalDateTime();
+        long categoryMask = (row[i] == null) ? 0L : ((Number) row[i]).longValue();
+        i++;
+        Double distance = row[i] != null ? ((Number) row[i]).doubleValue() : null;
+
+        return new StoreListItemResponse(
+                id, name, addressCol, minOrderPrice, deliveryFee,
+                opensAt, closesAt,
+                isOpenNow(opensAt, closesAt),
+                latitude, longitude,
+                distance,
+                createdAt, updatedAt,
+                StoreCategory.listOf(categoryMask),  // ES 경로와 같은 카테고리 목록
+                null, null
+        );
+    }
+
+    // 엔티티 → 목록 DTO (ES 검색 경로)
+    private StoreListItemResponse toListItem(Stores s, Double distance) {
+        long mask = (s.getCategoryMask() == null) ? 0L : s.getCategoryMask();
+        List<StoreCategory> categories = StoreCategory.listOf(mask);
+        return new StoreListItemResponse(
+                s.getId(), s.getName(), s.getAddress(), s.getMinOrderPrice(), s.getDeliveryFee(),
+                s.getOpensAt(), s.getClosesAt(),
+                isOpenNow(s.getOpensAt(), s.getClosesAt()),
+                s.getLatitude(), s.getLongitude(),
+                distance,
+                s.getCreatedAt(), s.getUpdatedAt(),
+                categories,
+                null, null
+        );
+    }
+
+    // 페이지 단위 찜 여부/찜 수 표시 (SMISMEMBER 1회 + MGET 1회)
+    private void markStars(List<StoreListItemResponse> items) {
+        if (items.isEmpty()) return;
+        List<Long> ids = items.stream().map(StoreListItemResponse::getId).toList();
+        Set<Long> starred = userStarService.starredAmong(ids).orElse(null); // 비로그인 → null
+        Map<Long, Long> counts = userStarService.starCounts(ids);
+        for (StoreListItemResponse item : items) {
+            item.markStars(starred == null ? null : starred.contains(item.getId()),
+                    counts.getOrDefault(item.getId(), 0L));
+        }
     }
 
     /**
@@ -1,18 +1,28 @@
 package com.example.finalproject.domain.stores.service;
 
+import com.example.finalproject.domain.common.paging.CursorCodec;
+import com.example.finalproject.domain.common.paging.CursorPage;
+import com.example.finalproject.domain.stores.category.StoreCategory;
 import com.example.finalproject.domain.stores.dto.response.StoreRecommendItemResponse;
+import com.example.finalproject.domain.stores.exception.StoresApiException;
+import com.example.finalproject.domain.stores.exception.StoresErrorCode;
+import com.example.finalproject.domain.stores.recommendation.RecommendationCache;
 import com.example.finalproject.domain.stores.recommendation.RecommendationSortBy;
 import com.example.finalproject.domain.stores.repository.RecommendationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.LocalTime;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * StoreRecommendationService
@@ -20,23 +30,23 @@ import java.util.Objects;
  * - 추천 기준(by)에 따라 Repository 네이티브 쿼리를 호출하고,
  *   Object[] 결과를 StoreRecommendItemResponse DTO로 매핑
  * - Repository의 SELECT 컬럼 순서와 아래 mapRow* 메서드의 인덱스가 반드시 일치해야 함
+ * - 좌표 기반(DISTANCE + lat/lng)이 아닌 조회의 앞쪽 페이지는 RecommendationCache 를 거침
+ *   (캐시 히트 시 DB 커넥션을 잡지 않도록 메서드 단위 트랜잭션은 두지 않음 → 쿼리별 readOnly 트랜잭션)
  */
 @Service
 @RequiredArgsConstructor
 public class StoreRecommendationService {
 
     private final RecommendationRepository recommendationRepository;
-
-    // 베이지안 평균 보정 파라미터
-    // 서비스 전체에 쌓인 모든 가게 평균 평점을 기반으로 설정해둔 값
-    private static final double GLOBAL_MEAN_RATING = 4.2; // m
-    // 리뷰가 몇 개 이상 있어야 평균이 신뢰할 만하다고 볼지 기준이 되는 값
-    private static final double SMOOTHING_C = 20.0;       // C
+    // 베이지안/트렌드 점수는 store_scores 에 미리 계산됨 (StoreScoreService 참고)
+    private final StoreScoreService storeScoreService;
+    private final RecommendationCache recommendationCache;
+    private final UserStarService userStarService;
 
     /**
      * 추천 조회 진입점
      *
-     * @param category   카테고리(옵션, null 이면 전체, 공백만 들어오면 null로 정규화됨
+     * @param category   카테고리(옵션, 한글/영문, null 또는 공백이면 전체, 잘못된 값이면 400)
      * @param by         정렬 기준(enum)
      * @param period     "7d", "30d" 형식 (reviews/trending 에서 사용)
      * @param minReviews 최소 리뷰 수 (rating 기준에서 사용, null 허용)
@@ -45,7 +55,6 @@ public class StoreRecommendationService {
      * @param openNow    true면 현재 영업 중인 가게만
      * @param pageable   페이지네이션
      */
-    @Transactional(readOnly = true)
     public Page<StoreRecommendItemResponse> recommend(
             String category,
             RecommendationSortBy by,
@@ -57,35 +66,163 @@ public class StoreRecommendationService {
             Pageable pageable
     ) {
         int days = parseDays(period);   // "7d" -> 7, "30d" -> 30 (이상치 방어 포함)
-        String normalized = normalizeCategory(category); // "" → null
+        long categoryBit = categoryBitOf(category); // "" → 0 (전체)
+
+        // 사용자 좌표가 들어간 거리 정렬은 조합이 무한하므로 캐시하지 않음
+        boolean byCoordinates = by == RecommendationSortBy.DISTANCE && lat != null && lng != null;
+        if (byCoordinates || !recommendationCache.isCacheable(pageable)) {
+            return markStars(query(categoryBit, by, days, minReviews, lat, lng, openNow, pageable));
+        }
+
+        String key = String.join(":",
+                by.name(),
+                categoryBit == 0 ? "ALL" : String.valueOf(categoryBit),
+                String.valueOf(days),
+                String.valueOf(minReviews),
+                String.valueOf(openNow),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()));
+        // 찜 여부는 사용자별이므로 캐시에는 넣지 않고 캐시 조회 후에 표시
+        return markStars(recommendationCache.getOrLoad(key, pageable,
+                () -> query(categoryBit, by, days, minReviews, lat, lng, openNow, pageable)));
+    }
 
+    // 추천 기준별 실제 조회
+    private Page<StoreRecommendItemResponse> query(long categoryBit, RecommendationSortBy by, int days,
+                                                   Integer minReviews, Double lat, Double lng,
+                                                   boolean openNow, Pageable pageable) {
         return switch (by) {
             case RATING -> recommendationRepository
-                    .findByBayesianRating(normalized, minReviews, openNow, GLOBAL_MEAN_RATING, SMOOTHING_C, pageable)
+                    .findByBayesianRating(categoryBit, minReviews, openNow, pageable)
                     .map(this::mapRowForRating);
 
             case REVIEWS -> recommendationRepository
-                    .findByRecentReviews(normalized, days, openNow, pageable)
+                    .findByRecentReviews(categoryBit, days, openNow, pageable)
                     .map(this::mapRowForReviews);
 
             case DISTANCE -> {
                 if (lat == null || lng == null) {
                     // 좌표가 없으면 안전하게 rating 로직으로 대체
                     yield recommendationRepository
-                            .findByBayesianRating(normalized, minReviews, openNow, GLOBAL_MEAN_RATING, SMOOTHING_C, pageable)
+                            .findByBayesianRating(categoryBit, minReviews, openNow, pageable)
                             .map(this::mapRowForRating);
                 }
                 yield recommendationRepository
-                        .findByDistance(normalized, lat, lng, openNow, pageable)
+                        .findByDistance(categoryBit, lat, lng, openNow, pageable)
                         .map(this::mapRowForDistance);
             }
 
-            case TRENDING -> recommendationRepository
-                    .findTrending(normalized, days, openNow, pageable)
+            case TRENDING -> (storeScoreService.isMaterialized(days)
+                    ? recommendationRepository.findTrendingFromScores(categoryBit, days, openNow, pageable)
+                    : recommendationRepository.findTrending(categoryBit, days, openNow, pageable))
                     .map(this::mapRowForTrending);
         };
     }
 
+    /**
+     * 추천 조회 (커서 기반)
+     * - RATING / TRENDING(7d, 30d): store_scores 에 저장된 (점수, id) keyset → OFFSET/COUNT 없음
+     *   (계산값이 아니므로 다른 인스턴스/평균 별점 갱신 후에 이어 읽어도 건너뜀/중복 없음)
+     * - 그 외 기준(REVIEWS, DISTANCE, 미리 계산되지 않은 기간): 커서에 페이지 번호를 담아 기존 쿼리 재사용
+     *
+     * @param cursor 직전 응답의 nextCursor (첫 페이지는 null)
+     * @param size   페이지 크기
+     */
+    public CursorPage<StoreRecommendItemResponse> recommendCursor(
+            String category,
+            RecommendationSortBy by,
+            String period,
+            Integer minReviews,
+            Double lat,
+            Double lng,
+            boolean openNow,
+            String cursor,
+            int size
+    ) {
+        int days = parseDays(period);
+        long categoryBit = categoryBitOf(category);
+        Pageable limit = CursorPage.limit(size);
+        boolean first = (cursor == null || cursor.isBlank());
+
+        boolean ratingKeyset = by == RecommendationSortBy.RATING
+                || (by == RecommendationSortBy.DISTANCE && (lat == null || lng == null));
+        if (ratingKeyset) {
+            String[] p = first ? null : decodeCursor(cursor, 2);
+            Slice<Object[]> slice = recommendationRepository.findByBayesianRatingAfter(
+                    categoryBit, minReviews, openNow,
+                    first ? Double.MAX_VALUE : parseDouble(p[0]),
+                    first ? Long.MAX_VALUE : parseLong(p[1]),
+                    limit);
+            // 커서: 저장된 (bayes_score, id) → 이전 형식(3개 값) 커서는 400
+            return markStars(CursorPage.of(slice, this::mapRowForRating,
+                    row -> CursorCodec.encode(toDouble(row[6]), toLong(row[0]))));
+        }
+
+        if (by == RecommendationSortBy.TRENDING && storeScoreService.isMaterialized(days)) {
+            String[] p = first ? null : decodeCursor(cursor, 2);
+            Slice<Object[]> slice = recommendationRepository.findTrendingFromScoresAfter(
+                    categoryBit, days, openNow,
+                    first ? Double.MAX_VALUE : parseDouble(p[0]),
+                    first ? Long.MAX_VALUE : parseLong(p[1]),
+                    limit);
+            // 커서: (score, id)
+            return markStars(CursorPage.of(slice, this::mapRowForTrending,
+                    row -> CursorCodec.encode(toDouble(row[7]), toLong(row[0]))));
+        }
+
+        // keyset 미지원 기준 → 페이지 번호 커서
+        int pageNo = first ? 0 : parsePageNo(decodeCursor(cursor, 1)[0]);
+        Page<StoreRecommendItemResponse> page = query(categoryBit, by, days, minReviews, lat, lng, openNow,
+                PageRequest.of(pageNo, limit.getPageSize()));
+        return new CursorPage<>(markStars(page.getContent()), page.getSize(), page.hasNext(),
+                page.hasNext() ? CursorCodec.encode(pageNo + 1) : null);
+    }
+
+    // ====== 찜 여부/찜 수 표시 (페이지당 SMISMEMBER 1회 + MGET 1회) ======
+
+    private Page<StoreRecommendItemResponse> markStars(Page<StoreRecommendItemResponse> page) {
+        return new PageImpl<>(markStars(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private CursorPage<StoreRecommendItemResponse> markStars(CursorPage<StoreRecommendItemResponse> page) {
+        return new CursorPage<>(markStars(page.content()), page.size(), page.hasNext(), page.nextCursor());
+    }
+
+    private List<StoreRecommendItemResponse> markStars(List<StoreRecommendItemResponse> items) {
+        if (items.isEmpty()) return items;
+        List<Long> ids = items.stream().map(StoreRecommendItemResponse::id).toList();
+        Set<Long> starred = userStarService.starredAmong(ids).orElse(null); // 비로그인 → null
+        Map<Long, Long> counts = userStarService.starCounts(ids);
+        return items.stream()
+                .map(i -> i.withStars(starred == null ? null : starred.contains(i.id()),
+                        counts.getOrDefault(i.id(), 0L)))
+                .toList();
+    }
+
+    private String[] decodeCursor(String cursor, int parts) {
+        return CursorCodec.decode(cursor, parts)
+                .orElseThrow(() -> new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다."));
+    }
+
+    private double parseDouble(String v) {
+        try { return Double.parseDouble(v); }
+        catch (NumberFormatException e) { throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다."); }
+    }
+
+    private long parseLong(String v) {
+        try { return Long.parseLong(v); }
+        catch (NumberFormatException e) { throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다."); }
+    }
+
+    // 페이지 번호 커서: 음수/int 범위 초과는 잘못된 커서
+    private int parsePageNo(String v) {
+        long pageNo = parseLong(v);
+        if (pageNo < 0 || pageNo > Integer.MAX_VALUE) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 커서입니다.");
+        }
+        return (int) pageNo;
+    }
+
     // "7d" → 7, 잘못된 입력은 30으로 폴백
     private int parseDays(String period) {
         if (period == null) return 30;
@@ -99,23 +236,26 @@ public class StoreRecommendationService {
         return 30;
     }
 
-    // 공백만 들어온 카테고리를 null로 정규화
-    private String normalizeCategory(String category) {
-        if (category == null) return null;
-        String t = category.trim();
-        return t.isEmpty() ? null : t;
+    // 카테고리(한글/영문) → category_mask 비트, 없거나 공백이면 0(전체)
+    private long categoryBitOf(String category) {
+        if (category == null || category.isBlank()) return 0L;
+        try {
+            return StoreCategory.from(category.trim()).bit();
+        } catch (IllegalArgumentException e) {
+            throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "잘못된 카테고리: " + category);
+        }
     }
 
     // ====== Row 매핑 (native query 결과 Object[] 가정) ======
 
     // RATING 정렬 결과 매핑
     private StoreRecommendItemResponse mapRowForRating(Object[] row) {
-        // SELECT: id, name, address, MIN(sc.category) AS category,
+        // SELECT: id, name, address, category_mask,
         //         avg_rating, review_cnt, bayes_score, opens_at, closes_at
         Long id = toLong(row[0]);
         String name = (String) row[1];
         String address = (String) row[2];
-        String category = safeStr(row[3]);
+        String category = categoryOf(row[3]);
         Double avgRating = toDouble(row[4]);
         Long reviewCnt = toLong(row[5]);
         Double bayes = toDouble(row[6]);
@@ -133,12 +273,12 @@ public class StoreRecommendationService {
 
     // REVIEWS 정렬 결과 매핑
     private StoreRecommendItemResponse mapRowForReviews(Object[] row) {
-        // SELECT: id, name, address, MIN(sc.category) AS category,
+        // SELECT: id, name, address, category_mask,
         //         recent_reviews, avg_rating, opens_at, closes_at
         Long id = toLong(row[0]);
         String name = (String) row[1];
         String address = (String) row[2];
-        String category = safeStr(row[3]);
+        String category = categoryOf(row[3]);
         Long recentReviews = toLong(row[4]);
         Double avgRating = toDouble(row[5]);
         LocalTime opensAt = toLocalTime(row[6]);
@@ -154,12 +294,12 @@ public class StoreRecommendationService {
 
     // DISTANCE 정렬 결과 매핑
     private StoreRecommendItemResponse mapRowForDistance(Object[] row) {
-        // SELECT: id, name, address, MIN(sc.category) AS category,
+        // SELECT: id, name, address, category_mask,
         //         distance_km, avg_rating, review_cnt, opens_at, closes_at
         Long id = toLong(row[0]);
         String name = (String) row[1];
         String address = (String) row[2];
-        String category = safeStr(row[3]);
+        String category = categoryOf(row[3]);
         Double distanceKm = toDouble(row[4]);
         Double avgRating = toDouble(row[5]);
         Long reviewCnt = toLong(row[6]);
@@ -176,12 +316,12 @@ public class StoreRecommendationService {
 
     // TRENDING 정렬 결과 매핑
     private StoreRecommendItemResponse mapRowForTrending(Object[] row) {
-        // SELECT: id, name, address, MIN(sc.category) AS category,
+        // SELECT: id, name, address, category_mask,
         //         orders_30d, reviews_30d, avg_rating, score, opens_at, closes_at
         Long id = toLong(row[0]);
         String name = (String) row[1];
         String address = (String) row[2];
-        String category = safeStr(row[3]);
+        String category = categoryOf(row[3]);
         // Long orders30d = toLong(row[4]); // 필요 시 사용
         Long reviews30d = toLong(row[5]);
         Double avgRating = toDouble(row[6]);
@@ -225,5 +365,5 @@ public class StoreRecommendationService {
     /** 공통 변환 유틸 */
     private Long toLong(Object o)   { return (o == null) ? null : ((Number) o).longValue(); }
     private Double toDouble(Object o){ return (o == null) ? null : ((Number) o).doubleValue(); }
-    private String safeStr(Object o) { return (o == null) ? null : Objects.toString(o); }
+    private String categoryOf(Object mask) { return (mask == null) ? null : StoreCategory.primaryNameOf(((Number) mask).longValue()); }
 }
\ No newline at end of file
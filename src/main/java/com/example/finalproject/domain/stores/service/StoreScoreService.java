@@ -0,0 +1,150 @@
+package com.example.finalproject.domain.stores.service;
+
+import com.example.finalproject.domain.stores.repository.StoreScoreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * StoreScoreService
+ * -------------------------------------------------
+ * 추천(RATING / TRENDING)용 집계 테이블 유지
+ * - 쓰기 경로: 주문/리뷰 변경 시 시간 버킷 + 전체 기간 점수를 증분 반영 (호출 측 트랜잭션에 참여)
+ * - 배치 경로: 시간 버킷 → 일 버킷 압축, 최근 N일 윈도우 합계 및 점수 재계산 (StoreScoreJob)
+ * - 전체 평균 별점(m)은 store_scores 에서 주기적으로 다시 읽어 메모리에 보관
+ * - 추천 쿼리는 store_scores 에서 출발하므로 모든 가게에 전체 기간/윈도우 행을 둠
+ *   가게 생성 시 바로 추가, 누락분은 주기 작업에서 보정
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StoreScoreService {
+
+    // 리뷰가 하나도 없을 때 사용하는 전체 평균 별점 기본값
+    public static final double DEFAULT_GLOBAL_MEAN_RATING = 4.2;
+    // 리뷰가 몇 개 이상 있어야 평균이 신뢰할 만하다고 볼지 기준이 되는 값 (C)
+    public static final double SMOOTHING_C = 20.0;
+    // 미리 계산해두는 최근 N일 윈도우 (그 외 기간은 원본 테이블 실시간 집계로 처리)
+    public static final List<Integer> MATERIALIZED_WINDOWS = List.of(7, 30);
+
+    // 시간 버킷 유지 기간 (이후 일 버킷으로 압축)
+    private static final int HOURLY_RETENTION_DAYS = 2;
+    // 최초 백필 완료 표시 (store_score_markers.name)
+    private static final String BACKFILL_MARKER = "bucket-backfill";
+
+    private final StoreScoreRepository storeScoreRepository;
+
+    // 실데이터 기반 전체 평균 별점 (m)
+    private volatile double globalMeanRating = DEFAULT_GLOBAL_MEAN_RATING;
+
+    /** 현재 사용 중인 전체 평균 별점 */
+    public double globalMeanRating() {
+        return globalMeanRating;
+    }
+
+    /** 미리 계산된 윈도우인지 여부 */
+    public boolean isMaterialized(int days) {
+        return MATERIALIZED_WINDOWS.contains(days);
+    }
+
+    /** 신규 가게 점수 행 추가 (리뷰 0건 → 베이지안 점수 m, 호출 측 트랜잭션에 참여) */
+    @Transactional
+    public void initStore(Long storeId) {
+        storeScoreRepository.insertEmptyScore(storeId, 0, globalMeanRating);
+        for (int days : MATERIALIZED_WINDOWS) {
+            storeScoreRepository.insertEmptyScore(storeId, days, globalMeanRating);
+        }
+    }
+
+    /**
+     * 주문 생성/삭제 반영
+     *
+     * @param storeId   가게 ID
+     * @param createdAt 주문 생성 시각 (버킷 기준)
+     * @param delta     +1(생성) / -1(삭제)
+     */
+    @Transactional
+    public void recordOrder(Long storeId, LocalDateTime createdAt, int delta) {
+        apply(storeId, createdAt, delta, 0, 0);
+    }
+
+    /**
+     * 리뷰 생성/수정/삭제/복구 반영
+     *
+     * @param storeId     가게 ID
+     * @param createdAt   리뷰 작성 시각 (버킷 기준 → 수정/삭제도 원래 작성 시각 버킷에 반영)
+     * @param reviewDelta 리뷰 수 변화량
+     * @param ratingDelta 별점 합 변화량
+     */
+    @Transactional
+    public void recordReview(Long storeId, LocalDateTime createdAt, int reviewDelta, int ratingDelta) {
+        if (reviewDelta == 0 && ratingDelta == 0) return;
+        apply(storeId, createdAt, 0, reviewDelta, ratingDelta);
+    }
+
+    private void apply(Long storeId, LocalDateTime at, int orders, int reviews, int ratingSum) {
+        if (storeId == null) return;
+        LocalDateTime bucket = (at != null ? at : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+        storeScoreRepository.addToHourlyBucket(storeId, bucket, orders, reviews, ratingSum);
+        storeScoreRepository.addToAllTimeScore(storeId, orders, reviews, ratingSum, globalMeanRating, SMOOTHING_C);
+    }
+
+    /**
+     * 주기 작업: 압축 + 윈도우 재계산 + 점수 재계산
+     * - 백필 완료 표시가 없으면(최초 배포/이전 백필 실패) 원본 테이블에서 가장 긴 윈도우만큼 백필
+     *   버킷을 비우고 다시 적재 → 완료 표시와 같은 트랜잭션이므로 중간에 실패하면 다음 주기에 처음부터 재시도
+     */
+    @Transactional
+    public void compactAndRefresh() {
+        LocalDateTime now = LocalDateTime.now();
+        int maxWindow = MATERIALIZED_WINDOWS.stream().mapToInt(Integer::intValue).max().orElse(30);
+
+        if (storeScoreRepository.existsMarker(BACKFILL_MARKER) == 0) {
+            LocalDateTime from = now.minusDays(maxWindow);
+            storeScoreRepository.deleteAllBuckets();
+            storeScoreRepository.backfillOrderBuckets(from);
+            storeScoreRepository.backfillReviewBuckets(from);
+            storeScoreRepository.reconcileAllTime();
+            storeScoreRepository.insertMarker(BACKFILL_MARKER);
+            log.info("[StoreScore] 버킷 백필 완료 from={}", from);
+        }
+
+        // 1) 시간 버킷 → 일 버킷 (하루 단위로 잘라서 일 버킷이 온전한 하루를 담도록)
+        LocalDateTime cutoff = LocalDate.now().minusDays(HOURLY_RETENTION_DAYS).atStartOfDay();
+        storeScoreRepository.rollUpHourlyBuckets(cutoff);
+        storeScoreRepository.deleteHourlyBucketsBefore(cutoff);
+
+        // 2) 보존 기간이 지난 일 버킷 삭제
+        storeScoreRepository.deleteDailyBucketsBefore(LocalDate.now().minusDays(maxWindow + 1L).atStartOfDay());
+
+        // 3) 최근 N일 윈도우 합계 갱신 (모든 가게에 행 보장) + 전체 기간 행 누락분 보정
+        for (int days : MATERIALIZED_WINDOWS) {
+            storeScoreRepository.refreshWindow(days, now.minusDays(days));
+        }
+        storeScoreRepository.insertMissingScores(0, globalMeanRating);
+
+        // 4) 평균 별점 갱신 후 점수 일괄 재계산
+        reloadGlobalMean();
+        storeScoreRepository.recomputeScores(globalMeanRating, SMOOTHING_C);
+    }
+
+    /** 하루 한 번 원본 테이블 기준으로 전체 기간 누적값 보정 */
+    @Transactional
+    public void reconcile() {
+        storeScoreRepository.reconcileAllTime();
+        reloadGlobalMean();
+        storeScoreRepository.recomputeScores(globalMeanRating, SMOOTHING_C);
+    }
+
+    /** store_scores 기준 전체 평균 별점 다시 읽기 (리뷰가 없으면 기본값 유지) */
+    public void reloadGlobalMean() {
+        Double mean = storeScoreRepository.findGlobalMeanRating();
+        globalMeanRating = (mean != null && mean > 0) ? mean : DEFAULT_GLOBAL_MEAN_RATING;
+    }
+}
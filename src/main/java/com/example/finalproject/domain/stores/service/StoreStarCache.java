@@ -0,0 +1,212 @@
+package com.example.finalproject.domain.stores.service;
+
+import com.example.finalproject.domain.stores.repository.UserStarRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 즐겨찾기 Redis 캐시 (user_stars 의 읽기 전용 사본)
+ * - star:user:{userId}   : 사용자가 찜한 가게 ID SET (적재 완료 표시용 센티널 멤버 "0" 포함)
+ * - star:count:{storeId} : 가게별 찜 수 카운터
+ * - 원본은 항상 user_stars, Redis 는 커밋 이후 반영(write-through) + TTL 로 주기적 재적재
+ * - 목록 페이지 표시용 조회는 페이지당 SMISMEMBER 1회 + MGET 1회
+ * - Redis 장애 시에는 DB 조회로 대체
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StoreStarCache {
+
+    private static final String USER_PREFIX = "star:user:";
+    private static final String COUNT_PREFIX = "star:count:";
+    // 가게 ID 는 1부터 시작하므로 0 을 "DB 에서 적재 완료" 표시로 사용 (빈 집합도 캐시 가능)
+    private static final String LOADED = "0";
+    private static final Duration USER_TTL = Duration.ofDays(1);
+    private static final Duration COUNT_TTL = Duration.ofHours(6);
+
+    // 키가 있을 때만 INCRBY (확인과 증감 사이에 만료/삭제되어 TTL 없는 카운터가 새로 생기지 않도록 한 번에)
+    private static final DefaultRedisScript<Long> INCR_IF_EXISTS = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            redis.call('INCRBY', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // 센티널이 있는(적재 완료된) 집합에만 SADD
+    private static final DefaultRedisScript<Long> SADD_IF_LOADED = new DefaultRedisScript<>("""
+            if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 0 then return 0 end
+            return redis.call('SADD', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final UserStarRepository starRepo;
+
+    /**
+     * 사용자가 찜한 가게 ID 전체 (없으면 DB 에서 적재)
+     */
+    public Set<Long> storeIdsOf(Long userId) {
+        String key = USER_PREFIX + userId;
+        try {
+            Set<String> members = redis.opsForSet().members(key);
+            if (members != null && members.contains(LOADED)) {
+                return members.stream()
+                        .filter(m -> !LOADED.equals(m))
+                        .map(Long::valueOf)
+                        .collect(Collectors.toSet());
+            }
+        } catch (Exception e) {
+            log.warn("[StoreStarCache] 사용자 찜 목록 조회 실패 userId={}: {}", userId, e.getMessage());
+        }
+        return load(userId);
+    }
+
+    /**
+     * 주어진 가게들 중 사용자가 찜한 가게 (SMISMEMBER 1회)
+     *
+     * @param userId   사용자 ID (null 이면 빈 집합)
+     * @param storeIds 현재 페이지의 가게 ID
+     */
+    public Set<Long> starredAmong(Long userId, Collection<Long> storeIds) {
+        if (userId == null || storeIds.isEmpty()) return Set.of();
+        String key = USER_PREFIX + userId;
+        try {
+            // 센티널도 함께 조회 → 적재 여부 확인까지 한 번에
+            Object[] members = new Object[storeIds.size() + 1];
+            members[0] = LOADED;
+            int i = 1;
+            for (Long id : storeIds) members[i++] = String.valueOf(id);
+
+            Map<Object, Boolean> result = redis.opsForSet().isMember(key, members);
+            if (result != null && Boolean.TRUE.equals(result.get(LOADED))) {
+                Set<Long> starred = new HashSet<>();
+                for (Long id : storeIds) {
+                    if (Boolean.TRUE.equals(result.get(String.valueOf(id)))) starred.add(id);
+                }
+                return starred;
+            }
+        } catch (Exception e) {
+            log.warn("[StoreStarCache] 찜 여부 조회 실패 userId={}: {}", userId, e.getMessage());
+        }
+        Set<Long> all = load(userId);
+        return storeIds.stream().filter(all::contains).collect(Collectors.toSet());
+    }
+
+    /**
+     * 가게별 찜 수 (MGET 1회, 없는 키만 DB GROUP BY 한 번으로 채움)
+     */
+    public Map<Long, Long> counts(Collection<Long> storeIds) {
+        if (storeIds.isEmpty()) return Map.of();
+        List<Long> ids = new ArrayList<>(storeIds);
+        Map<Long, Long> out = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        List<String> cached = null;
+        try {
+            cached = redis.opsForValue().multiGet(ids.stream().map(id -> COUNT_PREFIX + id).toList());
+        } catch (Exception e) {
+            log.warn("[StoreStarCache] 찜 수 조회 실패: {}", e.getMessage());
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            String v = (cached == null) ? null : cached.get(i);
+            if (v != null) out.put(ids.get(i), Long.parseLong(v));
+            else missing.add(ids.get(i));
+        }
+        if (missing.isEmpty()) return out;
+
+        Map<Long, Long> loaded = new HashMap<>();
+        for (Long id : missing) loaded.put(id, 0L);
+        for (Object[] row : starRepo.countByStoreIds(missing)) {
+            loaded.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        out.putAll(loaded);
+        writeCounts(loaded);
+        return out;
+    }
+
+    /** 찜 등록 커밋 이후 반영 */
+    public void addedAfterCommit(Long userId, Long storeId) {
+        afterCommit(() -> {
+            // 아직 적재되지 않은 집합에 추가하면 센티널 없는 부분 집합이 되므로 적재된 경우에만 추가
+            redis.execute(SADD_IF_LOADED, List.of(USER_PREFIX + userId), LOADED, String.valueOf(storeId));
+            incrementIfPresent(COUNT_PREFIX + storeId, 1);
+        });
+    }
+
+    /** 찜 해제 커밋 이후 반영 */
+    public void removedAfterCommit(Long userId, Long storeId) {
+        afterCommit(() -> {
+            redis.opsForSet().remove(USER_PREFIX + userId, String.valueOf(storeId));
+            incrementIfPresent(COUNT_PREFIX + storeId, -1);
+        });
+    }
+
+    // DB → Redis 사용자 집합 적재
+    private Set<Long> load(Long userId) {
+        Set<Long> ids = new HashSet<>(starRepo.findStoreIdsByUserId(userId));
+        String key = USER_PREFIX + userId;
+        try {
+            List<String> members = new ArrayList<>(ids.size() + 1);
+            members.add(LOADED);
+            ids.forEach(id -> members.add(String.valueOf(id)));
+            redis.delete(key);
+            redis.opsForSet().add(key, members.toArray(String[]::new));
+            redis.expire(key, USER_TTL);
+        } catch (Exception e) {
+            log.warn("[StoreStarCache] 사용자 찜 목록 적재 실패 userId={}: {}", userId, e.getMessage());
+        }
+        return ids;
+    }
+
+    // 비어 있던 카운터만 채움 (그 사이 다른 요청이 채웠으면 덮어쓰지 않음)
+    private void writeCounts(Map<Long, Long> counts) {
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                counts.forEach((id, cnt) -> connection.stringCommands().set(
+                        (COUNT_PREFIX + id).getBytes(StandardCharsets.UTF_8),
+                        String.valueOf(cnt).getBytes(StandardCharsets.UTF_8),
+                        Expiration.from(COUNT_TTL),
+                        RedisStringCommands.SetOption.ifAbsent()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("[StoreStarCache] 찜 수 적재 실패: {}", e.getMessage());
+        }
+    }
+
+    // 카운터가 없으면 건드리지 않음 → 다음 조회 시 DB 기준으로 적재
+    private void incrementIfPresent(String key, long delta) {
+        redis.execute(INCR_IF_EXISTS, List.of(key), String.valueOf(delta));
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable safe = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("[StoreStarCache] 캐시 반영 실패: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safe.run();
+                }
+            });
+        } else {
+            safe.run();
+        }
+    }
+}
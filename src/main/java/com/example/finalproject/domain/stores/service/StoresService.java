@@ -7,6 +7,7 @@ import com.example.finalproject.domain.stores.exception.StoresApiException;
 import com.example.finalproject.domain.stores.exception.StoresErrorCode;
 import com.example.finalproject.domain.stores.geo.GeocodingPort;
 import com.example.finalproject.domain.stores.repository.StoresRepository;
+import com.example.finalproject.domain.stores.search.StoreSearchSync;
 import com.example.finalproject.domain.users.UserRole;
 import com.example.finalproject.domain.users.entity.Users;
 import com.example.finalproject.domain.users.repository.UsersRepository;
@@ -34,6 +35,8 @@ public class StoresService {
     private final StoresRepository storesRepository; // 가게 저장소
     private final UsersRepository usersRepository;   // 사용자 저장소 (OWNER 확인)
     private final GeocodingPort geocoding;           // 주소 → 좌표 변환 포트
+    private final StoreSearchSync storeSearchSync;   // 검색 인덱스 재색인 표시
+    private final StoreScoreService storeScoreService; // 추천 점수 행
 
     /**
      * 가게 생성
@@ -113,7 +116,13 @@ public class StoresService {
                         .build()
         );
 
-        // 10) 응답 DTO 변환
+        // 10) 추천 점수 행 추가 (리뷰 0건 → 전체 평균 별점)
+        storeScoreService.initStore(saved.getId());
+
+        // 11) 검색 인덱스 반영 (커밋 이후)
+        storeSearchSync.markDirtyAfterCommit(saved.getId());
+
+        // 12) 응답 DTO 변환
         return toResponse(saved);
     }
 
@@ -185,7 +194,10 @@ public class StoresService {
             store.setLongitude(latLng.getLng());
         }
 
-        // 11) 응답 DTO 변환
+        // 11) 검색 인덱스 반영 (커밋 이후)
+        storeSearchSync.markDirtyAfterCommit(storeId);
+
+        // 12) 응답 DTO 변환
         return toResponse(store);
     }
 
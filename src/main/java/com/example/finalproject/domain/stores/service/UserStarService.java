@@ -11,17 +11,25 @@ import com.example.finalproject.domain.users.entity.Users;
 import com.example.finalproject.domain.users.repository.UsersRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * UserStarService
  * -------------------------------------------------
  * - 사용자 즐겨찾기(가게 찜) 도메인 서비스
  * - 추가/삭제/목록 조회 제공
+ * - 찜 여부/찜 수는 StoreStarCache(Redis)에서 읽고, 쓰기는 user_stars 에 기록 후 커밋 시 Redis 반영
  * - 현재 로그인 사용자(SecurityUtil 기반)에게만 허용
  */
 @Service
@@ -34,13 +42,14 @@ public class UserStarService {
     private final UserStarRepository starRepo;
     private final StoresRepository storesRepo;
     private final UsersRepository usersRepo;
+    private final StoreStarCache starCache;
 
     /**
      * 즐겨찾기 등록
      * 1) 로그인 사용자 확인
-     * 2) 중복 등록 방지
-     * 3) 개수 상한 검증
-     * 4) 엔티티 로드 후 UserStar 저장
+     * 2) Redis 에 적재된 찜 목록으로 중복/개수 상한 검증 (DB exists/count 조회 없음)
+     * 3) 가게 검증 후 사용자는 참조(프록시)로만 연결해 UserStar 저장
+     * 4) 커밋 이후 Redis 집합/카운터 반영
      *
      * @param storeId 즐겨찾기할 가게 ID
      * @return 사용자 메시지(가게명 포함)
@@ -48,19 +57,19 @@ public class UserStarService {
     @Transactional
     public String add(Long storeId) {
         Long uid = currentUserIdOrThrow();
+        Set<Long> starred = starCache.storeIdsOf(uid);
 
         // 이미 즐겨찾기한 가게인지 검증
-        if (starRepo.existsByUser_IdAndStore_Id(uid, storeId)) {
+        if (starred.contains(storeId)) {
             throw new StoresApiException(StoresErrorCode.CONFLICT, "이미 즐겨찾기한 가게입니다.");
         }
 
         // 상한 체크
-        long count = starRepo.countByUser_Id(uid);
-        if (count >= MAX_FAVORITES) {
+        if (starred.size() >= MAX_FAVORITES) {
             throw new StoresApiException(StoresErrorCode.BAD_REQUEST, "즐겨찾기는 최대 " + MAX_FAVORITES + "개까지 가능합니다.");
         }
 
-        // 연관 엔티티 로드
+        // 가게 로드 (이름/영업 여부 확인용)
         Stores store = storesRepo.findById(storeId)
                 .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "존재하지 않는 가게입니다."));
 
@@ -69,11 +78,16 @@ public class UserStarService {
             throw new StoresApiException(StoresErrorCode.FORBIDDEN, "폐업한 가게는 즐겨찾기할 수 없습니다.");
         }
 
-        Users user = usersRepo.findById(uid)
-                .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "존재하지 않는 사용자입니다."));
+        // 사용자 ID 는 토큰에서 꺼낸 값 → SELECT 없이 참조만 연결 (없는 사용자면 FK 위반)
+        Users user = usersRepo.getReferenceById(uid);
 
-        // 저장
-        starRepo.save(UserStar.builder().user(user).store(store).build());
+        // 저장 (동시 요청으로 인한 중복은 uk_user_store 제약으로 차단)
+        try {
+            starRepo.saveAndFlush(UserStar.builder().user(user).store(store).build());
+        } catch (DataIntegrityViolationException e) {
+            throw new StoresApiException(StoresErrorCode.CONFLICT, "이미 즐겨찾기한 가게입니다.");
+        }
+        starCache.addedAfterCommit(uid, storeId);
 
         // 간단 응답 메시지
         return store.getName() + "을(를) 즐겨찾기 등록했습니다.";
@@ -82,8 +96,8 @@ public class UserStarService {
     /**
      * 즐겨찾기 삭제
      * 1) 로그인 사용자 확인
-     * 2) 사용자-가게 조합으로 UserStar 조회
-     * 3) 삭제
+     * 2) 사용자-가게 조합으로 바로 삭제 (삭제된 행이 없으면 404)
+     * 3) 커밋 이후 Redis 집합/카운터 반영
      *
      * @param storeId 즐겨찾기 해제할 가게 ID
      * @return 사용자 메시지(가게명 포함)
@@ -91,12 +105,12 @@ public class UserStarService {
     @Transactional
     public String remove(Long storeId) {
         Long uid = currentUserIdOrThrow();
-        UserStar star = starRepo.findByUser_IdAndStore_Id(uid, storeId)
-                .orElseThrow(() -> new StoresApiException(StoresErrorCode.NOT_FOUND, "즐겨찾기된 내역이 없습니다."));
-
-        String storeName = star.getStore().getName();
-        starRepo.delete(star);
+        if (starRepo.deleteByUserIdAndStoreId(uid, storeId) == 0) {
+            throw new StoresApiException(StoresErrorCode.NOT_FOUND, "즐겨찾기된 내역이 없습니다.");
+        }
+        starCache.removedAfterCommit(uid, storeId);
 
+        String storeName = storesRepo.findById(storeId).map(Stores::getName).orElse("가게");
         return storeName + "을(를) 즐겨찾기 삭제했습니다.";
     }
 
@@ -104,6 +118,7 @@ public class UserStarService {
      * 즐겨찾기 목록 조회
      * - 기본은 전체를 등록 순(createdAt ASC)으로 반환
      * - onlyTop10=true면 최대 10개만 반환
+     * - 가게 정보는 fetch join 으로 한 번에 조회 (가게별 추가 쿼리 없음)
      *
      * @param onlyTop10 최대 10개만 조회할지 여부
      * @return 가게 요약 응답 DTO 리스트
@@ -112,9 +127,8 @@ public class UserStarService {
     public List<StarredStoreResponse> list(boolean onlyTop10) {
         Long uid = currentUserIdOrThrow();
 
-        var stars = onlyTop10
-                ? starRepo.findTop10ByUser_IdAndStore_ActiveTrueOrderByCreatedAtAsc(uid)
-                : starRepo.findAllByUser_IdAndStore_ActiveTrueOrderByCreatedAtAsc(uid);
+        var stars = starRepo.findWithStoreByUserId(uid,
+                onlyTop10 ? PageRequest.of(0, MAX_FAVORITES) : Pageable.unpaged());
 
         // 엔티티 → DTO 매핑
         return stars.stream().map(s -> StarredStoreResponse.builder()
@@ -124,39 +138,64 @@ public class UserStarService {
                 .build()).toList();
     }
 
+    /**
+     * 목록 페이지 표시용: 현재 사용자가 찜한 가게 ID
+     * - 비로그인/USER 가 아닌 경우 Optional.empty() (예외 없음)
+     * - 사용자 ID 는 토큰 details(uid)에서 꺼내므로 DB 조회 없음
+     */
+    public Optional<Set<Long>> starredAmong(Collection<Long> storeIds) {
+        Long uid = currentUserIdOrNull();
+        return (uid == null) ? Optional.empty() : Optional.of(starCache.starredAmong(uid, storeIds));
+    }
+
+    /** 목록 페이지 표시용: 가게별 찜 수 */
+    public Map<Long, Long> starCounts(Collection<Long> storeIds) {
+        return starCache.counts(storeIds);
+    }
+
     /**
      * 현재 로그인한 사용자의 ID 반환
+     * - 토큰 details(uid)에서 꺼내므로 DB 조회 없음 (세션 유효성은 JwtAuthenticationFilter 에서 검증)
      * - 인증 없음/잘못됨 → 401 Unauthorized
-     * - 사용자 미존재 → 401 Unauthorized
      * - 권한이 ROLE_USER가 아니면 → 403 Forbidden
      */
     private Long currentUserIdOrThrow() {
-        // SecurityContext 에서 현재 인증(Authentication) 객체를 가져옴
         var auth = SecurityContextHolder.getContext().getAuthentication();
-
-        // 인증 객체가 없거나(is null), 인증이 안 되었거나, 사용자 이름이 비어 있으면 → 401 Unauthorized
-        if (auth == null || !auth.isAuthenticated() || auth.getName() == null) {
+        if (auth == null || !auth.isAuthenticated() || !(auth.getDetails() instanceof Map<?, ?> details)) {
             throw new StoresApiException(StoresErrorCode.UNAUTHORIZED, "인증이 필요합니다.");
         }
 
-        // 인증 객체에서 사용자 이름(여기서는 email)을 꺼냄
-        String email = auth.getName();
-
-        // email 기반으로 Users 엔티티 조회, 없으면 → 401 Unauthorized
-        Users user = usersRepo.findByEmailIgnoreCaseAndDeletedFalse(email)
-                .orElseThrow(() -> new StoresApiException(StoresErrorCode.UNAUTHORIZED, "사용자를 찾을 수 없습니다."));
-
-        // 현재 사용자의 권한 목록에서 "USER" 권한이 있는지 확인
         boolean isUser = auth.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .anyMatch("USER"::equals);
-
-        // USER 권한이 없으면 → 403 Forbidden
         if (!isUser) {
             throw new StoresApiException(StoresErrorCode.FORBIDDEN, "즐겨찾기 기능은 USER만 가능합니다.");
         }
 
-        // 모든 검증을 통과하면 사용자 ID 반환
-        return user.getId();
+        Object uid = details.get("uid");
+        try {
+            if (uid != null) return Long.valueOf(uid.toString());
+        } catch (NumberFormatException ignored) {
+            // 아래에서 401
+        }
+        throw new StoresApiException(StoresErrorCode.UNAUTHORIZED, "사용자를 찾을 수 없습니다.");
+    }
+
+    // 토큰 details 의 uid (USER 권한일 때만), 없으면 null
+    private Long currentUserIdOrNull() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || !(auth.getDetails() instanceof Map<?, ?> details)) {
+            return null;
+        }
+        boolean isUser = auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("USER"::equals);
+        Object uid = details.get("uid");
+        if (!isUser || uid == null) return null;
+        try {
+            return Long.valueOf(uid.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
\ No newline at end of file
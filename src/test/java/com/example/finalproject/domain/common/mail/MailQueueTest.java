@@ -0,0 +1,250 @@
+package com.example.finalproject.domain.common.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * MailQueue 발송 테스트
+ * - 프로세스 내 SMTP 서버(GreenMail) 앞에 연결 수를 세는 중계기를 두고 spring.mail host/port 를 중계기로 지정
+ * - 중계기에서 4xx 인사(421)와 특정 도메인 RCPT 거절(550)을 흉내 냄
+ * - 연결 1개로 묶음 발송, 4xx 후 재시도, 수신 주소 오류 dead letter, 코드 메일 본문 미보관 확인
+ */
+class MailQueueTest {
+
+    private static final String REJECTED_DOMAIN = "invalid.test";
+    private static final int MAX_ATTEMPTS = 3;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private SmtpRelay relay;
+    private MailDeadLetterRepository deadLetterRepository;
+    private SimpleMeterRegistry registry;
+    private MailQueue mailQueue;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        relay = new SmtpRelay(greenMail.getSmtp().getPort(), REJECTED_DOMAIN);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(relay.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+
+        deadLetterRepository = mock(MailDeadLetterRepository.class);
+        registry = new SimpleMeterRegistry();
+        mailQueue = new MailQueue(mailSender, deadLetterRepository, registry);
+        ReflectionTestUtils.setField(mailQueue, "capacity", 100);
+        ReflectionTestUtils.setField(mailQueue, "connections", 1);
+        ReflectionTestUtils.setField(mailQueue, "batchSize", 20);
+        ReflectionTestUtils.setField(mailQueue, "idleCloseMs", 30_000L);
+        ReflectionTestUtils.setField(mailQueue, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(mailQueue, "backoffMs", 100L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailQueue.stop();
+        relay.close();
+    }
+
+    @Test
+    void batchIsSentOverOneConnection() {
+        mailQueue.start();
+        for (int i = 0; i < 5; i++) {
+            mailQueue.enqueue(OutgoingMail.text("no-reply@example.com", "user" + i + "@example.com", "subject " + i, "body " + i));
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 5)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(relay.connections()).isEqualTo(1);
+        assertThat(registry.counter("mail.sent").count()).isEqualTo(5);
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void temporaryFailureIsRetriedOnANewConnection() throws Exception {
+        relay.refuseNext(1);
+        mailQueue.start();
+        mailQueue.enqueue(OutgoingMail.text("no-reply@example.com", "user@example.com", "hello", "body"));
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertThat(received.getSubject()).isEqualTo("hello");
+        assertThat(relay.connections()).isEqualTo(2);
+        assertThat(registry.counter("mail.retries").count()).isEqualTo(1);
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectedRecipientIsDeadLetteredWithoutRetry() {
+        mailQueue.start();
+        mailQueue.enqueue(OutgoingMail.text("no-reply@example.com", "nobody@" + REJECTED_DOMAIN, "lost", "body"));
+        mailQueue.enqueue(OutgoingMail.text("no-reply@example.com", "user@example.com", "delivered", "body"));
+
+        ArgumentCaptor<MailDeadLetter> captor = ArgumentCaptor.forClass(MailDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(captor.capture());
+        MailDeadLetter dead = captor.getValue();
+        assertThat(dead.getTo()).isEqualTo("nobody@" + REJECTED_DOMAIN);
+        assertThat(dead.getAttempts()).isEqualTo(1);
+        assertThat(dead.getBody()).isEqualTo("body");
+
+        // 같은 연결로 다음 메일 발송
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(relay.connections()).isEqualTo(1);
+        assertThat(registry.counter("mail.retries").count()).isZero();
+        assertThat(registry.counter("mail.dead_letters").count()).isEqualTo(1);
+    }
+
+    @Test
+    void deadLetterOfCodeMailKeepsNoBody() {
+        mailQueue.start();
+        mailQueue.enqueue(OutgoingMail.text("no-reply@example.com", "nobody@" + REJECTED_DOMAIN,
+                "[Final Project] Password reset code", "인증코드: 123456\n유효시간: 10분").withOneTimeCode());
+
+        ArgumentCaptor<MailDeadLetter> captor = ArgumentCaptor.forClass(MailDeadLetter.class);
+        verify(deadLetterRepository, timeout(5000)).save(captor.capture());
+        MailDeadLetter dead = captor.getValue();
+        assertThat(dead.getSubject()).isEqualTo("[Final Project] Password reset code");
+        assertThat(dead.getBody()).isNull();
+    }
+
+    /**
+     * GreenMail 앞 SMTP 중계기
+     * - 받은 연결 수 집계
+     * - refuseNext(n): 다음 n개 연결은 421 인사 후 바로 종료
+     * - RCPT TO 가 거절 도메인이면 서버로 넘기지 않고 550 응답
+     */
+    private static final class SmtpRelay implements Closeable {
+
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final String rejectedDomain;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger refuse = new AtomicInteger();
+        private final ExecutorService threads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "smtp-relay");
+            t.setDaemon(true);
+            return t;
+        });
+
+        private SmtpRelay(int targetPort, String rejectedDomain) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.targetPort = targetPort;
+            this.rejectedDomain = rejectedDomain;
+            threads.execute(this::acceptLoop);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        void refuseNext(int n) {
+            refuse.set(n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            threads.shutdownNow();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket client = serverSocket.accept();
+                    connections.incrementAndGet();
+                    threads.execute(() -> relay(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void relay(Socket client) {
+            try (client) {
+                OutputStream toClient = client.getOutputStream();
+                if (refuse.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    write(toClient, "421 4.3.2 Service not available, try again later");
+                    return;
+                }
+                try (Socket upstream = new Socket(InetAddress.getLoopbackAddress(), targetPort)) {
+                    threads.execute(() -> pipe(upstream, toClient));
+                    BufferedReader fromClient = new BufferedReader(
+                            new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+                    OutputStream toServer = upstream.getOutputStream();
+                    String line;
+                    while ((line = fromClient.readLine()) != null) {
+                        if (line.toUpperCase(Locale.ROOT).startsWith("RCPT TO:") && line.contains("@" + rejectedDomain)) {
+                            write(toClient, "550 5.1.1 Recipient address rejected");
+                        } else {
+                            toServer.write((line + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                            toServer.flush();
+                        }
+                    }
+                }
+            } catch (IOException ignored) {
+                // 클라이언트/서버 연결 종료
+            }
+        }
+
+        private static void pipe(Socket upstream, OutputStream toClient) {
+            byte[] buf = new byte[8192];
+            try {
+                InputStream in = upstream.getInputStream();
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    synchronized (toClient) {
+                        toClient.write(buf, 0, n);
+                        toClient.flush();
+                    }
+                }
+            } catch (IOException ignored) {
+                // 연결 종료
+            }
+        }
+
+        private static void write(OutputStream toClient, String reply) throws IOException {
+            synchronized (toClient) {
+                toClient.write((reply + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                toClient.flush();
+            }
+        }
+    }
+}
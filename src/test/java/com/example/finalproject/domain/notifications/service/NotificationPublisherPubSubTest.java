@@ -0,0 +1,346 @@
+package com.example.finalproject.domain.notifications.service;
+
+import com.example.finalproject.domain.common.redis.RedisKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * NotificationPublisher 인스턴스 간 전달 테스트
+ * - 프로세스 내 Redis 대역(채널 → 구독 리스너, notify:seq INCR, 리스트)으로 인스턴스 2대를 연결
+ * - 개인 알림이 사용자가 연결된 인스턴스에만 전달되는지, 샤드 구독/해제, 전체 알림의 연결 단위 전달 수 확인
+ * - 이벤트 ID: notify:seq 공유, 초기화 후에도 이미 발급한 ID 재사용 없음, ID 발급 실패 시 발행 실패
+ * - 재전송: 연결이 끊긴 사이 발행된 개인 알림은 재연결 시 Redis 재전송 버퍼에서 받음
+ */
+class NotificationPublisherPubSubTest {
+
+    private static final int SHARDS = 4;
+
+    private StandInRedis redis;
+    private Instance a;
+    private Instance b;
+
+    @BeforeEach
+    void setUp() {
+        redis = new StandInRedis();
+        a = new Instance(redis);
+        b = new Instance(redis);
+    }
+
+    @AfterEach
+    void tearDown() {
+        a.broadcaster.shutdownExecutor();
+        b.broadcaster.shutdownExecutor();
+    }
+
+    @Test
+    void personalNotificationReachesOnlyTheInstanceHoldingTheConnection() throws Exception {
+        CapturingEmitter emitter = b.connect(7L);
+        String shard = RedisKeys.notifyUserChannel(7 % SHARDS);
+
+        assertThat(redis.subscribers(shard)).containsExactly(b.publisher);
+
+        a.publisher.publishToUser(7L, "notification", "hello-7");
+
+        assertThat(emitter.await("hello-7")).isTrue();
+        assertThat(redis.deliveredTo(shard)).containsExactly(b.publisher);
+    }
+
+    @Test
+    void shardIsUnsubscribedWhenItsLastLocalConnectionCloses() throws Exception {
+        CapturingEmitter emitter = b.connect(5L);
+        String shard = RedisKeys.notifyUserChannel(5 % SHARDS);
+        assertThat(redis.subscribers(shard)).containsExactly(b.publisher);
+
+        // 다음 전송에서 소켓 오류 → 연결 해제 → 샤드 구독 해제
+        emitter.failSends = true;
+        a.publisher.publishToUser(5L, "notification", "bye-5");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!redis.subscribers(shard).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(redis.subscribers(shard)).isEmpty();
+        assertThat(redis.subscribers(RedisKeys.notifyAllChannel())).containsExactlyInAnyOrder(a.publisher, b.publisher);
+    }
+
+    @Test
+    void replayAfterReconnectIncludesEventsPublishedWhileDisconnected() throws Exception {
+        CapturingEmitter emitter = b.connect(9L);
+        String shard = RedisKeys.notifyUserChannel(9 % SHARDS);
+        a.publisher.publishToUser(9L, "notification", "while-connected");
+        assertThat(emitter.await("while-connected")).isTrue();
+        long lastEventId = a.publisher.currentSequence();
+
+        // 연결 해제 → 샤드 구독 해제, 그 사이 발행된 알림은 b 가 받지 못함
+        emitter.failSends = true;
+        a.publisher.publishToUser(9L, "notification", "lost-on-send");
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!redis.subscribers(shard).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(redis.subscribers(shard)).isEmpty();
+        a.publisher.publishToUser(9L, "notification", "while-away");
+
+        // b 로 재연결 (Last-Event-ID = 마지막으로 받은 ID)
+        assertThat(b.replayBuffer.since(9L, lastEventId))
+                .extracting(NotificationPublisher.NotificationEvent::data)
+                .containsExactly("lost-on-send", "while-away");
+    }
+
+    @Test
+    void broadcastReportsPerConnectionDeliveryAcrossInstances() throws Exception {
+        CapturingEmitter onA = a.connect(1L);
+        CapturingEmitter onB1 = b.connect(2L);
+        CapturingEmitter onB2 = b.connect(2L);
+
+        NotificationPublisher.BroadcastDelivery delivery = a.publisher.publishBroadcast("broadcast", "to-all");
+
+        assertThat(delivery.instances()).isEqualTo(2);
+        assertThat(delivery.reported()).isEqualTo(2);
+        assertThat(delivery.queued()).isEqualTo(3);
+        assertThat(delivery.evicted()).isZero();
+        assertThat(onA.await("to-all")).isTrue();
+        assertThat(onB1.await("to-all")).isTrue();
+        assertThat(onB2.await("to-all")).isTrue();
+    }
+
+    @Test
+    void eventIdsComeFromTheSharedSequence() throws Exception {
+        CapturingEmitter emitter = b.connect(3L);
+
+        a.publisher.publishToUser(3L, "notification", "first");
+        b.publisher.publishToUser(3L, "notification", "second");
+
+        assertThat(emitter.await("id:1")).isTrue();
+        assertThat(emitter.await("id:2")).isTrue();
+    }
+
+    @Test
+    void sequenceResetDoesNotReissueIdsAlreadyHandedOut() throws Exception {
+        CapturingEmitter emitter = b.connect(4L);
+        a.publisher.publishToUser(4L, "notification", "before-reset");
+        a.publisher.publishToUser(4L, "notification", "before-reset-2");
+        assertThat(emitter.await("id:2")).isTrue();
+
+        redis.seq.set(0); // notify:seq 유실
+        a.publisher.publishToUser(4L, "notification", "after-reset");
+
+        assertThat(emitter.await("id:3")).isTrue();
+        assertThat(a.publisher.currentSequence()).isEqualTo(3);
+    }
+
+    @Test
+    void publishFailsInsteadOfFallingBackToALocalId() {
+        StringRedisTemplate broken = redis.template();
+        doThrow(new IllegalStateException("redis down"))
+                .when(broken).execute(any(RedisScript.class), anyList(), any());
+        NotificationPublisher publisher = new NotificationPublisher(broken, redis.container(), a.broadcaster,
+                mock(NotificationReplayBuffer.class), new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(publisher, "enabled", true);
+        ReflectionTestUtils.setField(publisher, "shards", SHARDS);
+
+        assertThatThrownBy(() -> publisher.publishToUser(1L, "notification", "lost"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // 인스턴스 1대 = SseBroadcaster + NotificationPublisher (Redis 대역 공유)
+    private static final class Instance {
+        private final SseBroadcaster broadcaster = new SseBroadcaster();
+        private final NotificationReplayBuffer replayBuffer;
+        private final NotificationPublisher publisher;
+
+        private Instance(StandInRedis redis) {
+            ReflectionTestUtils.setField(broadcaster, "queueCapacity", 64);
+            ReflectionTestUtils.setField(broadcaster, "senderThreads", 2);
+            ReflectionTestUtils.setField(broadcaster, "sendTimeoutMs", 5000L);
+            broadcaster.initExecutor();
+
+            replayBuffer = new NotificationReplayBuffer(redis.template(), new ObjectMapper());
+            ReflectionTestUtils.setField(replayBuffer, "size", 50);
+            ReflectionTestUtils.setField(replayBuffer, "ttlMinutes", 60L);
+            ReflectionTestUtils.setField(replayBuffer, "memoryUsers", 100);
+            replayBuffer.initRings();
+
+            publisher = new NotificationPublisher(redis.template(), redis.container(), broadcaster,
+                    replayBuffer, new ObjectMapper(), new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(publisher, "enabled", true);
+            ReflectionTestUtils.setField(publisher, "shards", SHARDS);
+            ReflectionTestUtils.setField(publisher, "deliveryWaitMs", 500L);
+            publisher.subscribe();
+        }
+
+        private CapturingEmitter connect(Long userId) {
+            CapturingEmitter emitter = new CapturingEmitter();
+            broadcaster.register(userId, emitter, List::of);
+            return emitter;
+        }
+    }
+
+    // 보낸 내용을 문자열로 모아 두는 emitter
+    private static final class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final List<String> seen = new ArrayList<>();
+        private volatile boolean failSends;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failSends) throw new IOException("broken pipe");
+            StringBuilder sb = new StringBuilder();
+            for (DataWithMediaType item : items) sb.append(item.getData());
+            sent.add(sb.toString());
+        }
+
+        private boolean await(String fragment) throws InterruptedException {
+            if (seen.stream().anyMatch(s -> s.contains(fragment))) return true;
+            long deadline = System.currentTimeMillis() + 2000;
+            while (System.currentTimeMillis() < deadline) {
+                String s = sent.poll(50, TimeUnit.MILLISECONDS);
+                if (s == null) continue;
+                seen.add(s);
+                if (s.contains(fragment)) return true;
+            }
+            return false;
+        }
+    }
+
+    // 프로세스 내 Redis 대역: 채널 구독/발행(동기 전달), INCR, 리스트, 재전송 ZSET
+    private static final class StandInRedis {
+        private final Map<String, Set<MessageListener>> channels = new ConcurrentHashMap<>();
+        private final Map<String, List<MessageListener>> deliveries = new ConcurrentHashMap<>();
+        private final Map<String, List<String>> lists = new ConcurrentHashMap<>();
+        private final Map<String, ConcurrentSkipListMap<Double, String>> zsets = new ConcurrentHashMap<>();
+        private final AtomicLong seq = new AtomicLong();
+
+        @SuppressWarnings("unchecked")
+        private StringRedisTemplate template() {
+            StringRedisTemplate template = mock(StringRedisTemplate.class);
+            ValueOperations<String, String> values = mock(ValueOperations.class);
+            ListOperations<String, String> listOps = mock(ListOperations.class);
+            when(template.opsForValue()).thenReturn(values);
+            when(template.opsForList()).thenReturn(listOps);
+            when(values.get(RedisKeys.notifySeq())).thenAnswer(inv -> String.valueOf(seq.get()));
+            // NEXT_SEQ 스크립트: INCR, 마지막 발급 ID 이하면 그 위로 재설정 후 INCR
+            when(template.execute(any(RedisScript.class), anyList(), any())).thenAnswer(inv -> {
+                long floor = Long.parseLong(inv.getArgument(2));
+                synchronized (seq) {
+                    long v = seq.incrementAndGet();
+                    if (v <= floor) {
+                        seq.set(floor);
+                        v = seq.incrementAndGet();
+                    }
+                    return v;
+                }
+            });
+            when(listOps.rightPush(anyString(), anyString())).thenAnswer(inv -> {
+                List<String> list = lists.computeIfAbsent(inv.getArgument(0), k -> new CopyOnWriteArrayList<>());
+                list.add(inv.getArgument(1));
+                return (long) list.size();
+            });
+            when(listOps.range(anyString(), anyLong(), anyLong()))
+                    .thenAnswer(inv -> List.copyOf(lists.getOrDefault(inv.getArgument(0), List.of())));
+            when(template.convertAndSend(anyString(), any()))
+                    .thenAnswer(inv -> publish(inv.getArgument(0), inv.getArgument(1)));
+
+            // 재전송 버퍼: 파이프라인 ZADD 기록, ZRANGEBYSCORE 조회 (자르기/만료는 생략)
+            StringRedisConnection connection = mock(StringRedisConnection.class);
+            when(connection.zAdd(anyString(), anyDouble(), anyString())).thenAnswer(inv -> {
+                zsets.computeIfAbsent(inv.getArgument(0), k -> new ConcurrentSkipListMap<>())
+                        .put(inv.getArgument(1), inv.getArgument(2));
+                return true;
+            });
+            when(template.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+                ((RedisCallback<?>) inv.getArgument(0)).doInRedis(connection);
+                return List.of();
+            });
+            ZSetOperations<String, String> zsetOps = mock(ZSetOperations.class);
+            when(template.opsForZSet()).thenReturn(zsetOps);
+            when(zsetOps.rangeByScore(anyString(), anyDouble(), anyDouble())).thenAnswer(inv -> {
+                ConcurrentSkipListMap<Double, String> zset = zsets.getOrDefault(inv.getArgument(0), new ConcurrentSkipListMap<>());
+                return new LinkedHashSet<>(zset.subMap(inv.getArgument(1), true, inv.getArgument(2), true).values());
+            });
+            return template;
+        }
+
+        private RedisMessageListenerContainer container() {
+            RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+            doAnswer(inv -> {
+                channels.computeIfAbsent(topic(inv.getArgument(1)), k -> ConcurrentHashMap.newKeySet())
+                        .add(inv.getArgument(0));
+                return null;
+            }).when(container).addMessageListener(any(MessageListener.class), any(Topic.class));
+            doAnswer(inv -> {
+                Set<MessageListener> listeners = channels.get(topic(inv.getArgument(1)));
+                if (listeners != null) listeners.remove(inv.getArgument(0));
+                return null;
+            }).when(container).removeMessageListener(any(MessageListener.class), any(Topic.class));
+            return container;
+        }
+
+        private long publish(String channel, Object message) {
+            Set<MessageListener> listeners = Set.copyOf(channels.getOrDefault(channel, Set.of()));
+            DefaultMessage msg = new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8),
+                    message.toString().getBytes(StandardCharsets.UTF_8));
+            for (MessageListener listener : listeners) {
+                deliveries.computeIfAbsent(channel, k -> new CopyOnWriteArrayList<>()).add(listener);
+                listener.onMessage(msg, null);
+            }
+            return listeners.size();
+        }
+
+        private Set<MessageListener> subscribers(String channel) {
+            return Set.copyOf(channels.getOrDefault(channel, Set.of()));
+        }
+
+        private List<MessageListener> deliveredTo(String channel) {
+            return List.copyOf(deliveries.getOrDefault(channel, List.of()));
+        }
+
+        private static String topic(Topic topic) {
+            return ((ChannelTopic) topic).getTopic();
+        }
+    }
+}
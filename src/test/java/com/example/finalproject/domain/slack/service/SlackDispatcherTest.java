@@ -0,0 +1,200 @@
+package com.example.finalproject.domain.slack.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SlackDispatcher 전송 테스트
+ * - slack.api-url 을 프로세스 내 HTTP 스텁 서버(JDK HttpServer)로 지정, chat.postMessage 응답을 순서대로 지정
+ * - 전송 간격 중 쌓인 메시지 합치기, 429 Retry-After 대기, 5xx 백오프 재시도와 max-attempts 초과 시 포기 확인
+ */
+class SlackDispatcherTest {
+
+    private static final String CHANNEL = "C-TEST";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private HttpServer server;
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    // 스텁 응답 순서 (마지막 응답은 계속 반복)
+    private final ConcurrentLinkedDeque<Reply> replies = new ConcurrentLinkedDeque<>();
+
+    private SimpleMeterRegistry registry;
+    private SlackDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/chat.postMessage", this::handle);
+        server.start();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) dispatcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void messagesQueuedDuringTheIntervalAreSentAsOneDigest() throws Exception {
+        reply(200, null);
+        start(500);
+
+        dispatcher.enqueue(CHANNEL, "first");
+        assertThat(nextRequest().text()).isEqualTo("first");
+
+        // 첫 요청 직후 최소 간격 안에 쌓인 메시지 → 요약 1건
+        for (int i = 0; i < 3; i++) dispatcher.enqueue(CHANNEL, "새 주문이 들어왔습니다.");
+
+        Request digest = nextRequest();
+        assertThat(digest.text()).isEqualTo("새 주문이 들어왔습니다. (최근 1초간 3건)");
+        assertThat(requests.poll(700, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(counter("slack.dispatch.messages")).isEqualTo(4);
+    }
+
+    @Test
+    void rateLimitedRequestWaitsForRetryAfter() throws Exception {
+        reply(429, "1");
+        reply(200, null);
+        start(50);
+
+        dispatcher.enqueue(CHANNEL, "hello");
+
+        Request limited = nextRequest();
+        Request retried = nextRequest();
+        assertThat(retried.text()).isEqualTo("hello");
+        assertThat(retried.at() - limited.at()).isGreaterThanOrEqualTo(1000);
+        assertThat(counter("slack.dispatch.rate_limited")).isEqualTo(1);
+        assertThat(counter("slack.dispatch.messages")).isEqualTo(1);
+        assertThat(counter("slack.dispatch.failed")).isZero();
+    }
+
+    @Test
+    void serverErrorsBackOffAndGiveUpAfterMaxAttempts() throws Exception {
+        reply(500, null);
+        start(20);
+
+        dispatcher.enqueue(CHANNEL, "hello");
+
+        await(() -> counter("slack.dispatch.failed") == 1);
+        List<Request> sent = drainRequests();
+        assertThat(sent).hasSize(MAX_ATTEMPTS);
+        // 백오프: 두 번째 대기는 첫 번째 대기(backoff-ms)의 2배 이상
+        long firstWait = sent.get(1).at() - sent.get(0).at();
+        long secondWait = sent.get(2).at() - sent.get(1).at();
+        assertThat(firstWait).isGreaterThanOrEqualTo(100);
+        assertThat(secondWait).isGreaterThanOrEqualTo(200);
+        assertThat(counter("slack.dispatch.retries")).isEqualTo(MAX_ATTEMPTS - 1);
+
+        // 포기한 뒤에는 더 보내지 않음
+        assertThat(requests.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void repeatedRateLimitsCountTowardsMaxAttempts() throws Exception {
+        reply(429, "0");
+        start(20);
+
+        dispatcher.enqueue(CHANNEL, "hello");
+
+        await(() -> counter("slack.dispatch.failed") == 1);
+        assertThat(drainRequests()).hasSize(MAX_ATTEMPTS);
+        assertThat(counter("slack.dispatch.rate_limited")).isEqualTo(MAX_ATTEMPTS);
+        assertThat(requests.poll(300, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private void start(long minIntervalMs) {
+        dispatcher = new SlackDispatcher(registry);
+        ReflectionTestUtils.setField(dispatcher, "token", "xoxb-test");
+        ReflectionTestUtils.setField(dispatcher, "apiUrl", "http://localhost:" + server.getAddress().getPort() + "/");
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "minIntervalMs", minIntervalMs);
+        ReflectionTestUtils.setField(dispatcher, "maxBatch", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "backoffMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "threads", 1);
+        dispatcher.init();
+    }
+
+    private void reply(int status, String retryAfter) {
+        replies.addLast(new Reply(status, retryAfter));
+    }
+
+    private double counter(String name) {
+        return registry.counter(name, "channel", CHANNEL).count();
+    }
+
+    private Request nextRequest() throws InterruptedException {
+        Request r = requests.poll(5, TimeUnit.SECONDS);
+        assertThat(r).as("chat.postMessage 요청").isNotNull();
+        return r;
+    }
+
+    private List<Request> drainRequests() {
+        List<Request> sent = new ArrayList<>();
+        requests.drainTo(sent);
+        return sent;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("대기 시간 초과").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long at = System.currentTimeMillis();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new Request(formParam(body, "text"), at));
+
+        Reply reply = (replies.size() > 1) ? replies.pollFirst() : replies.peekFirst();
+        byte[] out = (reply.status() == 200
+                ? "{\"ok\":true,\"channel\":\"" + CHANNEL + "\",\"ts\":\"1.0\"}"
+                : "{\"ok\":false}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (reply.retryAfter() != null) {
+            exchange.getResponseHeaders().set("Retry-After", reply.retryAfter());
+        }
+        exchange.sendResponseHeaders(reply.status(), out.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(out);
+        }
+    }
+
+    // application/x-www-form-urlencoded 본문에서 값 1개
+    private static String formParam(String body, String name) {
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private record Request(String text, long at) {}
+
+    private record Reply(int status, String retryAfter) {}
+}